@@ -27,6 +27,7 @@
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -363,6 +364,127 @@ public void testMoveFolder(boolean autoStageMoves) throws Exception {
 		assertNotNull(dirCache.getEntry("folder2/file.txt"));
 	}
 
+	/**
+	 * Move a folder with several files and another file in one workspace
+	 * operation. The index is written once when the operation ends.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testMoveFolderBatched() throws Exception {
+		configureAutoStageMoves(true);
+
+		TestProject project = initRepoInsideProjectInsideWorkspace();
+		IProject p = project.getProject();
+		String[] paths = { "folder/a.txt", "folder/b.txt",
+				"folder/sub/c.txt", "file.txt" };
+		IResource[] files = new IResource[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			files[i] = testUtils.addFileToProject(p, paths[i], paths[i]);
+		}
+		new AddToIndexOperation(files).execute(null);
+
+		DirCache dirCache = DirCache.read(repository.getIndexFile(),
+				FS.DETECTED);
+		ObjectId oldContentId = dirCache.getEntry("folder/sub/c.txt")
+				.getObjectId();
+		ResourcesPlugin.getWorkspace().run(m -> {
+			p.getFolder("folder").move(p.getFolder("dir").getFullPath(),
+					false, null);
+			p.getFile("file.txt").move(p.getFile("data.txt").getFullPath(),
+					false, null);
+			// Not written yet
+			try {
+				dirCache.read();
+			} catch (IOException e) {
+				throw new CoreException(
+						Activator.error(e.getMessage(), e));
+			}
+			assertNotNull(dirCache.getEntry("folder/a.txt"));
+			assertNull(dirCache.getEntry("dir/a.txt"));
+		}, p, IWorkspace.AVOID_UPDATE, null);
+
+		dirCache.read();
+		assertEquals(paths.length, dirCache.getEntryCount());
+		assertNotNull(dirCache.getEntry("dir/a.txt"));
+		assertNotNull(dirCache.getEntry("dir/b.txt"));
+		assertNotNull(dirCache.getEntry("data.txt"));
+		assertEquals(oldContentId,
+				dirCache.getEntry("dir/sub/c.txt").getObjectId());
+	}
+
+	/**
+	 * Delete a file while the index is locked. The deletion is staged once
+	 * the index is unlocked again.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testDeleteFileWithLockedIndex() throws Exception {
+		IEclipsePreferences p = InstanceScope.INSTANCE
+				.getNode(Activator.PLUGIN_ID);
+		p.putBoolean(GitCorePreferences.core_autoStageDeletion, true);
+
+		TestProject project = initRepoInsideProjectInsideWorkspace();
+		IFile file = testUtils.addFileToProject(project.getProject(),
+				"file.txt", "some text");
+		testUtils.addFileToProject(project.getProject(), "file2.txt",
+				"some more text");
+		new AddToIndexOperation(new IResource[] { file,
+				project.getProject().getFile("file2.txt") }).execute(null);
+
+		DirCache locked = repository.lockDirCache();
+		try {
+			file.delete(true, null);
+			// Let the first retry fail, too
+			Thread.sleep(1500);
+			DirCache dirCache = DirCache.read(repository.getIndexFile(),
+					FS.DETECTED);
+			assertNotNull(dirCache.getEntry("file.txt"));
+		} finally {
+			locked.unlock();
+		}
+
+		long deadline = System.currentTimeMillis() + 10000;
+		DirCache dirCache;
+		do {
+			Thread.sleep(100);
+			dirCache = DirCache.read(repository.getIndexFile(), FS.DETECTED);
+		} while (dirCache.getEntry("file.txt") != null
+				&& System.currentTimeMillis() < deadline);
+		assertNull(dirCache.getEntry("file.txt"));
+		assertNotNull(dirCache.getEntry("file2.txt"));
+	}
+
+	/**
+	 * Rename "file.txt" to "File.txt", which on case-insensitive file systems
+	 * is the same file.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testRenameFileCaseOnly() throws Exception {
+		configureAutoStageMoves(true);
+
+		TestProject project = initRepoInsideProjectInsideWorkspace();
+		IFile file = testUtils.addFileToProject(project.getProject(),
+				"file.txt", "some text");
+		new AddToIndexOperation(new IResource[] { file }).execute(null);
+
+		DirCache dirCache = DirCache.read(repository.getIndexFile(),
+				FS.DETECTED);
+		ObjectId oldContentId = dirCache.getEntry("file.txt").getObjectId();
+		file.move(project.getProject().getFile("File.txt").getFullPath(),
+				false, null);
+
+		dirCache.read();
+		assertEquals(1, dirCache.getEntryCount());
+		assertNull(dirCache.getEntry("file.txt"));
+		assertNotNull(dirCache.getEntry("File.txt"));
+		assertEquals(oldContentId,
+				dirCache.getEntry("File.txt").getObjectId());
+	}
+
 	/**
 	 * Rename and move a project in the workspace containing a Git repository.
 	 * <p>
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CommitRefIndexTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	private RevCommit first;
+
+	private RevCommit second;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		first = git.commit().setMessage("First").call();
+		second = git.commit().setMessage("Second").call();
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testBranches() throws Exception {
+		createRef("refs/remotes/origin/master", first);
+		createRef("refs/remotes/origin/a", second);
+		createRef("refs/heads/b", first);
+		createRef("refs/heads/a", first);
+		CommitRefIndex index = CommitRefIndex.create(repository);
+		assertEquals("refs/heads/b", index.get(first));
+		// HEAD reflog has no checkout yet
+		assertEquals("refs/heads/master", index.get(second));
+	}
+
+	@Test
+	public void testRemoteBranches() throws Exception {
+		createRef("refs/remotes/origin/a", first);
+		createRef("refs/remotes/origin/b", first);
+		CommitRefIndex index = CommitRefIndex.create(repository);
+		assertEquals("refs/remotes/origin/b", index.get(first));
+	}
+
+	@Test
+	public void testTagsBeforeBranches() throws Exception {
+		createRef("refs/heads/a", first);
+		git.tag().setName("light").setObjectId(first).setAnnotated(false)
+				.call();
+		CommitRefIndex index = CommitRefIndex.create(repository);
+		assertEquals("refs/tags/light", index.get(first));
+	}
+
+	@Test
+	public void testNewestTag() throws Exception {
+		PersonIdent old = new PersonIdent("Tagger", "tagger@example.com",
+				1_000_000_000_000L, 0);
+		PersonIdent recent = new PersonIdent("Tagger", "tagger@example.com",
+				2_000_000_000_000L, 0);
+		git.tag().setName("z-old").setObjectId(first).setTagger(old).call();
+		git.tag().setName("a-recent").setObjectId(first).setTagger(recent)
+				.call();
+		CommitRefIndex index = CommitRefIndex.create(repository);
+		assertEquals("refs/tags/a-recent", index.get(first));
+	}
+
+	@Test
+	public void testCheckedOutBranch() throws Exception {
+		git.branchCreate().setName("topic").setStartPoint(second).call();
+		git.checkout().setName("topic").call();
+		CommitRefIndex index = CommitRefIndex.create(repository);
+		assertEquals("topic", index.get(second));
+		assertNull(index.get(first));
+	}
+
+	private void createRef(String name, RevCommit commit) throws Exception {
+		RefUpdate update = repository.updateRef(name);
+		update.setNewObjectId(commit);
+		update.forceUpdate();
+	}
+}
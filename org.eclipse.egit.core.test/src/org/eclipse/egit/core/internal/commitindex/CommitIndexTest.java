@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.commitindex;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CommitIndexTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	private File file;
+
+	private File log;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		file = new File(tmp.getRoot(), "index/commits.idx");
+		log = new File(tmp.getRoot(), "index/commits.idx.log");
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testUpdate() throws Exception {
+		RevCommit first = commit("First");
+		RevCommit second = commit("Second\n\nWith a body");
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		assertEquals(0, index.size());
+		assertTrue(index.update(repository, new NullProgressMonitor()));
+		assertEquals(2, index.size());
+
+		CommitIndex.Entry entry = index.lookup(second);
+		assertNotNull(entry);
+		assertEquals("Second\n\nWith a body", entry.getMessage());
+		assertEquals("Author", entry.getAuthorName());
+		assertEquals("author@example.com", entry.getAuthorEmail());
+		assertEquals("Committer", entry.getCommitterName());
+		assertEquals(second.getTree(), entry.getTree());
+		assertEquals(1, entry.getParents().length);
+		assertEquals(first, entry.getParents()[0]);
+		assertEquals(second.getCommitTime(), entry.getCommitTime());
+
+		assertEquals(ids(second, first), reachable(index, second));
+		assertEquals(ids(first), reachable(index, first));
+	}
+
+	@Test
+	public void testIncrementalUpdate() throws Exception {
+		RevCommit first = commit("First");
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		index.update(repository, new NullProgressMonitor());
+		assertFalse(index.update(repository, new NullProgressMonitor()));
+
+		RevCommit second = commit("Second");
+		assertNull(index.lookup(second));
+		assertFalse(index.forEachReachable(Collections.singleton(second),
+				entry -> {
+					// Not called
+				}, new NullProgressMonitor()));
+		assertTrue(index.update(repository, new NullProgressMonitor()));
+		assertEquals(2, index.size());
+		assertEquals(ids(second, first), reachable(index, second));
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		RevCommit first = commit("First");
+		RevCommit second = commit("Second");
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		index.update(repository, new NullProgressMonitor());
+		assertTrue(file.isFile());
+
+		CommitIndex loaded = CommitIndex.load(file,
+				repository.getDirectory());
+		assertEquals(2, loaded.size());
+		assertEquals("Second", loaded.lookup(second).getMessage());
+		assertEquals(ids(second, first), reachable(loaded, second));
+		assertFalse(loaded.update(repository, new NullProgressMonitor()));
+
+		CommitIndex other = CommitIndex.load(file, tmp.newFolder("other"));
+		assertEquals(0, other.size());
+	}
+
+	@Test
+	public void testUpdatesAppendedToLog() throws Exception {
+		commitHistory();
+		RevCommit first = commit("First");
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		index.update(repository, new NullProgressMonitor());
+		assertFalse(log.exists());
+		byte[] indexFile = Files.readAllBytes(file.toPath());
+
+		RevCommit second = commit("Second");
+		index.update(repository, new NullProgressMonitor());
+		git.branchCreate().setName("other").setStartPoint(first).call();
+		assertFalse(index.update(repository, new NullProgressMonitor()));
+		assertTrue(log.isFile());
+		assertArrayEquals(indexFile, Files.readAllBytes(file.toPath()));
+
+		CommitIndex loaded = CommitIndex.load(file,
+				repository.getDirectory());
+		assertEquals(index.size(), loaded.size());
+		assertEquals(second, reachable(loaded, second).get(0));
+		assertEquals(first, reachable(loaded, second).get(1));
+		assertFalse(loaded.update(repository, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void testLogCompacted() throws Exception {
+		commit("First");
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		index.update(repository, new NullProgressMonitor());
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			message.append("Line ").append(i).append('\n');
+		}
+		commit(message.toString());
+		index.update(repository, new NullProgressMonitor());
+		assertTrue(log.length() > file.length() / 4);
+
+		RevCommit third = commit("Third");
+		index.update(repository, new NullProgressMonitor());
+		assertFalse(log.exists());
+		CommitIndex loaded = CommitIndex.load(file,
+				repository.getDirectory());
+		assertEquals(3, loaded.size());
+		assertEquals(3, reachable(loaded, third).size());
+	}
+
+	@Test
+	public void testTruncatedLog() throws Exception {
+		commitHistory();
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		index.update(repository, new NullProgressMonitor());
+		int size = index.size();
+		RevCommit second = commit("Second");
+		index.update(repository, new NullProgressMonitor());
+		RevCommit third = commit("Third");
+		index.update(repository, new NullProgressMonitor());
+		assertTrue(log.isFile());
+		try (RandomAccessFile raf = new RandomAccessFile(log, "rw")) {
+			raf.setLength(log.length() - 3);
+		}
+
+		CommitIndex loaded = CommitIndex.load(file,
+				repository.getDirectory());
+		assertEquals(size + 1, loaded.size());
+		assertNotNull(loaded.lookup(second));
+		assertNull(loaded.lookup(third));
+
+		assertTrue(loaded.update(repository, new NullProgressMonitor()));
+		assertFalse(log.exists());
+		assertEquals(size + 2,
+				CommitIndex.load(file, repository.getDirectory()).size());
+	}
+
+	@Test
+	public void testInvalidStringLength() throws Exception {
+		file.getParentFile().mkdirs();
+		try (DataOutputStream out = new DataOutputStream(
+				new DeflaterOutputStream(
+						Files.newOutputStream(file.toPath())))) {
+			out.writeInt(CommitIndex.VERSION);
+			byte[] gitDir = repository.getDirectory().getAbsolutePath()
+					.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(gitDir.length);
+			out.write(gitDir);
+			out.writeLong(0);
+			out.writeInt(0); // tips
+			out.writeInt(1); // entries
+			out.write(new byte[40]); // id and tree
+			out.writeShort(0); // parents
+			out.writeInt(0); // commit time
+			out.writeInt(Integer.MAX_VALUE); // author name
+		}
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		assertEquals(0, index.size());
+
+		commit("First");
+		assertTrue(index.update(repository, new NullProgressMonitor()));
+		assertEquals(1,
+				CommitIndex.load(file, repository.getDirectory()).size());
+	}
+
+	@Test
+	public void testDelete() throws Exception {
+		commitHistory();
+		CommitIndex index = CommitIndex.load(file,
+				repository.getDirectory());
+		index.update(repository, new NullProgressMonitor());
+		commit("Second");
+		index.update(repository, new NullProgressMonitor());
+		assertTrue(log.isFile());
+		CommitIndex.delete(file);
+		assertFalse(file.exists());
+		assertFalse(log.exists());
+	}
+
+	@Test
+	public void testReadGitDir() throws Exception {
+		commit("First");
+		CommitIndex.load(file, repository.getDirectory())
+				.update(repository, new NullProgressMonitor());
+		assertEquals(repository.getDirectory().getAbsolutePath(),
+				CommitIndex.readGitDir(file));
+	}
+
+	// Creates enough commits for a few more to go to the log
+	private void commitHistory() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			commit("Commit " + i);
+		}
+	}
+
+	private RevCommit commit(String message) throws Exception {
+		return git.commit().setAllowEmpty(true).setMessage(message)
+				.setAuthor("Author", "author@example.com")
+				.setCommitter("Committer", "committer@example.com").call();
+	}
+
+	private static List<ObjectId> ids(ObjectId... ids) {
+		List<ObjectId> result = new ArrayList<>();
+		for (ObjectId id : ids) {
+			result.add(id.copy());
+		}
+		return result;
+	}
+
+	private static List<ObjectId> reachable(CommitIndex index,
+			ObjectId start) throws Exception {
+		List<ObjectId> result = new ArrayList<>();
+		assertTrue(index.forEachReachable(Collections.singleton(start),
+				entry -> result.add(entry.copy()),
+				new NullProgressMonitor()));
+		return result;
+	}
+}
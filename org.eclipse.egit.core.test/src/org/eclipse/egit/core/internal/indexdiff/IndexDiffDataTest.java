@@ -10,81 +10,120 @@
  *******************************************************************************/
 package org.eclipse.egit.core.internal.indexdiff;
 
-import static java.util.Arrays.asList;
-import static org.eclipse.egit.core.internal.indexdiff.IndexDiffData.isAnyPrefixOf;
-import static org.eclipse.egit.core.internal.indexdiff.IndexDiffData.mergeIgnored;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.eclipse.egit.core.test.GitTestCase;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
-public class IndexDiffDataTest extends GitTestCase {
+public class IndexDiffDataTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Repository repository;
+
+	@Before
+	public void setUp() throws Exception {
+		Git git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		write(Constants.GITIGNORE_FILENAME, "*.log\nbuild/\n");
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage("Initial").call();
+		write("a.log", "a");
+		write("b.log", "b");
+		write("build/out.txt", "out");
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
 
 	@Test
-	public void testIsAnyPrefixOf() {
-		Collection<String> possiblePrefixes = asList("", "/");
-		assertTrue(isAnyPrefixOf("", possiblePrefixes));
+	public void testMergeIgnored() throws Exception {
+		IndexDiffData base = diff(null);
+		assertEquals(set("a.log", "b.log", "build"),
+				base.getIgnoredNotInIndex());
+
+		// Unchanged paths keep their state, changed ones get the new one
+		write("a.log", "changed");
+		new File(repository.getWorkTree(), "b.log").delete();
+		write("c.log", "c");
+		IndexDiffData merged = merge(base, "a.log", "b.log", "c.log");
+		assertEquals(set("a.log", "build", "c.log"),
+				merged.getIgnoredNotInIndex());
+		assertEquals(set("a.log", "b.log", "build"),
+				base.getIgnoredNotInIndex());
+
+		// Other changes leave the ignored paths alone
+		write("b.txt", "b");
+		merged = merge(merged, "b.txt");
+		assertEquals(set("a.log", "build", "c.log"),
+				merged.getIgnoredNotInIndex());
+		assertEquals(set("b.txt"), merged.getUntracked());
+	}
 
-		possiblePrefixes = asList("", "/");
-		assertTrue(isAnyPrefixOf("/", possiblePrefixes));
+	@Test
+	public void testMergeIgnoredFolder() throws Exception {
+		IndexDiffData base = diff(null);
+		FileUtils.delete(new File(repository.getWorkTree(), "build"),
+				FileUtils.RECURSIVE);
+
+		// A changed folder invalidates everything below it
+		IndexDiffData merged = merge(base, "build/");
+		assertEquals(set("a.log", "b.log"), merged.getIgnoredNotInIndex());
+	}
 
-		possiblePrefixes = asList("a");
-		assertTrue(isAnyPrefixOf("a", possiblePrefixes));
+	// Merges an index diff of the given paths into the base
+	private IndexDiffData merge(IndexDiffData base, String... paths)
+			throws IOException {
+		Collection<String> changed = Arrays.asList(paths);
+		return new IndexDiffData(base, changed, Collections.emptyList(),
+				diffOf(changed));
+	}
 
-		possiblePrefixes = asList("a/");
-		assertTrue(isAnyPrefixOf("a", possiblePrefixes));
+	// Computes the index diff of the given paths, or of all if null
+	private IndexDiff diffOf(Collection<String> paths) throws IOException {
+		IndexDiff diff = new IndexDiff(repository, Constants.HEAD,
+				new FileTreeIterator(repository));
+		if (paths != null) {
+			diff.setFilter(PathFilterGroup.createFromStrings(paths));
+		}
+		diff.diff();
+		return diff;
+	}
 
-		possiblePrefixes = asList("b");
-		assertFalse(isAnyPrefixOf("a", possiblePrefixes));
+	private IndexDiffData diff(Collection<String> paths) throws IOException {
+		return new IndexDiffData(diffOf(paths));
+	}
 
-		possiblePrefixes = asList("b", "ab", "b/", "aa");
-		assertFalse(isAnyPrefixOf("a", possiblePrefixes));
+	private void write(String path, String content) throws IOException {
+		File file = new File(repository.getWorkTree(), path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
 	}
 
-	@Test
-	public void testMergeIgnored() {
-		Set<String> result;
-		Set<String> expected = new HashSet<>();
-		Set<String> oldIgnoredPaths = new HashSet<>();
-		Collection<String> changedPaths = new HashSet<>();
-		Set<String> newIgnoredPaths = new HashSet<>();
-
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
-
-		newIgnoredPaths.add("a");
-		changedPaths.add("a");
-		expected.add("a");
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
-
-		newIgnoredPaths.add("b");
-		expected.add("b");
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
-
-		changedPaths.add("b");
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
-
-		oldIgnoredPaths.add("b");
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
-
-		oldIgnoredPaths.add("c");
-		expected.add("c");
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
-
-		newIgnoredPaths.add("b");
-		expected.add("b");
-		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
-		assertEquals(expected, result);
+	private static Set<String> set(String... paths) {
+		return new HashSet<>(Arrays.asList(paths));
 	}
 }
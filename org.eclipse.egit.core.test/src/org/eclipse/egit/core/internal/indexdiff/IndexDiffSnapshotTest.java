@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexDiffSnapshotTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	private File workTree;
+
+	@Before
+	public void setUp() throws Exception {
+		workTree = tmp.newFolder("repo");
+		git = Git.init().setDirectory(workTree).call();
+		repository = git.getRepository();
+		write("a.txt", "a");
+		write("src/b.txt", "b");
+		write("src/c.txt", "c");
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage("Initial").call();
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		write("a.txt", "changed");
+		write("new/d.txt", "d");
+		write("src/e.txt", "e");
+		git.add().addFilepattern("src/e.txt").call();
+		IndexDiffData data = diff();
+		IndexDiffSnapshot.Key key = IndexDiffSnapshot.Key.of(repository, 42);
+		File file = IndexDiffSnapshot.getFile(tmp.getRoot(),
+				repository.getDirectory());
+
+		IndexDiffSnapshot.write(file, repository.getDirectory(), key, data);
+		IndexDiffSnapshot.Snapshot snapshot = IndexDiffSnapshot.read(file,
+				repository.getDirectory());
+
+		assertNotNull(snapshot);
+		assertEquals(42, snapshot.key.getWatermark());
+		assertTrue(snapshot.key.isSameState(key));
+		assertEquals(data.toString(), snapshot.data.toString());
+		assertEquals(set("a.txt"), snapshot.data.getModified());
+		assertEquals(set("new/"), snapshot.data.getUntrackedFolders());
+		assertEquals(set("src/e.txt"), snapshot.data.getAdded());
+		assertNull(IndexDiffSnapshot.read(file, tmp.getRoot()));
+	}
+
+	@Test
+	public void testKeyDependsOnIndexAndHead() throws Exception {
+		IndexDiffSnapshot.Key key = IndexDiffSnapshot.Key.of(repository, 1);
+		assertTrue(key.isSameState(IndexDiffSnapshot.Key.of(repository, 2)));
+
+		write("a.txt", "changed");
+		assertTrue(key.isSameState(IndexDiffSnapshot.Key.of(repository, 1)));
+
+		git.add().addFilepattern("a.txt").call();
+		IndexDiffSnapshot.Key staged = IndexDiffSnapshot.Key.of(repository,
+				1);
+		assertFalse(key.isSameState(staged));
+
+		git.commit().setMessage("Second").call();
+		assertFalse(
+				staged.isSameState(IndexDiffSnapshot.Key.of(repository, 1)));
+	}
+
+	@Test
+	public void testFindChangedPaths() throws Exception {
+		write("untracked.txt", "u");
+		IndexDiffData data = diff();
+		long watermark = System.currentTimeMillis();
+		setAllModificationTimes(watermark - 60_000);
+
+		write("src/b.txt", "changed");
+		new File(workTree, "src/c.txt").delete();
+		new File(workTree, "untracked.txt").delete();
+		write("new/d.txt", "d");
+
+		Set<String> changed = IndexDiffSnapshot.findChangedPaths(repository,
+				data, watermark, new NullProgressMonitor());
+		// All entries of the modified directories are candidates
+		assertEquals(set("a.txt", "src/b.txt", "src/c.txt", "untracked.txt",
+				"new/d.txt"), changed);
+	}
+
+	@Test
+	public void testFindChangedPathsMovedWithOldTimes() throws Exception {
+		write("lib/e.txt", "e");
+		IndexDiffData data = diff();
+		long watermark = System.currentTimeMillis();
+		File outside = tmp.newFolder("outside");
+		Files.write(new File(outside, "f.txt").toPath(),
+				"f".getBytes(StandardCharsets.UTF_8));
+		new File(outside, "dir").mkdir();
+		Files.write(new File(outside, "dir/g.txt").toPath(),
+				"g".getBytes(StandardCharsets.UTF_8));
+		setAllModificationTimes(watermark - 60_000);
+		setAllModificationTimes(outside.toPath(), watermark - 60_000);
+
+		// Moves keep the modification times of the moved files
+		Files.move(outside.toPath().resolve("f.txt"),
+				workTree.toPath().resolve("src/f.txt"));
+		Files.move(outside.toPath().resolve("dir"),
+				workTree.toPath().resolve("src/dir"));
+
+		Set<String> changed = IndexDiffSnapshot.findChangedPaths(repository,
+				data, watermark, new NullProgressMonitor());
+		assertEquals(set("src/b.txt", "src/c.txt", "src/f.txt",
+				"src/dir/g.txt"), changed);
+	}
+
+	@Test
+	public void testFindChangedPathsInIgnoredDirectory() throws Exception {
+		write(Constants.GITIGNORE_FILENAME, "build/");
+		write("build/out.txt", "out");
+		IndexDiffData data = diff();
+		assertTrue(data.isIgnored("build/out.txt"));
+		long watermark = System.currentTimeMillis();
+		setAllModificationTimes(watermark - 60_000);
+
+		write("build/out.txt", "changed");
+		write("build/more/out.txt", "new");
+
+		Set<String> changed = IndexDiffSnapshot.findChangedPaths(repository,
+				data, watermark, new NullProgressMonitor());
+		assertTrue(changed.isEmpty());
+		assertFalse(IndexDiffSnapshot.isIgnoreRulesChanged(repository,
+				changed, watermark));
+	}
+
+	@Test
+	public void testFindChangedPathsNewIgnoredFile() throws Exception {
+		write("src/.gitignore", "*.class");
+		IndexDiffData data = diff();
+		long watermark = System.currentTimeMillis();
+		setAllModificationTimes(watermark - 60_000);
+
+		write("src/B.class", "b");
+		write("src/d.txt", "d");
+
+		Set<String> changed = IndexDiffSnapshot.findChangedPaths(repository,
+				data, watermark, new NullProgressMonitor());
+		assertEquals(set("src/.gitignore", "src/b.txt", "src/c.txt",
+				"src/d.txt"), changed);
+	}
+
+	@Test
+	public void testPrune() throws Exception {
+		IndexDiffData data = diff();
+		IndexDiffSnapshot.Key key = IndexDiffSnapshot.Key.of(repository, 1);
+		File kept = IndexDiffSnapshot.getFile(tmp.getRoot(),
+				repository.getDirectory());
+		IndexDiffSnapshot.write(kept, repository.getDirectory(), key, data);
+		File removedGitDir = tmp.newFolder("removed");
+		File removed = IndexDiffSnapshot.getFile(tmp.getRoot(),
+				removedGitDir);
+		IndexDiffSnapshot.write(removed, removedGitDir, key, data);
+		File deletedGitDir = new File(tmp.getRoot(), "deleted");
+		File deleted = IndexDiffSnapshot.getFile(tmp.getRoot(),
+				deletedGitDir);
+		IndexDiffSnapshot.write(deleted, deletedGitDir, key, data);
+
+		IndexDiffSnapshot.prune(tmp.getRoot(),
+				set(repository.getDirectory().getAbsolutePath(),
+						deletedGitDir.getAbsolutePath()));
+		assertTrue(kept.isFile());
+		assertFalse(removed.exists());
+		assertFalse(deleted.exists());
+	}
+
+	@Test
+	public void testIgnoreRulesChanged() throws Exception {
+		write(Constants.GITIGNORE_FILENAME, "build/");
+		write("src/.gitignore", "*.class");
+		IndexDiffData data = diff();
+		long watermark = System.currentTimeMillis();
+		setAllModificationTimes(watermark - 60_000);
+		File exclude = new File(repository.getDirectory(),
+				Constants.INFO_EXCLUDE);
+		exclude.getParentFile().mkdirs();
+		Files.write(exclude.toPath(), new byte[0]);
+		Files.setLastModifiedTime(exclude.toPath(),
+				FileTime.fromMillis(watermark - 60_000));
+		Files.setLastModifiedTime(exclude.getParentFile().toPath(),
+				FileTime.fromMillis(watermark - 60_000));
+		assertFalse(IndexDiffSnapshot.isIgnoreRulesChanged(repository,
+				findChangedPaths(data, watermark), watermark));
+
+		write("src/.gitignore", "*.jar");
+		assertTrue(IndexDiffSnapshot.isIgnoreRulesChanged(repository,
+				findChangedPaths(data, watermark), watermark));
+
+		setAllModificationTimes(watermark - 60_000);
+		Files.write(exclude.toPath(),
+				"*.txt".getBytes(StandardCharsets.UTF_8));
+		assertTrue(IndexDiffSnapshot.isIgnoreRulesChanged(repository,
+				findChangedPaths(data, watermark), watermark));
+	}
+
+	@Test
+	public void testFindChangedPathsWithoutChanges() throws Exception {
+		IndexDiffData data = diff();
+		long watermark = System.currentTimeMillis();
+		setAllModificationTimes(watermark - 60_000);
+
+		Set<String> changed = IndexDiffSnapshot.findChangedPaths(repository,
+				data, watermark, new NullProgressMonitor());
+		assertTrue(changed.isEmpty());
+	}
+
+	private Set<String> findChangedPaths(IndexDiffData data, long watermark)
+			throws IOException {
+		return IndexDiffSnapshot.findChangedPaths(repository, data, watermark,
+				new NullProgressMonitor());
+	}
+
+	private IndexDiffData diff() throws IOException {
+		IndexDiff diff = new IndexDiff(repository, Constants.HEAD,
+				new FileTreeIterator(repository));
+		diff.diff();
+		return new IndexDiffData(diff);
+	}
+
+	private void write(String path, String content) throws IOException {
+		File file = new File(workTree, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void setAllModificationTimes(long time) throws IOException {
+		setAllModificationTimes(workTree.toPath(), time);
+	}
+
+	private static void setAllModificationTimes(Path root, long time)
+			throws IOException {
+		FileTime fileTime = FileTime.fromMillis(time);
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file,
+					BasicFileAttributes attrs) throws IOException {
+				Files.setLastModifiedTime(file, fileTime);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir,
+					IOException exc) throws IOException {
+				Files.setLastModifiedTime(dir, fileTime);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static Set<String> set(String... paths) {
+		return new HashSet<>(Arrays.asList(paths));
+	}
+}
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PathTrieTest {
+
+	private static final int A = 1;
+
+	private static final int B = 2;
+
+	@Test
+	public void testEmpty() {
+		assertTrue(PathTrie.EMPTY.isEmpty(A | B));
+		assertEquals(0, PathTrie.EMPTY.size(A));
+		assertTrue(PathTrie.EMPTY.asSet(A).isEmpty());
+		assertEquals(0, PathTrie.EMPTY.getFlags("a"));
+	}
+
+	@Test
+	public void testSetAndGet() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a/b/c", A);
+		editor.addFlags("a/b/", B);
+		editor.addFlags("a/b", A | B);
+		editor.addFlags("a-b", A);
+		PathTrie trie = editor.build();
+		assertEquals(A, trie.getFlags("a/b/c"));
+		assertEquals(B, trie.getFlags("a/b/"));
+		assertEquals(A | B, trie.getFlags("a/b"));
+		assertEquals(0, trie.getFlags("a"));
+		assertEquals(0, trie.getFlags("a/b/d"));
+		assertEquals(3, trie.size(A));
+		assertEquals(2, trie.size(B));
+		assertEquals(set("a/b", "a/b/c", "a-b"), trie.asSet(A));
+		assertEquals(set("a/b", "a/b/"), trie.asSet(B));
+	}
+
+	@Test
+	public void testSubtreeFlags() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a/b/c", A);
+		editor.addFlags("a/d/", B);
+		PathTrie trie = editor.build();
+		assertEquals(A | B, trie.getSubtreeFlags(""));
+		assertEquals(A | B, trie.getSubtreeFlags("a"));
+		assertEquals(A, trie.getSubtreeFlags("a/b"));
+		assertEquals(B, trie.getSubtreeFlags("a/d"));
+		assertEquals(0, trie.getSubtreeFlags("x"));
+
+		editor = trie.edit();
+		editor.setFlags("a/b/c", A, 0);
+		PathTrie updated = editor.build();
+		assertEquals(B, updated.getSubtreeFlags("a"));
+		assertEquals(0, updated.getSubtreeFlags("a/b"));
+	}
+
+	@Test
+	public void testClearSubtree() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a", A);
+		editor.addFlags("a/", A | B);
+		editor.addFlags("a/b", A);
+		editor.addFlags("ab", A);
+		editor.clearSubtree("a", A);
+		PathTrie trie = editor.build();
+		assertEquals(set("ab"), trie.asSet(A));
+		assertEquals(set("a/"), trie.asSet(B));
+		assertEquals(1, trie.size(A));
+	}
+
+	@Test
+	public void testSnapshotsAreImmutable() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("x/y", A);
+		editor.addFlags("x/z", A);
+		PathTrie first = editor.build();
+
+		editor = first.edit();
+		editor.setFlags("x/y", A, 0);
+		editor.addFlags("x/w", B);
+		PathTrie second = editor.build();
+
+		assertEquals(set("x/y", "x/z"), first.asSet(A));
+		assertTrue(first.asSet(B).isEmpty());
+		assertEquals(set("x/z"), second.asSet(A));
+		assertEquals(set("x/w"), second.asSet(B));
+	}
+
+	@Test
+	public void testUnchangedEditReturnsSameTrie() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a", A);
+		PathTrie trie = editor.build();
+		editor = trie.edit();
+		editor.setFlags("a", A, A);
+		editor.setFlags("b", A, 0);
+		assertTrue(trie == editor.build());
+		assertFalse(trie.contains("b", A));
+	}
+
+	@Test
+	public void testFlagsBelow() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a/b/c", A);
+		editor.addFlags("a/d", B);
+		editor.addFlags("e", A);
+		PathTrie trie = editor.build();
+		assertEquals(A | B, trie.getFlagsBelow("/"));
+		assertEquals(A | B, trie.getFlagsBelow("a/"));
+		assertEquals(A, trie.getFlagsBelow("a/b/"));
+		assertEquals(0, trie.getFlagsBelow("a/d/"));
+		assertEquals(0, trie.getFlagsBelow("e/"));
+		assertEquals(0, trie.getFlagsBelow("x/"));
+	}
+
+	@Test
+	public void testParentFlags() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a/b", A);
+		editor.addFlags("c/d/", B);
+		PathTrie trie = editor.build();
+		assertTrue(trie.hasParentFlags("a/b/", A));
+		assertTrue(trie.hasParentFlags("a/b/c", A));
+		assertFalse(trie.hasParentFlags("a/b", A));
+		assertFalse(trie.hasParentFlags("a/bc/d", A));
+		assertTrue(trie.hasParentFlags("c/d/", B));
+		assertTrue(trie.hasParentFlags("c/d/e/f", B));
+		assertFalse(trie.hasParentFlags("c/d", B));
+		assertFalse(trie.hasParentFlags("c/e/", B));
+		assertFalse(trie.hasParentFlags("a/b/c", B));
+	}
+
+	@Test
+	public void testParentFolders() {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		editor.addFlags("a/", A);
+		editor.addFlags("a/b/", A);
+		editor.addFlags("a/b/c/", B);
+		editor.addFlags("a/bc/", A);
+		editor.addFlags("x", A);
+		PathTrie trie = editor.build();
+		assertEquals(Arrays.asList("a/", "a/b/"), parents(trie, "a/b/c/d", A));
+		assertEquals(Arrays.asList("a/"), parents(trie, "a/b/", A));
+		assertEquals(Arrays.asList("a/"), parents(trie, "a/b", A));
+		assertEquals(Arrays.asList(), parents(trie, "a/", A));
+		assertEquals(Arrays.asList(), parents(trie, "x/y", A));
+		assertEquals(Arrays.asList("a/b/c/"), parents(trie, "a/b/c/d", B));
+		assertEquals(Arrays.asList("a/", "a/bc/"), parents(trie, "a/bc/d", A));
+	}
+
+	/**
+	 * Finding the untracked folders containing the files of an incremental
+	 * update must not scan all untracked folders for every file: with 20k
+	 * folders and 20k files a linear scan needs 4 * 10^8 prefix comparisons
+	 * per round.
+	 */
+	@Test(timeout = 30000)
+	public void testParentFolderLookupScales() {
+		int folders = 20_000;
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		for (int i = 0; i < folders; i++) {
+			editor.addFlags("gen/g" + i + '/', A);
+		}
+		PathTrie trie = editor.build();
+		for (int k = 0; k < 50; k++) {
+			Set<String> found = new HashSet<>();
+			for (int i = 0; i < folders; i++) {
+				trie.forEachParentFolder("gen/g" + i + "/File.java", A,
+						found::add);
+			}
+			assertEquals(folders, found.size());
+		}
+	}
+
+	/**
+	 * Container lookups must not depend on the number of paths: 100k folder
+	 * queries against 100k dirty files would need 10^10 prefix comparisons
+	 * with a linear scan, which would never finish within the timeout.
+	 */
+	@Test(timeout = 30000)
+	public void testFolderLookupScales() {
+		int folders = 1000;
+		int filesPerFolder = 100;
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		for (int i = 0; i < folders; i++) {
+			for (int j = 0; j < filesPerFolder; j++) {
+				editor.addFlags("src/f" + i + "/File" + j + ".java",
+						i % 2 == 0 ? A : B);
+			}
+		}
+		PathTrie trie = editor.build();
+		assertEquals(folders * filesPerFolder / 2, trie.size(A));
+		assertEquals(A | B, trie.getFlagsBelow("src/"));
+		for (int k = 0; k < 100; k++) {
+			for (int i = 0; i < folders; i++) {
+				int expected = i % 2 == 0 ? A : B;
+				assertEquals(expected, trie.getFlagsBelow("src/f" + i + '/'));
+			}
+		}
+		editor = trie.edit();
+		editor.setFlags("src/f0/File0.java", A, 0);
+		PathTrie updated = editor.build();
+		assertEquals(folders * filesPerFolder / 2 - 1, updated.size(A));
+		assertEquals(folders * filesPerFolder / 2, trie.size(A));
+	}
+
+	private static List<String> parents(PathTrie trie, String path,
+			int mask) {
+		List<String> result = new ArrayList<>();
+		trie.forEachParentFolder(path, mask, result::add);
+		return result;
+	}
+
+	private static Set<String> set(String... paths) {
+		return new HashSet<>(Arrays.asList(paths));
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ReloadCostModelTest {
+
+	@Test
+	public void testDefaultLimitWithoutInformation() {
+		ReloadCostModel model = new ReloadCostModel();
+		assertFalse(model.shouldReload(ReloadCostModel.DEFAULT_LIMIT, 0));
+		assertTrue(model.shouldReload(ReloadCostModel.DEFAULT_LIMIT + 1, 0));
+	}
+
+	@Test
+	public void testLargeIndexPrefersIncremental() {
+		ReloadCostModel model = new ReloadCostModel();
+		assertFalse(model.shouldReload(1200, 300_000));
+		assertTrue(model.shouldReload(1200, 2_000));
+	}
+
+	@Test
+	public void testMeasurementsOverrideEstimates() {
+		ReloadCostModel model = new ReloadCostModel();
+		model.recordFull(100);
+		assertTrue(model.shouldReload(1200, 300_000));
+		assertFalse(model.shouldReload(10, 300_000));
+
+		model = new ReloadCostModel();
+		model.recordFull(60_000);
+		for (int i = 0; i < 20; i++) {
+			model.recordIncremental(5, 10);
+			model.recordIncremental(5000, 5010);
+		}
+		// About 1 ms per path
+		assertFalse(model.shouldReload(50_000, 0));
+		assertTrue(model.shouldReload(70_000, 0));
+	}
+}
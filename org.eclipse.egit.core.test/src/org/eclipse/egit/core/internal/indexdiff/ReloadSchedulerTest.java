@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ReloadSchedulerTest {
+
+	@Test(timeout = 10000)
+	public void testUrgentRequestsFirst() throws Exception {
+		ReloadScheduler scheduler = new ReloadScheduler(1);
+		scheduler.acquire(false);
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		Thread background = start(scheduler, false, "background", order);
+		waitForState(background);
+		Thread urgent = start(scheduler, true, "urgent", order);
+		waitForState(urgent);
+		scheduler.release();
+		background.join();
+		urgent.join();
+		assertEquals(Arrays.asList("urgent", "background"), order);
+	}
+
+	@Test(timeout = 10000)
+	public void testLimitsConcurrency() throws Exception {
+		ReloadScheduler scheduler = new ReloadScheduler(2);
+		scheduler.acquire(false);
+		scheduler.acquire(true);
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		Thread third = start(scheduler, true, "third", order);
+		waitForState(third);
+		assertTrue(order.isEmpty());
+		scheduler.release();
+		third.join();
+		assertEquals(Arrays.asList("third"), order);
+		scheduler.release();
+		// Both slots free again
+		scheduler.acquire(false);
+		scheduler.acquire(false);
+	}
+
+	private static Thread start(ReloadScheduler scheduler, boolean urgent,
+			String name, List<String> order) {
+		Thread thread = new Thread(() -> {
+			try {
+				scheduler.acquire(urgent);
+				order.add(name);
+				scheduler.release();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static void waitForState(Thread thread)
+			throws InterruptedException {
+		while (thread.getState() != Thread.State.WAITING) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WorkTreeWatcherTest {
+
+	private static final String RELOAD = "<reload>";
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private final BlockingQueue<Collection<String>> batches = //
+			new LinkedBlockingQueue<>();
+
+	private final Set<String> reported = new HashSet<>();
+
+	private WorkTreeWatcher watcher;
+
+	@After
+	public void tearDown() {
+		if (watcher != null) {
+			watcher.stop();
+		}
+		assertFalse("Unexpected reload", reported.contains(RELOAD));
+	}
+
+	@Test(timeout = 30000)
+	public void testReportsChangedFiles() throws Exception {
+		File workTree = tmp.getRoot();
+		new File(workTree, "sub").mkdir();
+		start(workTree, path -> false);
+		writeUntilReported(workTree, "sub/a.txt");
+		writeUntilReported(workTree, "b.txt");
+	}
+
+	@Test(timeout = 30000)
+	public void testReportsNewDirectories() throws Exception {
+		File workTree = tmp.getRoot();
+		start(workTree, path -> false);
+		writeUntilReported(workTree, "a.txt");
+		File folder = new File(workTree, "new");
+		folder.mkdir();
+		write(new File(folder, "c.txt"));
+		waitFor("new/");
+		waitFor("new/c.txt");
+	}
+
+	@Test(timeout = 30000)
+	public void testIgnoredDirectoriesNotWatched() throws Exception {
+		File workTree = tmp.getRoot();
+		File target = new File(workTree, "target");
+		new File(target, "classes").mkdirs();
+		start(workTree, path -> path.startsWith("target/"));
+		writeUntilReported(workTree, "a.txt");
+		write(new File(target, "classes/X.class"));
+		write(new File(target, "out.jar"));
+		writeUntilReported(workTree, "b.txt");
+		// Let any stray events arrive
+		Collection<String> batch;
+		while ((batch = batches.poll(1, TimeUnit.SECONDS)) != null) {
+			reported.addAll(batch);
+		}
+		for (String path : reported) {
+			assertFalse(path + " reported", path.startsWith("target"));
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void testGitDirectoryNotWatched() throws Exception {
+		File workTree = tmp.getRoot();
+		new File(workTree, ".git").mkdir();
+		start(workTree, path -> false);
+		writeUntilReported(workTree, "a.txt");
+		write(new File(workTree, ".git/index"));
+		writeUntilReported(workTree, "b.txt");
+		for (String path : reported) {
+			assertFalse(path + " reported", path.startsWith(".git"));
+		}
+	}
+
+	private void start(File workTree, Predicate<String> isIgnored) {
+		watcher = WorkTreeWatcher.start(workTree, "test", isIgnored,
+				batches::add,
+				() -> batches.add(Collections.singleton(RELOAD)));
+		assertNotNull(watcher);
+	}
+
+	private void writeUntilReported(File workTree, String path)
+			throws Exception {
+		// Rewrite until reported; directories are registered asynchronously
+		File file = new File(workTree, path);
+		while (!reported.contains(path)) {
+			write(file);
+			Collection<String> batch = batches.poll(500,
+					TimeUnit.MILLISECONDS);
+			if (batch != null) {
+				reported.addAll(batch);
+			}
+		}
+	}
+
+	private void waitFor(String path) throws Exception {
+		while (!reported.contains(path)) {
+			Collection<String> batch = batches.take();
+			reported.addAll(batch);
+		}
+		assertTrue(reported.contains(path));
+	}
+
+	private static void write(File file) throws IOException {
+		Files.write(file.toPath(),
+				String.valueOf(System.nanoTime())
+						.getBytes(StandardCharsets.UTF_8));
+	}
+}
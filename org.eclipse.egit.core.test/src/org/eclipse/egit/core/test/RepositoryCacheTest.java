@@ -22,6 +22,8 @@
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.egit.core.RepositoryCache;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
@@ -101,4 +103,22 @@ public void findsNestedRepositoryForClosedProject()
 		assertEquals(repository, cache.getRepository(a));
 		assertEquals(repository2.getRepository(), cache.getRepository(b));
 	}
+
+	@Test
+	public void findsOuterRepositoryIfNestedRepositoryIsDeleted()
+			throws Exception {
+		File workdir = project.createFolder("nested").getLocation().toFile();
+		TestRepository repository2 = new TestRepository(
+				new File(workdir, Constants.DOT_GIT));
+		IPath location = new Path(workdir.getAbsolutePath())
+				.append("folder1/b.txt");
+		assertEquals(repository2.getRepository(),
+				cache.getRepository(location));
+
+		FileUtils.delete(repository2.getRepository().getDirectory(),
+				FileUtils.RECURSIVE);
+		assertEquals(repository, cache.getRepository(location));
+		assertThat(repository2.getRepository(),
+				not(isIn(cache.getAllRepositories())));
+	}
 }
@@ -28,7 +28,10 @@
 import org.eclipse.core.runtime.ILogListener;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.egit.core.Activator;
+import org.eclipse.egit.core.GitCorePreferences;
 import org.eclipse.egit.core.RepositoryCache;
 import org.eclipse.egit.core.op.AddToIndexOperation;
 import org.eclipse.egit.core.op.BranchOperation;
@@ -40,6 +43,7 @@
 import org.eclipse.egit.core.test.DualRepositoryTestCase;
 import org.eclipse.egit.core.test.TestRepository;
 import org.eclipse.egit.core.test.TestUtils;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.RefUpdate;
@@ -201,6 +205,100 @@ public void testInvalidUriDuringPush() throws Exception {
 
 	}
 
+	/**
+	 * Pushing to several URIs in parallel should report a result for each URI
+	 * in the order of the specification, including the failed ones.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testPushToSeveralUrisInParallel() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE
+				.getNode(Activator.PLUGIN_ID);
+		prefs.putInt(GitCorePreferences.core_maxPushThreadsCount, 3);
+		try (Git bare = Git.init().setBare(true)
+				.setDirectory(testUtils.createTempDir("Repository3"))
+				.call()) {
+			Repository local = repository1.getRepository();
+			URIish remote2 = new URIish("file:///"
+					+ repository2.getRepository().getDirectory().toString());
+			URIish invalid = new URIish(INVALID_URI);
+			URIish remote3 = new URIish("file:///"
+					+ bare.getRepository().getDirectory().toString());
+			PushOperationSpecification spec = new PushOperationSpecification();
+			spec.addURIRefUpdates(remote2,
+					Collections.singletonList(new RemoteRefUpdate(local,
+							"HEAD", "refs/heads/test", false, null, null)));
+			spec.addURIRefUpdates(invalid,
+					Collections.singletonList(new RemoteRefUpdate(local,
+							"HEAD", "refs/heads/test", false, null, null)));
+			spec.addURIRefUpdates(remote3,
+					Collections.singletonList(new RemoteRefUpdate(local,
+							"HEAD", "refs/heads/master", false, null, null)));
+
+			PushOperation pop = new PushOperation(local, spec, false, 0);
+			pop.run(new NullProgressMonitor());
+			PushOperationResult result = pop.getOperationResult();
+
+			assertEquals(Arrays.asList(remote2, invalid, remote3),
+					new ArrayList<>(result.getURIs()));
+			assertEquals(Status.UP_TO_DATE, result.getPushResult(remote2)
+					.getRemoteUpdates().iterator().next().getStatus());
+			assertNotNull(result.getErrorMessage(invalid));
+			assertEquals(Status.OK, result.getPushResult(remote3)
+					.getRemoteUpdates().iterator().next().getStatus());
+			assertEquals(local.resolve(Constants.HEAD),
+					bare.getRepository().resolve(Constants.MASTER));
+		} finally {
+			prefs.remove(GitCorePreferences.core_maxPushThreadsCount);
+		}
+	}
+
+	/**
+	 * Running several operations together should push each of them and give
+	 * each its own result, even if one of them fails.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testRunAll() throws Exception {
+		try (Git bare = Git.init().setBare(true)
+				.setDirectory(testUtils.createTempDir("Repository3"))
+				.call()) {
+			Repository local = repository1.getRepository();
+			Repository other = repository2.getRepository();
+			URIish remote3 = new URIish("file:///"
+					+ bare.getRepository().getDirectory().toString());
+			PushOperationSpecification spec1 = new PushOperationSpecification();
+			spec1.addURIRefUpdates(remote3,
+					Collections.singletonList(new RemoteRefUpdate(local,
+							"HEAD", "refs/heads/first", false, null, null)));
+			PushOperationSpecification spec2 = new PushOperationSpecification();
+			spec2.addURIRefUpdates(remote3,
+					Collections.singletonList(new RemoteRefUpdate(other,
+							"HEAD", "refs/heads/second", false, null, null)));
+			PushOperation first = new PushOperation(local, spec1, false, 0);
+			PushOperation second = new PushOperation(other, spec2, false, 0);
+			PushOperation invalid = createInvalidPushOperation();
+
+			PushOperation.runAll(Arrays.asList(first, invalid, second),
+					new NullProgressMonitor());
+
+			assertEquals(Status.OK, first.getOperationResult()
+					.getPushResult(remote3).getRemoteUpdates().iterator()
+					.next().getStatus());
+			assertEquals(Status.OK, second.getOperationResult()
+					.getPushResult(remote3).getRemoteUpdates().iterator()
+					.next().getStatus());
+			assertFalse(invalid.getOperationResult()
+					.isSuccessfulConnectionForAnyURI());
+			assertEquals(local.resolve(Constants.HEAD),
+					bare.getRepository().resolve("refs/heads/first"));
+			assertEquals(other.resolve(Constants.HEAD),
+					bare.getRepository().resolve("refs/heads/second"));
+		}
+	}
+
 	private PushOperation createInvalidPushOperation() throws Exception {
 		// set up push with invalid URI to provoke an exception
 		PushOperationSpecification spec = new PushOperationSpecification();
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.test.op;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.egit.core.RepositoryCache;
+import org.eclipse.egit.core.op.SubmoduleUpdateOperation;
+import org.eclipse.egit.core.test.DualRepositoryTestCase;
+import org.eclipse.egit.core.test.TestRepository;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SubmoduleUpdateOperationTest extends DualRepositoryTestCase {
+
+	private static final String[] SUBMODULES = { "sub1", "sub2", "sub3" };
+
+	private RevCommit subCommit;
+
+	private Repository clone;
+
+	/**
+	 * Creates a repository with three submodules and clones it without its
+	 * submodules into repository2.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		File subDir = testUtils.createTempDir("Submodule");
+		try (Git sub = Git.init().setDirectory(subDir).call()) {
+			FileUtils.createNewFile(new File(subDir, "file.txt"));
+			sub.add().addFilepattern("file.txt").call();
+			subCommit = sub.commit().setMessage("Submodule commit").call();
+		}
+
+		File workdir = testUtils.createTempDir("Repository1");
+		repository1 = new TestRepository(new File(workdir, Constants.DOT_GIT));
+		try (Git git = new Git(repository1.getRepository())) {
+			FileUtils.createNewFile(new File(workdir, "file.txt"));
+			git.add().addFilepattern("file.txt").call();
+			git.commit().setMessage("Initial commit").call();
+			for (String path : SUBMODULES) {
+				git.submoduleAdd().setPath(path)
+						.setURI(subDir.toURI().toString()).call().close();
+			}
+			git.commit().setMessage("Add submodules").call();
+		}
+
+		File workdir2 = testUtils.createTempDir("Repository2");
+		Git.cloneRepository().setURI(repository1.getUri().toString())
+				.setDirectory(workdir2).call().close();
+		clone = RepositoryCache.getInstance()
+				.lookupRepository(new File(workdir2, Constants.DOT_GIT));
+		repository2 = new TestRepository(clone);
+		StoredConfig config = clone.getConfig();
+		config.setInt(ConfigConstants.CONFIG_SUBMODULE_SECTION, null,
+				"fetchJobs", SUBMODULES.length);
+		config.save();
+	}
+
+	@Test
+	public void testUpdateInParallel() throws Exception {
+		new SubmoduleUpdateOperation(clone).execute(null);
+		for (String path : SUBMODULES) {
+			assertUpdated(path);
+		}
+	}
+
+	@Test
+	public void testFailedSubmoduleReported() throws Exception {
+		StoredConfig config = clone.getConfig();
+		config.setString(ConfigConstants.CONFIG_SUBMODULE_SECTION, "sub2",
+				ConfigConstants.CONFIG_KEY_URL,
+				new File(testUtils.getBaseTempDir(), "missing").toURI()
+						.toString());
+		config.save();
+		try {
+			new SubmoduleUpdateOperation(clone).execute(null);
+			fail("Expected CoreException not thrown");
+		} catch (CoreException e) {
+			IStatus[] children = e.getStatus().getChildren();
+			assertEquals(1, children.length);
+			assertTrue(children[0].getMessage().contains("sub2"));
+			assertNotNull(children[0].getException());
+		}
+		assertUpdated("sub1");
+		assertUpdated("sub3");
+		assertNull(SubmoduleWalk.getSubmoduleRepository(clone, "sub2"));
+	}
+
+	private void assertUpdated(String path) throws Exception {
+		try (Repository sub = SubmoduleWalk.getSubmoduleRepository(clone,
+				path)) {
+			assertNotNull(path + " not cloned", sub);
+			assertEquals(path, subCommit, sub.resolve(Constants.HEAD));
+		}
+	}
+}
@@ -40,9 +40,11 @@ public void initializeDefaultPreferences() {
 		String defaultRepoDir = RepositoryUtil.getDefaultDefaultRepositoryDir();
 		p.put(GitCorePreferences.core_defaultRepositoryDir, defaultRepoDir);
 		p.putInt(GitCorePreferences.core_maxPullThreadsCount, 3);
+		p.putInt(GitCorePreferences.core_maxPushThreadsCount, 3);
 		p.put(GitCorePreferences.core_httpClient, "apache"); //$NON-NLS-1$
 		p.putInt(GitCorePreferences.core_remoteConnectionTimeout, 30);
 		p.put(GitCorePreferences.core_gpgSigner, "bc"); //$NON-NLS-1$
+		p.putBoolean(GitCorePreferences.core_watchWorkTrees, false);
 	}
 
 }
@@ -80,6 +80,11 @@ private GitCorePreferences() {
 	 */
 	public static final String core_maxPullThreadsCount = "core_max_pull_threads_count"; //$NON-NLS-1$
 
+	/**
+	 * Max number of simultaneous push jobs, default is three.
+	 */
+	public static final String core_maxPushThreadsCount = "core_max_push_threads_count"; //$NON-NLS-1$
+
 	/**
 	 * Whether to store SSH key passphrases in the Eclipse secure store.
 	 */
@@ -111,4 +116,10 @@ private GitCorePreferences() {
 	 */
 	public static final String core_gpgSigner = "core_gpg_signer"; //$NON-NLS-1$
 
+	/**
+	 * Whether to watch the working trees of repositories for changes made
+	 * outside of Eclipse using the file system's change notifications.
+	 */
+	public static final String core_watchWorkTrees = "core_watch_work_trees"; //$NON-NLS-1$
+
 }
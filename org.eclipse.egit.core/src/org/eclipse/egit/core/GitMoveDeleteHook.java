@@ -15,8 +15,8 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.resources.IFile;
@@ -39,11 +39,7 @@
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
 import org.eclipse.egit.core.project.GitProjectData;
 import org.eclipse.egit.core.project.RepositoryMapping;
-import org.eclipse.jgit.dircache.DirCache;
-import org.eclipse.jgit.dircache.DirCacheBuilder;
-import org.eclipse.jgit.dircache.DirCacheEditor;
 import org.eclipse.jgit.dircache.DirCacheEntry;
-import org.eclipse.jgit.errors.LockFailedException;
 import org.eclipse.team.core.RepositoryProvider;
 import org.eclipse.team.core.TeamException;
 
@@ -97,48 +93,16 @@ public boolean deleteFile(final IResourceTree tree, final IFile file,
 		if (file.isDerived())
 			return false;
 
-		DirCache dirc = null;
 		try {
-			dirc = map.getRepository().lockDirCache();
-			final int first = dirc.findEntry(repoRelativePath);
-			if (first < 0) {
-				dirc.unlock();
+			IndexEditBatch batch = IndexEditBatch.get(map.getRepository());
+			if (batch.getEntry(repoRelativePath) == null) {
 				return false;
 			}
-
-			final DirCacheBuilder edit = dirc.builder();
-			if (first > 0)
-				edit.keep(0, first);
-			final int next = dirc.nextEntry(first);
-			if (next < dirc.getEntryCount())
-				edit.keep(next, dirc.getEntryCount() - next);
-			if (!edit.commit())
-				tree.failed(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
-						0, CoreText.MoveDeleteHook_operationError, null));
+			batch.delete(repoRelativePath);
 			tree.standardDeleteFile(file, updateFlags, monitor);
-		} catch (LockFailedException e) {
-			// FIXME The index is currently locked. This notably happens during
-			// rebase operations. auto-staging deletions should be queued... and
-			// the queued job will have to double-check whether the file has
-			// truly been deleted or if it was only deleted to be replaced by
-			// another version.
-			// This hook only exists to automatically add changes to the index.
-			// If the index is currently locked, do not accept the
-			// responsibility of deleting the file, return false to tell the
-			// workspace it can continue with the standard deletion. The user
-			// will have to stage the deletion later on _if_ this was truly
-			// needed, which won't happen for calls triggered by merge
-			// operations from the merge strategies.
-			Activator.logWarning(MessageFormat.format(
-					CoreText.MoveDeleteHook_cannotAutoStageDeletion,
-					file.getLocation()), null);
-			return FINISH_FOR_ME;
 		} catch (IOException e) {
 			tree.failed(new Status(IStatus.ERROR, Activator.PLUGIN_ID, 0,
 					CoreText.MoveDeleteHook_operationError, e));
-		} finally {
-			if (dirc != null)
-				dirc.unlock();
 		}
 		return true;
 	}
@@ -178,11 +142,11 @@ public boolean moveFile(final IResourceTree tree, final IFile srcf,
 			return false;
 		final RepositoryMapping dstm = RepositoryMapping.getMapping(dstf);
 
-		DirCache sCache = null;
 		try {
-			sCache = srcm.getRepository().lockDirCache();
+			final IndexEditBatch batch = IndexEditBatch
+					.get(srcm.getRepository());
 			final String sPath = srcm.getRepoRelativePath(srcf);
-			final DirCacheEntry sEnt = sCache.getEntry(sPath);
+			final DirCacheEntry sEnt = batch.getEntry(sPath);
 			if (sEnt == null)
 				return FINISH_FOR_ME;
 
@@ -192,32 +156,16 @@ public boolean moveFile(final IResourceTree tree, final IFile srcf,
 				return I_AM_DONE;
 			}
 			if (org.eclipse.egit.core.Activator.autoStageMoves()) {
-				final DirCacheEditor sEdit = sCache.editor();
-				sEdit.add(new DirCacheEditor.DeletePath(sEnt));
+				batch.delete(sPath);
 				if (dstm != null
 						&& dstm.getRepository() == srcm.getRepository()) {
-					final String dPath = srcm.getRepoRelativePath(dstf);
-					sEdit.add(new DirCacheEditor.PathEdit(dPath) {
-
-						@Override
-						public void apply(final DirCacheEntry dEnt) {
-							dEnt.copyMetaData(sEnt);
-						}
-					});
-				}
-				if (!sEdit.commit()) {
-					tree.failed(new Status(IStatus.ERROR,
-							Activator.PLUGIN_ID, 0,
-							CoreText.MoveDeleteHook_operationError, null));
+					batch.add(srcm.getRepoRelativePath(dstf), sEnt);
 				}
 			}
 			tree.standardMoveFile(srcf, dstf, updateFlags, monitor);
 		} catch (IOException e) {
 			tree.failed(new Status(IStatus.ERROR, Activator.PLUGIN_ID, 0,
 					CoreText.MoveDeleteHook_operationError, e));
-		} finally {
-			if (sCache != null)
-				sCache.unlock();
 		}
 		return I_AM_DONE;
 	}
@@ -438,60 +386,38 @@ enum MoveResult { SUCCESS, FAILED, UNTRACKED, UNMERGED }
 
 	private MoveResult moveIndexContent(String dPath,
 			final RepositoryMapping srcm, final String sPath) throws IOException {
+		final IndexEditBatch batch = IndexEditBatch.get(srcm.getRepository());
+		final List<DirCacheEntry> sEnt = batch.getEntriesWithin(sPath);
+		if (sEnt.isEmpty())
+			return MoveResult.UNTRACKED;
+		for (final DirCacheEntry se : sEnt) {
+			if (!se.isMerged())
+				return MoveResult.UNMERGED;
+		}
 
-		final DirCache sCache = srcm.getRepository().lockDirCache();
-		try {
-			final DirCacheEntry[] sEnt = sCache.getEntriesWithin(sPath);
-			if (sEnt.length == 0) {
-				sCache.unlock();
-				return MoveResult.UNTRACKED;
-			}
-
-			final DirCacheEditor sEdit = sCache.editor();
-			sEdit.add(new DirCacheEditor.DeleteTree(sPath));
-			final int sPathLen = sPath.length() == 0 ? sPath.length() : sPath
-					.length() + 1;
-			for (final DirCacheEntry se : sEnt) {
-				if (!se.isMerged())
-					return MoveResult.UNMERGED;
-				final String p = se.getPathString().substring(sPathLen);
-				sEdit.add(new DirCacheEditor.PathEdit(dPath + p) {
-					@Override
-					public void apply(final DirCacheEntry dEnt) {
-						dEnt.copyMetaData(se);
-					}
-				});
-			}
-			if (sEdit.commit())
-				return MoveResult.SUCCESS;
-			else
-				return MoveResult.FAILED;
-		} finally {
-			if (sCache != null)
-				sCache.unlock();
+		final int sPathLen = sPath.length() == 0 ? sPath.length() : sPath
+				.length() + 1;
+		for (final DirCacheEntry se : sEnt) {
+			final String path = se.getPathString();
+			batch.delete(path);
+			batch.add(dPath + path.substring(sPathLen), se);
 		}
+		return MoveResult.SUCCESS;
 	}
 
 	private MoveResult checkUnmergedPaths(final RepositoryMapping srcm,
 			final String sPath) throws IOException {
-		final DirCache sCache = srcm.getRepository().lockDirCache();
-		try {
-			final DirCacheEntry[] sEnt = sCache.getEntriesWithin(sPath);
-			if (sEnt.length == 0) {
-				sCache.unlock();
-				return MoveResult.UNTRACKED;
-			}
-			for (final DirCacheEntry se : sEnt) {
-				if (!se.isMerged()) {
-					return MoveResult.UNMERGED;
-				}
-			}
-			return MoveResult.SUCCESS;
-		} finally {
-			if (sCache != null) {
-				sCache.unlock();
+		final List<DirCacheEntry> sEnt = IndexEditBatch
+				.get(srcm.getRepository()).getEntriesWithin(sPath);
+		if (sEnt.isEmpty()) {
+			return MoveResult.UNTRACKED;
+		}
+		for (final DirCacheEntry se : sEnt) {
+			if (!se.isMerged()) {
+				return MoveResult.UNMERGED;
 			}
 		}
+		return MoveResult.SUCCESS;
 	}
 
 	private boolean cannotModifyRepository(final IResourceTree tree) {
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.egit.core.internal.CoreText;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.errors.LockFailedException;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Collects the index edits the {@link GitMoveDeleteHook} makes during a
+ * workspace operation and writes them to the index in one go when the
+ * operation ends, instead of locking and writing the index once per moved or
+ * deleted resource.
+ * <p>
+ * Until then, lookups see the index as read once per batch with the pending
+ * edits applied. If the index is locked when the batch is written, the edits
+ * are kept and written later. Because the workspace may have changed by then,
+ * deletions are staged only if the file is really gone, and moves only if the
+ * destination file still exists.
+ * </p>
+ */
+class IndexEditBatch {
+
+	private static final Map<Repository, IndexEditBatch> BATCHES = new WeakHashMap<>();
+
+	private static final AtomicBoolean LISTENING = new AtomicBoolean();
+
+	private static final long RETRY_DELAY = 1000;
+
+	private static final int MAX_RETRIES = 30;
+
+	private static final Job RETRY_JOB = new Job(
+			CoreText.MoveDeleteHook_retryJobName) {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			flushAll();
+			return Status.OK_STATUS;
+		}
+	};
+
+	static {
+		RETRY_JOB.setSystem(true);
+	}
+
+	private final WeakReference<Repository> repository;
+
+	/** Pending edits by path; {@code null} for a deleted path. */
+	private final SortedMap<String, DirCacheEntry> edits = new TreeMap<>();
+
+	private DirCache snapshot;
+
+	private int retries;
+
+	private IndexEditBatch(Repository repository) {
+		this.repository = new WeakReference<>(repository);
+	}
+
+	/**
+	 * Retrieves the batch of a repository.
+	 *
+	 * @param repository
+	 *            to get the batch for
+	 * @return the batch
+	 */
+	static IndexEditBatch get(Repository repository) {
+		if (LISTENING.compareAndSet(false, true)) {
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(
+					event -> flushAll(), IResourceChangeEvent.POST_CHANGE);
+		}
+		synchronized (BATCHES) {
+			return BATCHES.computeIfAbsent(repository, IndexEditBatch::new);
+		}
+	}
+
+	/**
+	 * Looks up an entry in the index, taking pending edits into account.
+	 *
+	 * @param path
+	 *            repository-relative path of the entry
+	 * @return the entry, or {@code null} if there is none
+	 * @throws IOException
+	 *             if the index cannot be read
+	 */
+	synchronized DirCacheEntry getEntry(String path) throws IOException {
+		if (edits.containsKey(path)) {
+			return edits.get(path);
+		}
+		return getSnapshot().getEntry(path);
+	}
+
+	/**
+	 * Looks up all entries within a folder, taking pending edits into
+	 * account.
+	 *
+	 * @param path
+	 *            repository-relative path of the folder; the empty string for
+	 *            the whole repository
+	 * @return the entries, possibly several per path if there are conflicts
+	 * @throws IOException
+	 *             if the index cannot be read
+	 */
+	synchronized List<DirCacheEntry> getEntriesWithin(String path)
+			throws IOException {
+		List<DirCacheEntry> result = new ArrayList<>();
+		for (DirCacheEntry entry : getSnapshot().getEntriesWithin(path)) {
+			if (!edits.containsKey(entry.getPathString())) {
+				result.add(entry);
+			}
+		}
+		SortedMap<String, DirCacheEntry> within = path.isEmpty() ? edits
+				: edits.subMap(path + '/', path + '0');
+		for (DirCacheEntry entry : within.values()) {
+			if (entry != null) {
+				result.add(entry);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Records the removal of a path from the index.
+	 *
+	 * @param path
+	 *            repository-relative path to remove
+	 */
+	synchronized void delete(String path) {
+		edits.put(path, null);
+	}
+
+	/**
+	 * Records the addition of an entry to the index.
+	 *
+	 * @param path
+	 *            repository-relative path to add
+	 * @param source
+	 *            entry to copy the object id, mode and file stats from
+	 */
+	synchronized void add(String path, DirCacheEntry source) {
+		DirCacheEntry entry = new DirCacheEntry(path);
+		entry.copyMetaData(source);
+		edits.put(path, entry);
+	}
+
+	private DirCache getSnapshot() throws IOException {
+		if (snapshot == null || snapshot.isOutdated()) {
+			Repository repo = repository.get();
+			snapshot = repo != null ? repo.readDirCache() : DirCache.newInCore();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Writes the pending edits of all batches. Called when a workspace
+	 * operation ends; batches whose index is locked are retried later.
+	 */
+	static void flushAll() {
+		List<IndexEditBatch> batches;
+		synchronized (BATCHES) {
+			batches = new ArrayList<>(BATCHES.values());
+		}
+		boolean retry = false;
+		for (IndexEditBatch batch : batches) {
+			retry |= !batch.flush();
+		}
+		if (retry) {
+			RETRY_JOB.schedule(RETRY_DELAY);
+		}
+	}
+
+	/**
+	 * Writes the pending edits.
+	 *
+	 * @return {@code false} if the index is locked and the edits should be
+	 *         written later; {@code true} otherwise
+	 */
+	private synchronized boolean flush() {
+		snapshot = null;
+		Repository repo = repository.get();
+		if (edits.isEmpty() || repo == null) {
+			edits.clear();
+			return true;
+		}
+		DirCache index;
+		try {
+			index = repo.lockDirCache();
+		} catch (LockFailedException e) {
+			if (++retries <= MAX_RETRIES) {
+				return false;
+			}
+			Activator.logWarning(MessageFormat.format(
+					CoreText.MoveDeleteHook_cannotAutoStage,
+					Integer.valueOf(edits.size()), repo.getDirectory()), e);
+			edits.clear();
+			retries = 0;
+			return true;
+		} catch (IOException e) {
+			Activator.logError(CoreText.MoveDeleteHook_operationError, e);
+			edits.clear();
+			retries = 0;
+			return true;
+		}
+		try {
+			apply(repo, index.editor());
+		} catch (IOException e) {
+			Activator.logError(CoreText.MoveDeleteHook_operationError, e);
+		} finally {
+			index.unlock();
+			edits.clear();
+			retries = 0;
+		}
+		return true;
+	}
+
+	private void apply(Repository repo, DirCacheEditor editor)
+			throws IOException {
+		File workTree = repo.getWorkTree();
+		// On case-insensitive file systems the source of a rename that only
+		// changes the case still "exists"
+		Set<String> added = new HashSet<>();
+		for (Map.Entry<String, DirCacheEntry> edit : edits.entrySet()) {
+			if (edit.getValue() != null) {
+				added.add(edit.getKey().toLowerCase(Locale.ROOT));
+			}
+		}
+		for (Map.Entry<String, DirCacheEntry> edit : edits.entrySet()) {
+			String path = edit.getKey();
+			DirCacheEntry entry = edit.getValue();
+			boolean exists = new File(workTree, path).exists();
+			if (entry == null) {
+				if (!exists
+						|| added.contains(path.toLowerCase(Locale.ROOT))) {
+					editor.add(new DirCacheEditor.DeletePath(path));
+				}
+			} else if (exists) {
+				editor.add(new DirCacheEditor.PathEdit(path) {
+
+					@Override
+					public void apply(DirCacheEntry ent) {
+						ent.copyMetaData(entry);
+					}
+				});
+			}
+		}
+		if (!editor.commit()) {
+			Activator.logError(CoreText.MoveDeleteHook_operationError, null);
+		}
+	}
+}
@@ -23,7 +23,9 @@
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
@@ -64,10 +66,17 @@ public static RepositoryCache getInstance() {
 
 	private final Map<File, RepositoryReference> repositoryCache = new HashMap<>();
 
+	/**
+	 * Index of the work trees of all non-bare repositories in the
+	 * {@link #repositoryCache}, used for lock-free look-ups by location. It is
+	 * rebuilt (copy-on-write) whenever the cache changes.
+	 */
+	private volatile WorkTreeNode workTrees = new WorkTreeNode();
+
 	private final ListenerList globalListeners = new ListenerList();
 
 	private RepositoryCache() {
-		new Closer(queue).start();
+		new Closer(queue, this::remove).start();
 		// Set up listeners on the JGit global listener list to be able to
 		// re-fire events with the correct repository.
 		ListenerList global = Repository.getGlobalListenerList();
@@ -152,8 +161,9 @@ public Repository lookupRepository(final File gitDir) throws IOException {
 				Repository inner = new Builder().setGitDir(normalizedGitDir)
 						.readEnvironment().setup().createRepository();
 				RepositoryHandle result = new RepositoryHandle(inner);
-				repositoryCache.put(normalizedGitDir,
-						new RepositoryReference(result, inner, queue));
+				repositoryCache.put(normalizedGitDir, new RepositoryReference(
+						normalizedGitDir, result, inner, queue));
+				updateWorkTrees();
 				return result;
 			} else {
 				Repository result = r.get();
@@ -162,6 +172,7 @@ public Repository lookupRepository(final File gitDir) throws IOException {
 				} else {
 					Closer.closeReference(
 							repositoryCache.remove(normalizedGitDir));
+					updateWorkTrees();
 				}
 			}
 		}
@@ -185,12 +196,27 @@ public Repository lookupRepository(final File gitDir) throws IOException {
 	private static class RepositoryReference
 			extends WeakReference<RepositoryHandle> {
 
+		private final File gitDir;
+
+		private final IPath workTree;
+
 		private Repository inner;
 
-		public RepositoryReference(RepositoryHandle handle, Repository delegate,
-				ReferenceQueue<RepositoryHandle> queue) {
+		public RepositoryReference(File gitDir, RepositoryHandle handle,
+				Repository delegate, ReferenceQueue<RepositoryHandle> queue) {
 			super(handle, queue);
+			this.gitDir = gitDir;
 			inner = delegate;
+			workTree = delegate.isBare() ? null
+					: new Path(delegate.getWorkTree().getAbsolutePath());
+		}
+
+		public File getGitDir() {
+			return gitDir;
+		}
+
+		public IPath getWorkTree() {
+			return workTree;
 		}
 
 		public Repository getRepository() {
@@ -247,10 +273,18 @@ public RepositoryHandle build() throws IOException {
 							removeCache = true;
 						}
 					}
-					CachingRepository inner = createRepository();
-					result = new RepositoryHandle(inner);
-					repositoryCache.put(gitDir,
-							new RepositoryReference(result, inner, queue));
+					try {
+						CachingRepository inner = createRepository();
+						result = new RepositoryHandle(inner);
+						repositoryCache.put(gitDir, new RepositoryReference(
+								gitDir, result, inner, queue));
+					} finally {
+						// Also if createRepository() failed after the stale
+						// entry had been removed
+						if (result != null || removeCache) {
+							updateWorkTrees();
+						}
+					}
 				}
 			} finally {
 				if (removeCache) {
@@ -324,6 +358,7 @@ public Repository getRepository(final File gitDir) {
 				return result;
 			}
 			Closer.closeReference(repositoryCache.remove(normalizedGitDir));
+			updateWorkTrees();
 		}
 		IndexDiffCache cache = IndexDiffCache.getInstance();
 		if (cache != null) {
@@ -351,6 +386,9 @@ public Repository[] getAllRepositories() {
 					repositories.add(repository);
 				}
 			}
+			if (!toRemove.isEmpty()) {
+				updateWorkTrees();
+			}
 		}
 		removeIndexDiffCaches(toRemove);
 		return repositories.toArray(new Repository[0]);
@@ -387,41 +425,88 @@ public Repository getRepository(final IPath location) {
 		if (location == null) {
 			return null;
 		}
-		Repository repository = null;
-		int largestSegmentCount = 0;
-		List<File> toRemove = new ArrayList<>();
+		// Collect all repositories with a work tree containing the location,
+		// outermost first.
+		WorkTreeNode node = workTrees.children
+				.get(getDeviceKey(location.getDevice()));
+		int segmentCount = location.segmentCount();
+		RepositoryReference[] candidates = //
+				new RepositoryReference[segmentCount + 1];
+		int n = 0;
+		for (int i = 0; node != null; i++) {
+			if (node.reference != null) {
+				candidates[n++] = node.reference;
+			}
+			node = i < segmentCount ? node.children.get(location.segment(i))
+					: null;
+		}
+		// Pick the innermost one that is still valid. References to garbage
+		// collected handles are removed by the Closer thread.
+		while (n > 0) {
+			RepositoryReference reference = candidates[--n];
+			Repository repository = reference.get();
+			if (repository == null) {
+				continue;
+			}
+			if (repository.getDirectory().exists()) {
+				return repository;
+			}
+			removeStale(reference);
+		}
+		return null;
+	}
+
+	private static String getDeviceKey(String device) {
+		// IPath.isPrefixOf() compares devices case-insensitively
+		if (device == null) {
+			return ""; //$NON-NLS-1$
+		}
+		return device.toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * Rebuilds the {@link #workTrees} index. Must be called while holding the
+	 * lock on {@link #repositoryCache} after each modification of the cache.
+	 */
+	private void updateWorkTrees() {
+		WorkTreeNode root = new WorkTreeNode();
+		for (RepositoryReference reference : repositoryCache.values()) {
+			IPath workTree = reference.getWorkTree();
+			if (workTree == null) {
+				continue;
+			}
+			WorkTreeNode node = root.children.computeIfAbsent(
+					getDeviceKey(workTree.getDevice()),
+					key -> new WorkTreeNode());
+			for (String segment : workTree.segments()) {
+				node = node.children.computeIfAbsent(segment,
+						key -> new WorkTreeNode());
+			}
+			node.reference = reference;
+		}
+		workTrees = root;
+	}
+
+	private void removeStale(RepositoryReference reference) {
+		if (remove(reference)) {
+			Closer.closeReference(reference);
+		}
+	}
+
+	private boolean remove(RepositoryReference reference) {
 		synchronized (repositoryCache) {
-			for (Iterator<Map.Entry<File, RepositoryReference>> i = repositoryCache
-					.entrySet().iterator(); i.hasNext();) {
-				Map.Entry<File, RepositoryReference> entry = i.next();
-				Repository repo = entry.getValue().get();
-				if (repo == null) {
-					i.remove();
-					Closer.closeReference(entry.getValue());
-					toRemove.add(entry.getKey());
-					continue;
-				}
-				if (repo.isBare()) {
-					continue;
-				}
-				IPath repoPath = new Path(repo.getWorkTree().getAbsolutePath());
-				if (repoPath.isPrefixOf(location)) {
-					if (repository == null
-							|| repoPath.segmentCount() > largestSegmentCount) {
-						if (!repo.getDirectory().exists()) {
-							i.remove();
-							Closer.closeReference(entry.getValue());
-							toRemove.add(entry.getKey());
-							continue;
-						}
-						repository = repo;
-						largestSegmentCount = repoPath.segmentCount();
-					}
-				}
+			if (!repositoryCache.remove(reference.getGitDir(), reference)) {
+				return false;
 			}
+			updateWorkTrees();
 		}
-		removeIndexDiffCaches(toRemove);
-		return repository;
+		// As elsewhere, remove the IndexDiffCache entry outside the
+		// synchronized block to avoid lock inversion.
+		IndexDiffCache cache = IndexDiffCache.getInstance();
+		if (cache != null) {
+			cache.remove(reference.getGitDir());
+		}
+		return true;
 	}
 
 	/**
@@ -434,6 +519,7 @@ public void clear() {
 			gitDirs = new ArrayList<>(repositoryCache.keySet());
 			references = new ArrayList<>(repositoryCache.values());
 			repositoryCache.clear();
+			updateWorkTrees();
 		}
 		removeIndexDiffCaches(gitDirs);
 		references.forEach(Closer::closeReference);
@@ -458,8 +544,12 @@ private static class Closer extends Thread {
 
 		private final ReferenceQueue<RepositoryHandle> queue;
 
-		public Closer(ReferenceQueue<RepositoryHandle> queue) {
+		private final Consumer<RepositoryReference> onClosed;
+
+		public Closer(ReferenceQueue<RepositoryHandle> queue,
+				Consumer<RepositoryReference> onClosed) {
 			this.queue = queue;
+			this.onClosed = onClosed;
 			setDaemon(true);
 			setName("Git Repository Closer"); //$NON-NLS-1$
 		}
@@ -471,6 +561,7 @@ public void run() {
 					Reference<?> stale = queue.remove();
 					if (stale instanceof RepositoryReference) {
 						closeReference((RepositoryReference) stale);
+						onClosed.accept((RepositoryReference) stale);
 					}
 				}
 			} catch (InterruptedException e) {
@@ -486,4 +577,16 @@ public static void closeReference(RepositoryReference stale) {
 			stale.clearRepository();
 		}
 	}
+
+	/**
+	 * Node of the {@link RepositoryCache#workTrees} index. The first level
+	 * is keyed by device, all further levels by path segment. Nodes are not
+	 * modified anymore once the index has been published.
+	 */
+	private static class WorkTreeNode {
+
+		final Map<String, WorkTreeNode> children = new HashMap<>();
+
+		RepositoryReference reference;
+	}
 }
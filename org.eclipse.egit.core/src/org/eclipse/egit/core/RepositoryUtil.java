@@ -18,13 +18,15 @@
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -35,6 +37,7 @@
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.core.variables.IStringVariableManager;
 import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.egit.core.internal.CommitRefIndex;
 import org.eclipse.egit.core.internal.CoreText;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffCache;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffCacheEntry;
@@ -45,8 +48,6 @@
 import org.eclipse.jgit.api.GarbageCollectCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.errors.ConfigInvalidException;
-import org.eclipse.jgit.errors.IncorrectObjectTypeException;
-import org.eclipse.jgit.lib.CheckoutEntry;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.FileMode;
@@ -57,8 +58,6 @@
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryCache.FileKey;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevObject;
-import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.WorkingTreeIterator;
@@ -102,7 +101,15 @@ public static RepositoryUtil getInstance() {
 		return INSTANCE;
 	}
 
-	private final Map<String, Map<String, String>> commitMappingCache = new HashMap<>();
+	private final Map<String, CommitRefIndex> commitMappingCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Counts the refs changes per repository, to detect changes during
+	 * indexing.
+	 */
+	private final Map<String, AtomicLong> refsChanges = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean listening = new AtomicBoolean();
 
 	private final Map<String, String> repositoryNameCache = new HashMap<>();
 
@@ -228,8 +235,10 @@ public static List<ReflogEntry> safeReadReflog(Repository repository,
 	/**
 	 * Tries to map a commit to a symbolic reference.
 	 * <p>
-	 * This value will be cached for the given commit ID unless refresh is
-	 * specified. The return value will be the full name, e.g.
+	 * The mapping is computed for all commits of the repository at once and
+	 * cached until the refs of the repository change or refresh is
+	 * specified. Lookups don't block each other. The return value will be the
+	 * full name, e.g.
 	 * "refs/remotes/someBranch", "refs/tags/v.1.0"
 	 * <p>
 	 * Since this mapping is not unique, the following precedence rules are
@@ -255,154 +264,38 @@ public static List<ReflogEntry> safeReadReflog(Repository repository,
 	 */
 	public String mapCommitToRef(Repository repository, String commitId,
 			boolean refresh) {
-		synchronized (commitMappingCache) {
-
-			if (!ObjectId.isId(commitId)) {
-				return null;
-			}
-
-			try {
-				List<ReflogEntry> lastEntry = safeReadReflog(repository,
-						Constants.HEAD);
-				for (ReflogEntry entry : lastEntry) {
-					if (entry.getNewId().name().equals(commitId)) {
-						CheckoutEntry checkoutEntry = entry.parseCheckout();
-						if (checkoutEntry != null) {
-							Ref ref = repository
-									.findRef(checkoutEntry.getToBranch());
-							if (ref != null) {
-								ObjectId objectId = ref.getObjectId();
-								if (objectId != null && objectId.getName()
-										.equals(commitId)) {
-									return checkoutEntry.getToBranch();
-								}
-								ref = repository.getRefDatabase().peel(ref);
-							}
-							if (ref != null) {
-								ObjectId id = ref.getPeeledObjectId();
-								if (id != null
-										&& id.getName().equals(commitId)) {
-									return checkoutEntry.getToBranch();
-								}
-							}
-						}
-					}
-				}
-			} catch (IOException e) {
-				// ignore here
-			}
-
-			Map<String, String> cacheEntry = commitMappingCache.get(repository
-					.getDirectory().toString());
-			if (!refresh && cacheEntry != null
-					&& cacheEntry.containsKey(commitId)) {
-				// this may be null in fact
-				return cacheEntry.get(commitId);
-			}
-			if (cacheEntry == null) {
-				cacheEntry = new HashMap<>();
-				commitMappingCache.put(repository.getDirectory().getPath(),
-						cacheEntry);
-			} else {
-				cacheEntry.clear();
-			}
-
-			Map<String, Date> tagMap = new HashMap<>();
-			try (RevWalk rw = new RevWalk(repository)) {
-				List<Ref> tags = repository.getRefDatabase().getRefsByPrefix(
-						Constants.R_TAGS);
-				for (Ref tagRef : tags) {
-					ObjectId id = tagRef.getLeaf().getObjectId();
-					if (id == null) {
-						continue;
-					}
-					RevObject any = rw.parseAny(id);
-					if (any instanceof RevTag) {
-						RevTag tag = (RevTag) any;
-						if (tag.getObject().name().equals(commitId)) {
-							Date timestamp;
-							if (tag.getTaggerIdent() != null) {
-								timestamp = tag.getTaggerIdent().getWhen();
-							} else {
-								try {
-									RevCommit commit = rw.parseCommit(tag.getObject());
-									timestamp = commit.getCommitterIdent().getWhen();
-								} catch (IncorrectObjectTypeException e) {
-									// not referencing a commit
-									timestamp = null;
-								}
-							}
-							tagMap.put(tagRef.getName(), timestamp);
-						}
-					} else if (any instanceof RevCommit) {
-						RevCommit commit = ((RevCommit)any);
-						if (commit.name().equals(commitId))
-							tagMap.put(tagRef.getName(), commit.getCommitterIdent().getWhen());
-					} // else ignore here
-				}
-			} catch (IOException e) {
-				// ignore here
-			}
-
-			String cacheValue = null;
-
-			if (!tagMap.isEmpty()) {
-				// we try to obtain the "latest" tag
-				Date compareDate = new Date(0);
-				for (Map.Entry<String, Date> tagEntry : tagMap.entrySet()) {
-					if (tagEntry.getValue() != null
-							&& tagEntry.getValue().after(compareDate)) {
-						compareDate = tagEntry.getValue();
-						cacheValue = tagEntry.getKey();
-					}
-				}
-				// if we don't have time stamps, we sort
-				if (cacheValue == null) {
-					for (String tagName : tagMap.keySet()) {
-						if (cacheValue == null
-								|| cacheValue.compareTo(tagName) < 0) {
-							cacheValue = tagName;
-						}
-					}
-				}
-			}
-
-			if (cacheValue == null) {
-				// we didnt't find a tag, so let's look for local branches
-				try {
-					cacheValue = lastRefNameForCommitId(repository,
-							Constants.R_HEADS, commitId);
-				} catch (IOException e) {
-					// ignore here
-				}
-			}
-
-			if (cacheValue == null) {
-				// last try: remote branches
-				try {
-					cacheValue = lastRefNameForCommitId(repository,
-							Constants.R_REMOTES, commitId);
-				} catch (IOException e) {
-					// ignore here
-				}
+		if (!ObjectId.isId(commitId)) {
+			return null;
+		}
+		String key = repository.getDirectory().getPath();
+		CommitRefIndex index = refresh ? null : commitMappingCache.get(key);
+		if (index == null) {
+			listenForRefsChanges();
+			AtomicLong counter = refsChanges.computeIfAbsent(key,
+					k -> new AtomicLong());
+			long changes = counter.get();
+			index = CommitRefIndex.create(repository);
+			commitMappingCache.put(key, index);
+			// Don't keep an index that may have missed a change. A change
+			// counted after this check removes the index after the put.
+			if (changes != counter.get()) {
+				commitMappingCache.remove(key, index);
 			}
-			cacheEntry.put(commitId, cacheValue);
-			return cacheValue;
 		}
+		return index.get(ObjectId.fromString(commitId));
 	}
 
-	private String lastRefNameForCommitId(Repository repository,
-			String refPrefix, String commitId) throws IOException {
-		String result = null;
-		for (Ref ref : repository.getRefDatabase().getRefsByPrefix(refPrefix)) {
-			ObjectId objectId = ref.getObjectId();
-			if (objectId != null && objectId.name().equals(commitId)) {
-				if (result == null || result.compareTo(ref.getName()) < 0) {
-					result = ref.getName();
-				}
-			}
+	private void listenForRefsChanges() {
+		if (listening.compareAndSet(false, true)) {
+			RepositoryCache.getInstance().getGlobalListenerList()
+					.addRefsChangedListener(event -> {
+						String key = event.getRepository().getDirectory()
+								.getPath();
+						refsChanges.computeIfAbsent(key, k -> new AtomicLong())
+								.incrementAndGet();
+						commitMappingCache.remove(key);
+					});
 		}
-		return result;
 	}
 
 	/**
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.egit.core.RepositoryUtil;
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.CheckoutEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.ReflogEntry;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * An immutable reverse index from commit ids to the ref names that best
+ * describe them, as defined by
+ * {@link RepositoryUtil#mapCommitToRef(Repository, String, boolean)}. The
+ * index is built from the ref database and the HEAD reflog in one pass, and
+ * can be read concurrently.
+ */
+public final class CommitRefIndex {
+
+	/** Branches last checked out at a commit, by short name. */
+	private final Map<ObjectId, String> checkouts;
+
+	/** Best tag, local branch, or remote branch of a commit. */
+	private final Map<ObjectId, String> refs;
+
+	private CommitRefIndex(Map<ObjectId, String> checkouts,
+			Map<ObjectId, String> refs) {
+		this.checkouts = checkouts;
+		this.refs = refs;
+	}
+
+	/**
+	 * Builds the index of a repository. Parts that cannot be read are left
+	 * out.
+	 *
+	 * @param repository
+	 *            to index
+	 * @return the index
+	 */
+	@NonNull
+	public static CommitRefIndex create(Repository repository) {
+		Map<ObjectId, String> checkouts = new HashMap<>();
+		try {
+			indexCheckouts(repository, checkouts);
+		} catch (IOException e) {
+			// ignore here
+		}
+		Map<ObjectId, String> refs = new HashMap<>();
+		try (RevWalk rw = new RevWalk(repository)) {
+			indexTags(repository, rw, refs);
+		} catch (IOException e) {
+			// ignore here
+		}
+		try {
+			indexBranches(repository, Constants.R_HEADS, refs);
+		} catch (IOException e) {
+			// ignore here
+		}
+		try {
+			indexBranches(repository, Constants.R_REMOTES, refs);
+		} catch (IOException e) {
+			// ignore here
+		}
+		return new CommitRefIndex(checkouts, refs);
+	}
+
+	/**
+	 * Looks up the ref name for a commit.
+	 *
+	 * @param commit
+	 *            to look up
+	 * @return the short name of the branch last checked out at the commit if
+	 *         it still points there, otherwise the full name of the best ref,
+	 *         or {@code null} if no ref points to the commit
+	 */
+	@Nullable
+	public String get(AnyObjectId commit) {
+		String name = checkouts.get(commit);
+		return name != null ? name : refs.get(commit);
+	}
+
+	private static void indexCheckouts(Repository repository,
+			Map<ObjectId, String> checkouts) throws IOException {
+		Map<String, Ref> branches = new HashMap<>();
+		// Newest entries first
+		for (ReflogEntry entry : RepositoryUtil.safeReadReflog(repository,
+				Constants.HEAD)) {
+			ObjectId commit = entry.getNewId();
+			if (checkouts.containsKey(commit)) {
+				continue;
+			}
+			CheckoutEntry checkout = entry.parseCheckout();
+			if (checkout == null) {
+				continue;
+			}
+			String branch = checkout.getToBranch();
+			Ref ref;
+			if (branches.containsKey(branch)) {
+				ref = branches.get(branch);
+			} else {
+				ref = repository.findRef(branch);
+				if (ref != null && !ref.isPeeled()) {
+					ref = repository.getRefDatabase().peel(ref);
+				}
+				branches.put(branch, ref);
+			}
+			if (ref != null && (commit.equals(ref.getObjectId())
+					|| commit.equals(ref.getPeeledObjectId()))) {
+				checkouts.put(commit, branch);
+			}
+		}
+	}
+
+	/**
+	 * Maps each tagged commit to its newest tag, by tagger or committer time,
+	 * or to the highest tag name if no times are known.
+	 *
+	 * @param repository
+	 *            to index the tags of
+	 * @param rw
+	 *            to parse tags and commits with
+	 * @param refs
+	 *            to add the mapping to
+	 * @throws IOException
+	 *             if the refs or objects cannot be read
+	 */
+	private static void indexTags(Repository repository, RevWalk rw,
+			Map<ObjectId, String> refs) throws IOException {
+		RefDatabase refDb = repository.getRefDatabase();
+		Map<ObjectId, List<Ref>> tagsByTarget = new HashMap<>();
+		for (Ref tagRef : refDb.getRefsByPrefix(Constants.R_TAGS)) {
+			Ref leaf = tagRef.getLeaf();
+			if (leaf.getObjectId() == null) {
+				continue;
+			}
+			// Packed refs are usually peeled already; no need to parse
+			Ref peeled = leaf.isPeeled() ? leaf : refDb.peel(leaf);
+			ObjectId target = peeled.getPeeledObjectId();
+			if (target == null) {
+				target = leaf.getObjectId();
+			}
+			tagsByTarget.computeIfAbsent(target, id -> new ArrayList<>(1))
+					.add(tagRef);
+		}
+		for (Map.Entry<ObjectId, List<Ref>> entry : tagsByTarget
+				.entrySet()) {
+			List<Ref> tags = entry.getValue();
+			if (tags.size() == 1) {
+				refs.put(entry.getKey(), tags.get(0).getName());
+				continue;
+			}
+			String newest = null;
+			long newestTime = 0;
+			String highest = null;
+			for (Ref tag : tags) {
+				String name = tag.getName();
+				long time = getTime(rw, tag.getLeaf().getObjectId());
+				if (time > newestTime || time == newestTime && newest != null
+						&& newest.compareTo(name) < 0) {
+					newestTime = time;
+					newest = name;
+				}
+				if (highest == null || highest.compareTo(name) < 0) {
+					highest = name;
+				}
+			}
+			refs.put(entry.getKey(), newest != null ? newest : highest);
+		}
+	}
+
+	/**
+	 * @param rw
+	 *            to parse the object with
+	 * @param id
+	 *            of a tag or commit
+	 * @return the tagger time of an annotated tag, or the committer time of
+	 *         the tagged commit, in milliseconds since the epoch; 0 if
+	 *         unknown
+	 * @throws IOException
+	 *             if the object cannot be read
+	 */
+	private static long getTime(RevWalk rw, ObjectId id) throws IOException {
+		RevObject any = rw.parseAny(id);
+		if (any instanceof RevTag) {
+			RevTag tag = (RevTag) any;
+			if (tag.getTaggerIdent() != null) {
+				return tag.getTaggerIdent().getWhen().getTime();
+			}
+			try {
+				any = rw.parseCommit(tag.getObject());
+			} catch (IncorrectObjectTypeException e) {
+				// not referencing a commit
+				return 0;
+			}
+		}
+		if (any instanceof RevCommit) {
+			return ((RevCommit) any).getCommitterIdent().getWhen().getTime();
+		}
+		return 0;
+	}
+
+	/**
+	 * Maps commits not mapped yet to the highest name of the refs with the
+	 * given prefix pointing to them.
+	 *
+	 * @param repository
+	 *            to index the refs of
+	 * @param prefix
+	 *            of the refs to index
+	 * @param refs
+	 *            to add the mapping to
+	 * @throws IOException
+	 *             if the refs cannot be read
+	 */
+	private static void indexBranches(Repository repository, String prefix,
+			Map<ObjectId, String> refs) throws IOException {
+		Map<ObjectId, String> branches = new HashMap<>();
+		for (Ref ref : repository.getRefDatabase()
+				.getRefsByPrefix(prefix)) {
+			ObjectId objectId = ref.getObjectId();
+			if (objectId == null || refs.containsKey(objectId)) {
+				continue;
+			}
+			String name = ref.getName();
+			branches.merge(objectId, name,
+					(a, b) -> a.compareTo(b) < 0 ? b : a);
+		}
+		refs.putAll(branches);
+	}
+}
@@ -78,6 +78,15 @@ public class CoreText extends NLS {
 	/** */
 	public static String CommitFileRevision_pathNotIn;
 
+	/** */
+	public static String CommitIndexCache_cannotUpdate;
+
+	/** */
+	public static String CommitIndexCache_pruneJob;
+
+	/** */
+	public static String CommitIndexCache_updateJob;
+
 	/** */
 	public static String CommitOperation_ParseCherryPickCommitFailed;
 
@@ -349,7 +358,10 @@ public class CoreText extends NLS {
 	public static String MoveDeleteHook_unmergedFileInFolderError;
 
 	/** */
-	public static String MoveDeleteHook_cannotAutoStageDeletion;
+	public static String MoveDeleteHook_cannotAutoStage;
+
+	/** */
+	public static String MoveDeleteHook_retryJobName;
 
 	/** */
 	public static String Error_CanonicalFile;
@@ -381,9 +393,15 @@ public class CoreText extends NLS {
 	/** */
 	public static String CreatePatchOperation_patchFileCouldNotBeWritten;
 
+	/** */
+	public static String IndexDiffCache_pruneJob;
+
 	/** */
 	public static String IndexDiffCacheEntry_cannotReadIndex;
 
+	/** */
+	public static String IndexDiffCacheEntry_cannotWriteSnapshot;
+
 	/** */
 	public static String IndexDiffCacheEntry_errorCalculatingIndexDelta;
 
@@ -429,6 +447,15 @@ public class CoreText extends NLS {
 	/** */
 	public static String PushOperation_resultCancelled;
 
+	/** */
+	public static String PushOperation_pushJobName;
+
+	/** */
+	public static String PushOperation_pushJobNameDryRun;
+
+	/** */
+	public static String PushOperation_TaskName;
+
 	/** */
 	public static String PushOperation_taskNameDryRun;
 
@@ -570,6 +597,15 @@ public class CoreText extends NLS {
 	/** */
 	public static String SubmoduleUpdateOperation_cloning;
 
+	/** */
+	public static String SubmoduleUpdateOperation_updatingSubmodule;
+
+	/** */
+	public static String SubmoduleUpdateOperation_failed;
+
+	/** */
+	public static String SubmoduleUpdateOperation_submoduleFailed;
+
 	/** */
 	public static String ValidationUtils_CanNotResolveRefMessage;
 
@@ -588,6 +624,9 @@ public class CoreText extends NLS {
 	/** */
 	public static String ValidationUtils_PleaseEnterNameMessage;
 
+	/** */
+	public static String WorkTreeWatcher_cannotWatch;
+
 	/** */
 	public static String ReportingTypedConfigGetter_invalidConfig;
 
@@ -0,0 +1,763 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.commitindex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * An index of the metadata of all commits reachable from the refs of a
+ * repository: ids of the commit, its tree and its parents, author, committer
+ * and the full message. Searching the index needs no access to the object
+ * database.
+ * <p>
+ * The index is updated incrementally: {@link #update(Repository,
+ * IProgressMonitor)} walks only the commits reachable from the current ref
+ * tips but not from the tips of the last update. The new commits are appended
+ * to a log next to the index file; once the log has grown to a quarter of
+ * the size of the index file, both are compacted into a new index file.
+ * Commits that are no longer reachable stay in the index; they are not
+ * visited by {@link #forEachReachable(Collection, Visitor, IProgressMonitor)}
+ * since that starts from the tips given.
+ * </p>
+ * <p>
+ * Readers see an immutable state; updates replace it. Lookups are therefore
+ * lock-free and may run concurrently with an update.
+ * </p>
+ * <p>
+ * The whole index is kept in memory. Each commit takes about 300 bytes for
+ * the ids, the lookup table and object headers plus two bytes per character
+ * of its message,
+ * author and committer; a repository with a million commits with messages of
+ * 500 characters thus needs about 1.3 GB. {@link CommitIndexCache} holds
+ * indices through soft references only, so they are dropped under memory
+ * pressure and read from disk again when needed.
+ * </p>
+ */
+public class CommitIndex {
+
+	static final int VERSION = 2;
+
+	/**
+	 * Longer strings are truncated when written, and taken as a sign of a
+	 * corrupt file when read.
+	 */
+	private static final int MAX_STRING_LENGTH = 16 << 20;
+
+	/** Maximum number of ref tips and of commits in a file. */
+	private static final int MAX_COUNT = 1 << 28;
+
+	private static final String LOG_SUFFIX = ".log"; //$NON-NLS-1$
+
+	/**
+	 * The metadata of one commit.
+	 */
+	public static final class Entry extends ObjectId {
+
+		private static final long serialVersionUID = 1L;
+
+		final int position;
+
+		private final ObjectId tree;
+
+		private final ObjectId[] parents;
+
+		private final int commitTime;
+
+		private final String authorName;
+
+		private final String authorEmail;
+
+		private final String committerName;
+
+		private final String committerEmail;
+
+		private final String message;
+
+		Entry(AnyObjectId id, int position, ObjectId tree,
+				ObjectId[] parents, int commitTime, String authorName,
+				String authorEmail, String committerName,
+				String committerEmail, String message) {
+			super(id);
+			this.position = position;
+			this.tree = tree;
+			this.parents = parents;
+			this.commitTime = commitTime;
+			this.authorName = authorName;
+			this.authorEmail = authorEmail;
+			this.committerName = committerName;
+			this.committerEmail = committerEmail;
+			this.message = message;
+		}
+
+		/**
+		 * Creates an entry from a commit whose body has been parsed. The
+		 * entry doesn't belong to any index.
+		 *
+		 * @param commit
+		 *            to create the entry for
+		 * @return the entry
+		 */
+		public static Entry of(RevCommit commit) {
+			return of(commit, -1);
+		}
+
+		private static Entry of(RevCommit commit, int position) {
+			ObjectId[] parents = new ObjectId[commit.getParentCount()];
+			for (int i = 0; i < parents.length; i++) {
+				parents[i] = commit.getParent(i).copy();
+			}
+			PersonIdent author = commit.getAuthorIdent();
+			PersonIdent committer = commit.getCommitterIdent();
+			return new Entry(commit, position, commit.getTree().copy(),
+					parents, commit.getCommitTime(),
+					author != null ? author.getName() : null,
+					author != null ? author.getEmailAddress() : null,
+					committer != null ? committer.getName() : null,
+					committer != null ? committer.getEmailAddress() : null,
+					commit.getFullMessage());
+		}
+
+		/**
+		 * @return the id of the commit's tree
+		 */
+		public ObjectId getTree() {
+			return tree;
+		}
+
+		/**
+		 * @return the ids of the commit's parents
+		 */
+		public ObjectId[] getParents() {
+			return parents.clone();
+		}
+
+		/**
+		 * @return the committer time in seconds since the epoch
+		 */
+		public int getCommitTime() {
+			return commitTime;
+		}
+
+		/**
+		 * @return the author's name, or {@code null} if unknown
+		 */
+		@Nullable
+		public String getAuthorName() {
+			return authorName;
+		}
+
+		/**
+		 * @return the author's e-mail address, or {@code null} if unknown
+		 */
+		@Nullable
+		public String getAuthorEmail() {
+			return authorEmail;
+		}
+
+		/**
+		 * @return the committer's name, or {@code null} if unknown
+		 */
+		@Nullable
+		public String getCommitterName() {
+			return committerName;
+		}
+
+		/**
+		 * @return the committer's e-mail address, or {@code null} if unknown
+		 */
+		@Nullable
+		public String getCommitterEmail() {
+			return committerEmail;
+		}
+
+		/**
+		 * @return the full commit message
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		void writeTo(DataOutputStream out) throws IOException {
+			copyRawTo(out);
+			tree.copyRawTo(out);
+			out.writeShort(parents.length);
+			for (ObjectId parent : parents) {
+				parent.copyRawTo(out);
+			}
+			out.writeInt(commitTime);
+			writeString(out, authorName);
+			writeString(out, authorEmail);
+			writeString(out, committerName);
+			writeString(out, committerEmail);
+			writeString(out, message);
+		}
+
+		static Entry readFrom(DataInput in, int position) throws IOException {
+			ObjectId id = readId(in);
+			ObjectId tree = readId(in);
+			ObjectId[] parents = new ObjectId[in.readUnsignedShort()];
+			for (int i = 0; i < parents.length; i++) {
+				parents[i] = readId(in);
+			}
+			int commitTime = in.readInt();
+			return new Entry(id, position, tree, parents, commitTime,
+					readString(in), readString(in), readString(in),
+					readString(in), readString(in));
+		}
+	}
+
+	/**
+	 * Receives the entries visited by
+	 * {@link CommitIndex#forEachReachable(Collection, Visitor, IProgressMonitor)}.
+	 */
+	@FunctionalInterface
+	public interface Visitor {
+
+		/**
+		 * @param entry
+		 *            visited
+		 * @throws IOException
+		 *             to abort the traversal
+		 */
+		void visit(Entry entry) throws IOException;
+	}
+
+	private static final class State {
+
+		static final State EMPTY = new State(new Entry[0], 0,
+				new ObjectId[0]);
+
+		/**
+		 * Shared with later states, which only append; slots from
+		 * {@link #size} on must not be read.
+		 */
+		final Entry[] entries;
+
+		final int size;
+
+		final ObjectId[] tips;
+
+		State(Entry[] entries, int size, ObjectId[] tips) {
+			this.entries = entries;
+			this.size = size;
+			this.tips = tips;
+		}
+	}
+
+	private final File file;
+
+	private final File gitDir;
+
+	private volatile State state = State.EMPTY;
+
+	/**
+	 * All entries by id. Shared by all states; entries are added only after
+	 * an update has completed, but may be found before the state containing
+	 * them is published, which is harmless since entries are immutable.
+	 */
+	private final Map<AnyObjectId, Entry> map = new ConcurrentHashMap<>();
+
+	/** Identifies the index file a log belongs to. */
+	private long generation;
+
+	/** Whether the log is unusable and must be compacted. */
+	private boolean compact;
+
+	/**
+	 * Loads an index from disk. If the file doesn't exist, is corrupt, or
+	 * belongs to another repository, an empty index is returned.
+	 *
+	 * @param file
+	 *            the index is stored in
+	 * @param gitDir
+	 *            of the repository
+	 * @return the index
+	 */
+	@NonNull
+	static CommitIndex load(File file, File gitDir) {
+		CommitIndex index = new CommitIndex(file, gitDir);
+		if (file.isFile()) {
+			try {
+				index.read();
+			} catch (IOException e) {
+				// Rebuilt on the next update
+				index.state = State.EMPTY;
+				index.map.clear();
+				index.compact = true;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Deletes a stored index.
+	 *
+	 * @param file
+	 *            the index is stored in
+	 * @throws IOException
+	 *             if the index cannot be deleted
+	 */
+	static void delete(File file) throws IOException {
+		Files.deleteIfExists(getLogFile(file).toPath());
+		Files.deleteIfExists(file.toPath());
+	}
+
+	private static File getLogFile(File file) {
+		return new File(file.getPath() + LOG_SUFFIX);
+	}
+
+	CommitIndex(File file, File gitDir) {
+		this.file = file;
+		this.gitDir = gitDir;
+	}
+
+	/**
+	 * @return the number of commits in the index
+	 */
+	public int size() {
+		return state.size;
+	}
+
+	/**
+	 * Looks up a commit.
+	 *
+	 * @param id
+	 *            of the commit
+	 * @return the entry, or {@code null} if the commit is not indexed
+	 */
+	@Nullable
+	public Entry lookup(AnyObjectId id) {
+		return map.get(id);
+	}
+
+	/**
+	 * Brings the index up to date with the refs of the repository, and saves
+	 * it if it changed.
+	 *
+	 * @param repository
+	 *            the index belongs to
+	 * @param monitor
+	 *            for cancellation
+	 * @return {@code true} if new commits were indexed
+	 * @throws IOException
+	 *             if the repository cannot be read or the index cannot be
+	 *             saved
+	 * @throws OperationCanceledException
+	 *             if canceled; the index is unchanged then
+	 */
+	public synchronized boolean update(Repository repository,
+			IProgressMonitor monitor) throws IOException {
+		State current = state;
+		ObjectId[] tips = getTips(repository);
+		if (Arrays.equals(tips, current.tips)) {
+			return false;
+		}
+		List<Entry> added = new ArrayList<>();
+		try (RevWalk walk = new RevWalk(repository)) {
+			walk.setRetainBody(true);
+			for (ObjectId tip : tips) {
+				walk.markStart(walk.parseCommit(tip));
+			}
+			for (ObjectId tip : current.tips) {
+				try {
+					walk.markUninteresting(walk.parseCommit(tip));
+				} catch (MissingObjectException e) {
+					// Pruned; walk from the other tips
+				}
+			}
+			for (RevCommit commit : walk) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				if (!map.containsKey(commit)) {
+					added.add(Entry.of(commit, current.size + added.size()));
+				}
+				commit.disposeBody();
+			}
+		}
+		Entry[] entries = current.entries;
+		int size = current.size;
+		for (Entry entry : added) {
+			entries = ensureCapacity(entries, size);
+			entries[size++] = entry;
+			map.put(entry, entry);
+		}
+		State next = new State(entries, size, tips);
+		state = next;
+		if (file != null) {
+			save(current, next);
+		}
+		return !added.isEmpty();
+	}
+
+	private static Entry[] ensureCapacity(Entry[] entries, int size) {
+		if (size < entries.length) {
+			return entries;
+		}
+		return Arrays.copyOf(entries, Math.max(1024, 2 * size));
+	}
+
+	/**
+	 * Visits all indexed commits reachable from the given commits.
+	 *
+	 * @param starts
+	 *            ids of the commits to start from
+	 * @param visitor
+	 *            to call for each commit
+	 * @param monitor
+	 *            for cancellation
+	 * @return {@code false}, without visiting anything, if any of the start
+	 *         commits is not indexed
+	 * @throws IOException
+	 *             if the visitor throws
+	 * @throws OperationCanceledException
+	 *             if canceled
+	 */
+	public boolean forEachReachable(Collection<? extends AnyObjectId> starts,
+			Visitor visitor, IProgressMonitor monitor) throws IOException {
+		State current = state;
+		Deque<Entry> pending = new ArrayDeque<>();
+		BitSet seen = new BitSet(current.size);
+		for (AnyObjectId id : starts) {
+			Entry entry = map.get(id);
+			if (entry == null) {
+				return false;
+			}
+			if (!seen.get(entry.position)) {
+				seen.set(entry.position);
+				pending.push(entry);
+			}
+		}
+		while (!pending.isEmpty()) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			Entry entry = pending.pop();
+			visitor.visit(entry);
+			for (ObjectId parentId : entry.parents) {
+				Entry parent = map.get(parentId);
+				// Parents are missing in shallow clones
+				if (parent != null && !seen.get(parent.position)) {
+					seen.set(parent.position);
+					pending.push(parent);
+				}
+			}
+		}
+		return true;
+	}
+
+	private static ObjectId[] getTips(Repository repository)
+			throws IOException {
+		Set<ObjectId> tips = new HashSet<>();
+		try (RevWalk walk = new RevWalk(repository)) {
+			List<Ref> refs = new ArrayList<>(
+					repository.getRefDatabase().getRefs());
+			Ref head = repository.exactRef(Constants.HEAD);
+			if (head != null) {
+				refs.add(head);
+			}
+			for (Ref ref : refs) {
+				ObjectId id = ref.getLeaf().getPeeledObjectId();
+				if (id == null) {
+					id = ref.getLeaf().getObjectId();
+				}
+				if (id == null) {
+					continue;
+				}
+				try {
+					RevObject target = walk.peel(walk.parseAny(id));
+					if (target instanceof RevCommit) {
+						tips.add(target.copy());
+					}
+				} catch (MissingObjectException e) {
+					// Broken ref; ignore
+				}
+			}
+		}
+		ObjectId[] result = tips.toArray(new ObjectId[0]);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private void save(State previous, State current) throws IOException {
+		File log = getLogFile(file);
+		if (compact || !file.isFile() || log.length() > file.length() / 4) {
+			write(current);
+			Files.deleteIfExists(log.toPath());
+			compact = false;
+		} else {
+			append(log, previous, current);
+		}
+	}
+
+	private void write(State current) throws IOException {
+		long nextGeneration = ThreadLocalRandom.current().nextLong();
+		Path directory = file.getParentFile().toPath();
+		Files.createDirectories(directory);
+		Path tmp = Files.createTempFile(directory, "tmp", ".idx"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new DeflaterOutputStream(
+							Files.newOutputStream(tmp))))) {
+				out.writeInt(VERSION);
+				writeString(out, gitDir.getAbsolutePath());
+				out.writeLong(nextGeneration);
+				writeEntries(out, current, 0);
+			}
+			Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+		generation = nextGeneration;
+	}
+
+	/**
+	 * Appends a segment with the entries added since the previous state to
+	 * the log. Each segment is deflated separately and prefixed with its
+	 * length, so that a segment only partially written can be detected.
+	 *
+	 * @param log
+	 *            to append to
+	 * @param previous
+	 *            state that was saved last
+	 * @param current
+	 *            state to save
+	 * @throws IOException
+	 *             if the log cannot be written
+	 */
+	private void append(File log, State previous, State current)
+			throws IOException {
+		ByteArrayOutputStream segment = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(
+				new DeflaterOutputStream(segment))) {
+			writeEntries(out, current, previous.size);
+		}
+		boolean header = log.length() == 0;
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(log, true)))) {
+			if (header) {
+				out.writeInt(VERSION);
+				out.writeLong(generation);
+			}
+			out.writeInt(segment.size());
+			segment.writeTo(out);
+		}
+	}
+
+	private static void writeEntries(DataOutputStream out, State current,
+			int from) throws IOException {
+		out.writeInt(current.tips.length);
+		for (ObjectId tip : current.tips) {
+			tip.copyRawTo(out);
+		}
+		out.writeInt(current.size - from);
+		for (int i = from; i < current.size; i++) {
+			current.entries[i].writeTo(out);
+		}
+	}
+
+	/**
+	 * Reads the git directory an index file belongs to.
+	 *
+	 * @param file
+	 *            the index is stored in
+	 * @return the absolute path of the git directory, or {@code null} if the
+	 *         file has an unknown version
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	@Nullable
+	static String readGitDir(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new InflaterInputStream(
+						Files.newInputStream(file.toPath()))))) {
+			if (in.readInt() != VERSION) {
+				return null;
+			}
+			return readString(in);
+		}
+	}
+
+	private void read() throws IOException {
+		State current;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new InflaterInputStream(
+						Files.newInputStream(file.toPath()))))) {
+			if (in.readInt() != VERSION
+					|| !gitDir.getAbsolutePath().equals(readString(in))) {
+				compact = true;
+				return;
+			}
+			generation = in.readLong();
+			current = readEntries(in, State.EMPTY);
+		}
+		state = current;
+		readLog();
+	}
+
+	/**
+	 * Reads the segments of the log written since the index file. Reading
+	 * stops at the first segment that is incomplete or corrupt; the log is
+	 * then compacted on the next update.
+	 */
+	private void readLog() {
+		File log = getLogFile(file);
+		if (!log.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(log.toPath())))) {
+			long remaining = log.length() - 12;
+			if (remaining < 0 || in.readInt() != VERSION
+					|| in.readLong() != generation) {
+				compact = true;
+				return;
+			}
+			while (remaining > 0) {
+				int length = remaining >= 4 ? in.readInt() : -1;
+				remaining -= 4;
+				if (length < 0 || length > remaining) {
+					compact = true;
+					return;
+				}
+				byte[] segment = new byte[length];
+				in.readFully(segment);
+				remaining -= length;
+				try (DataInputStream data = new DataInputStream(
+						new InflaterInputStream(
+								new ByteArrayInputStream(segment)))) {
+					state = readEntries(data, state);
+				}
+			}
+		} catch (IOException e) {
+			compact = true;
+		}
+	}
+
+	/**
+	 * Reads tips and entries, and adds the entries not yet known to a state.
+	 * The map is only changed once everything has been read.
+	 *
+	 * @param in
+	 *            to read from
+	 * @param current
+	 *            state to add the entries to
+	 * @return the new state
+	 * @throws IOException
+	 *             if the data cannot be read or is corrupt
+	 */
+	private State readEntries(DataInput in, State current)
+			throws IOException {
+		ObjectId[] tips = new ObjectId[readCount(in)];
+		for (int i = 0; i < tips.length; i++) {
+			tips[i] = readId(in);
+		}
+		int count = readCount(in);
+		Entry[] entries = current.entries;
+		int size = current.size;
+		List<Entry> added = new ArrayList<>(Math.min(count, 1024));
+		for (int i = 0; i < count; i++) {
+			Entry entry = Entry.readFrom(in, size + added.size());
+			if (!map.containsKey(entry)) {
+				added.add(entry);
+			}
+		}
+		for (Entry entry : added) {
+			entries = ensureCapacity(entries, size);
+			entries[size++] = entry;
+			map.put(entry, entry);
+		}
+		return new State(entries, size, tips);
+	}
+
+	private static int readCount(DataInput in) throws IOException {
+		int count = in.readInt();
+		if (count < 0 || count > MAX_COUNT) {
+			throw new IOException("Invalid count " + count); //$NON-NLS-1$
+		}
+		return count;
+	}
+
+	private static ObjectId readId(DataInput in) throws IOException {
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		in.readFully(raw);
+		return ObjectId.fromRaw(raw);
+	}
+
+	private static void writeString(DataOutput out, String value)
+			throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(bytes.length, MAX_STRING_LENGTH);
+		out.writeInt(length);
+		out.write(bytes, 0, length);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) {
+			return null;
+		}
+		if (length < 0 || length > MAX_STRING_LENGTH) {
+			throw new IOException("Invalid string length " + length); //$NON-NLS-1$
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.commitindex;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.egit.core.Activator;
+import org.eclipse.egit.core.RepositoryCache;
+import org.eclipse.egit.core.RepositoryUtil;
+import org.eclipse.egit.core.internal.CoreText;
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.events.RefsChangedEvent;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Provides the {@link CommitIndex} of repositories. Indices are stored in the
+ * plug-in's state location and kept in memory as long as memory permits.
+ * Once a repository has an index, it is updated in the background whenever
+ * the refs of the repository change. The stored indices of repositories that
+ * are no longer configured or no longer exist are deleted.
+ */
+public class CommitIndexCache {
+
+	private static final String DIRECTORY = "commitindex"; //$NON-NLS-1$
+
+	private static final String SUFFIX = ".idx"; //$NON-NLS-1$
+
+	/** Prefix of the temporary files {@link CommitIndex} writes. */
+	private static final String TMP_PREFIX = "tmp"; //$NON-NLS-1$
+
+	private static final long UPDATE_DELAY = 1000;
+
+	private static CommitIndexCache instance;
+
+	private final Map<File, SoftReference<CommitIndex>> indices;
+
+	private final Map<File, Job> updateJobs = new HashMap<>();
+
+	private final Job pruneJob = new Job(CoreText.CommitIndexCache_pruneJob) {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			prune();
+			return Status.OK_STATUS;
+		}
+	};
+
+	/**
+	 * @return the singleton instance
+	 */
+	public static synchronized CommitIndexCache getInstance() {
+		if (instance == null) {
+			instance = new CommitIndexCache();
+		}
+		return instance;
+	}
+
+	private CommitIndexCache() {
+		indices = new HashMap<>();
+		RepositoryCache.getInstance().getGlobalListenerList()
+				.addRefsChangedListener(this::refsChanged);
+		pruneJob.setSystem(true);
+		pruneJob.setPriority(Job.DECORATE);
+		RepositoryUtil.getInstance().getPreferences()
+				.addPreferenceChangeListener(event -> {
+					if (RepositoryUtil.PREFS_DIRECTORIES_REL
+							.equals(event.getKey())) {
+						pruneJob.schedule(UPDATE_DELAY);
+					}
+				});
+		// Repositories may have been removed while Eclipse wasn't running
+		pruneJob.schedule(UPDATE_DELAY);
+	}
+
+	/**
+	 * Gets the index of a repository, loading it from disk if necessary. The
+	 * index may not be up to date; call
+	 * {@link CommitIndex#update(Repository, IProgressMonitor)} to make sure
+	 * it is.
+	 *
+	 * @param repository
+	 *            to get the index of
+	 * @return the index
+	 */
+	@NonNull
+	public CommitIndex getIndex(Repository repository) {
+		File gitDir = repository.getDirectory();
+		synchronized (indices) {
+			SoftReference<CommitIndex> ref = indices.get(gitDir);
+			CommitIndex index = ref != null ? ref.get() : null;
+			if (index == null) {
+				File file = getFile(gitDir);
+				index = file != null ? CommitIndex.load(file, gitDir)
+						: new CommitIndex(null, gitDir);
+				indices.put(gitDir, new SoftReference<>(index));
+			}
+			return index;
+		}
+	}
+
+	private void refsChanged(RefsChangedEvent event) {
+		Repository repository = event.getRepository();
+		File gitDir = repository.getDirectory();
+		boolean indexed;
+		synchronized (indices) {
+			SoftReference<CommitIndex> ref = indices.get(gitDir);
+			indexed = ref != null && ref.get() != null;
+		}
+		File file = getFile(gitDir);
+		if (!indexed && (file == null || !file.isFile())) {
+			// Indices are created on first use only
+			return;
+		}
+		Job job;
+		synchronized (updateJobs) {
+			job = updateJobs.computeIfAbsent(gitDir,
+					dir -> new UpdateJob(dir));
+		}
+		job.schedule(UPDATE_DELAY);
+	}
+
+	/**
+	 * Deletes the stored indices of repositories that are no longer
+	 * configured or whose git directory no longer exists, and forgets them.
+	 */
+	private void prune() {
+		File directory = getDirectory();
+		File[] files = directory != null
+				? directory.listFiles((dir, name) -> name.endsWith(SUFFIX)
+						&& !name.startsWith(TMP_PREFIX))
+				: null;
+		if (files == null) {
+			return;
+		}
+		Set<String> configured = new HashSet<>(
+				RepositoryUtil.getInstance().getConfiguredRepositories());
+		for (File file : files) {
+			String gitDir;
+			try {
+				gitDir = CommitIndex.readGitDir(file);
+			} catch (IOException e) {
+				// Corrupt; it would be rebuilt anyway
+				gitDir = null;
+			}
+			if (gitDir != null && configured.contains(gitDir)
+					&& new File(gitDir).isDirectory()) {
+				continue;
+			}
+			if (gitDir != null) {
+				synchronized (indices) {
+					indices.remove(new File(gitDir));
+				}
+			}
+			try {
+				CommitIndex.delete(file);
+			} catch (IOException e) {
+				// Try again next time
+			}
+		}
+	}
+
+	@Nullable
+	private static File getDirectory() {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return null;
+		}
+		try {
+			return new File(activator.getStateLocation().toFile(), DIRECTORY);
+		} catch (IllegalStateException e) {
+			// No instance location
+			return null;
+		}
+	}
+
+	@Nullable
+	private static File getFile(File gitDir) {
+		File directory = getDirectory();
+		if (directory == null) {
+			return null;
+		}
+		String name = ObjectId.fromRaw(Constants.newMessageDigest()
+				.digest(gitDir.getAbsolutePath()
+						.getBytes(StandardCharsets.UTF_8)))
+				.name();
+		return new File(directory, name + SUFFIX);
+	}
+
+	private class UpdateJob extends Job {
+
+		private final File gitDir;
+
+		UpdateJob(File gitDir) {
+			super(MessageFormat.format(CoreText.CommitIndexCache_updateJob,
+					gitDir));
+			this.gitDir = gitDir;
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Repository repository = RepositoryCache.getInstance()
+					.getRepository(gitDir);
+			if (repository == null) {
+				return Status.OK_STATUS;
+			}
+			try {
+				getIndex(repository).update(repository, monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (IOException e) {
+				Activator.logWarning(MessageFormat.format(
+						CoreText.CommitIndexCache_cannotUpdate,
+						RepositoryUtil.getInstance()
+								.getRepositoryName(repository)),
+						e);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+}
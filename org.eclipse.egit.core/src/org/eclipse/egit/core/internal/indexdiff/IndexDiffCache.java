@@ -31,11 +31,16 @@
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.egit.core.Activator;
 import org.eclipse.egit.core.JobFamilies;
 import org.eclipse.egit.core.RepositoryCache;
+import org.eclipse.egit.core.RepositoryUtil;
+import org.eclipse.egit.core.internal.CoreText;
 import org.eclipse.egit.core.internal.SafeRunnable;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.annotations.Nullable;
@@ -49,6 +54,8 @@
  */
 public class IndexDiffCache {
 
+	private static final long PRUNE_DELAY = 1000;
+
 	private static IndexDiffCache INSTANCE = new IndexDiffCache(
 			RepositoryCache.getInstance());
 
@@ -69,6 +76,15 @@ public static IndexDiffCache getInstance() {
 
 	private ExternalFileBufferListener bufferListener;
 
+	private final Job pruneJob = new Job(CoreText.IndexDiffCache_pruneJob) {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			pruneSnapshots();
+			return Status.OK_STATUS;
+		}
+	};
+
 	/**
 	 * Listener on buffer changes related to the workspace external files.
 	 */
@@ -224,6 +240,37 @@ public void bufferContentAboutToBeReplaced(IFileBuffer buffer) {
 	private IndexDiffCache(RepositoryCache cache) {
 		globalListener = this::notifyListeners;
 		registerBufferListener(cache);
+		pruneJob.setSystem(true);
+		pruneJob.setPriority(Job.DECORATE);
+		RepositoryUtil.getInstance().getPreferences()
+				.addPreferenceChangeListener(event -> {
+					if (RepositoryUtil.PREFS_DIRECTORIES_REL
+							.equals(event.getKey())) {
+						pruneJob.schedule(PRUNE_DELAY);
+					}
+				});
+		// Repositories may have been removed while Eclipse wasn't running
+		pruneJob.schedule(PRUNE_DELAY);
+	}
+
+	/**
+	 * Deletes the persisted snapshots of repositories that are no longer
+	 * configured or whose git directory no longer exists.
+	 */
+	private void pruneSnapshots() {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return;
+		}
+		File stateLocation;
+		try {
+			stateLocation = activator.getStateLocation().toFile();
+		} catch (IllegalStateException e) {
+			// No instance location
+			return;
+		}
+		IndexDiffSnapshot.prune(stateLocation, new HashSet<>(
+				RepositoryUtil.getInstance().getConfiguredRepositories()));
 	}
 
 	private void registerBufferListener(RepositoryCache cache) {
@@ -296,7 +343,9 @@ public void dispose() {
 				bufferListener = null;
 			}
 		}
+		pruneJob.cancel();
 		for (IndexDiffCacheEntry entry : entries.values()) {
+			entry.persistSnapshot();
 			entry.dispose();
 		}
 		Job.getJobManager().cancel(JobFamilies.INDEX_DIFF_CACHE_UPDATE);
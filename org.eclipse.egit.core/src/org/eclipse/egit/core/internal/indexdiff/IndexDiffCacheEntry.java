@@ -26,7 +26,6 @@
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.resources.IProject;
@@ -57,6 +56,7 @@
 import org.eclipse.egit.core.internal.trace.GitTraceLocation;
 import org.eclipse.egit.core.internal.util.ProjectUtil;
 import org.eclipse.egit.core.internal.util.ResourceUtil;
+import org.eclipse.egit.core.settings.GitSettings;
 import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.dircache.DirCacheIterator;
@@ -82,7 +82,14 @@
  */
 public class IndexDiffCacheEntry {
 
-	private static final int RESOURCE_LIST_UPDATE_LIMIT = 1000;
+	/**
+	 * Time in milliseconds after the last call to {@link #getIndexDiff()}
+	 * during which a repository is considered in use.
+	 */
+	private static final long IN_USE_PERIOD = 60_000;
+
+	private static final ReloadScheduler scheduler = new ReloadScheduler(
+			Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
 
 	private final File repositoryGitDir;
 
@@ -125,7 +132,28 @@ public class IndexDiffCacheEntry {
 
 	private IResourceChangeListener resourceChangeListener;
 
-	private static Semaphore parallelism = new Semaphore(2);
+	private WorkTreeWatcher workTreeWatcher;
+
+	/** Whether to start a {@link WorkTreeWatcher} on the next publish. */
+	private boolean watchWorkTree;
+
+	private final File snapshotFile;
+
+	/**
+	 * Time at which the working tree was last examined completely, or 0 if it
+	 * hasn't been examined yet.
+	 */
+	private volatile long watermark;
+
+	/**
+	 * Describes the repository state {@link #indexDiffData} was computed for;
+	 * {@code null} if unknown.
+	 */
+	private volatile IndexDiffSnapshot.Key snapshotKey;
+
+	private final ReloadCostModel costModel = new ReloadCostModel();
+
+	private volatile long lastAccess;
 
 	/**
 	 * @param repository
@@ -135,6 +163,7 @@ public class IndexDiffCacheEntry {
 	public IndexDiffCacheEntry(Repository repository,
 			@Nullable IndexDiffChangedListener listener) {
 		this.repositoryGitDir = repository.getDirectory();
+		this.snapshotFile = getSnapshotFile(repositoryGitDir);
 		this.repositoryName = RepositoryUtil.getInstance()
 				.getRepositoryName(repository);
 		if (listener != null) {
@@ -172,7 +201,8 @@ public IndexDiffCacheEntry(Repository repository,
 					CoreText.IndexDiffCacheEntry_errorCalculatingIndexDelta,
 					repository), ex);
 		}
-		scheduleReloadJob("IndexDiffCacheEntry construction"); //$NON-NLS-1$
+		scheduleReloadJob("IndexDiffCacheEntry construction", //$NON-NLS-1$
+				snapshotFile != null && !repository.isBare());
 		createResourceChangeListener();
 		if (!repository.isBare()) {
 			try {
@@ -183,6 +213,62 @@ public IndexDiffCacheEntry(Repository repository,
 						CoreText.IndexDiffCacheEntry_errorCalculatingIndexDelta,
 						repository), ex);
 			}
+			// The watcher is started once the first diff is published, so
+			// that it doesn't watch ignored directories.
+			watchWorkTree = GitSettings.isWatchWorkTrees();
+		}
+	}
+
+	private synchronized void startWorkTreeWatcher(Repository repository) {
+		if (!watchWorkTree) {
+			return;
+		}
+		watchWorkTree = false;
+		workTreeWatcher = WorkTreeWatcher.start(repository.getWorkTree(),
+				repositoryName, this::isKnownIgnored, this::workTreeChanged,
+				() -> scheduleReloadJob(
+						"Work tree watcher may have missed changes")); //$NON-NLS-1$
+	}
+
+	private synchronized void stopWorkTreeWatcher() {
+		watchWorkTree = false;
+		if (workTreeWatcher != null) {
+			workTreeWatcher.stop();
+			workTreeWatcher = null;
+		}
+	}
+
+	private boolean isKnownIgnored(String path) {
+		IndexDiffData data = indexDiffData;
+		return data != null && data.isIgnored(path);
+	}
+
+	private void workTreeChanged(Collection<String> paths) {
+		if (indexDiffData == null) {
+			scheduleReloadJob("Work tree changed, no diff available"); //$NON-NLS-1$
+			return;
+		}
+		for (String path : paths) {
+			if (path.equals(Constants.GITIGNORE_FILENAME) || path
+					.endsWith('/' + Constants.GITIGNORE_FILENAME)) {
+				scheduleReloadJob("A .gitignore changed outside of Eclipse"); //$NON-NLS-1$
+				return;
+			}
+		}
+		scheduleUpdateJob(paths, Collections.emptyList());
+	}
+
+	private static File getSnapshotFile(File gitDir) {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return null;
+		}
+		try {
+			return IndexDiffSnapshot.getFile(
+					activator.getStateLocation().toFile(), gitDir);
+		} catch (IllegalStateException e) {
+			// No instance location
+			return null;
 		}
 	}
 
@@ -355,10 +441,15 @@ private void refreshIndexDelta() {
 	/**
 	 * The method returns the current index diff or null. Null is returned if
 	 * the first index diff calculation has not completed yet.
+	 * <p>
+	 * Calling this method marks the repository as in use for a while, which
+	 * gives its full reloads precedence over those of other repositories.
+	 * </p>
 	 *
 	 * @return index diff
 	 */
 	public IndexDiffData getIndexDiff() {
+		lastAccess = System.currentTimeMillis();
 		return indexDiffData;
 	}
 
@@ -368,6 +459,11 @@ public IndexDiffData getIndexDiff() {
 	 * @param trigger
 	 */
 	protected void scheduleReloadJob(final String trigger) {
+		scheduleReloadJob(trigger, false);
+	}
+
+	private void scheduleReloadJob(final String trigger,
+			final boolean useSnapshot) {
 		if (reloadJob != null) {
 			if (reloadJob.isPending()) {
 				return;
@@ -385,23 +481,34 @@ protected void scheduleReloadJob(final String trigger) {
 
 			@Override
 			protected IStatus reload(IProgressMonitor monitor) {
+				boolean acquired = false;
 				lock.lock();
 				try {
 					if (monitor.isCanceled()) {
 						return Status.CANCEL_STATUS;
 					}
-					parallelism.acquire();
+					scheduler.acquire(isInUse());
+					acquired = true;
 					long startTime = System.currentTimeMillis();
 					Repository repository = getRepository();
 					if (repository == null) {
 						return Status.CANCEL_STATUS;
 					}
+					if (useSnapshot && restoreSnapshot(repository, monitor)) {
+						return Status.OK_STATUS;
+					}
+					IndexDiffSnapshot.Key key = getSnapshotKey(repository,
+							startTime);
 					IndexDiffData result = calcIndexDiffDataFull(monitor,
 							getName(), repository);
 					if (monitor.isCanceled() || (result == null)) {
 						return Status.CANCEL_STATUS;
 					}
 					indexDiffData = result;
+					watermark = startTime;
+					snapshotKey = key;
+					costModel.recordFull(
+							System.currentTimeMillis() - startTime);
 					if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
 						long time = System.currentTimeMillis() - startTime;
 						StringBuilder message = new StringBuilder(
@@ -425,7 +532,9 @@ protected IStatus reload(IProgressMonitor monitor) {
 					return Status.CANCEL_STATUS;
 				} finally {
 					lock.unlock();
-					parallelism.release();
+					if (acquired) {
+						scheduler.release();
+					}
 				}
 			}
 
@@ -446,6 +555,7 @@ public boolean belongsTo(Object family) {
 
 		};
 		reloadJob.setSystem(true);
+		reloadJob.setPriority(isInUse() ? Job.SHORT : Job.LONG);
 		reloadJob.schedule();
 	}
 
@@ -501,14 +611,23 @@ protected IStatus updateIndexDiff(Collection<String> files,
 					if (repository == null) {
 						return Status.CANCEL_STATUS;
 					}
+					IndexDiffSnapshot.Key key = getSnapshotKey(repository,
+							watermark);
+					boolean incremental = indexDiffData != null;
 					IndexDiffData result = calcIndexDiffDataIncremental(monitor,
 							getName(), repository, files, resources);
 					if (monitor.isCanceled() || (result == null)) {
 						return Status.CANCEL_STATUS;
 					}
 					indexDiffData = result;
+					snapshotKey = key;
+					long time = System.currentTimeMillis() - startTime;
+					if (incremental) {
+						costModel.recordIncremental(files.size(), time);
+					} else {
+						costModel.recordFull(time);
+					}
 					if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
-						long time = System.currentTimeMillis() - startTime;
 						StringBuilder message = new StringBuilder(
 								NLS.bind(
 										"Updated IndexDiffData based on resource list (length = {0}) in {1} ms\n", //$NON-NLS-1$
@@ -546,13 +665,136 @@ public boolean belongsTo(Object family) {
 	}
 
 	/**
-	 * Check if the index update or reload is recommended for given files
+	 * Publishes the snapshot persisted by a previous session, if it matches
+	 * the current index and HEAD, and schedules an incremental update for the
+	 * files modified since the snapshot was taken. Must be called with the
+	 * lock held.
+	 *
+	 * @param repository
+	 *            to restore the snapshot of
+	 * @param monitor
+	 *            for cancellation
+	 * @return {@code true} if the snapshot was used; {@code false} if there
+	 *         is no valid snapshot, or the ignore rules have changed since it
+	 *         was taken, and a full index diff is needed
+	 */
+	private boolean restoreSnapshot(Repository repository,
+			IProgressMonitor monitor) {
+		try {
+			IndexDiffSnapshot.Snapshot snapshot = IndexDiffSnapshot
+					.read(snapshotFile, repositoryGitDir);
+			if (snapshot == null) {
+				return false;
+			}
+			long startTime = System.currentTimeMillis();
+			long snapshotTime = snapshot.key.getWatermark();
+			IndexDiffSnapshot.Key key = IndexDiffSnapshot.Key.of(repository,
+					snapshotTime);
+			if (!key.isSameState(snapshot.key)) {
+				return false;
+			}
+			indexDiffData = snapshot.data;
+			watermark = snapshotTime;
+			snapshotKey = key;
+			notifyListeners(repository);
+			Set<String> changed = IndexDiffSnapshot.findChangedPaths(
+					repository, snapshot.data, snapshotTime, monitor);
+			if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+						NLS.bind(
+								"Restored IndexDiffData snapshot of {0}, {1} paths changed, checked in {2} ms", //$NON-NLS-1$
+								new Object[] { repositoryGitDir,
+										changed == null ? "?" //$NON-NLS-1$
+												: Integer.valueOf(
+														changed.size()),
+										Long.valueOf(System.currentTimeMillis()
+												- startTime) }));
+			}
+			if (changed != null && IndexDiffSnapshot
+					.isIgnoreRulesChanged(repository, changed, snapshotTime)) {
+				// The snapshot stays published until the full diff is done.
+				return false;
+			}
+			if (changed != null && !changed.isEmpty()
+					&& !monitor.isCanceled()) {
+				// The update job re-examines everything changed before now.
+				watermark = startTime;
+				scheduleUpdateJob(changed, Collections.emptyList());
+			}
+			return true;
+		} catch (IOException e) {
+			if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+						"Restoring IndexDiffData snapshot failed", e); //$NON-NLS-1$
+			}
+			IndexDiffSnapshot.delete(snapshotFile);
+			return false;
+		}
+	}
+
+	private static IndexDiffSnapshot.Key getSnapshotKey(
+			Repository repository, long time) {
+		if (time == 0) {
+			return null;
+		}
+		try {
+			return IndexDiffSnapshot.Key.of(repository, time);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Persists the current {@link IndexDiffData} so that it can be shown
+	 * immediately when the repository is opened again, provided its index and
+	 * HEAD are unchanged by then. Does nothing if an update is in progress.
+	 */
+	void persistSnapshot() {
+		IndexDiffData data = indexDiffData;
+		IndexDiffSnapshot.Key key = snapshotKey;
+		if (snapshotFile == null || data == null || key == null
+				|| isRunning(reloadJob) || isRunning(updateJob)) {
+			return;
+		}
+		Repository repository = getRepository();
+		if (repository == null) {
+			return;
+		}
+		try {
+			if (key.isSameState(IndexDiffSnapshot.Key.of(repository, 0))) {
+				IndexDiffSnapshot.write(snapshotFile, repositoryGitDir, key,
+						data);
+			}
+		} catch (IOException e) {
+			Activator.logWarning(MessageFormat.format(
+					CoreText.IndexDiffCacheEntry_cannotWriteSnapshot,
+					repositoryName), e);
+			IndexDiffSnapshot.delete(snapshotFile);
+		}
+	}
+
+	private static boolean isRunning(Job job) {
+		return job != null && job.getState() != Job.NONE;
+	}
+
+	/**
+	 * Check if the index update or reload is recommended for given files. The
+	 * decision is based on the size of the index and on the measured
+	 * durations of previous full and incremental runs.
 	 *
 	 * @param filesToUpdate
 	 * @return true if the reload operation is preferred
 	 */
 	protected boolean shouldReload(final Collection<String> filesToUpdate) {
-		return filesToUpdate.size() > RESOURCE_LIST_UPDATE_LIMIT;
+		DirCache index = lastIndex;
+		return costModel.shouldReload(filesToUpdate.size(),
+				index == null ? 0 : index.getEntryCount());
+	}
+
+	private boolean isInUse() {
+		return System.currentTimeMillis() - lastAccess < IN_USE_PERIOD;
 	}
 
 	private IndexDiffData calcIndexDiffDataIncremental(IProgressMonitor monitor,
@@ -599,20 +841,20 @@ private IndexDiffData calcIndexDiffDataIncremental(IProgressMonitor monitor,
 	 * have become newly untracked.
 	 */
 	private List<String> calcTreeFilterPaths(Collection<String> filesToUpdate) {
-		List<String> paths = new ArrayList<>();
+		IndexDiffData data = indexDiffData;
+		if (data == null) {
+			return new ArrayList<>(filesToUpdate);
+		}
+		Set<String> paths = new HashSet<>();
 		for (String fileToUpdate : filesToUpdate) {
-			for (String untrackedFolder : indexDiffData.getUntrackedFolders()) {
-				if (fileToUpdate.startsWith(untrackedFolder)
-						&& !fileToUpdate.equals(untrackedFolder)) {
-					paths.add(untrackedFolder);
-				}
-			}
+			data.forEachUntrackedParentFolder(fileToUpdate, paths::add);
 			paths.add(fileToUpdate);
 		}
-		return paths;
+		return new ArrayList<>(paths);
 	}
 
 	private void notifyListeners(Repository repository) {
+		startWorkTreeWatcher(repository);
 		for (IndexDiffChangedListener listener : listeners) {
 			SafeRunnable.run(
 					() -> listener.indexDiffChanged(repository, indexDiffData));
@@ -750,6 +992,7 @@ public void dispose() {
 			ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceChangeListener);
 		}
 		listeners.clear();
+		stopWorkTreeWatcher();
 		if (reloadJob != null) {
 			reloadJob.cancel();
 			reloadJob = null;
@@ -10,12 +10,17 @@
  *******************************************************************************/
 package org.eclipse.egit.core.internal.indexdiff;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jgit.annotations.NonNull;
@@ -26,35 +31,53 @@
 /**
  * This immutable class is used to store the data of an {@link IndexDiff}
  * object.
- *
+ * <p>
+ * All paths are stored in a single persistent {@link PathTrie} with a bit mask
+ * of status flags per path. Incremental updates share all unchanged parts of
+ * the trie with the previous {@link IndexDiffData}, so an update costs
+ * O(changed paths) and does not copy the state of the whole working tree.
+ * </p>
  */
 public class IndexDiffData {
 
 	private static final String NEW_LINE = "\n"; //$NON-NLS-1$
 
-	private final Set<String> added;
+	private static final int ADDED = 1;
+
+	private static final int ASSUME_UNCHANGED = 1 << 1;
+
+	private static final int CHANGED = 1 << 2;
 
-	private final Set<String> assumeUnchanged;
+	private static final int REMOVED = 1 << 3;
 
-	private final Set<String> changed;
+	private static final int MISSING = 1 << 4;
 
-	private final Set<String> removed;
+	private static final int MODIFIED = 1 << 5;
 
-	private final Set<String> missing;
+	private static final int UNTRACKED = 1 << 6;
 
-	private final Set<String> modified;
+	private static final int UNTRACKED_FOLDER = 1 << 7;
 
-	private final Set<String> untracked;
+	private static final int CONFLICT = 1 << 8;
 
-	private final Set<String> untrackedFolders;
+	private static final int IGNORED = 1 << 9;
 
-	private final Set<String> conflicts;
+	private static final int SYMLINK = 1 << 10;
 
-	private final Set<String> ignored;
+	private static final int SUBMODULE = 1 << 11;
 
-	private final Set<String> symlinks;
+	private static final int FLAG_COUNT = 12;
 
-	private final Set<String> submodules;
+	/**
+	 * Flags that are merged per changed path in incremental updates.
+	 * Untracked folders and ignored paths are handled separately since they
+	 * may be affected by changes to paths below or above them.
+	 */
+	private static final int MERGED_FLAGS = ADDED | ASSUME_UNCHANGED | CHANGED
+			| REMOVED | MISSING | MODIFIED | UNTRACKED | CONFLICT | SYMLINK
+			| SUBMODULE;
+
+	private final PathTrie paths;
 
 	private final Collection<IResource> changedResources;
 
@@ -64,65 +87,73 @@ public class IndexDiffData {
 	 * Empty, immutable data
 	 */
 	public IndexDiffData() {
-		added = Collections.emptySet();
-		assumeUnchanged = Collections.emptySet();
-		changed = Collections.emptySet();
-		removed = Collections.emptySet();
-		missing = Collections.emptySet();
-		modified = Collections.emptySet();
-		untracked = Collections.emptySet();
-		untrackedFolders = Collections.emptySet();
-		conflicts = Collections.emptySet();
-		ignored = Collections.emptySet();
-		symlinks = Collections.emptySet();
-		submodules = Collections.emptySet();
+		paths = PathTrie.EMPTY;
 		changedResources = Collections.emptySet();
 		conflictStates = Collections.emptyMap();
 	}
 
+	private IndexDiffData(PathTrie paths,
+			Map<String, StageState> conflictStates) {
+		this.paths = paths;
+		this.changedResources = Collections.emptySet();
+		this.conflictStates = conflictStates;
+	}
+
 	/**
 	 * @param indexDiff
 	 */
 	public IndexDiffData(IndexDiff indexDiff) {
-		added = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getAdded()));
-		assumeUnchanged = Collections.unmodifiableSet(
-				new HashSet<>(indexDiff.getAssumeUnchanged()));
-		changed = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getChanged()));
-		removed = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getRemoved()));
-		missing = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getMissing()));
-		modified = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getModified()));
-		untracked = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getUntracked()));
-		untrackedFolders = Collections.unmodifiableSet(getUntrackedFolders(indexDiff));
-		conflicts = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getConflicting()));
-		ignored = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getIgnoredNotInIndex()));
-		symlinks = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getPathsWithIndexMode(FileMode.SYMLINK)));
-		submodules = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getPathsWithIndexMode(FileMode.GITLINK)));
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		addAll(editor, indexDiff.getAdded(), ADDED);
+		addAll(editor, indexDiff.getAssumeUnchanged(), ASSUME_UNCHANGED);
+		addAll(editor, indexDiff.getChanged(), CHANGED);
+		addAll(editor, indexDiff.getRemoved(), REMOVED);
+		addAll(editor, indexDiff.getMissing(), MISSING);
+		addAll(editor, indexDiff.getModified(), MODIFIED);
+		addAll(editor, indexDiff.getUntracked(), UNTRACKED);
+		addAll(editor, getUntrackedFolders(indexDiff), UNTRACKED_FOLDER);
+		addAll(editor, indexDiff.getConflicting(), CONFLICT);
+		addAll(editor, indexDiff.getIgnoredNotInIndex(), IGNORED);
+		addAll(editor, indexDiff.getPathsWithIndexMode(FileMode.SYMLINK),
+				SYMLINK);
+		addAll(editor, indexDiff.getPathsWithIndexMode(FileMode.GITLINK),
+				SUBMODULE);
+		paths = editor.build();
 		changedResources = Collections.emptySet();
 		conflictStates = Collections.unmodifiableMap(
 				new HashMap<>(indexDiff.getConflictingStageStates()));
 	}
 
-	private Set<String> getUntrackedFolders(IndexDiff indexDiff) {
-		HashSet<String> result = new HashSet<>();
-		for (String folder:indexDiff.getUntrackedFolders())
-			result.add(folder + "/"); //$NON-NLS-1$
-		return result;
+	private static void addAll(PathTrie.Editor editor,
+			Collection<String> toAdd, int flag) {
+		// Adding in sorted order mostly appends to the children of a node.
+		String[] sorted = toAdd.toArray(new String[0]);
+		Arrays.sort(sorted);
+		for (String path : sorted) {
+			editor.addFlags(path, flag);
+		}
+	}
+
+	private static Collection<String> getUntrackedFolders(
+			IndexDiff indexDiff) {
+		Set<String> folders = indexDiff.getUntrackedFolders();
+		String[] result = new String[folders.size()];
+		int i = 0;
+		for (String folder : folders) {
+			result[i++] = folder + '/';
+		}
+		return Arrays.asList(result);
 	}
 
 	/**
 	 * This constructor merges the existing IndexDiffData object baseDiff with a
 	 * new IndexDiffData object that was calculated for a subset of files
 	 * (changedFiles).
+	 * <p>
+	 * Only the parts of the underlying data structure affected by the changed
+	 * files are copied; everything else is shared with baseDiff, which is not
+	 * modified.
+	 * </p>
 	 *
 	 * @param baseDiff
 	 * @param changedFiles
@@ -136,159 +167,163 @@ public IndexDiffData(IndexDiffData baseDiff,
 			IndexDiff diffForChangedFiles) {
 		this.changedResources = Collections
 				.unmodifiableCollection(new HashSet<>(changedResources));
-		Set<String> added2 = new HashSet<>(baseDiff.getAdded());
-		Set<String> assumeUnchanged2 = new HashSet<>(
-				baseDiff.getAssumeUnchanged());
-		Set<String> changed2 = new HashSet<>(baseDiff.getChanged());
-		Set<String> removed2 = new HashSet<>(baseDiff.getRemoved());
-		Set<String> missing2 = new HashSet<>(baseDiff.getMissing());
-		Set<String> modified2 = new HashSet<>(baseDiff.getModified());
-		Set<String> untracked2 = new HashSet<>(baseDiff.getUntracked());
-		Set<String> conflicts2 = new HashSet<>(baseDiff.getConflicting());
-		Set<String> symlinks2 = new HashSet<>(baseDiff.getSymlinks());
-		Set<String> submodules2 = new HashSet<>(baseDiff.getSubmodules());
-		Map<String, StageState> conflictStates2 = new HashMap<>(
-				baseDiff.getConflictStates());
-
-		mergeList(added2, changedFiles, diffForChangedFiles.getAdded());
-		mergeList(assumeUnchanged2, changedFiles,
-				diffForChangedFiles.getAssumeUnchanged());
-		mergeList(changed2, changedFiles, diffForChangedFiles.getChanged());
-		mergeList(removed2, changedFiles, diffForChangedFiles.getRemoved());
-		mergeList(missing2, changedFiles, diffForChangedFiles.getMissing());
-		mergeList(modified2, changedFiles, diffForChangedFiles.getModified());
-		mergeList(untracked2, changedFiles, diffForChangedFiles.getUntracked());
-		mergeList(symlinks2, changedFiles,
-				diffForChangedFiles.getPathsWithIndexMode(FileMode.SYMLINK));
-		mergeList(submodules2, changedFiles,
-				diffForChangedFiles.getPathsWithIndexMode(FileMode.GITLINK));
-		Set<String> untrackedFolders2 = mergeUntrackedFolders(
-				baseDiff.getUntrackedFolders(), changedFiles,
-				getUntrackedFolders(diffForChangedFiles));
-		mergeList(conflicts2, changedFiles,
-				diffForChangedFiles.getConflicting(), conflictStates2,
-				diffForChangedFiles.getConflictingStageStates());
-		Set<String> ignored2 = mergeIgnored(baseDiff.getIgnoredNotInIndex(), changedFiles,
-				diffForChangedFiles.getIgnoredNotInIndex());
-
-		added = Collections.unmodifiableSet(added2);
-		assumeUnchanged = Collections.unmodifiableSet(assumeUnchanged2);
-		changed = Collections.unmodifiableSet(changed2);
-		removed = Collections.unmodifiableSet(removed2);
-		missing = Collections.unmodifiableSet(missing2);
-		modified = Collections.unmodifiableSet(modified2);
-		untracked = Collections.unmodifiableSet(untracked2);
-		untrackedFolders = Collections.unmodifiableSet(untrackedFolders2);
-		conflicts = Collections.unmodifiableSet(conflicts2);
-		ignored = Collections.unmodifiableSet(ignored2);
-		symlinks = Collections.unmodifiableSet(symlinks2);
-		submodules = Collections.unmodifiableSet(submodules2);
-		conflictStates = Collections.unmodifiableMap(conflictStates2);
-	}
-
-	private void mergeList(Set<String> baseList,
-			Collection<String> changedFiles, Set<String> listForChangedFiles) {
+		Set<String> added2 = diffForChangedFiles.getAdded();
+		Set<String> assumeUnchanged2 = diffForChangedFiles
+				.getAssumeUnchanged();
+		Set<String> changed2 = diffForChangedFiles.getChanged();
+		Set<String> removed2 = diffForChangedFiles.getRemoved();
+		Set<String> missing2 = diffForChangedFiles.getMissing();
+		Set<String> modified2 = diffForChangedFiles.getModified();
+		Set<String> untracked2 = diffForChangedFiles.getUntracked();
+		Set<String> conflicts2 = diffForChangedFiles.getConflicting();
+		Set<String> symlinks2 = diffForChangedFiles
+				.getPathsWithIndexMode(FileMode.SYMLINK);
+		Set<String> submodules2 = diffForChangedFiles
+				.getPathsWithIndexMode(FileMode.GITLINK);
+		Map<String, StageState> newConflictStates = diffForChangedFiles
+				.getConflictingStageStates();
+		Map<String, StageState> conflictStates2 = null;
+
+		PathTrie.Editor editor = baseDiff.paths.edit();
 		for (String file : changedFiles) {
-			if (baseList.contains(file)) {
-				if (!listForChangedFiles.contains(file))
-					baseList.remove(file);
-			} else {
-				if (listForChangedFiles.contains(file))
-					baseList.add(file);
+			int flags = flag(added2, file, ADDED)
+					| flag(assumeUnchanged2, file, ASSUME_UNCHANGED)
+					| flag(changed2, file, CHANGED)
+					| flag(removed2, file, REMOVED)
+					| flag(missing2, file, MISSING)
+					| flag(modified2, file, MODIFIED)
+					| flag(untracked2, file, UNTRACKED)
+					| flag(conflicts2, file, CONFLICT)
+					| flag(symlinks2, file, SYMLINK)
+					| flag(submodules2, file, SUBMODULE);
+			editor.setFlags(file, MERGED_FLAGS, flags);
+			if ((flags & CONFLICT) != 0) {
+				StageState state = newConflictStates.get(file);
+				if (state != null) {
+					if (conflictStates2 == null) {
+						conflictStates2 = new HashMap<>(
+								baseDiff.getConflictStates());
+					}
+					conflictStates2.put(file, state);
+				}
+			} else if (baseDiff.getConflictStates().containsKey(file)) {
+				if (conflictStates2 == null) {
+					conflictStates2 = new HashMap<>(
+							baseDiff.getConflictStates());
+				}
+				conflictStates2.remove(file);
 			}
+			removeUntrackedFolders(editor, file);
+			removeIgnored(editor, file);
+		}
+		for (String folder : getUntrackedFolders(diffForChangedFiles)) {
+			editor.addFlags(folder, UNTRACKED_FOLDER);
+		}
+		for (String ignoredPath : diffForChangedFiles.getIgnoredNotInIndex()) {
+			editor.addFlags(ignoredPath, IGNORED);
 		}
+		paths = editor.build();
+		conflictStates = conflictStates2 == null ? baseDiff.getConflictStates()
+				: Collections.unmodifiableMap(conflictStates2);
 	}
 
-	private void mergeList(Set<String> baseList,
-			Collection<String> changedFiles, Set<String> listForChangedFiles,
-			Map<String, StageState> baseStates,
-			Map<String, StageState> newConflictStates) {
-		for (String file : changedFiles) {
-			if (baseList.contains(file)) {
-				if (!listForChangedFiles.contains(file)) {
-					baseList.remove(file);
-					baseStates.remove(file);
-				} else {
-					StageState state = newConflictStates.get(file);
-					if (state != null) {
-						baseStates.put(file, state);
-					}
-				}
-			} else {
-				if (listForChangedFiles.contains(file)) {
-					baseList.add(file);
-					StageState state = newConflictStates.get(file);
-					if (state != null) {
-						baseStates.put(file, state);
-					}
-				}
+	/**
+	 * Writes the paths and conflict states, but not the changed resources,
+	 * to a stream in a form that can be read by {@link #readFrom}.
+	 *
+	 * @param out
+	 *            to write to
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	void writeTo(DataOutput out) throws IOException {
+		for (int i = 0; i < FLAG_COUNT; i++) {
+			Set<String> set = paths.asSet(1 << i);
+			out.writeInt(set.size());
+			for (String path : set) {
+				out.writeUTF(path);
 			}
 		}
+		out.writeInt(conflictStates.size());
+		for (Map.Entry<String, StageState> entry : conflictStates
+				.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue().name());
+		}
 	}
 
-	private static Set<String> mergeUntrackedFolders(Set<String> oldUntrackedFolders,
-			Collection<String> changedFiles, Set<String> newUntrackedFolders) {
-		Set<String> merged = new HashSet<>();
-		for (String oldUntrackedFolder : oldUntrackedFolders) {
-			boolean changeInUntrackedFolder = isAnyFileContainedInFolder(
-					oldUntrackedFolder, changedFiles);
-			if (!changeInUntrackedFolder)
-				merged.add(oldUntrackedFolder);
+	/**
+	 * Reads data written by {@link #writeTo}.
+	 *
+	 * @param in
+	 *            to read from
+	 * @return the data read
+	 * @throws IOException
+	 *             if reading fails or the data is corrupt
+	 */
+	static IndexDiffData readFrom(DataInput in) throws IOException {
+		PathTrie.Editor editor = PathTrie.EMPTY.edit();
+		for (int i = 0; i < FLAG_COUNT; i++) {
+			int size = in.readInt();
+			for (int j = 0; j < size; j++) {
+				editor.addFlags(in.readUTF(), 1 << i);
+			}
+		}
+		int size = in.readInt();
+		Map<String, StageState> states = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			String path = in.readUTF();
+			try {
+				states.put(path, StageState.valueOf(in.readUTF()));
+			} catch (IllegalArgumentException e) {
+				throw new IOException(e);
+			}
 		}
-		merged.addAll(newUntrackedFolders);
-		return merged;
+		return new IndexDiffData(editor.build(),
+				Collections.unmodifiableMap(states));
 	}
 
-	private static boolean isAnyFileContainedInFolder(String folder,
-			Collection<String> files) {
-		for (String file : files)
-			if (file.startsWith(folder))
-				return true;
-		return false;
+	private static int flag(Set<String> set, String path, int flag) {
+		return set.contains(path) ? flag : 0;
 	}
 
 	/**
-	 * THIS METHOD IS PROTECTED FOR TESTS ONLY
+	 * A change in an untracked folder may make it tracked, so the folder and
+	 * all its parent folders are no longer known to be untracked.
 	 *
-	 * @param oldIgnoredPaths
-	 * @param changedPaths
-	 * @param newIgnoredPaths
-	 * @return never null
+	 * @param editor
+	 *            to remove the untracked folders in
+	 * @param changedPath
+	 *            the changed path
 	 */
-	protected static Set<String> mergeIgnored(Set<String> oldIgnoredPaths,
-			Collection<String> changedPaths, Set<String> newIgnoredPaths) {
-		Set<String> merged = new HashSet<>();
-		for (String oldIgnoredPath : oldIgnoredPaths) {
-			boolean changed = isAnyPrefixOf(oldIgnoredPath, changedPaths);
-			if (!changed) {
-				merged.add(oldIgnoredPath);
-			}
+	private static void removeUntrackedFolders(PathTrie.Editor editor,
+			String changedPath) {
+		int slash = changedPath.indexOf('/');
+		while (slash >= 0) {
+			editor.setFlags(changedPath.substring(0, slash + 1),
+					UNTRACKED_FOLDER, 0);
+			slash = changedPath.indexOf('/', slash + 1);
 		}
-		merged.addAll(newIgnoredPaths);
-		return merged;
 	}
 
 	/**
-	 * THIS METHOD IS PROTECTED FOR TESTS ONLY
+	 * A changed path invalidates the ignored state of the path itself and of
+	 * everything below it.
 	 *
-	 * @param pathToCheck
-	 * @param possiblePrefixes
-	 * @return true if given path starts with any of given prefixes (possibly
-	 *         followed by slash)
+	 * @param editor
+	 *            to remove the ignored paths in
+	 * @param changedPath
+	 *            the changed path; folders end with a slash
 	 */
-	protected static boolean isAnyPrefixOf(String pathToCheck,
-			Collection<String> possiblePrefixes) {
-		for (String possiblePrefix : possiblePrefixes) {
-			if (pathToCheck.startsWith(possiblePrefix)) {
-				return true;
-			}
-			if (possiblePrefix.length() == pathToCheck.length() + 1
-					&& possiblePrefix.charAt(possiblePrefix.length() - 1) == '/'
-					&& possiblePrefix.startsWith(pathToCheck)) {
-				return true;
-			}
+	private static void removeIgnored(PathTrie.Editor editor,
+			String changedPath) {
+		if (changedPath.endsWith("/")) { //$NON-NLS-1$
+			editor.clearSubtree(
+					changedPath.substring(0, changedPath.length() - 1),
+					IGNORED);
+		} else {
+			editor.clearSubtree(changedPath, IGNORED);
 		}
-		return false;
 	}
 
 	/**
@@ -296,7 +331,7 @@ protected static boolean isAnyPrefixOf(String pathToCheck,
 	 */
 	@NonNull
 	public Set<String> getAdded() {
-		return Collections.unmodifiableSet(added);
+		return paths.asSet(ADDED);
 	}
 
 	/**
@@ -304,7 +339,7 @@ public Set<String> getAdded() {
 	 */
 	@NonNull
 	public Set<String> getAssumeUnchanged() {
-		return Collections.unmodifiableSet(assumeUnchanged);
+		return paths.asSet(ASSUME_UNCHANGED);
 	}
 
 	/**
@@ -312,7 +347,7 @@ public Set<String> getAssumeUnchanged() {
 	 */
 	@NonNull
 	public Set<String> getChanged() {
-		return changed;
+		return paths.asSet(CHANGED);
 	}
 
 	/**
@@ -320,7 +355,7 @@ public Set<String> getChanged() {
 	 */
 	@NonNull
 	public Set<String> getRemoved() {
-		return removed;
+		return paths.asSet(REMOVED);
 	}
 
 	/**
@@ -328,7 +363,7 @@ public Set<String> getRemoved() {
 	 */
 	@NonNull
 	public Set<String> getMissing() {
-		return missing;
+		return paths.asSet(MISSING);
 	}
 
 	/**
@@ -336,7 +371,7 @@ public Set<String> getMissing() {
 	 */
 	@NonNull
 	public Set<String> getModified() {
-		return modified;
+		return paths.asSet(MODIFIED);
 	}
 
 	/**
@@ -344,7 +379,7 @@ public Set<String> getModified() {
 	 */
 	@NonNull
 	public Set<String> getUntracked() {
-		return untracked;
+		return paths.asSet(UNTRACKED);
 	}
 
 	/**
@@ -353,7 +388,7 @@ public Set<String> getUntracked() {
 	 */
 	@NonNull
 	public Set<String> getUntrackedFolders() {
-		return untrackedFolders;
+		return paths.asSet(UNTRACKED_FOLDER);
 	}
 
 	/**
@@ -361,7 +396,7 @@ public Set<String> getUntrackedFolders() {
 	 */
 	@NonNull
 	public Set<String> getConflicting() {
-		return conflicts;
+		return paths.asSet(CONFLICT);
 	}
 
 	/**
@@ -370,7 +405,7 @@ public Set<String> getConflicting() {
 	 */
 	@NonNull
 	public Set<String> getIgnoredNotInIndex() {
-		return ignored;
+		return paths.asSet(IGNORED);
 	}
 
 	/**
@@ -378,7 +413,7 @@ public Set<String> getIgnoredNotInIndex() {
 	 */
 	@NonNull
 	public Set<String> getSymlinks() {
-		return symlinks;
+		return paths.asSet(SYMLINK);
 	}
 
 	/**
@@ -386,7 +421,7 @@ public Set<String> getSymlinks() {
 	 */
 	@NonNull
 	public Set<String> getSubmodules() {
-		return submodules;
+		return paths.asSet(SUBMODULE);
 	}
 
 	/**
@@ -403,12 +438,86 @@ public Map<String, StageState> getConflictStates() {
 	 * @return {@code true} if there are changes; {@code false} otherwise
 	 */
 	public boolean hasChanges() {
-		return !getAdded().isEmpty() //
-				|| !getChanged().isEmpty() //
-				|| !getRemoved().isEmpty() //
-				|| !getUntracked().isEmpty() //
-				|| !getModified().isEmpty() //
-				|| !getMissing().isEmpty();
+		return !paths.isEmpty(
+				ADDED | CHANGED | REMOVED | UNTRACKED | MODIFIED | MISSING);
+	}
+
+	/**
+	 * Determines whether the given path or any of its parent folders is
+	 * ignored.
+	 *
+	 * @param path
+	 *            repository-relative path; folder paths end with /
+	 * @return {@code true} if the path is ignored
+	 */
+	public boolean isIgnored(@NonNull String path) {
+		return paths.contains(path, IGNORED)
+				|| paths.hasParentFlags(path, IGNORED);
+	}
+
+	/**
+	 * Determines whether the given path is inside a folder containing only
+	 * untracked files.
+	 *
+	 * @param path
+	 *            repository-relative path; folder paths end with /
+	 * @return {@code true} if the path is in an untracked folder
+	 */
+	public boolean isInUntrackedFolder(@NonNull String path) {
+		return paths.hasParentFlags(path, UNTRACKED_FOLDER);
+	}
+
+	/**
+	 * Reports the untracked folders strictly containing the given path,
+	 * outermost first.
+	 *
+	 * @param path
+	 *            repository-relative path; folder paths end with /
+	 * @param action
+	 *            receiving the untracked folders, with trailing slash
+	 */
+	void forEachUntrackedParentFolder(@NonNull String path,
+			Consumer<String> action) {
+		paths.forEachParentFolder(path, UNTRACKED_FOLDER, action);
+	}
+
+	/**
+	 * Determines whether the given folder contains any files that were added,
+	 * changed, or removed in the index.
+	 *
+	 * @param folder
+	 *            repository-relative folder path ending with /; "/" denotes
+	 *            the repository root
+	 * @return {@code true} if the folder contains staged changes
+	 */
+	public boolean hasStagedChangesIn(@NonNull String folder) {
+		return (paths.getFlagsBelow(folder) & (ADDED | CHANGED | REMOVED)) != 0;
+	}
+
+	/**
+	 * Determines whether the given folder contains any conflicting files.
+	 *
+	 * @param folder
+	 *            repository-relative folder path ending with /; "/" denotes
+	 *            the repository root
+	 * @return {@code true} if the folder contains conflicts
+	 */
+	public boolean hasConflictsIn(@NonNull String folder) {
+		return (paths.getFlagsBelow(folder) & CONFLICT) != 0;
+	}
+
+	/**
+	 * Determines whether the given folder contains any files that are
+	 * modified, missing, or untracked in the working tree.
+	 *
+	 * @param folder
+	 *            repository-relative folder path ending with /; "/" denotes
+	 *            the repository root
+	 * @return {@code true} if the folder contains unstaged changes
+	 */
+	public boolean hasUnstagedChangesIn(@NonNull String folder) {
+		return (paths.getFlagsBelow(folder)
+				& (MODIFIED | MISSING | UNTRACKED)) != 0;
 	}
 
 	/**
@@ -422,18 +531,18 @@ public Collection<IResource> getChangedResources() {
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
-		dumpList(builder, "added", added); //$NON-NLS-1$
-		dumpList(builder, "assumeUnchanged", assumeUnchanged); //$NON-NLS-1$
-		dumpList(builder, "changed", changed); //$NON-NLS-1$
-		dumpList(builder, "removed", removed); //$NON-NLS-1$
-		dumpList(builder, "missing", missing); //$NON-NLS-1$
-		dumpList(builder, "modified", modified); //$NON-NLS-1$
-		dumpList(builder, "untracked", untracked); //$NON-NLS-1$
-		dumpList(builder, "untrackedFolders", untrackedFolders); //$NON-NLS-1$
-		dumpList(builder, "conflicts", conflicts); //$NON-NLS-1$
-		dumpList(builder, "ignored", ignored); //$NON-NLS-1$
-		dumpList(builder, "symlinks", symlinks); //$NON-NLS-1$
-		dumpList(builder, "submodules", submodules); //$NON-NLS-1$
+		dumpList(builder, "added", getAdded()); //$NON-NLS-1$
+		dumpList(builder, "assumeUnchanged", getAssumeUnchanged()); //$NON-NLS-1$
+		dumpList(builder, "changed", getChanged()); //$NON-NLS-1$
+		dumpList(builder, "removed", getRemoved()); //$NON-NLS-1$
+		dumpList(builder, "missing", getMissing()); //$NON-NLS-1$
+		dumpList(builder, "modified", getModified()); //$NON-NLS-1$
+		dumpList(builder, "untracked", getUntracked()); //$NON-NLS-1$
+		dumpList(builder, "untrackedFolders", getUntrackedFolders()); //$NON-NLS-1$
+		dumpList(builder, "conflicts", getConflicting()); //$NON-NLS-1$
+		dumpList(builder, "ignored", getIgnoredNotInIndex()); //$NON-NLS-1$
+		dumpList(builder, "symlinks", getSymlinks()); //$NON-NLS-1$
+		dumpList(builder, "submodules", getSubmodules()); //$NON-NLS-1$
 		dumpResourceList(builder,
 				"changedResources", changedResources); //$NON-NLS-1$
 		return builder.toString();
@@ -0,0 +1,545 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.CoreConfig;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.util.FS;
+
+/**
+ * Persists {@link IndexDiffData} on disk so that a repository's state can be
+ * shown right after startup, before a full index diff has been computed.
+ * <p>
+ * A snapshot is only valid for the exact index and HEAD it was computed
+ * against; both are recorded in a {@link Key} together with a watermark
+ * telling up to which point in time the working tree was examined. After a
+ * snapshot has been restored, {@link #findChangedPaths} determines the paths
+ * that may have changed since the watermark by looking at file modification
+ * times only, which is much cheaper than a full index diff.
+ * </p>
+ */
+final class IndexDiffSnapshot {
+
+	private static final int VERSION = 1;
+
+	private static final String DIRECTORY = "indexdiff"; //$NON-NLS-1$
+
+	private static final String SUFFIX = ".snapshot"; //$NON-NLS-1$
+
+	/** Prefix of the temporary files {@link #write} creates. */
+	private static final String TMP_PREFIX = "tmp"; //$NON-NLS-1$
+
+	/**
+	 * Modification times are compared with this tolerance to account for
+	 * coarse file system timestamps.
+	 */
+	private static final long TIMESTAMP_RESOLUTION = 2000;
+
+	private static final byte[] NO_INDEX = new byte[0];
+
+	/**
+	 * Identifies the repository state a snapshot was computed for.
+	 */
+	static final class Key {
+
+		private final byte[] indexChecksum;
+
+		private final ObjectId head;
+
+		private final long watermark;
+
+		private Key(byte[] indexChecksum, ObjectId head, long watermark) {
+			this.indexChecksum = indexChecksum;
+			this.head = head;
+			this.watermark = watermark;
+		}
+
+		/**
+		 * Determines the key for the current state of a repository.
+		 *
+		 * @param repository
+		 *            to get the key for
+		 * @param watermark
+		 *            time at which the working tree was examined
+		 * @return the key
+		 * @throws IOException
+		 *             if the index or HEAD cannot be read
+		 */
+		static Key of(Repository repository, long watermark)
+				throws IOException {
+			return new Key(readIndexChecksum(repository.getIndexFile()),
+					readHead(repository), watermark);
+		}
+
+		/**
+		 * @return the time up to which the working tree was examined
+		 */
+		long getWatermark() {
+			return watermark;
+		}
+
+		/**
+		 * Tells whether two keys describe the same index and HEAD,
+		 * disregarding the watermark.
+		 *
+		 * @param other
+		 *            key to compare to
+		 * @return {@code true} if both keys have the same index and HEAD
+		 */
+		boolean isSameState(Key other) {
+			return Arrays.equals(indexChecksum, other.indexChecksum)
+					&& head.equals(other.head);
+		}
+
+		private static byte[] readIndexChecksum(File indexFile)
+				throws IOException {
+			// The index file ends with the SHA-1 of its content.
+			try (RandomAccessFile file = new RandomAccessFile(indexFile,
+					"r")) { //$NON-NLS-1$
+				long length = file.length();
+				if (length < Constants.OBJECT_ID_LENGTH) {
+					return NO_INDEX;
+				}
+				byte[] checksum = new byte[Constants.OBJECT_ID_LENGTH];
+				file.seek(length - checksum.length);
+				file.readFully(checksum);
+				return checksum;
+			} catch (FileNotFoundException e) {
+				return NO_INDEX;
+			}
+		}
+
+		private static ObjectId readHead(Repository repository)
+				throws IOException {
+			Ref head = repository.exactRef(Constants.HEAD);
+			if (head == null || head.getObjectId() == null) {
+				return ObjectId.zeroId();
+			}
+			return head.getObjectId();
+		}
+	}
+
+	/**
+	 * A snapshot read from disk.
+	 */
+	static final class Snapshot {
+
+		final Key key;
+
+		final IndexDiffData data;
+
+		private Snapshot(Key key, IndexDiffData data) {
+			this.key = key;
+			this.data = data;
+		}
+	}
+
+	private IndexDiffSnapshot() {
+		// Utility class
+	}
+
+	/**
+	 * Determines the file a snapshot for a repository is stored in.
+	 *
+	 * @param stateLocation
+	 *            directory for plugin state
+	 * @param gitDir
+	 *            of the repository
+	 * @return the snapshot file
+	 */
+	static File getFile(File stateLocation, File gitDir) {
+		String name = ObjectId.fromRaw(Constants.newMessageDigest()
+				.digest(gitDir.getAbsolutePath()
+						.getBytes(StandardCharsets.UTF_8)))
+				.name();
+		return new File(new File(stateLocation, DIRECTORY), name + SUFFIX);
+	}
+
+	/**
+	 * Writes a snapshot. The file is replaced atomically, so concurrent
+	 * readers never see partially written data.
+	 *
+	 * @param file
+	 *            to write
+	 * @param gitDir
+	 *            of the repository, stored to detect hash collisions
+	 * @param key
+	 *            describing the state {@code data} was computed for
+	 * @param data
+	 *            to write
+	 * @throws IOException
+	 *             if the snapshot cannot be written
+	 */
+	static void write(File file, File gitDir, Key key, IndexDiffData data)
+			throws IOException {
+		File directory = file.getParentFile();
+		Files.createDirectories(directory.toPath());
+		Path tmp = Files.createTempFile(directory.toPath(), TMP_PREFIX, SUFFIX);
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(VERSION);
+				out.writeUTF(gitDir.getAbsolutePath());
+				out.writeInt(key.indexChecksum.length);
+				out.write(key.indexChecksum);
+				key.head.copyRawTo(out);
+				out.writeLong(key.watermark);
+				data.writeTo(out);
+			}
+			Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Reads a snapshot.
+	 *
+	 * @param file
+	 *            to read
+	 * @param gitDir
+	 *            of the repository the snapshot must belong to
+	 * @return the snapshot, or {@code null} if there is no snapshot for the
+	 *         repository
+	 * @throws IOException
+	 *             if the file cannot be read or is corrupt
+	 */
+	@Nullable
+	static Snapshot read(File file, File gitDir) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != VERSION
+					|| !gitDir.getAbsolutePath().equals(in.readUTF())) {
+				return null;
+			}
+			int checksumLength = in.readInt();
+			if (checksumLength != 0
+					&& checksumLength != Constants.OBJECT_ID_LENGTH) {
+				throw new IOException("Corrupt snapshot " + file); //$NON-NLS-1$
+			}
+			byte[] checksum = new byte[checksumLength];
+			in.readFully(checksum);
+			byte[] head = new byte[Constants.OBJECT_ID_LENGTH];
+			in.readFully(head);
+			long watermark = in.readLong();
+			IndexDiffData data = IndexDiffData.readFrom(in);
+			return new Snapshot(
+					new Key(checksum, ObjectId.fromRaw(head), watermark), data);
+		}
+	}
+
+	/**
+	 * Deletes a snapshot, if it exists.
+	 *
+	 * @param file
+	 *            to delete
+	 */
+	static void delete(File file) {
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			// Ignore; it will be overwritten or rejected later on.
+		}
+	}
+
+	/**
+	 * Deletes the snapshots of repositories that are no longer configured or
+	 * whose git directory no longer exists.
+	 *
+	 * @param stateLocation
+	 *            directory for plugin state
+	 * @param configured
+	 *            absolute paths of the git directories of the configured
+	 *            repositories
+	 */
+	static void prune(File stateLocation, Set<String> configured) {
+		File[] files = new File(stateLocation, DIRECTORY)
+				.listFiles((dir, name) -> name.endsWith(SUFFIX)
+						&& !name.startsWith(TMP_PREFIX));
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String gitDir;
+			try {
+				gitDir = readGitDir(file);
+			} catch (IOException e) {
+				// Corrupt; it would be rejected anyway
+				gitDir = null;
+			}
+			if (gitDir == null || !configured.contains(gitDir)
+					|| !new File(gitDir).isDirectory()) {
+				delete(file);
+			}
+		}
+	}
+
+	@Nullable
+	private static String readGitDir(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != VERSION) {
+				return null;
+			}
+			return in.readUTF();
+		}
+	}
+
+	/**
+	 * Determines the paths that may have changed in the working tree since
+	 * the snapshot was taken: files modified after the watermark, all entries
+	 * of directories modified after the watermark (files moved or copied
+	 * there may keep older modification times), all files in directories
+	 * that appeared in such a directory, and files known to the index or the
+	 * snapshot that no longer exist in a directory modified after the
+	 * watermark. Paths that are ignored and not in the index are left out:
+	 * directories the snapshot knows to be ignored are not examined, and the
+	 * remaining candidates are checked against the current ignore rules.
+	 * {@code .gitignore} files are always kept so that
+	 * {@link #isIgnoreRulesChanged} can tell when those rules changed.
+	 *
+	 * @param repository
+	 *            to examine
+	 * @param data
+	 *            restored from the snapshot
+	 * @param watermark
+	 *            of the snapshot
+	 * @param monitor
+	 *            for cancellation
+	 * @return the repository-relative paths to update, or {@code null} if
+	 *         canceled
+	 * @throws IOException
+	 *             if the working tree or the index cannot be read
+	 */
+	@Nullable
+	static Set<String> findChangedPaths(Repository repository,
+			IndexDiffData data, long watermark, IProgressMonitor monitor)
+			throws IOException {
+		long threshold = watermark - TIMESTAMP_RESOLUTION;
+		Path workTree = repository.getWorkTree().toPath();
+		DirCache index = repository.readDirCache();
+		Set<String> indexDirs = new HashSet<>();
+		for (int i = 0; i < index.getEntryCount(); i++) {
+			addDirectories(index.getEntry(i).getPathString(), indexDirs);
+		}
+		// Directories that existed when the snapshot was taken
+		Set<String> knownDirs = new HashSet<>(indexDirs);
+		for (String path : data.getUntracked()) {
+			addDirectories(path, knownDirs);
+		}
+		for (String path : data.getIgnoredNotInIndex()) {
+			addDirectories(path, knownDirs);
+		}
+		Set<String> changed = new HashSet<>();
+		Set<String> unchangedDirs = new HashSet<>();
+		// Directories all entries of which may have changed
+		Set<Path> changedDirs = new HashSet<>();
+		Files.walkFileTree(workTree, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir,
+					BasicFileAttributes attrs) throws IOException {
+				if (monitor.isCanceled()) {
+					return FileVisitResult.TERMINATE;
+				}
+				String path = toRepoPath(workTree, dir);
+				if (!path.isEmpty()) {
+					if (Constants.DOT_GIT.equals(path)
+							|| Files.exists(dir.resolve(Constants.DOT_GIT))) {
+						// Git directory, or a nested repository
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					if (data.isIgnored(path) && !indexDirs.contains(path)) {
+						// Build output, for instance
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+				}
+				if (attrs.lastModifiedTime().toMillis() >= threshold
+						|| (changedDirs.contains(dir.getParent())
+								&& !knownDirs.contains(path))) {
+					changedDirs.add(dir);
+				} else {
+					unchangedDirs.add(path);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file,
+					BasicFileAttributes attrs) throws IOException {
+				if (attrs.lastModifiedTime().toMillis() >= threshold
+						|| changedDirs.contains(file.getParent())) {
+					changed.add(toRepoPath(workTree, file));
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e)
+					throws IOException {
+				if (e instanceof NoSuchFileException
+						|| e instanceof AccessDeniedException) {
+					return FileVisitResult.CONTINUE;
+				}
+				throw e;
+			}
+		});
+		if (monitor.isCanceled()) {
+			return null;
+		}
+		// Files cannot disappear from a directory without changing its
+		// modification time, so only check those in modified directories.
+		for (int i = 0; i < index.getEntryCount(); i++) {
+			checkExists(workTree, index.getEntry(i).getPathString(),
+					unchangedDirs, changed);
+		}
+		for (String path : data.getUntracked()) {
+			checkExists(workTree, path, unchangedDirs, changed);
+		}
+		removeIgnored(repository, index, changed);
+		return changed;
+	}
+
+	private static void removeIgnored(Repository repository, DirCache index,
+			Set<String> paths) throws IOException {
+		if (paths.isEmpty()) {
+			return;
+		}
+		try (TreeWalk walk = new TreeWalk(repository)) {
+			walk.setRecursive(true);
+			walk.setFilter(PathFilterGroup.createFromStrings(paths));
+			int indexTree = walk.addTree(new DirCacheIterator(index));
+			FileTreeIterator files = new FileTreeIterator(repository);
+			files.setDirCacheIterator(walk, indexTree);
+			int fileTree = walk.addTree(files);
+			while (walk.next()) {
+				WorkingTreeIterator file = walk.getTree(fileTree,
+						WorkingTreeIterator.class);
+				if (walk.getTree(indexTree, DirCacheIterator.class) == null
+						&& file != null && file.isEntryIgnored()
+						&& !Constants.GITIGNORE_FILENAME
+								.equals(walk.getNameString())) {
+					paths.remove(walk.getPathString());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the ignore rules may have changed since the snapshot was
+	 * taken, in which case the ignored paths recorded in the snapshot cannot
+	 * be trusted and a full index diff is needed.
+	 *
+	 * @param repository
+	 *            to examine
+	 * @param changed
+	 *            paths found by {@link #findChangedPaths}
+	 * @param watermark
+	 *            of the snapshot
+	 * @return {@code true} if a {@code .gitignore} file, the repository's
+	 *         exclude file or the global excludes file may have changed
+	 */
+	static boolean isIgnoreRulesChanged(Repository repository,
+			Set<String> changed, long watermark) {
+		for (String path : changed) {
+			if (path.equals(Constants.GITIGNORE_FILENAME) || path
+					.endsWith('/' + Constants.GITIGNORE_FILENAME)) {
+				return true;
+			}
+		}
+		long threshold = watermark - TIMESTAMP_RESOLUTION;
+		FS fs = repository.getFS();
+		if (isModified(fs.resolve(repository.getDirectory(),
+				Constants.INFO_EXCLUDE), threshold)) {
+			return true;
+		}
+		String excludesFile = repository.getConfig().get(CoreConfig.KEY)
+				.getExcludesFile();
+		if (excludesFile == null) {
+			return false;
+		}
+		File file = excludesFile.startsWith("~/") //$NON-NLS-1$
+				? fs.resolve(fs.userHome(), excludesFile.substring(2))
+				: fs.resolve(null, excludesFile);
+		return isModified(file, threshold);
+	}
+
+	private static boolean isModified(File file, long threshold) {
+		if (file.exists()) {
+			return file.lastModified() >= threshold;
+		}
+		// It may have been deleted
+		File parent = file.getParentFile();
+		return parent != null && parent.lastModified() >= threshold;
+	}
+
+	private static void addDirectories(String path, Set<String> dirs) {
+		int end = path.endsWith("/") ? path.length() - 1 //$NON-NLS-1$
+				: path.lastIndexOf('/');
+		while (end > 0 && dirs.add(path.substring(0, end))) {
+			end = path.lastIndexOf('/', end - 1);
+		}
+	}
+
+	private static void checkExists(Path workTree, String path,
+			Set<String> unchangedDirs, Set<String> changed) {
+		int slash = path.lastIndexOf('/');
+		String parent = slash < 0 ? "" : path.substring(0, slash); //$NON-NLS-1$
+		if (!unchangedDirs.contains(parent) && !changed.contains(path)
+				&& !Files.exists(workTree.resolve(path))) {
+			changed.add(path);
+		}
+	}
+
+	private static String toRepoPath(Path workTree, Path path) {
+		String relative = workTree.relativize(path).toString();
+		if (File.separatorChar != '/') {
+			relative = relative.replace(File.separatorChar, '/');
+		}
+		return relative;
+	}
+}
@@ -0,0 +1,703 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A persistent (immutable) trie of repository-relative paths storing a bit
+ * mask of flags per path.
+ * <p>
+ * Paths are split into segments at every '/'; a trailing '/' (as used for
+ * folders) yields a final empty segment, so "a/b" and "a/b/" are distinct
+ * keys. Each node stores the flags of its own path and the union of the flags
+ * of its whole subtree, which allows pruning iteration and answering "is there
+ * any path with flag X below this folder" in O(depth).
+ * </p>
+ * <p>
+ * Modifications go through an {@link Editor}. An editor copies only the nodes
+ * on the path from the root to a modified node; all other nodes are shared
+ * with the trie the editor was created from, which stays unchanged. Nodes
+ * created by an editor are modified in place by further edits of the same
+ * editor.
+ * </p>
+ */
+final class PathTrie {
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	/** The empty trie. */
+	static final PathTrie EMPTY = new PathTrie(new Node(""), new int[32]); //$NON-NLS-1$
+
+	private final Node root;
+
+	private final int[] counts;
+
+	private PathTrie(Node root, int[] counts) {
+		this.root = root;
+		this.counts = counts;
+	}
+
+	/**
+	 * Retrieves the flags of the given path.
+	 *
+	 * @param path
+	 *            to look up
+	 * @return the flags, zero if the path is not in the trie
+	 */
+	int getFlags(String path) {
+		Node node = find(root, path);
+		return node == null ? 0 : node.flags;
+	}
+
+	/**
+	 * Determines whether the given path has any of the given flags.
+	 *
+	 * @param path
+	 *            to look up
+	 * @param mask
+	 *            of flags to check
+	 * @return {@code true} if the path has any of the flags
+	 */
+	boolean contains(String path, int mask) {
+		return (getFlags(path) & mask) != 0;
+	}
+
+	/**
+	 * Retrieves the union of the flags of the given path and all paths below
+	 * it. For a folder, pass the folder path without trailing slash; the
+	 * result then includes the flags of the folder key with trailing slash,
+	 * too. The empty string denotes the repository root.
+	 *
+	 * @param path
+	 *            to look up
+	 * @return the union of the flags of the subtree
+	 */
+	int getSubtreeFlags(String path) {
+		if (path.isEmpty()) {
+			return root.subtree;
+		}
+		Node node = find(root, path);
+		return node == null ? 0 : node.subtree;
+	}
+
+	/**
+	 * Retrieves the union of the flags of all paths inside the given folder,
+	 * i.e., of all paths starting with {@code folder}. The folder path must
+	 * end with a slash; "/" and the empty string denote the repository root.
+	 *
+	 * @param folder
+	 *            to look up
+	 * @return the union of the flags of all paths in the folder
+	 */
+	int getFlagsBelow(String folder) {
+		if (folder.length() <= 1) {
+			return root.subtree;
+		}
+		Node node = find(root, folder.substring(0, folder.length() - 1));
+		if (node == null) {
+			return 0;
+		}
+		int result = 0;
+		for (int i = 0; i < node.childCount; i++) {
+			result |= node.children[i].subtree;
+		}
+		return result;
+	}
+
+	/**
+	 * Determines whether any folder containing the given path has any of the
+	 * given flags, either as folder path with or without trailing slash.
+	 * A path ending in a slash is contained in itself.
+	 *
+	 * @param path
+	 *            to check
+	 * @param mask
+	 *            of flags to check
+	 * @return {@code true} if a parent folder has any of the flags
+	 */
+	boolean hasParentFlags(String path, int mask) {
+		if ((root.subtree & mask) == 0) {
+			return false;
+		}
+		Node node = root;
+		int from = 0;
+		while (true) {
+			int end = path.indexOf('/', from);
+			if (end < 0) {
+				return false;
+			}
+			int i = node.indexOf(path, from, end);
+			if (i < 0) {
+				return false;
+			}
+			node = node.children[i];
+			if ((node.subtree & mask) == 0) {
+				return false;
+			}
+			if ((node.flags & mask) != 0) {
+				return true;
+			}
+			// The folder key with trailing slash, if any, sorts first.
+			if (node.childCount > 0 && node.children[0].name.isEmpty()
+					&& (node.children[0].flags & mask) != 0) {
+				return true;
+			}
+			from = end + 1;
+		}
+	}
+
+	/**
+	 * Reports the folders strictly containing the given path whose folder key
+	 * with trailing slash has any of the given flags, outermost first. Costs
+	 * one child lookup per path segment.
+	 *
+	 * @param path
+	 *            to find the parent folders of
+	 * @param mask
+	 *            of flags to check
+	 * @param action
+	 *            receiving the folder paths, with trailing slash
+	 */
+	void forEachParentFolder(String path, int mask, Consumer<String> action) {
+		if ((root.subtree & mask) == 0) {
+			return;
+		}
+		Node node = root;
+		int from = 0;
+		while (true) {
+			int end = path.indexOf('/', from);
+			if (end < 0 || end == path.length() - 1) {
+				return;
+			}
+			int i = node.indexOf(path, from, end);
+			if (i < 0) {
+				return;
+			}
+			node = node.children[i];
+			if ((node.subtree & mask) == 0) {
+				return;
+			}
+			if (node.childCount > 0 && node.children[0].name.isEmpty()
+					&& (node.children[0].flags & mask) != 0) {
+				action.accept(path.substring(0, end + 1));
+			}
+			from = end + 1;
+		}
+	}
+
+	/**
+	 * Retrieves the number of paths having the given flag.
+	 *
+	 * @param flag
+	 *            a single flag bit
+	 * @return the number of paths with that flag
+	 */
+	int size(int flag) {
+		return counts[Integer.numberOfTrailingZeros(flag)];
+	}
+
+	/**
+	 * Determines whether there is no path with any of the given flags.
+	 *
+	 * @param mask
+	 *            of flags to check
+	 * @return {@code true} if no path has any of the flags
+	 */
+	boolean isEmpty(int mask) {
+		return (root.subtree & mask) == 0;
+	}
+
+	/**
+	 * Returns an unmodifiable live view of the paths having the given flag.
+	 *
+	 * @param flag
+	 *            a single flag bit
+	 * @return the set of paths with that flag
+	 */
+	Set<String> asSet(int flag) {
+		if (isEmpty(flag)) {
+			return Collections.emptySet();
+		}
+		return new FlagSet(this, flag);
+	}
+
+	/**
+	 * Creates a new {@link Editor} based on this trie. This trie itself is
+	 * not modified by the editor.
+	 *
+	 * @return a new editor
+	 */
+	Editor edit() {
+		return new Editor(this);
+	}
+
+	private static Node find(Node start, String path) {
+		Node node = start;
+		int from = 0;
+		int length = path.length();
+		while (true) {
+			int end = path.indexOf('/', from);
+			if (end < 0) {
+				end = length;
+			}
+			int i = node.indexOf(path, from, end);
+			if (i < 0) {
+				return null;
+			}
+			node = node.children[i];
+			if (end == length) {
+				return node;
+			}
+			from = end + 1;
+		}
+	}
+
+	/**
+	 * Compares a segment name against a region of a path, ordering by char
+	 * values.
+	 *
+	 * @param name
+	 *            segment name
+	 * @param path
+	 *            containing the region
+	 * @param from
+	 *            start of the region in {@code path}, inclusive
+	 * @param to
+	 *            end of the region in {@code path}, exclusive
+	 * @return negative, zero, or positive if the name sorts before, equal
+	 *         to, or after the region
+	 */
+	private static int compare(String name, String path, int from, int to) {
+		int n1 = name.length();
+		int n2 = to - from;
+		int n = Math.min(n1, n2);
+		for (int i = 0; i < n; i++) {
+			char c1 = name.charAt(i);
+			char c2 = path.charAt(from + i);
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		return n1 - n2;
+	}
+
+	private static final class Node {
+
+		final String name;
+
+		int flags;
+
+		int subtree;
+
+		Node[] children = NO_CHILDREN;
+
+		int childCount;
+
+		Node(String name) {
+			this.name = name;
+		}
+
+		Node(Node other) {
+			name = other.name;
+			flags = other.flags;
+			subtree = other.subtree;
+			childCount = other.childCount;
+			if (childCount > 0) {
+				children = Arrays.copyOf(other.children, childCount);
+			}
+		}
+
+		/**
+		 * Binary search for a child.
+		 *
+		 * @param path
+		 *            containing the child's name
+		 * @param from
+		 *            start of the name in {@code path}, inclusive
+		 * @param to
+		 *            end of the name in {@code path}, exclusive
+		 * @return the index if found, otherwise
+		 *         {@code -(insertionPoint + 1)}
+		 */
+		int indexOf(String path, int from, int to) {
+			int low = 0;
+			int high = childCount - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int cmp = compare(children[mid].name, path, from, to);
+				if (cmp < 0) {
+					low = mid + 1;
+				} else if (cmp > 0) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+
+		void insert(int index, Node child) {
+			if (childCount == children.length) {
+				children = Arrays.copyOf(children,
+						Math.max(4, childCount + (childCount >> 1)));
+			}
+			System.arraycopy(children, index, children, index + 1,
+					childCount - index);
+			children[index] = child;
+			childCount++;
+		}
+
+		void remove(int index) {
+			System.arraycopy(children, index + 1, children, index,
+					childCount - index - 1);
+			children[--childCount] = null;
+		}
+
+		void recomputeSubtree() {
+			int result = flags;
+			for (int i = 0; i < childCount; i++) {
+				result |= children[i].subtree;
+			}
+			subtree = result;
+		}
+
+		boolean isEmpty() {
+			return flags == 0 && childCount == 0;
+		}
+	}
+
+	/**
+	 * Accumulates modifications of a {@link PathTrie}. An editor is not
+	 * thread-safe and must not be used anymore after {@link #build()}.
+	 */
+	static final class Editor {
+
+		private final Set<Node> owned = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+
+		private Node root;
+
+		private final int[] counts;
+
+		private PathTrie base;
+
+		private Editor(PathTrie base) {
+			this.base = base;
+			this.root = base.root;
+			this.counts = base.counts.clone();
+		}
+
+		/**
+		 * Retrieves the current flags of the given path.
+		 *
+		 * @param path
+		 *            to look up
+		 * @return the flags, zero if the path is not in the trie
+		 */
+		int getFlags(String path) {
+			Node node = find(root, path);
+			return node == null ? 0 : node.flags;
+		}
+
+		/**
+		 * Replaces the flags given by {@code mask} of the given path.
+		 *
+		 * @param path
+		 *            to modify
+		 * @param mask
+		 *            of the flags to modify
+		 * @param flags
+		 *            new values of the flags in {@code mask}
+		 */
+		void setFlags(String path, int mask, int flags) {
+			int old = getFlags(path);
+			int updated = (old & ~mask) | (flags & mask);
+			if (updated == old) {
+				return;
+			}
+			root = update(mutable(root), path, 0, updated);
+		}
+
+		/**
+		 * Adds the given flags to the given path.
+		 *
+		 * @param path
+		 *            to modify
+		 * @param flags
+		 *            to add
+		 */
+		void addFlags(String path, int flags) {
+			setFlags(path, flags, flags);
+		}
+
+		/**
+		 * Removes the given flags from the given path and all paths below it.
+		 * The empty string denotes the repository root.
+		 *
+		 * @param path
+		 *            root of the subtree to modify
+		 * @param mask
+		 *            of the flags to remove
+		 */
+		void clearSubtree(String path, int mask) {
+			if (path.isEmpty()) {
+				if ((root.subtree & mask) != 0) {
+					root = clear(mutable(root), mask);
+				}
+				return;
+			}
+			Node node = find(root, path);
+			if (node == null || (node.subtree & mask) == 0) {
+				return;
+			}
+			root = clearBelow(mutable(root), path, 0, mask);
+		}
+
+		/**
+		 * Creates an immutable trie from the current state of this editor.
+		 *
+		 * @return the new trie
+		 */
+		PathTrie build() {
+			owned.clear();
+			if (root != base.root) {
+				base = new PathTrie(root, counts.clone());
+			}
+			return base;
+		}
+
+		private Node mutable(Node node) {
+			if (owned.contains(node)) {
+				return node;
+			}
+			Node copy = new Node(node);
+			owned.add(copy);
+			return copy;
+		}
+
+		private Node create(String name) {
+			Node node = new Node(name);
+			owned.add(node);
+			return node;
+		}
+
+		private void count(int oldFlags, int newFlags) {
+			int diff = oldFlags ^ newFlags;
+			while (diff != 0) {
+				int bit = Integer.numberOfTrailingZeros(diff);
+				if ((newFlags & (1 << bit)) != 0) {
+					counts[bit]++;
+				} else {
+					counts[bit]--;
+				}
+				diff &= diff - 1;
+			}
+		}
+
+		/**
+		 * Sets the flags of the path below the (already mutable) node.
+		 *
+		 * @param node
+		 *            mutable node to start at
+		 * @param path
+		 *            to set the flags of
+		 * @param from
+		 *            start of the part of {@code path} below {@code node}
+		 * @param flags
+		 *            to set
+		 * @return {@code node}
+		 */
+		private Node update(Node node, String path, int from, int flags) {
+			int end = path.indexOf('/', from);
+			if (end < 0) {
+				end = path.length();
+			}
+			int i = node.indexOf(path, from, end);
+			Node child;
+			int oldSubtree;
+			if (i >= 0) {
+				child = mutable(node.children[i]);
+				node.children[i] = child;
+				oldSubtree = child.subtree;
+			} else {
+				child = create(path.substring(from, end));
+				i = -(i + 1);
+				node.insert(i, child);
+				oldSubtree = 0;
+			}
+			if (end == path.length()) {
+				count(child.flags, flags);
+				child.flags = flags;
+				child.recomputeSubtree();
+			} else {
+				update(child, path, end + 1, flags);
+			}
+			if (child.isEmpty()) {
+				node.remove(i);
+			}
+			if ((oldSubtree & ~child.subtree) != 0 || child.isEmpty()) {
+				node.recomputeSubtree();
+			} else {
+				node.subtree |= child.subtree;
+			}
+			return node;
+		}
+
+		private Node clearBelow(Node node, String path, int from, int mask) {
+			int end = path.indexOf('/', from);
+			if (end < 0) {
+				end = path.length();
+			}
+			int i = node.indexOf(path, from, end);
+			Node child = node.children[i];
+			if (end == path.length()) {
+				child = clear(mutable(child), mask);
+			} else {
+				child = clearBelow(mutable(child), path, end + 1, mask);
+			}
+			if (child.isEmpty()) {
+				node.remove(i);
+			} else {
+				node.children[i] = child;
+			}
+			node.recomputeSubtree();
+			return node;
+		}
+
+		private Node clear(Node node, int mask) {
+			count(node.flags, node.flags & ~mask);
+			node.flags &= ~mask;
+			for (int i = node.childCount - 1; i >= 0; i--) {
+				Node child = node.children[i];
+				if ((child.subtree & mask) == 0) {
+					continue;
+				}
+				child = clear(mutable(child), mask);
+				if (child.isEmpty()) {
+					node.remove(i);
+				} else {
+					node.children[i] = child;
+				}
+			}
+			node.recomputeSubtree();
+			return node;
+		}
+	}
+
+	private static final class FlagSet extends AbstractSet<String> {
+
+		private final PathTrie trie;
+
+		private final int flag;
+
+		FlagSet(PathTrie trie, int flag) {
+			this.trie = trie;
+			this.flag = flag;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof String && trie.contains((String) o, flag);
+		}
+
+		@Override
+		public int size() {
+			return trie.size(flag);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return trie.isEmpty(flag);
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new FlagIterator(trie.root, flag);
+		}
+	}
+
+	private static final class FlagIterator implements Iterator<String> {
+
+		private static final class Frame {
+
+			final Node node;
+
+			final String prefix;
+
+			int next;
+
+			Frame(Node node, String prefix) {
+				this.node = node;
+				this.prefix = prefix;
+			}
+		}
+
+		private final int flag;
+
+		private final Deque<Frame> stack = new ArrayDeque<>();
+
+		private String next;
+
+		FlagIterator(Node root, int flag) {
+			this.flag = flag;
+			stack.push(new Frame(root, "")); //$NON-NLS-1$
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			while (!stack.isEmpty()) {
+				Frame top = stack.peek();
+				if (top.next >= top.node.childCount) {
+					stack.pop();
+					continue;
+				}
+				Node child = top.node.children[top.next++];
+				if ((child.subtree & flag) == 0) {
+					continue;
+				}
+				String path = top.prefix + child.name;
+				if (child.childCount > 0) {
+					stack.push(new Frame(child, path + '/'));
+				}
+				if ((child.flags & flag) != 0) {
+					next = path;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public String next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			String result = next;
+			advance();
+			return result;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+/**
+ * Decides whether an incremental, path-filtered index diff or a full reload
+ * is cheaper for a given number of changed paths.
+ * <p>
+ * The model keeps exponentially smoothed averages of measured run times: the
+ * duration of full reloads, the fixed overhead of an incremental update, and
+ * its cost per changed path. Until there are measurements, a full reload is
+ * assumed to cost time proportional to the number of index entries.
+ * </p>
+ */
+final class ReloadCostModel {
+
+	/**
+	 * Number of changed paths up to which incremental updates are always
+	 * used if nothing is known about the repository.
+	 */
+	static final int DEFAULT_LIMIT = 1000;
+
+	/**
+	 * Incremental updates with at most this many paths are used to measure
+	 * the fixed overhead; larger ones to measure the cost per path.
+	 */
+	private static final int SMALL_UPDATE = 10;
+
+	private static final double SMOOTHING = 0.3;
+
+	// Initial estimates in milliseconds, to be replaced by measurements
+	private static final double FULL_PER_ENTRY = 0.02;
+
+	private static final double INCREMENTAL_BASE = 20;
+
+	private static final double INCREMENTAL_PER_PATH = 0.5;
+
+	private double fullMillis = -1;
+
+	private double baseMillis = INCREMENTAL_BASE;
+
+	private double perPathMillis = INCREMENTAL_PER_PATH;
+
+	/**
+	 * Tells whether a full reload is expected to be faster than an
+	 * incremental update.
+	 *
+	 * @param changedPaths
+	 *            number of paths to update
+	 * @param indexEntries
+	 *            number of entries in the index, or 0 if unknown
+	 * @return {@code true} if a full reload should be done
+	 */
+	synchronized boolean shouldReload(int changedPaths, int indexEntries) {
+		double full = fullMillis;
+		if (full < 0) {
+			if (indexEntries <= 0) {
+				return changedPaths > DEFAULT_LIMIT;
+			}
+			full = indexEntries * FULL_PER_ENTRY;
+		}
+		return baseMillis + perPathMillis * changedPaths > full;
+	}
+
+	/**
+	 * Records the duration of a full reload.
+	 *
+	 * @param millis
+	 *            duration
+	 */
+	synchronized void recordFull(long millis) {
+		fullMillis = fullMillis < 0 ? millis : smooth(fullMillis, millis);
+	}
+
+	/**
+	 * Records the duration of an incremental update.
+	 *
+	 * @param changedPaths
+	 *            number of paths updated
+	 * @param millis
+	 *            duration
+	 */
+	synchronized void recordIncremental(int changedPaths, long millis) {
+		if (changedPaths <= SMALL_UPDATE) {
+			baseMillis = smooth(baseMillis, millis);
+		} else {
+			double perPath = Math.max(0, millis - baseMillis) / changedPaths;
+			perPathMillis = smooth(perPathMillis, perPath);
+		}
+	}
+
+	private static double smooth(double average, double value) {
+		return average + SMOOTHING * (value - average);
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.util.PriorityQueue;
+
+/**
+ * Limits the number of full index diff computations running at the same
+ * time. Waiting computations for repositories that are in use are granted a
+ * slot before the others; otherwise slots are granted in request order.
+ */
+final class ReloadScheduler {
+
+	private final int slots;
+
+	private final PriorityQueue<Request> waiting = new PriorityQueue<>();
+
+	private int running;
+
+	private long sequence;
+
+	/**
+	 * @param slots
+	 *            number of computations that may run concurrently
+	 */
+	ReloadScheduler(int slots) {
+		this.slots = slots;
+	}
+
+	/**
+	 * Waits until a slot is available. Each successful call must be matched
+	 * by a call to {@link #release()}.
+	 *
+	 * @param urgent
+	 *            whether the computation is for a repository in use
+	 * @throws InterruptedException
+	 *             if interrupted while waiting; no slot is held then
+	 */
+	synchronized void acquire(boolean urgent) throws InterruptedException {
+		if (running < slots && waiting.isEmpty()) {
+			running++;
+			return;
+		}
+		Request request = new Request(urgent, sequence++);
+		waiting.add(request);
+		try {
+			while (!request.granted) {
+				wait();
+			}
+		} catch (InterruptedException e) {
+			if (request.granted) {
+				release();
+			} else {
+				waiting.remove(request);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Frees a slot obtained by {@link #acquire(boolean)}.
+	 */
+	synchronized void release() {
+		Request next = waiting.poll();
+		if (next != null) {
+			// Hand over the slot
+			next.granted = true;
+			notifyAll();
+		} else {
+			running--;
+		}
+	}
+
+	private static final class Request implements Comparable<Request> {
+
+		final boolean urgent;
+
+		final long sequence;
+
+		boolean granted;
+
+		Request(boolean urgent, long sequence) {
+			this.urgent = urgent;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Request other) {
+			if (urgent != other.urgent) {
+				return urgent ? -1 : 1;
+			}
+			return Long.compare(sequence, other.sequence);
+		}
+	}
+}
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.egit.core.Activator;
+import org.eclipse.egit.core.internal.CoreText;
+import org.eclipse.jgit.lib.Constants;
+
+/**
+ * Watches the working tree of a repository with a {@link WatchService} and
+ * reports changed files as repository-relative paths. This catches changes
+ * made outside of the Eclipse workspace, for instance by command-line git or
+ * build tools, or in folders that are not part of any project.
+ * <p>
+ * Events are coalesced: after the first event the watcher keeps collecting
+ * until no further event arrived for {@link #QUIET_PERIOD} milliseconds (but
+ * at most for {@link #MAX_DELAY} milliseconds), and then reports all paths at
+ * once. Directories that are ignored, nested repositories, and the
+ * {@code .git} directory are not watched.
+ * </p>
+ * <p>
+ * If the watch service reports lost events, or a watched directory is deleted
+ * (which would leave its former contents unreported), the watcher asks for a
+ * full reload instead. If the directories cannot all be registered (for
+ * instance because the OS limit for watches has been reached), the watcher
+ * gives up and logs a warning; the index diff is then kept up to date by the
+ * usual workspace resource listener only.
+ * </p>
+ */
+class WorkTreeWatcher {
+
+	private static final long QUIET_PERIOD = 300;
+
+	private static final long MAX_DELAY = 2000;
+
+	private final Path workTree;
+
+	private final Predicate<String> isIgnored;
+
+	private final Consumer<Collection<String>> onChange;
+
+	private final Runnable onReload;
+
+	private final WatchService watchService;
+
+	// Only accessed on the watcher thread
+	private final Map<WatchKey, Path> keys = new HashMap<>();
+
+	// Only accessed on the watcher thread
+	private final Set<Path> directories = new HashSet<>();
+
+	private final Thread thread;
+
+	private volatile boolean stopped;
+
+	/**
+	 * Starts watching a working tree.
+	 *
+	 * @param workTree
+	 *            to watch
+	 * @param name
+	 *            of the repository, for the thread name and messages
+	 * @param isIgnored
+	 *            tells whether a repository-relative path (with a trailing
+	 *            slash for directories) is known to be ignored
+	 * @param onChange
+	 *            receives batches of changed repository-relative paths, with a
+	 *            trailing slash for new directories
+	 * @param onReload
+	 *            invoked if changes may have been missed
+	 * @return the running watcher, or {@code null} if the working tree cannot
+	 *         be watched
+	 */
+	static WorkTreeWatcher start(File workTree, String name,
+			Predicate<String> isIgnored,
+			Consumer<Collection<String>> onChange, Runnable onReload) {
+		WatchService service;
+		try {
+			service = workTree.toPath().getFileSystem().newWatchService();
+		} catch (IOException | UnsupportedOperationException e) {
+			Activator.logWarning(MessageFormat.format(
+					CoreText.WorkTreeWatcher_cannotWatch, name), e);
+			return null;
+		}
+		WorkTreeWatcher watcher = new WorkTreeWatcher(workTree.toPath(), name,
+				isIgnored, onChange, onReload, service);
+		watcher.thread.start();
+		return watcher;
+	}
+
+	private WorkTreeWatcher(Path workTree, String name,
+			Predicate<String> isIgnored, Consumer<Collection<String>> onChange,
+			Runnable onReload, WatchService watchService) {
+		this.workTree = workTree;
+		this.isIgnored = isIgnored;
+		this.onChange = onChange;
+		this.onReload = onReload;
+		this.watchService = watchService;
+		this.thread = new Thread(() -> run(name),
+				"EGit work tree watcher: " + name); //$NON-NLS-1$
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Stops watching. Batches not yet reported are discarded.
+	 */
+	void stop() {
+		stopped = true;
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			// Ignore; the thread terminates anyway.
+		}
+		thread.interrupt();
+	}
+
+	private void run(String name) {
+		try {
+			registerAll(workTree);
+			while (!stopped) {
+				WatchKey key = watchService.take();
+				Set<String> paths = new HashSet<>();
+				boolean reload = false;
+				long deadline = System.currentTimeMillis() + MAX_DELAY;
+				while (key != null) {
+					reload |= process(key, paths);
+					long remaining = Math.min(QUIET_PERIOD,
+							deadline - System.currentTimeMillis());
+					key = remaining > 0
+							? watchService.poll(remaining,
+									TimeUnit.MILLISECONDS)
+							: null;
+				}
+				if (stopped) {
+					break;
+				}
+				if (reload) {
+					onReload.run();
+				} else if (!paths.isEmpty()) {
+					onChange.accept(paths);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// Stopped
+		} catch (IOException e) {
+			if (!stopped) {
+				Activator.logWarning(MessageFormat.format(
+						CoreText.WorkTreeWatcher_cannotWatch, name), e);
+			}
+		} finally {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				// Ignore
+			}
+		}
+	}
+
+	/**
+	 * Collects the events of the given key.
+	 *
+	 * @param key
+	 *            signalled by the watch service
+	 * @param paths
+	 *            to add the changed repository-relative paths to
+	 * @return {@code true} if events were lost and a full reload is needed
+	 * @throws IOException
+	 *             if a new directory cannot be registered
+	 */
+	private boolean process(WatchKey key, Set<String> paths)
+			throws IOException {
+		Path dir = keys.get(key);
+		boolean reload = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			WatchEvent.Kind<?> kind = event.kind();
+			if (kind == OVERFLOW) {
+				reload = true;
+				continue;
+			}
+			if (dir == null) {
+				continue;
+			}
+			Path child = dir.resolve((Path) event.context());
+			String path = toRepoPath(child);
+			if (path.isEmpty() || isInGitDir(path)) {
+				continue;
+			}
+			if (kind == ENTRY_DELETE) {
+				if (directories.remove(child)) {
+					reload = true;
+				} else if (!isIgnored.test(path)) {
+					paths.add(path);
+				}
+			} else if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+				String folder = path + '/';
+				if (kind == ENTRY_CREATE && !directories.contains(child)
+						&& !isIgnored.test(folder)) {
+					paths.add(folder);
+					// Files may have been created before the registration
+					registerAll(child);
+					collectFiles(child, paths);
+				}
+			} else if (!isIgnored.test(path)) {
+				paths.add(path);
+			}
+		}
+		if (!key.reset()) {
+			Path removed = keys.remove(key);
+			if (removed != null) {
+				directories.remove(removed);
+			}
+		}
+		return reload;
+	}
+
+	private void registerAll(Path start) throws IOException {
+		Deque<Path> pending = new ArrayDeque<>();
+		pending.push(start);
+		while (!pending.isEmpty() && !stopped) {
+			Path dir = pending.pop();
+			if (!dir.equals(workTree) && (isIgnored.test(toRepoPath(dir) + '/')
+					|| Files.exists(dir.resolve(Constants.DOT_GIT),
+							LinkOption.NOFOLLOW_LINKS))) {
+				// Ignored, or a nested repository with its own watcher
+				continue;
+			}
+			try {
+				WatchKey key = dir.register(watchService, ENTRY_CREATE,
+						ENTRY_DELETE, ENTRY_MODIFY);
+				keys.put(key, dir);
+				directories.add(dir);
+				try (DirectoryStream<Path> children = Files
+						.newDirectoryStream(dir)) {
+					for (Path child : children) {
+						if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)
+								&& !(dir.equals(workTree) && Constants.DOT_GIT
+										.equals(child.getFileName()
+												.toString()))) {
+							pending.push(child);
+						}
+					}
+				}
+			} catch (NoSuchFileException | AccessDeniedException e) {
+				// Deleted meanwhile, or not readable: nothing to watch
+			}
+		}
+	}
+
+	private void collectFiles(Path start, Set<String> paths)
+			throws IOException {
+		Deque<Path> pending = new ArrayDeque<>();
+		pending.push(start);
+		while (!pending.isEmpty()) {
+			try (DirectoryStream<Path> children = Files
+					.newDirectoryStream(pending.pop())) {
+				for (Path child : children) {
+					if (directories.contains(child)) {
+						pending.push(child);
+					} else if (!Files.isDirectory(child,
+							LinkOption.NOFOLLOW_LINKS)) {
+						paths.add(toRepoPath(child));
+					}
+				}
+			} catch (NoSuchFileException | AccessDeniedException e) {
+				// Deleted meanwhile, or not readable
+			}
+		}
+	}
+
+	private String toRepoPath(Path path) {
+		String relative = workTree.relativize(path).toString();
+		if (File.separatorChar != '/') {
+			relative = relative.replace(File.separatorChar, '/');
+		}
+		return relative;
+	}
+
+	private static boolean isInGitDir(String path) {
+		return path.equals(Constants.DOT_GIT)
+				|| path.startsWith(Constants.DOT_GIT + '/');
+	}
+}
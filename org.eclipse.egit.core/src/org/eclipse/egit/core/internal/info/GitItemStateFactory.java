@@ -30,7 +30,6 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.core.resources.IContainer;
@@ -296,10 +295,7 @@ private GitItemState get(@NonNull IndexDiffData indexDiffData,
 	private @NonNull GitItemState extractFileProperties(
 			@NonNull IndexDiffData indexDiffData,
 			@NonNull String repoRelativePath) {
-		Set<String> ignoredFiles = indexDiffData.getIgnoredNotInIndex();
-		boolean ignored = ignoredFiles.contains(repoRelativePath)
-				|| containsPrefixPath(ignoredFiles, repoRelativePath);
-		if (ignored) {
+		if (indexDiffData.isIgnored(repoRelativePath)) {
 			// Leave the rest at the default (false, NOT_STAGED)
 			return IGNORED;
 		}
@@ -345,75 +341,29 @@ private GitItemState get(@NonNull IndexDiffData indexDiffData,
 			@NonNull IndexDiffData indexDiffData,
 			@NonNull String repoRelativePath,
 			@NonNull FileSystemItem directory) {
-		Set<String> ignoredFiles = indexDiffData.getIgnoredNotInIndex();
-		boolean ignored = containsPrefixPath(ignoredFiles, repoRelativePath)
+		boolean ignored = indexDiffData.isIgnored(repoRelativePath)
 				|| !directory.hasContainerAnyFiles();
 		if (ignored) {
 			return IGNORED;
 		}
 		GitItemStateImpl state = new GitItemStateImpl();
-		Set<String> untrackedFolders = indexDiffData.getUntrackedFolders();
-		state.setTracked(
-				!containsPrefixPath(untrackedFolders, repoRelativePath));
+		state.setTracked(!indexDiffData.isInUntrackedFolder(repoRelativePath));
 
 		// containers are marked as staged whenever file was added, removed or
 		// changed
-		Set<String> changed = new HashSet<>(indexDiffData.getChanged());
-		changed.addAll(indexDiffData.getAdded());
-		changed.addAll(indexDiffData.getRemoved());
-		if (containsPrefix(changed, repoRelativePath)) {
+		if (indexDiffData.hasStagedChangesIn(repoRelativePath)) {
 			state.setStagingState(StagingState.MODIFIED);
 		} else {
 			state.setStagingState(StagingState.NOT_STAGED);
 		}
 		// conflicting
-		Set<String> conflicting = indexDiffData.getConflicting();
-		state.setConflicts(containsPrefix(conflicting, repoRelativePath));
+		state.setConflicts(indexDiffData.hasConflictsIn(repoRelativePath));
 
 		// locally modified / untracked
-		Set<String> modified = indexDiffData.getModified();
-		Set<String> untracked = indexDiffData.getUntracked();
-		Set<String> missing = indexDiffData.getMissing();
-		state.setDirty(containsPrefix(modified, repoRelativePath)
-				|| containsPrefix(untracked, repoRelativePath)
-				|| containsPrefix(missing, repoRelativePath));
+		state.setDirty(indexDiffData.hasUnstagedChangesIn(repoRelativePath));
 		return state;
 	}
 
-	private boolean containsPrefix(Set<String> collection, String prefix) {
-		// when prefix is empty we are handling repository root, therefore we
-		// should return true whenever collection isn't empty
-		if (prefix.length() == 1 && !collection.isEmpty())
-			return true;
-
-		for (String path : collection)
-			if (path.startsWith(prefix))
-				return true;
-		return false;
-	}
-
-	private boolean containsPrefixPath(Set<String> collection, String path) {
-		for (String entry : collection) {
-			if (entry.endsWith("/")) { //$NON-NLS-1$
-				if (path.startsWith(entry)) {
-					return true;
-				}
-			} else if (startsWith2(path, entry, "/")) { //$NON-NLS-1$
-				return true;
-			}
-		}
-		return false;
-	}
-
-	/*
-	 * same as s.startsWith(prefix1+prefix2) but faster since it avoids memory
-	 * allocation during string concatenation
-	 */
-	private static boolean startsWith2(String s, String prefix1,
-			String prefix2) {
-		return s.startsWith(prefix1) && s.startsWith(prefix2, prefix1.length());
-	}
-
 	private interface FileSystemItem {
 		boolean hasContainerAnyFiles();
 
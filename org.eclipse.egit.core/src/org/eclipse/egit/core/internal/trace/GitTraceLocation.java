@@ -26,6 +26,8 @@ public enum GitTraceLocation implements ITraceLocation {
 	CORE("/debug/core"), //$NON-NLS-1$
 	/** GPG signing */
 	GPG("/debug/core/gpg"), //$NON-NLS-1$
+	/** Pushing */
+	PUSH("/debug/core/push"), //$NON-NLS-1$
 	/** IndexDiffCache */
 	INDEXDIFFCACHE("/debug/core/indexdiffcache"), //$NON-NLS-1$
 	/** refreshing resources */
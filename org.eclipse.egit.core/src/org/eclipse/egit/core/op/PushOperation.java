@@ -14,19 +14,37 @@
  *******************************************************************************/
 package org.eclipse.egit.core.op;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.egit.core.Activator;
 import org.eclipse.egit.core.EclipseGitProgressTransformer;
+import org.eclipse.egit.core.GitCorePreferences;
+import org.eclipse.egit.core.RepositoryUtil;
 import org.eclipse.egit.core.internal.CoreText;
+import org.eclipse.egit.core.internal.trace.GitTraceLocation;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.errors.UnsupportedCredentialItem;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.CredentialItem;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.PushResult;
 import org.eclipse.jgit.transport.RemoteConfig;
@@ -167,46 +185,14 @@ public void run(IProgressMonitor actMonitor)
 
 		operationResult = new PushOperationResult();
 		try (Git git = new Git(localDb)) {
-			if (specification != null)
-				for (final URIish uri : specification.getURIs()) {
-					if (progress.isCanceled()) {
-						operationResult.addOperationResult(uri,
-								CoreText.PushOperation_resultCancelled);
-						progress.worked(1);
-						continue;
-					}
-
-					Collection<RemoteRefUpdate> refUpdates = specification
-							.getRefUpdates(uri);
-					final EclipseGitProgressTransformer gitSubMonitor = new EclipseGitProgressTransformer(
-							progress.newChild(1));
-
-					try (Transport transport = Transport.open(localDb, uri)) {
-						transport.setDryRun(dryRun);
-						transport.setTimeout(timeout);
-						if (credentialsProvider != null) {
-							transport.setCredentialsProvider(
-									credentialsProvider);
-						}
-						PushResult result = transport.push(gitSubMonitor,
-								refUpdates, out);
-
-						operationResult.addOperationResult(result.getURI(),
-								result);
-						specification.addURIRefUpdates(result.getURI(),
-								result.getRemoteUpdates());
-					} catch (JGitInternalException e) {
-						String errorMessage = e.getCause() != null
-								? e.getCause().getMessage() : e.getMessage();
-						String userMessage = NLS.bind(
-								CoreText.PushOperation_InternalExceptionOccurredMessage,
-								errorMessage);
-						handleException(uri, e, userMessage);
-					} catch (Exception e) {
-						handleException(uri, e, e.getMessage());
-					}
+			if (specification != null) {
+				int maxThreads = getMaxPushThreadsCount();
+				if (maxThreads > 1 && totalWork > 1) {
+					pushInParallel(taskName, maxThreads, progress);
+				} else {
+					pushSequentially(progress);
 				}
-			else {
+			} else {
 				final EclipseGitProgressTransformer gitMonitor = new EclipseGitProgressTransformer(
 						progress.newChild(totalWork));
 				try {
@@ -235,6 +221,113 @@ public void run(IProgressMonitor actMonitor)
 		}
 	}
 
+	private void pushSequentially(SubMonitor progress) {
+		for (URIish uri : specification.getURIs()) {
+			if (progress.isCanceled()) {
+				operationResult.addOperationResult(uri,
+						CoreText.PushOperation_resultCancelled);
+				progress.worked(1);
+				continue;
+			}
+			try {
+				addResult(push(uri, progress.newChild(1), credentialsProvider,
+						out));
+			} catch (Exception e) {
+				handlePushException(uri, e);
+			}
+		}
+	}
+
+	private void pushInParallel(String taskName, int maxThreads,
+			SubMonitor progress) {
+		List<URIish> uris = new ArrayList<>(specification.getURIs());
+		CredentialsProvider credentials = credentialsProvider != null
+				? new SharedCredentialsProvider(credentialsProvider)
+				: null;
+		JobGroup jobGroup = new PushJobGroup(taskName, maxThreads,
+				uris.size());
+		List<PushJob> jobs = new ArrayList<>(uris.size());
+		for (URIish uri : uris) {
+			PushJob job = new PushJob(uri, credentials);
+			job.setJobGroup(jobGroup);
+			jobs.add(job);
+			job.schedule();
+		}
+		join(jobGroup, progress);
+		// Report in the order of the specification
+		for (PushJob job : jobs) {
+			if (job.result != null) {
+				addResult(job.result);
+			} else if (job.exception != null) {
+				handlePushException(job.uri, job.exception);
+			} else {
+				operationResult.addOperationResult(job.uri,
+						CoreText.PushOperation_resultCancelled);
+			}
+		}
+	}
+
+	private PushResult push(URIish uri, IProgressMonitor monitor,
+			CredentialsProvider credentials, OutputStream output)
+			throws Exception {
+		Collection<RemoteRefUpdate> refUpdates = specification
+				.getRefUpdates(uri);
+		long start = System.currentTimeMillis();
+		try (Transport transport = Transport.open(localDb, uri)) {
+			transport.setDryRun(dryRun);
+			transport.setTimeout(timeout);
+			if (credentials != null) {
+				transport.setCredentialsProvider(credentials);
+			}
+			return transport.push(
+					new EclipseGitProgressTransformer(monitor), refUpdates,
+					output);
+		} finally {
+			if (GitTraceLocation.PUSH.isActive()) {
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.PUSH.getLocation(),
+						"Push to " + uri + " took " //$NON-NLS-1$ //$NON-NLS-2$
+								+ (System.currentTimeMillis() - start)
+								+ " ms"); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private void addResult(PushResult result) {
+		operationResult.addOperationResult(result.getURI(), result);
+		specification.addURIRefUpdates(result.getURI(),
+				result.getRemoteUpdates());
+	}
+
+	private void handlePushException(URIish uri, Exception e) {
+		if (e instanceof JGitInternalException) {
+			String errorMessage = e.getCause() != null
+					? e.getCause().getMessage() : e.getMessage();
+			String userMessage = NLS.bind(
+					CoreText.PushOperation_InternalExceptionOccurredMessage,
+					errorMessage);
+			handleException(uri, e, userMessage);
+		} else {
+			handleException(uri, e, e.getMessage());
+		}
+	}
+
+	private void cancelled() {
+		operationResult = new PushOperationResult();
+		if (specification != null) {
+			for (URIish uri : specification.getURIs()) {
+				operationResult.addOperationResult(uri,
+						CoreText.PushOperation_resultCancelled);
+			}
+		} else {
+			URIish uri = getPushURIForErrorHandling();
+			if (uri != null) {
+				operationResult.addOperationResult(uri,
+						CoreText.PushOperation_resultCancelled);
+			}
+		}
+	}
+
 	private void handleException(final URIish uri, Exception e,
 			String userMessage) {
 		String uriString;
@@ -263,6 +356,187 @@ private URIish getPushURIForErrorHandling() {
 		}
 	}
 
+	private static int getMaxPushThreadsCount() {
+		String key = GitCorePreferences.core_maxPushThreadsCount;
+		int defaultValue = 1;
+		int value = Platform.getPreferencesService().getInt(Activator.PLUGIN_ID,
+				key, defaultValue, null);
+		return Math.max(defaultValue, value);
+	}
+
+	private static void join(JobGroup jobGroup, IProgressMonitor monitor) {
+		// No timeout for the group: each single job has a timeout
+		long noTimeout = 0;
+		try {
+			jobGroup.join(noTimeout, monitor);
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (OperationCanceledException e) {
+			// Cancel the pushes not done yet
+		}
+		jobGroup.cancel();
+		try {
+			// Let running pushes notice the cancellation
+			jobGroup.join(noTimeout, null);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Runs several push operations, typically for different repositories, in
+	 * parallel. At most {@link GitCorePreferences#core_maxPushThreadsCount}
+	 * operations run at the same time. As with {@link #run(IProgressMonitor)},
+	 * failures are communicated via the results of the operations; operations
+	 * cancelled before they could start get a result saying so.
+	 *
+	 * @param operations
+	 *            to run; must not have been run yet
+	 * @param monitor
+	 *            may be {@code null} if progress monitoring is not desired
+	 * @since 5.13
+	 */
+	public static void runAll(Collection<PushOperation> operations,
+			IProgressMonitor monitor) {
+		int workers = operations.size();
+		String taskName = MessageFormat.format(CoreText.PushOperation_TaskName,
+				Integer.valueOf(workers));
+		SubMonitor progress = SubMonitor.convert(monitor, taskName, workers);
+		JobGroup jobGroup = new PushJobGroup(taskName,
+				getMaxPushThreadsCount(), workers);
+		Map<CredentialsProvider, CredentialsProvider> shared =
+				new IdentityHashMap<>();
+		for (PushOperation operation : operations) {
+			CredentialsProvider credentials = operation.credentialsProvider;
+			if (credentials != null) {
+				operation.setCredentialsProvider(shared.computeIfAbsent(
+						credentials, SharedCredentialsProvider::new));
+			}
+			String name = NLS.bind(CoreText.PushOperation_pushJobName,
+					RepositoryUtil.getInstance()
+							.getRepositoryName(operation.localDb));
+			Job job = Job.create(name, m -> {
+				try {
+					operation.run(m);
+				} catch (InvocationTargetException e) {
+					throw new CoreException(
+							Activator.error(e.getMessage(), e.getCause()));
+				}
+			});
+			job.setJobGroup(jobGroup);
+			job.schedule();
+		}
+		join(jobGroup, progress);
+		for (PushOperation operation : operations) {
+			if (operation.operationResult == null) {
+				operation.cancelled();
+			}
+		}
+	}
+
+	/**
+	 * JobGroup for parallel pushes.
+	 */
+	private static class PushJobGroup extends JobGroup {
+
+		public PushJobGroup(String name, int maxThreads, int initialJobCount) {
+			super(name, maxThreads, initialJobCount);
+		}
+
+		/**
+		 * Always continue processing all other pushes
+		 */
+		@Override
+		protected boolean shouldCancel(IStatus lastCompletedJobResult,
+				int numberOfFailedJobs, int numberOfCancelledJobs) {
+			return false;
+		}
+	}
+
+	/**
+	 * Pushes to one URI of the specification.
+	 */
+	private final class PushJob extends Job {
+
+		final URIish uri;
+
+		private final CredentialsProvider credentials;
+
+		volatile PushResult result;
+
+		volatile Exception exception;
+
+		PushJob(URIish uri, CredentialsProvider credentials) {
+			super(NLS.bind(dryRun ? CoreText.PushOperation_pushJobNameDryRun
+					: CoreText.PushOperation_pushJobName, uri));
+			this.uri = uri;
+			this.credentials = credentials;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			// Collect sideband messages so that pushes don't interleave them
+			ByteArrayOutputStream output = out != null
+					? new ByteArrayOutputStream()
+					: null;
+			try {
+				result = push(uri, monitor, credentials, output);
+			} catch (Exception e) {
+				exception = e;
+			} finally {
+				if (output != null) {
+					synchronized (out) {
+						try {
+							output.writeTo(out);
+						} catch (IOException e) {
+							// Messages are informational only
+						}
+					}
+				}
+			}
+			return monitor.isCanceled()
+					? org.eclipse.core.runtime.Status.CANCEL_STATUS
+					: org.eclipse.core.runtime.Status.OK_STATUS;
+		}
+	}
+
+	/**
+	 * Serializes the requests for credentials of parallel pushes, so that
+	 * the user is prompted only once at a time, and credentials the delegate
+	 * remembers from one prompt are available to the next push.
+	 */
+	private static class SharedCredentialsProvider
+			extends CredentialsProvider {
+
+		private final CredentialsProvider delegate;
+
+		SharedCredentialsProvider(CredentialsProvider delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean isInteractive() {
+			return delegate.isInteractive();
+		}
+
+		@Override
+		public boolean supports(CredentialItem... items) {
+			return delegate.supports(items);
+		}
+
+		@Override
+		public synchronized boolean get(URIish uri, CredentialItem... items)
+				throws UnsupportedCredentialItem {
+			return delegate.get(uri, items);
+		}
+
+		@Override
+		public synchronized void reset(URIish uri) {
+			delegate.reset(uri);
+		}
+	}
+
 	/**
 	 * Sets the output stream this operation will write sideband messages to.
 	 *
@@ -17,16 +17,29 @@
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.eclipse.egit.core.Activator;
 import org.eclipse.egit.core.EclipseGitProgressTransformer;
+import org.eclipse.egit.core.GitCorePreferences;
 import org.eclipse.egit.core.RepositoryUtil;
 import org.eclipse.egit.core.internal.CoreText;
 import org.eclipse.egit.core.internal.MergeStrategies;
@@ -36,10 +49,13 @@
 import org.eclipse.jgit.api.SubmoduleInitCommand;
 import org.eclipse.jgit.api.SubmoduleUpdateCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.ConfigInvalidException;
 import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.merge.MergeStrategy;
 import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.eclipse.team.core.TeamException;
 
 /**
@@ -49,6 +65,8 @@ public class SubmoduleUpdateOperation implements IEGitOperation {
 
 	private final Repository repository;
 
+	private static final String FETCH_JOBS = "fetchJobs"; //$NON-NLS-1$
+
 	private final Collection<String> paths;
 
 	/**
@@ -86,7 +104,7 @@ public void run(IProgressMonitor pm) throws CoreException {
 
 				Git git = Git.wrap(repository);
 
-				Collection<String> updated = null;
+				Collection<String> updated = new ArrayList<>();
 				try {
 					SubmoduleInitCommand init = git.submoduleInit();
 					for (String path : paths)
@@ -94,56 +112,35 @@ public void run(IProgressMonitor pm) throws CoreException {
 					init.call();
 					progress.worked(1);
 
-					SubmoduleUpdateCommand update = git.submoduleUpdate();
-					for (String path : paths)
-						update.addPath(path);
-					update.setProgressMonitor(new EclipseGitProgressTransformer(
-							progress.newChild(2)));
-					MergeStrategy strategy = MergeStrategies
-							.getPreferredMergeStrategy();
-					if (strategy != null) {
-						update.setStrategy(strategy);
-					}
-					update.setCallback(new CloneCommand.Callback() {
-
-						@Override
-						public void initializedSubmodules(
-								Collection<String> submodules) {
-							// Nothing to do
-						}
-
-						@Override
-						public void cloningSubmodule(String path) {
-							progress.setTaskName(MessageFormat.format(
-									CoreText.SubmoduleUpdateOperation_cloning,
-									util.getRepositoryName(repository), path));
-						}
-
-						@Override
-						public void checkingOut(AnyObjectId commit,
-								String path) {
-							// Nothing to do
-						}
-					});
-					updated = update.call();
-					SubMonitor refreshMonitor = progress.newChild(1)
-							.setWorkRemaining(updated.size());
-					for (String path : updated) {
-						Repository subRepo = SubmoduleWalk
-								.getSubmoduleRepository(repository, path);
-						if (subRepo != null) {
-							ProjectUtil.refreshValidProjects(
-									ProjectUtil.getValidOpenProjects(subRepo),
-									refreshMonitor.newChild(1));
-						} else {
-							refreshMonitor.worked(1);
+					List<SubmoduleJob> jobs = updateSubmodules(
+							progress.newChild(2));
+					MultiStatus failures = new MultiStatus(
+							Activator.PLUGIN_ID, 0,
+							MessageFormat.format(
+									CoreText.SubmoduleUpdateOperation_failed,
+									util.getRepositoryName(repository)),
+							null);
+					for (SubmoduleJob job : jobs) {
+						if (job.updated != null) {
+							updated.addAll(job.updated);
+						} else if (job.exception != null) {
+							String message = MessageFormat.format(
+									CoreText.SubmoduleUpdateOperation_submoduleFailed,
+									job.path,
+									job.exception.getLocalizedMessage());
+							failures.add(Activator.error(message,
+									job.exception));
 						}
 					}
+					refreshProjects(updated, progress.newChild(1));
+					if (!failures.isOK()) {
+						throw new CoreException(failures);
+					}
 				} catch (GitAPIException | IOException e) {
 					throw new TeamException(e.getLocalizedMessage(),
 							e.getCause());
 				} finally {
-					if (updated != null && !updated.isEmpty()) {
+					if (!updated.isEmpty()) {
 						repository.notifyIndexChanged(true);
 					}
 				}
@@ -153,6 +150,203 @@ public void checkingOut(AnyObjectId commit,
 				IWorkspace.AVOID_UPDATE, monitor);
 	}
 
+	/**
+	 * Updates the submodules concurrently, each one in its own job.
+	 *
+	 * @param monitor
+	 *            for progress reporting and cancellation
+	 * @return the jobs, which have all finished
+	 * @throws IOException
+	 *             if the submodules cannot be determined
+	 * @throws CoreException
+	 *             if the update was cancelled or interrupted
+	 */
+	private List<SubmoduleJob> updateSubmodules(IProgressMonitor monitor)
+			throws IOException, CoreException {
+		List<String> submodules = new ArrayList<>();
+		try (SubmoduleWalk walk = SubmoduleWalk.forIndex(repository)) {
+			if (!paths.isEmpty()) {
+				walk.setFilter(PathFilterGroup.createFromStrings(paths));
+			}
+			while (walk.next()) {
+				// Skip submodules not initialized in the config
+				if (walk.getConfigUrl() != null) {
+					submodules.add(walk.getPath());
+				}
+			}
+		} catch (ConfigInvalidException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+		if (submodules.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String taskName = MessageFormat.format(
+				CoreText.SubmoduleUpdateOperation_updating,
+				RepositoryUtil.getInstance().getRepositoryName(repository));
+		JobGroup jobGroup = new SubmoduleJobGroup(taskName,
+				getMaxThreads(), submodules.size());
+		MergeStrategy strategy = MergeStrategies.getPreferredMergeStrategy();
+		List<SubmoduleJob> jobs = new ArrayList<>(submodules.size());
+		for (String path : submodules) {
+			SubmoduleJob job = new SubmoduleJob(path, strategy);
+			job.setJobGroup(jobGroup);
+			jobs.add(job);
+			job.schedule();
+		}
+		// No timeout for the group: each single job has a timeout
+		long noTimeout = 0;
+		try {
+			jobGroup.join(noTimeout, monitor);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CoreException(Activator.cancel(e.getMessage(), e));
+		} catch (OperationCanceledException e) {
+			jobGroup.cancel();
+			try {
+				// Don't leave submodules being cloned behind
+				jobGroup.join(noTimeout, null);
+			} catch (InterruptedException e2) {
+				Thread.currentThread().interrupt();
+			}
+			throw new CoreException(Activator.cancel(e.getMessage(), e));
+		}
+		return jobs;
+	}
+
+	/**
+	 * Determines how many submodules to update at the same time from the
+	 * git config "submodule.fetchJobs", where 0 means as many as there are
+	 * processors, falling back to the maximum number of parallel pulls.
+	 *
+	 * @return the maximum number of submodules to update at the same time
+	 */
+	private int getMaxThreads() {
+		int jobs = repository.getConfig().getInt(
+				ConfigConstants.CONFIG_SUBMODULE_SECTION, FETCH_JOBS, -1);
+		if (jobs == 0) {
+			return Runtime.getRuntime().availableProcessors();
+		} else if (jobs < 0) {
+			jobs = Platform.getPreferencesService().getInt(
+					Activator.PLUGIN_ID,
+					GitCorePreferences.core_maxPullThreadsCount, 1, null);
+		}
+		return Math.max(1, jobs);
+	}
+
+	/**
+	 * Refreshes the projects of all updated submodules in one go.
+	 *
+	 * @param updated
+	 *            paths of the updated submodules
+	 * @param monitor
+	 *            for progress reporting and cancellation
+	 * @throws IOException
+	 *             if a submodule repository cannot be opened
+	 * @throws CoreException
+	 *             if the refresh fails
+	 */
+	private void refreshProjects(Collection<String> updated,
+			IProgressMonitor monitor) throws IOException, CoreException {
+		List<IProject> projects = new ArrayList<>();
+		for (String path : updated) {
+			try (Repository subRepo = SubmoduleWalk
+					.getSubmoduleRepository(repository, path)) {
+				if (subRepo != null) {
+					projects.addAll(Arrays
+							.asList(ProjectUtil.getValidOpenProjects(subRepo)));
+				}
+			}
+		}
+		ProjectUtil.refreshValidProjects(projects.toArray(new IProject[0]),
+				monitor);
+	}
+
+	/**
+	 * JobGroup for updating submodules.
+	 */
+	private static class SubmoduleJobGroup extends JobGroup {
+
+		public SubmoduleJobGroup(String name, int maxThreads,
+				int initialJobCount) {
+			super(name, maxThreads, initialJobCount);
+		}
+
+		/**
+		 * Always continue updating all other submodules
+		 */
+		@Override
+		protected boolean shouldCancel(IStatus lastCompletedJobResult,
+				int numberOfFailedJobs, int numberOfCancelledJobs) {
+			return false;
+		}
+	}
+
+	/**
+	 * Clones if needed and checks out a single submodule.
+	 */
+	private final class SubmoduleJob extends Job {
+
+		final String path;
+
+		private final MergeStrategy strategy;
+
+		volatile Collection<String> updated;
+
+		volatile Exception exception;
+
+		SubmoduleJob(String path, MergeStrategy strategy) {
+			super(MessageFormat.format(
+					CoreText.SubmoduleUpdateOperation_updatingSubmodule,
+					path));
+			this.path = path;
+			this.strategy = strategy;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			SubMonitor progress = SubMonitor.convert(monitor, 1);
+			SubmoduleUpdateCommand update = Git.wrap(repository)
+					.submoduleUpdate().addPath(path);
+			update.setProgressMonitor(
+					new EclipseGitProgressTransformer(progress.newChild(1)));
+			if (strategy != null) {
+				update.setStrategy(strategy);
+			}
+			update.setCallback(new CloneCommand.Callback() {
+
+				@Override
+				public void initializedSubmodules(
+						Collection<String> submodules) {
+					// Nothing to do
+				}
+
+				@Override
+				public void cloningSubmodule(String submodule) {
+					progress.setTaskName(MessageFormat.format(
+							CoreText.SubmoduleUpdateOperation_cloning,
+							RepositoryUtil.getInstance()
+									.getRepositoryName(repository),
+							submodule));
+				}
+
+				@Override
+				public void checkingOut(AnyObjectId commit,
+						String submodule) {
+					// Nothing to do
+				}
+			});
+			try {
+				updated = update.call();
+			} catch (GitAPIException | RuntimeException e) {
+				// Includes JGitInternalException
+				exception = e;
+			}
+			// Failures are reported by the operation for all submodules
+			return monitor.isCanceled() ? Status.CANCEL_STATUS
+					: Status.OK_STATUS;
+		}
+	}
+
 	@Override
 	public ISchedulingRule getSchedulingRule() {
 		return ResourcesPlugin.getWorkspace().getRoot();
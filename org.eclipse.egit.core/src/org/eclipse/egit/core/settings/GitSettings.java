@@ -47,6 +47,19 @@ public static int getRemoteConnectionTimeout() {
 				GitCorePreferences.core_remoteConnectionTimeout, 60, null);
 	}
 
+	/**
+	 * Tells whether the working trees of repositories shall be watched for
+	 * changes made outside of Eclipse.
+	 *
+	 * @return {@code true} if working trees shall be watched; {@code false} by
+	 *         default.
+	 * @since 5.13
+	 */
+	public static boolean isWatchWorkTrees() {
+		return Platform.getPreferencesService().getBoolean(Activator.PLUGIN_ID,
+				GitCorePreferences.core_watchWorkTrees, false, null);
+	}
+
 	/**
 	 * Retrieves the {@link Path} of the default directory where to create new
 	 * clones.
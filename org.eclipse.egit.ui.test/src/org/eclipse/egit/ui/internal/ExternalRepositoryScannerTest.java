@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.egit.ui.Activator;
+import org.eclipse.egit.ui.UIPreferences;
+import org.eclipse.egit.ui.common.LocalRepositoryTestCase;
+import org.eclipse.egit.ui.test.TestUtil;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.swtbot.swt.finder.waits.DefaultCondition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ExternalRepositoryScanner} refreshes files whose
+ * index entries were changed by an external git operation.
+ */
+public class ExternalRepositoryScannerTest extends LocalRepositoryTestCase {
+
+	private static final String PATH = PROJ1 + '/' + FOLDER + '/' + FILE1;
+
+	private File gitDir;
+
+	private IFile file;
+
+	@Before
+	public void setUp() throws Exception {
+		gitDir = createProjectAndCommitToRepository();
+		file = ResourcesPlugin.getWorkspace().getRoot().getProject(PROJ1)
+				.getFile(new Path(FOLDER + '/' + FILE1));
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		store.setValue(UIPreferences.REFRESH_ONLY_WHEN_ACTIVE, false);
+		store.setValue(UIPreferences.REFRESH_INDEX_INTERVAL, 1);
+		// Let the scanner watch the repository and snapshot its index
+		TestUtil.waitForJobs(1500, 5000);
+	}
+
+	@After
+	public void tearDown() {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		store.setValue(UIPreferences.REFRESH_INDEX_INTERVAL, 0);
+		store.setToDefault(UIPreferences.REFRESH_ONLY_WHEN_ACTIVE);
+	}
+
+	@Test
+	public void testExternallyStagedFileIsRefreshed() throws Exception {
+		assertTrue(file.isSynchronized(IResource.DEPTH_ZERO));
+		try (Repository external = FileRepositoryBuilder.create(gitDir);
+				Git git = new Git(external)) {
+			Files.write(file.getLocation().toFile().toPath(),
+					"external change".getBytes(StandardCharsets.UTF_8));
+			git.add().addFilepattern(PATH).call();
+		}
+		waitUntil(() -> file.isSynchronized(IResource.DEPTH_ZERO),
+				"File not refreshed after it was staged externally");
+	}
+
+	@Test
+	public void testExternallyRemovedFileIsRefreshed() throws Exception {
+		assertTrue(file.exists());
+		try (Repository external = FileRepositoryBuilder.create(gitDir);
+				Git git = new Git(external)) {
+			git.rm().addFilepattern(PATH).call();
+		}
+		waitUntil(() -> !file.exists(),
+				"File still exists after it was removed externally");
+	}
+
+	@Test
+	public void testExternallyRevertedFileIsRefreshed() throws Exception {
+		String original = read();
+		file.setContents(new ByteArrayInputStream(
+				"unstaged change".getBytes(StandardCharsets.UTF_8)),
+				IResource.FORCE, null);
+		TestUtil.waitForJobs(1500, 5000);
+		// The index entry keeps its object id; only its file stats change
+		try (Repository external = FileRepositoryBuilder.create(gitDir);
+				Git git = new Git(external)) {
+			git.checkout().addPath(PATH).call();
+		}
+		waitUntil(() -> file.isSynchronized(IResource.DEPTH_ZERO)
+				&& original.equals(read()),
+				"File not refreshed after it was reverted externally");
+	}
+
+	private String read() throws Exception {
+		return new String(
+				Files.readAllBytes(file.getLocation().toFile().toPath()),
+				StandardCharsets.UTF_8);
+	}
+
+	private static void waitUntil(Condition condition, String message) {
+		bot.waitUntil(new DefaultCondition() {
+
+			@Override
+			public boolean test() throws Exception {
+				return condition.test();
+			}
+
+			@Override
+			public String getFailureMessage() {
+				return message;
+			}
+		}, 20000);
+	}
+
+	@FunctionalInterface
+	private interface Condition {
+
+		boolean test() throws Exception;
+	}
+}
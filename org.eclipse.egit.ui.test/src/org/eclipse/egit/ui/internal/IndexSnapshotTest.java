@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.events.WorkingTreeModifiedEvent;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexSnapshotTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		write("a.txt", "a");
+		write("b/c.txt", "c");
+		write("b/d.txt", "d");
+		// Old files, so that JGit doesn't smudge racily clean entries
+		long old = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+		for (String path : new String[] { "a.txt", "b/c.txt", "b/d.txt" }) {
+			assertTrue(new File(repository.getWorkTree(), path)
+					.setLastModified(old));
+		}
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage("Initial").call();
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testUnchanged() throws Exception {
+		IndexSnapshot before = IndexSnapshot.read(repository);
+		assertFalse(before.isModified());
+		WorkingTreeModifiedEvent event = before
+				.diff(IndexSnapshot.read(repository));
+		assertTrue(event.isEmpty());
+	}
+
+	@Test
+	public void testModifiedAddedDeleted() throws Exception {
+		IndexSnapshot before = IndexSnapshot.read(repository);
+		write("a.txt", "changed");
+		write("b/e.txt", "e");
+		git.add().addFilepattern("a.txt").addFilepattern("b/e.txt").call();
+		git.rm().addFilepattern("b/c.txt").call();
+		assertTrue(before.isModified());
+
+		WorkingTreeModifiedEvent event = before
+				.diff(IndexSnapshot.read(repository));
+		assertEquals(set("a.txt", "b/e.txt"),
+				new HashSet<>(event.getModified()));
+		assertEquals(set("b/c.txt"), new HashSet<>(event.getDeleted()));
+	}
+
+	@Test
+	public void testResolvedConflict() throws Exception {
+		DirCache index = repository.lockDirCache();
+		DirCacheEntry stage0 = index.getEntry("a.txt");
+		DirCacheBuilder builder = index.builder();
+		for (int i = 0; i < index.getEntryCount(); i++) {
+			DirCacheEntry entry = index.getEntry(i);
+			if (entry == stage0) {
+				for (int stage = 1; stage <= 3; stage++) {
+					DirCacheEntry conflict = new DirCacheEntry("a.txt", stage);
+					conflict.setFileMode(stage0.getFileMode());
+					conflict.setObjectId(stage0.getObjectId());
+					builder.add(conflict);
+				}
+			} else {
+				builder.add(entry);
+			}
+		}
+		builder.commit();
+		IndexSnapshot conflicted = IndexSnapshot.read(repository);
+
+		git.add().addFilepattern("a.txt").call();
+		WorkingTreeModifiedEvent event = conflicted
+				.diff(IndexSnapshot.read(repository));
+		assertEquals(set("a.txt"), new HashSet<>(event.getModified()));
+		assertTrue(event.getDeleted().isEmpty());
+	}
+
+	@Test
+	public void testModeChange() throws Exception {
+		IndexSnapshot before = IndexSnapshot.read(repository);
+		DirCache index = repository.lockDirCache();
+		index.getEntry("b/d.txt").setFileMode(FileMode.EXECUTABLE_FILE);
+		index.write();
+		index.commit();
+
+		WorkingTreeModifiedEvent event = before
+				.diff(IndexSnapshot.read(repository));
+		assertEquals(set("b/d.txt"), new HashSet<>(event.getModified()));
+		assertTrue(event.getDeleted().isEmpty());
+	}
+
+	@Test
+	public void testRevertWithoutIdChange() throws Exception {
+		IndexSnapshot before = IndexSnapshot.read(repository);
+		write("a.txt", "unstaged change");
+		git.checkout().addPath("a.txt").call();
+
+		WorkingTreeModifiedEvent event = before
+				.diff(IndexSnapshot.read(repository));
+		assertEquals(set("a.txt"), new HashSet<>(event.getModified()));
+		assertTrue(event.getDeleted().isEmpty());
+	}
+
+	private void write(String path, String content) throws Exception {
+		File file = new File(repository.getWorkTree(), path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Set<String> set(String... paths) {
+		return new HashSet<>(Arrays.asList(paths));
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RepositoryWatcherTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private final BlockingQueue<File> changes = new LinkedBlockingQueue<>();
+
+	private Git git;
+
+	private Repository repository;
+
+	private RepositoryWatcher watcher;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		write("a.txt", "a");
+		git.add().addFilepattern("a.txt").call();
+		git.commit().setMessage("Initial").call();
+		watcher = RepositoryWatcher.create(changes::add);
+		assertNotNull(watcher);
+		assertTrue(watcher.watch(repository.getDirectory()));
+	}
+
+	@After
+	public void tearDown() {
+		watcher.close();
+		repository.close();
+	}
+
+	@Test(timeout = 30000)
+	public void testIndexChange() throws Exception {
+		write("a.txt", "changed");
+		git.add().addFilepattern("a.txt").call();
+		assertEquals(repository.getDirectory(), changes.take());
+	}
+
+	@Test(timeout = 30000)
+	public void testNewBranch() throws Exception {
+		git.branchCreate().setName("topic/one").call();
+		assertEquals(repository.getDirectory(), changes.take());
+		drain();
+		// refs/heads/topic was created after the repository was registered
+		git.branchCreate().setName("topic/two").call();
+		assertEquals(repository.getDirectory(), changes.take());
+	}
+
+	@Test(timeout = 30000)
+	public void testWorkTreeChangeNotReported() throws Exception {
+		write("a.txt", "changed");
+		write("b.txt", "b");
+		assertNull(changes.poll(1, TimeUnit.SECONDS));
+	}
+
+	@Test(timeout = 30000)
+	public void testUnwatch() throws Exception {
+		watcher.unwatch(repository.getDirectory());
+		write("a.txt", "changed");
+		git.add().addFilepattern("a.txt").call();
+		git.branchCreate().setName("topic").call();
+		assertNull(changes.poll(1, TimeUnit.SECONDS));
+	}
+
+	@Test(timeout = 30000)
+	public void testLinkedWorkTree() throws Exception {
+		File worktreeDir = new File(repository.getDirectory(),
+				"worktrees/linked");
+		assertTrue(worktreeDir.mkdirs());
+		Files.write(new File(worktreeDir, "commondir").toPath(),
+				"../..\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(worktreeDir, Constants.HEAD).toPath(),
+				"ref: refs/heads/master\n".getBytes(StandardCharsets.UTF_8));
+		assertTrue(watcher.watch(worktreeDir));
+		// The common directory stays watched for the linked work tree
+		watcher.unwatch(repository.getDirectory());
+		drain();
+		git.branchCreate().setName("topic").call();
+		assertEquals(worktreeDir, changes.take());
+	}
+
+	private void drain() throws InterruptedException {
+		while (changes.poll(500, TimeUnit.MILLISECONDS) != null) {
+			// Skip further events of the same change
+		}
+	}
+
+	private void write(String path, String content) throws Exception {
+		File file = new File(repository.getWorkTree(), path);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.blame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeResult;
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the blame {@link BlameCache} computes incrementally from the blame
+ * of an ancestor with the blame of a full {@code BlameCommand}, and checks
+ * that it doesn't do so where it cannot.
+ */
+public class BlameCacheTest {
+
+	private static final String FILE = "file.txt";
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testUnchanged() throws Exception {
+		RevCommit base = commit("a\nb\nc\n");
+		RevCommit other = commit("other.txt", "x\n");
+		assertIncremental(base, other, false);
+	}
+
+	@Test
+	public void testPureDeletion() throws Exception {
+		commit("a\nb\nc\nd\ne\n");
+		RevCommit base = commit("a\nb\nc\nd\ne\nf\n");
+		RevCommit deleted = commit("a\nd\nf\n");
+		assertIncremental(base, deleted, false);
+		assertIncremental(base, deleted, true);
+	}
+
+	@Test
+	public void testInsertionAndModification() throws Exception {
+		commit("a\nb\nc\n");
+		RevCommit base = commit("a\nB\nc\nd\n");
+		commit("new\na\nB\nc\nd\n");
+		RevCommit changed = commit("new\na\nB2\nc\nd\nend\n");
+		assertIncremental(base, changed, false);
+	}
+
+	@Test
+	public void testWhitespaceOnlyEdit() throws Exception {
+		commit("if (x) {\nfoo();\n}\n");
+		RevCommit base = commit("if (x) {\nfoo();\nbar();\n}\n");
+		RevCommit indented = commit("if (x) {\n\tfoo();\n\tbar();\n}\n");
+		assertIncremental(base, indented, false);
+		assertIncremental(base, indented, true);
+	}
+
+	@Test
+	public void testLineDeletedAndReadded() throws Exception {
+		commit("a\nb\nc\n");
+		RevCommit base = commit("a\nb\nc\nd\n");
+		commit("a\nc\nd\n");
+		RevCommit readded = commit("a\nb\nc\nd\n");
+		assertIncremental(base, readded, false);
+	}
+
+	@Test
+	public void testMergeChangingFile() throws Exception {
+		commit("a\nb\nc\nd\n");
+		git.branchCreate().setName("side").call();
+		RevCommit base = commit("a\nb\nc\nD\n");
+		git.checkout().setName("side").call();
+		commit("A\nb\nc\nd\n");
+		git.checkout().setName("master").call();
+		MergeResult merge = git.merge()
+				.include(repository.resolve("side"))
+				.setMessage("Merge side").call();
+		assertNotNull(merge.getNewHead());
+		RevCommit after = commit("A\nb\nC\nD\n");
+		// Across the merge, the blame has to be computed in full
+		cache(base, false);
+		assertNull(BlameCache.getInstance().lookup(repository, FILE, after,
+				false));
+		assertIncremental(repository.parseCommit(merge.getNewHead()), after,
+				true);
+	}
+
+	@Test
+	public void testMergeNotChangingFile() throws Exception {
+		commit("a\nb\nc\n");
+		git.branchCreate().setName("side").call();
+		RevCommit base = commit("a\nB\nc\n");
+		git.checkout().setName("side").call();
+		commit("other.txt", "x\n");
+		git.checkout().setName("master").call();
+		MergeResult merge = git.merge()
+				.include(repository.resolve("side"))
+				.setMessage("Merge side").call();
+		assertNotNull(merge.getNewHead());
+		RevCommit after = commit("a\nB\nc\nd\n");
+		assertIncremental(base, after, false);
+	}
+
+	@Test
+	public void testNoCachedAncestor() throws Exception {
+		commit("a\n");
+		RevCommit second = commit("a\nb\n");
+		assertNull(BlameCache.getInstance().lookup(repository, FILE, second,
+				false));
+	}
+
+	// Each target may be checked once per whitespace mode only, since its
+	// blame is cached afterwards.
+	private void assertIncremental(RevCommit base, RevCommit target,
+			boolean ignoreWhitespace) throws Exception {
+		cache(base, ignoreWhitespace);
+		BlameCache.Blame blame = BlameCache.getInstance().lookup(repository,
+				FILE, target, ignoreWhitespace);
+		assertNotNull(blame);
+		BlameResult expected = git.blame().setFilePath(FILE)
+				.setStartCommit(target).setFollowFileRenames(true)
+				.setTextComparator(ignoreWhitespace
+						? RawTextComparator.WS_IGNORE_ALL
+						: RawTextComparator.DEFAULT)
+				.call();
+		assertNotNull(expected);
+		int size = expected.getResultContents().size();
+		assertEquals(size, blame.size());
+		for (int i = 0; i < size; i++) {
+			String line = "line " + i;
+			assertEquals(line, ObjectId.toString(expected.getSourceCommit(i)),
+					ObjectId.toString(blame.getSourceCommit(i)));
+			assertEquals(line, expected.getSourcePath(i),
+					blame.getSourcePath(i));
+			assertEquals(line, expected.getSourceLine(i),
+					blame.getSourceLine(i));
+		}
+	}
+
+	private void cache(RevCommit commit, boolean ignoreWhitespace)
+			throws Exception {
+		try (BlameCache.Computation computation = BlameCache.getInstance()
+				.start(repository, FILE, commit, ignoreWhitespace)) {
+			assertNotNull(computation);
+			computation.finish();
+		}
+	}
+
+	private RevCommit commit(String content) throws Exception {
+		return commit(FILE, content);
+	}
+
+	private RevCommit commit(String path, String content) throws Exception {
+		File file = new File(repository.getWorkTree(), path);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		git.add().addFilepattern(path).call();
+		return git.commit().setMessage("Change " + path).call();
+	}
+}
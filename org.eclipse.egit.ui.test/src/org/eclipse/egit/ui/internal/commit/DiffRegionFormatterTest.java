@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.commit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.egit.ui.internal.UIText;
+import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.DiffRegion;
+import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.FileDiffRegion;
+import org.eclipse.egit.ui.internal.history.FileDiff;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.osgi.util.NLS;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DiffRegionFormatterTest {
+
+	private InMemoryRepository repository;
+
+	private FileDiff[] diffs;
+
+	@Before
+	public void setUp() throws Exception {
+		repository = new InMemoryRepository(
+				new DfsRepositoryDescription("test"));
+		TestRepository<InMemoryRepository> util = new TestRepository<>(
+				repository);
+		RevCommit first = util.commit()
+				.add("a.txt", lines("a", 0, 20))
+				.add("b.txt", lines("b", 0, 5))
+				.add("c.txt", lines("c", 0, 10))
+				.create();
+		RevCommit second = util.commit().parent(first)
+				.add("a.txt", lines("a", 0, 5) + lines("x", 5, 15)
+						+ lines("a", 15, 20))
+				.add("b.txt", lines("b", 0, 5) + lines("y", 5, 10))
+				.add("c.txt", lines("z", 0, 10))
+				.create();
+		List<FileDiff> result = new ArrayList<>();
+		try (TreeWalk walk = new TreeWalk(repository)) {
+			walk.setRecursive(true);
+			walk.addTree(first.getTree());
+			walk.addTree(second.getTree());
+			for (DiffEntry entry : DiffEntry.scan(walk)) {
+				result.add(new FileDiff(repository, second, first, entry));
+			}
+		}
+		diffs = result.toArray(new FileDiff[0]);
+		assertEquals(3, diffs.length);
+	}
+
+	@Test
+	public void testAppendEqualsSequentialFormatting() throws Exception {
+		StringBuilder expectedText = new StringBuilder();
+		DiffRegionFormatter expected = new DiffRegionFormatter(expectedText,
+				-1);
+		for (FileDiff diff : diffs) {
+			expected.write(diff);
+		}
+
+		StringBuilder text = new StringBuilder();
+		DiffRegionFormatter formatter = new DiffRegionFormatter(text, -1);
+		for (FileDiff diff : diffs) {
+			DiffRegionFormatter part = new DiffRegionFormatter(
+					new StringBuilder(), -1);
+			part.write(diff);
+			assertEquals(formatter, formatter.append(part));
+		}
+
+		assertEquals(expectedText.toString(), text.toString());
+		assertEquals(toString(expected.getRegions()),
+				toString(formatter.getRegions()));
+		assertEquals(toString(expected.getFileRegions()),
+				toString(formatter.getFileRegions()));
+	}
+
+	@Test
+	public void testAppendShiftsRegions() throws Exception {
+		DiffRegionFormatter first = new DiffRegionFormatter(
+				new StringBuilder(), -1);
+		first.write(diffs[0]);
+		DiffRegionFormatter second = new DiffRegionFormatter(
+				new StringBuilder(), -1);
+		second.write(diffs[1]);
+		int shift = first.getFileRegions()[0].getLength();
+
+		StringBuilder text = new StringBuilder();
+		DiffRegionFormatter formatter = new DiffRegionFormatter(text, -1);
+		formatter.append(first).append(second);
+
+		FileDiffRegion[] fileRegions = formatter.getFileRegions();
+		assertEquals(2, fileRegions.length);
+		assertEquals(0, fileRegions[0].getOffset());
+		assertEquals(shift, fileRegions[1].getOffset());
+		assertEquals(second.getFileRegions()[0].getLength(),
+				fileRegions[1].getLength());
+		assertEquals(diffs[1], fileRegions[1].getDiff());
+
+		DiffRegion[] regions = second.getRegions();
+		DiffRegion[] shifted = formatter.getRegions();
+		DiffRegion last = shifted[shifted.length - 1];
+		DiffRegion original = regions[regions.length - 1];
+		assertEquals(original.getOffset() + shift, last.getOffset());
+		assertEquals(original.getLength(), last.getLength());
+		assertEquals(original.getType(), last.getType());
+		assertEquals(original.getLine(DiffEntry.Side.NEW),
+				last.getLine(DiffEntry.Side.NEW));
+		for (DiffRegion region : shifted) {
+			assertTrue(region.getOffset() + region.getLength() <= text
+					.length());
+		}
+	}
+
+	@Test
+	public void testTruncatedOffsetShifted() throws Exception {
+		DiffRegionFormatter first = new DiffRegionFormatter(
+				new StringBuilder(), -1);
+		first.write(diffs[0]);
+		DiffRegionFormatter truncated = new DiffRegionFormatter(
+				new StringBuilder(), 4);
+		truncated.write(diffs[2]);
+		int offset = truncated.getFileRegions()[0].getTruncatedOffset();
+		assertTrue(offset > 0);
+		assertEquals(-1, first.getFileRegions()[0].getTruncatedOffset());
+
+		StringBuilder text = new StringBuilder();
+		DiffRegionFormatter formatter = new DiffRegionFormatter(text, -1);
+		formatter.append(first).append(truncated);
+
+		FileDiffRegion[] fileRegions = formatter.getFileRegions();
+		assertEquals(-1, fileRegions[0].getTruncatedOffset());
+		int shifted = fileRegions[1].getTruncatedOffset();
+		assertEquals(fileRegions[1].getOffset() + offset, shifted);
+		String note = NLS.bind(UIText.DiffStyleRangeFormatter_diffTruncated,
+				Integer.valueOf(4));
+		assertEquals(note, text.substring(shifted, shifted + note.length()));
+	}
+
+	// Creates the lines "<prefix><from>" up to "<prefix><to - 1>"
+	private static String lines(String prefix, int from, int to) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = from; i < to; i++) {
+			builder.append(prefix).append(i).append('\n');
+		}
+		return builder.toString();
+	}
+
+	private static String toString(DiffRegion[] regions) {
+		StringBuilder builder = new StringBuilder();
+		for (DiffRegion region : regions) {
+			builder.append(region.getType()).append(' ')
+					.append(region.getOffset()).append(' ')
+					.append(region.getLength()).append(' ')
+					.append(region.getLine(DiffEntry.Side.OLD)).append(' ')
+					.append(region.getLine(DiffEntry.Side.NEW)).append('\n');
+		}
+		return builder.toString();
+	}
+
+	private static String toString(FileDiffRegion[] regions) {
+		StringBuilder builder = new StringBuilder();
+		for (FileDiffRegion region : regions) {
+			builder.append(region.getDiff().getPath()).append(' ')
+					.append(region.getOffset()).append(' ')
+					.append(region.getLength()).append(' ')
+					.append(region.getTruncatedOffset()).append('\n');
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BaselineRenamesTest {
+
+	private static final String CONTENT = "line 1\nline 2\nline 3\nline 4\n";
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	private RevCommit baseline;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		StoredConfig config = repository.getConfig();
+		config.setBoolean(ConfigConstants.CONFIG_DIFF_SECTION, null,
+				ConfigConstants.CONFIG_KEY_RENAMES, true);
+		config.save();
+		write("a.txt", CONTENT);
+		write("other.txt", "other\n");
+		git.add().addFilepattern(".").call();
+		baseline = git.commit().setMessage("Initial").call();
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testSharedPerRepository() {
+		assertSame(BaselineRenames.get(repository),
+				BaselineRenames.get(repository));
+	}
+
+	@Test
+	public void testRenameDetected() throws Exception {
+		rename("a.txt", "b.txt");
+		BaselineRenames renames = BaselineRenames.get(repository);
+		assertEquals("a.txt", renames.getOldPath(baseline, "b.txt"));
+		assertEquals("other.txt", renames.getOldPath(baseline, "other.txt"));
+	}
+
+	@Test
+	public void testRenameDetectionSwitchedOff() throws Exception {
+		StoredConfig config = repository.getConfig();
+		config.setBoolean(ConfigConstants.CONFIG_DIFF_SECTION, null,
+				ConfigConstants.CONFIG_KEY_RENAMES, false);
+		config.save();
+		rename("a.txt", "b.txt");
+		assertEquals("b.txt", BaselineRenames.get(repository)
+				.getOldPath(baseline, "b.txt"));
+	}
+
+	@Test
+	public void testOutdatedIndexInvalidates() throws Exception {
+		BaselineRenames renames = BaselineRenames.get(repository);
+		assertEquals("a.txt", renames.getOldPath(baseline, "a.txt"));
+		assertEquals("b.txt", renames.getOldPath(baseline, "b.txt"));
+
+		rename("a.txt", "b.txt");
+		assertEquals("a.txt", renames.getOldPath(baseline, "b.txt"));
+
+		rename("b.txt", "c.txt");
+		assertEquals("b.txt", renames.getOldPath(baseline, "b.txt"));
+		assertEquals("a.txt", renames.getOldPath(baseline, "c.txt"));
+	}
+
+	@Test
+	public void testNewBaselineInvalidates() throws Exception {
+		BaselineRenames renames = BaselineRenames.get(repository);
+		rename("a.txt", "b.txt");
+		assertEquals("a.txt", renames.getOldPath(baseline, "b.txt"));
+
+		RevCommit next = git.commit().setMessage("Rename").call();
+		assertEquals("b.txt", renames.getOldPath(next, "b.txt"));
+	}
+
+	// Renames a file in the working tree and in the index
+	private void rename(String from, String to) throws Exception {
+		File workTree = repository.getWorkTree();
+		Files.move(new File(workTree, from).toPath(),
+				new File(workTree, to).toPath());
+		git.rm().addFilepattern(from).call();
+		git.add().addFilepattern(to).call();
+	}
+
+	private void write(String path, String content) throws Exception {
+		Files.write(new File(repository.getWorkTree(), path).toPath(),
+				content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.staging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
+import org.eclipse.egit.ui.internal.staging.StagingEntry.State;
+import org.eclipse.egit.ui.internal.staging.StagingView.StagingViewUpdate;
+import org.eclipse.egit.ui.internal.staging.StagingViewContentProvider.Delta;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StagingViewContentProviderTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private Git git;
+
+	private Repository repository;
+
+	private StagingViewContentProvider unstaged;
+
+	private StagingViewContentProvider staged;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(tmp.newFolder("repo")).call();
+		repository = git.getRepository();
+		write("a.txt", "a");
+		write("b/c.txt", "c");
+		write("b/d.txt", "d");
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage("Initial").call();
+		unstaged = new StagingViewContentProvider(null, true);
+		staged = new StagingViewContentProvider(null, false);
+	}
+
+	@After
+	public void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	public void testFirstUpdateReplacesContent() throws Exception {
+		write("a.txt", "changed");
+		write("B.txt", "new");
+		write("b/e.txt", "new");
+		assertNull(unstaged.update(update(null)));
+		assertPaths(unstaged, "a.txt", "B.txt", "b/e.txt");
+		assertEquals(State.MODIFIED, entry(unstaged, "a.txt").getState());
+		assertEquals(State.UNTRACKED, entry(unstaged, "B.txt").getState());
+	}
+
+	@Test
+	public void testNoIndexDiff() throws Exception {
+		write("a.txt", "changed");
+		unstaged.update(update(null));
+		assertNull(unstaged.update(new StagingViewUpdate(null, null, null)));
+		assertEquals(0, unstaged.getCount());
+	}
+
+	@Test
+	public void testUnchangedEntriesKept() throws Exception {
+		write("a.txt", "changed");
+		write("b/e.txt", "new");
+		unstaged.update(update(null));
+		StagingEntry[] before = unstaged.getStagingEntries();
+
+		Delta delta = unstaged.update(update(null));
+		assertTrue(delta.isEmpty());
+		assertSame(before, unstaged.getStagingEntries());
+	}
+
+	@Test
+	public void testDelta() throws Exception {
+		write("a.txt", "changed");
+		write("b/e.txt", "new");
+		unstaged.update(update(null));
+		staged.update(update(null));
+		Map<String, StagingEntry> before = byPath(unstaged);
+
+		write("0.txt", "new");
+		write("b/f.txt", "new");
+		git.add().addFilepattern("b/e.txt").call();
+		Delta delta = unstaged.update(update(null));
+		assertPaths(unstaged, "0.txt", "a.txt", "b/f.txt");
+		assertEquals(2, delta.added.size());
+		assertTrue(delta.added.contains(entry(unstaged, "0.txt")));
+		assertTrue(delta.added.contains(entry(unstaged, "b/f.txt")));
+		assertEquals(Collections.singletonList(before.get("b/e.txt")),
+				delta.removed);
+		assertSame(before.get("a.txt"), entry(unstaged, "a.txt"));
+
+		delta = staged.update(update(null));
+		assertPaths(staged, "b/e.txt");
+		assertEquals(Collections.singletonList(entry(staged, "b/e.txt")),
+				delta.added);
+		assertTrue(delta.removed.isEmpty());
+	}
+
+	@Test
+	public void testStateChangeReplacesEntry() throws Exception {
+		write("a.txt", "changed");
+		write("b/c.txt", "changed");
+		unstaged.update(update(null));
+		StagingEntry old = entry(unstaged, "b/c.txt");
+
+		new File(repository.getWorkTree(), "b/c.txt").delete();
+		Delta delta = unstaged.update(update(null));
+		StagingEntry missing = entry(unstaged, "b/c.txt");
+		assertEquals(State.MISSING, missing.getState());
+		assertEquals(Collections.singletonList(missing), delta.added);
+		assertEquals(Collections.singletonList(old), delta.removed);
+		assertPaths(unstaged, "a.txt", "b/c.txt");
+	}
+
+	@Test
+	public void testChangedResourcesReplaced() throws Exception {
+		write("a.txt", "changed");
+		write("b/c.txt", "changed");
+		unstaged.update(update(null));
+		StagingEntry a = entry(unstaged, "a.txt");
+		StagingEntry c = entry(unstaged, "b/c.txt");
+
+		Delta delta = unstaged
+				.update(update(Collections.singleton("b/c.txt")));
+		assertSame(a, entry(unstaged, "a.txt"));
+		StagingEntry replaced = entry(unstaged, "b/c.txt");
+		assertNotSame(c, replaced);
+		assertEquals(c.getState(), replaced.getState());
+		assertEquals(Collections.singletonList(replaced), delta.added);
+		assertEquals(Collections.singletonList(c), delta.removed);
+	}
+
+	@Test
+	public void testMergeKeepsOrder() throws Exception {
+		for (int i = 0; i < 10; i += 2) {
+			write("f" + i + ".txt", "new");
+		}
+		unstaged.update(update(null));
+		for (int i = 1; i < 10; i += 2) {
+			write("f" + i + ".txt", "new");
+		}
+		new File(repository.getWorkTree(), "f4.txt").delete();
+		unstaged.update(update(null));
+		assertPaths(unstaged, "f0.txt", "f1.txt", "f2.txt", "f3.txt",
+				"f5.txt", "f6.txt", "f7.txt", "f8.txt", "f9.txt");
+	}
+
+	private StagingViewUpdate update(Collection<String> changedResources)
+			throws Exception {
+		IndexDiff diff = new IndexDiff(repository, Constants.HEAD,
+				new FileTreeIterator(repository));
+		diff.diff();
+		return new StagingViewUpdate(repository, new IndexDiffData(diff),
+				changedResources);
+	}
+
+	private static void assertPaths(StagingViewContentProvider provider,
+			String... paths) {
+		StagingEntry[] entries = provider.getStagingEntries();
+		String[] actual = new String[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			actual[i] = entries[i].getPath();
+		}
+		assertArrayEquals(paths, actual);
+	}
+
+	private static Map<String, StagingEntry> byPath(
+			StagingViewContentProvider provider) {
+		Map<String, StagingEntry> result = new HashMap<>();
+		for (StagingEntry entry : provider.getStagingEntries()) {
+			result.put(entry.getPath(), entry);
+		}
+		return result;
+	}
+
+	private static StagingEntry entry(StagingViewContentProvider provider,
+			String path) {
+		return byPath(provider).get(path);
+	}
+
+	private void write(String path, String content) throws Exception {
+		File file = new File(repository.getWorkTree(), path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
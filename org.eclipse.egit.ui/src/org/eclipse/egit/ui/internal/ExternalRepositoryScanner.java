@@ -17,11 +17,14 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.resources.IProject;
@@ -60,6 +63,12 @@
  * A component that scans for external changes made to git repositories.
  * Depending on user preference setting, this scanning is done only when the
  * workbench is active.
+ * <p>
+ * The metadata of non-bare repositories is watched by a
+ * {@link RepositoryWatcher}; such repositories are scanned only when it
+ * reports a change. Repositories that cannot be watched are scanned
+ * periodically.
+ * </p>
  */
 @Component(property = EventConstants.EVENT_TOPIC + '='
 		+ ApplicationActiveListener.TOPIC_APPLICATION_ACTIVE)
@@ -105,6 +114,7 @@ void shutDown() {
 				.removePropertyChangeListener(scanner);
 		scanner.setReschedule(false);
 		scanner.cancel();
+		scanner.dispose();
 		refreshJob.cancel();
 
 		try {
@@ -132,6 +142,9 @@ void shutDown() {
 	private static class RepositoryChangeScanner extends Job
 			implements IPropertyChangeListener {
 
+		/** Milliseconds to wait for further changes after a change. */
+		private static final long CHANGE_DELAY = 200;
+
 		// volatile in order to ensure thread synchronization
 		private volatile boolean doReschedule;
 
@@ -143,76 +156,26 @@ private static class RepositoryChangeScanner extends Job
 
 		private final RepositoryCache repositoryCache;
 
-		private Collection<WorkingTreeModifiedEvent> events;
+		/**
+		 * Repositories whose metadata changed since they were last scanned,
+		 * as reported by the {@link RepositoryWatcher}.
+		 */
+		private final Set<File> changed = ConcurrentHashMap.newKeySet();
+
+		/** Repositories registered with the {@link #watcher}. */
+		private final Set<File> watched = new HashSet<>();
+
+		/** Index snapshots of repositories with projects in the workspace. */
+		private final Map<File, IndexSnapshot> snapshots = new HashMap<>();
+
+		private final RepositoryWatcher watcher;
+
+		private boolean indexChanged;
 
 		private final IndexChangedListener listener = event -> {
-			if (event.isInternal()) {
-				return;
-			}
-			Repository repository = event.getRepository();
-			if (repository.isBare()) {
-				return;
+			if (!event.isInternal()) {
+				indexChanged = true;
 			}
-			List<String> directories = new ArrayList<>();
-			for (IProject project : RuleUtil.getProjects(repository)) {
-				if (project.isAccessible()) {
-					RepositoryMapping mapping = RepositoryMapping
-							.getMapping(project);
-					if (mapping != null
-							&& repository == mapping.getRepository()) {
-						String repoRelativePath = mapping
-								.getRepoRelativePath(project);
-						if (repoRelativePath == null) {
-							continue;
-						}
-						if (GitTraceLocation.REPOSITORYCHANGESCANNER
-								.isActive()) {
-							GitTraceLocation.getTrace().trace(
-									GitTraceLocation.REPOSITORYCHANGESCANNER
-											.getLocation(),
-									"Scanning project " + project.getName()); //$NON-NLS-1$
-						}
-						try (TreeWalk w = new TreeWalk(repository)) {
-							w.addTree(new FileTreeIterator(repository));
-							if (!repoRelativePath.isEmpty()) {
-								w.setFilter(PathFilterGroup
-										.createFromStrings(repoRelativePath));
-							} else {
-								directories.add("/"); //$NON-NLS-1$
-							}
-							w.setRecursive(false);
-							while (w.next()) {
-								if (w.isSubtree()) {
-									FileTreeIterator iter = w.getTree(0,
-											FileTreeIterator.class);
-									if (iter != null
-											&& !iter.isEntryIgnored()) {
-										directories
-												.add(w.getPathString() + '/');
-										w.enterSubtree();
-									}
-								}
-							}
-						} catch (IOException e) {
-							// Ignore.
-						}
-						if (GitTraceLocation.REPOSITORYCHANGESCANNER
-								.isActive()) {
-							GitTraceLocation.getTrace().trace(
-									GitTraceLocation.REPOSITORYCHANGESCANNER
-											.getLocation(),
-									"Scanned project " + project.getName()); //$NON-NLS-1$
-						}
-					}
-				}
-			}
-			if (directories.isEmpty()) {
-				return;
-			}
-			WorkingTreeModifiedEvent evt = new WorkingTreeModifiedEvent(
-					directories, null);
-			evt.setRepository(repository);
-			events.add(evt);
 		};
 
 		public RepositoryChangeScanner(ResourceRefreshJob refresher,
@@ -224,9 +187,29 @@ public RepositoryChangeScanner(ResourceRefreshJob refresher,
 			setSystem(true);
 			setUser(false);
 			repositoryCache = RepositoryCache.getInstance();
+			watcher = RepositoryWatcher.create(this::repositoryChanged);
 			updateRefreshInterval();
 		}
 
+		private void repositoryChanged(File gitDir) {
+			changed.add(gitDir);
+			if (!doReschedule) {
+				return;
+			}
+			// Coalesce bursts of changes, as made by git operations
+			if (getState() == SLEEPING) {
+				wakeUp(CHANGE_DELAY);
+			} else {
+				schedule(CHANGE_DELAY);
+			}
+		}
+
+		void dispose() {
+			if (watcher != null) {
+				watcher.close();
+			}
+		}
+
 		@Override
 		public boolean shouldSchedule() {
 			return doReschedule;
@@ -259,41 +242,26 @@ protected IStatus run(IProgressMonitor monitor) {
 				return Status.OK_STATUS;
 			}
 
+			updateWatches(repos);
 			monitor.beginTask(UIText.Activator_scanningRepositories,
 					repos.length);
 			try {
-				events = new ArrayList<>();
+				List<WorkingTreeModifiedEvent> events = new ArrayList<>();
 				for (Repository repo : repos) {
 					if (monitor.isCanceled()) {
 						break;
 					}
-					if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
-						GitTraceLocation.getTrace()
-								.trace(GitTraceLocation.REPOSITORYCHANGESCANNER
-										.getLocation(),
-										"Scanning " + repo + " for changes"); //$NON-NLS-1$ //$NON-NLS-2$
-					}
-
-					if (!repo.isBare()) {
-						// Set up index change listener for the repo and tear it
-						// down afterwards
-						ListenerHandle handle = null;
-						try {
-							handle = repo.getListenerList()
-									.addIndexChangedListener(listener);
-							repo.scanForRepoChanges();
-						} finally {
-							if (handle != null) {
-								handle.remove();
-							}
-						}
+					File gitDir = repo.getDirectory();
+					// Watched repositories are scanned only if they changed
+					if (!repo.isBare() && (changed.remove(gitDir)
+							|| !watched.contains(gitDir))) {
+						scan(repo, events);
 					}
 					monitor.worked(1);
 				}
 				if (!monitor.isCanceled()) {
 					refresher.trigger(events);
 				}
-				events.clear();
 			} catch (IOException e) {
 				if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
 					GitTraceLocation.getTrace().trace(
@@ -315,6 +283,190 @@ protected IStatus run(IProgressMonitor monitor) {
 			return Status.OK_STATUS;
 		}
 
+		/**
+		 * Watches new repositories and stops watching removed ones. New
+		 * repositories are scanned once.
+		 *
+		 * @param repos
+		 *            all current repositories
+		 */
+		private void updateWatches(Repository[] repos) {
+			Set<File> current = new HashSet<>();
+			for (Repository repo : repos) {
+				File gitDir = repo.getDirectory();
+				current.add(gitDir);
+				if (watcher != null && !repo.isBare()
+						&& !watched.contains(gitDir) && watcher.watch(gitDir)) {
+					watched.add(gitDir);
+					changed.add(gitDir);
+				}
+			}
+			for (Iterator<File> it = watched.iterator(); it.hasNext();) {
+				File gitDir = it.next();
+				if (!current.contains(gitDir)) {
+					watcher.unwatch(gitDir);
+					it.remove();
+				}
+			}
+			snapshots.keySet().retainAll(current);
+			changed.retainAll(current);
+		}
+
+		/**
+		 * Lets JGit detect changes of the refs and the index. If the index
+		 * was changed externally, adds an event for the files whose index
+		 * entries changed, or for all directories of the repository's
+		 * projects if that cannot be determined.
+		 *
+		 * @param repo
+		 *            to scan
+		 * @param events
+		 *            to add the event for externally changed files to
+		 * @throws IOException
+		 *             if the repository cannot be read
+		 */
+		private void scan(Repository repo,
+				Collection<WorkingTreeModifiedEvent> events)
+				throws IOException {
+			if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.REPOSITORYCHANGESCANNER.getLocation(),
+						"Scanning " + repo + " for changes"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			// Set up index change listener for the repo and tear it down
+			// afterwards
+			indexChanged = false;
+			ListenerHandle handle = repo.getListenerList()
+					.addIndexChangedListener(listener);
+			try {
+				repo.scanForRepoChanges();
+			} finally {
+				handle.remove();
+			}
+			File gitDir = repo.getDirectory();
+			IndexSnapshot previous = snapshots.get(gitDir);
+			IndexSnapshot current = previous;
+			if (previous == null || previous.isModified()) {
+				current = readSnapshot(repo);
+				if (current != null) {
+					snapshots.put(gitDir, current);
+				} else {
+					snapshots.remove(gitDir);
+				}
+			}
+			if (!indexChanged) {
+				return;
+			}
+			WorkingTreeModifiedEvent event = null;
+			if (previous != null && current != null) {
+				event = previous.diff(current);
+			}
+			if (event == null || event.isEmpty()) {
+				// No snapshot to compare with, or the index was rewritten
+				// without any visible change to its entries
+				List<String> directories = listDirectories(repo);
+				if (directories.isEmpty()) {
+					return;
+				}
+				event = new WorkingTreeModifiedEvent(directories, null);
+			}
+			if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.REPOSITORYCHANGESCANNER.getLocation(),
+						"Index of " + repo + " changed: " //$NON-NLS-1$ //$NON-NLS-2$
+								+ event.getModified().size() + " modified, " //$NON-NLS-1$
+								+ event.getDeleted().size() + " deleted"); //$NON-NLS-1$
+			}
+			event.setRepository(repo);
+			events.add(event);
+		}
+
+		/**
+		 * Reads an index snapshot if the repository has projects in the
+		 * workspace; changes of other repositories needn't be refreshed.
+		 *
+		 * @param repo
+		 *            to read the index of
+		 * @return the snapshot, or {@code null} if the repository has no
+		 *         projects or its index cannot be read
+		 */
+		private IndexSnapshot readSnapshot(Repository repo) {
+			if (RuleUtil.getProjects(repo).length == 0) {
+				return null;
+			}
+			try {
+				return IndexSnapshot.read(repo);
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Lists all directories of all projects of a repository. Used if
+		 * there is no index snapshot to compare with, or if comparing the
+		 * snapshots found no changes.
+		 *
+		 * @param repository
+		 *            to list the project directories of
+		 * @return the repository-relative paths of the directories
+		 */
+		private List<String> listDirectories(Repository repository) {
+			List<String> directories = new ArrayList<>();
+			for (IProject project : RuleUtil.getProjects(repository)) {
+				if (project.isAccessible()) {
+					RepositoryMapping mapping = RepositoryMapping
+							.getMapping(project);
+					if (mapping != null
+							&& repository == mapping.getRepository()) {
+						String repoRelativePath = mapping
+								.getRepoRelativePath(project);
+						if (repoRelativePath == null) {
+							continue;
+						}
+						if (GitTraceLocation.REPOSITORYCHANGESCANNER
+								.isActive()) {
+							GitTraceLocation.getTrace().trace(
+									GitTraceLocation.REPOSITORYCHANGESCANNER
+											.getLocation(),
+									"Scanning project " + project.getName()); //$NON-NLS-1$
+						}
+						try (TreeWalk w = new TreeWalk(repository)) {
+							w.addTree(new FileTreeIterator(repository));
+							if (!repoRelativePath.isEmpty()) {
+								w.setFilter(PathFilterGroup
+										.createFromStrings(repoRelativePath));
+							} else {
+								directories.add("/"); //$NON-NLS-1$
+							}
+							w.setRecursive(false);
+							while (w.next()) {
+								if (w.isSubtree()) {
+									FileTreeIterator iter = w.getTree(0,
+											FileTreeIterator.class);
+									if (iter != null
+											&& !iter.isEntryIgnored()) {
+										directories
+												.add(w.getPathString() + '/');
+										w.enterSubtree();
+									}
+								}
+							}
+						} catch (IOException e) {
+							// Ignore.
+						}
+						if (GitTraceLocation.REPOSITORYCHANGESCANNER
+								.isActive()) {
+							GitTraceLocation.getTrace().trace(
+									GitTraceLocation.REPOSITORYCHANGESCANNER
+											.getLocation(),
+									"Scanned project " + project.getName()); //$NON-NLS-1$
+						}
+					}
+				}
+			}
+			return directories;
+		}
+
 		@Override
 		public void propertyChange(PropertyChangeEvent event) {
 			if (!UIPreferences.REFRESH_INDEX_INTERVAL
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.events.WorkingTreeModifiedEvent;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.NB;
+import org.eclipse.jgit.util.RawParseUtils;
+
+/**
+ * A compact snapshot of the entries of a repository's index: for each entry
+ * its path, its stage, and a hash of its object id, mode, and file stats.
+ * Comparing two snapshots yields the files an external git operation changed,
+ * without having to look at the working tree. The file stats are included
+ * because operations like {@code git checkout -- <file>} rewrite the file and
+ * its index entry without changing the object id.
+ */
+class IndexSnapshot {
+
+	private final File indexFile;
+
+	private final long lastModified;
+
+	private final long length;
+
+	private final byte[][] paths;
+
+	private final int[] stages;
+
+	private final long[] hashes;
+
+	private IndexSnapshot(File indexFile, long lastModified, long length,
+			int size) {
+		this.indexFile = indexFile;
+		this.lastModified = lastModified;
+		this.length = length;
+		paths = new byte[size][];
+		stages = new int[size];
+		hashes = new long[size];
+	}
+
+	/**
+	 * Reads the index of a repository.
+	 *
+	 * @param repository
+	 *            to read the index of; must not be bare
+	 * @return the snapshot
+	 * @throws IOException
+	 *             if the index cannot be read
+	 */
+	static IndexSnapshot read(Repository repository) throws IOException {
+		File file = repository.getIndexFile();
+		// Stat before reading, so that a concurrent change is seen later
+		long lastModified = file.lastModified();
+		long length = file.length();
+		DirCache index = DirCache.read(file, repository.getFS());
+		int size = index.getEntryCount();
+		IndexSnapshot snapshot = new IndexSnapshot(file, lastModified,
+				length, size);
+		byte[] id = new byte[Constants.OBJECT_ID_LENGTH];
+		for (int i = 0; i < size; i++) {
+			DirCacheEntry entry = index.getEntry(i);
+			snapshot.paths[i] = entry.getRawPath();
+			snapshot.stages[i] = entry.getStage();
+			snapshot.hashes[i] = hash(entry, id);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Computes the hash of an index entry.
+	 *
+	 * @param entry
+	 *            to hash
+	 * @param id
+	 *            buffer for the raw object id
+	 * @return a hash of all bytes of the object id, the mode, the length and
+	 *         the modification time of the entry
+	 */
+	private static long hash(DirCacheEntry entry, byte[] id) {
+		entry.getObjectId().copyRawTo(id, 0);
+		long hash = NB.decodeInt64(id, 0);
+		hash = 31 * hash + NB.decodeInt64(id, 8);
+		hash = 31 * hash + NB.decodeInt32(id, 16);
+		hash = 31 * hash + entry.getRawMode();
+		hash = 31 * hash + entry.getLength();
+		Instant modified = entry.getLastModifiedInstant();
+		hash = 31 * hash + modified.getEpochSecond();
+		return 31 * hash + modified.getNano();
+	}
+
+	/**
+	 * @return whether the index file may have changed since this snapshot
+	 *         was taken
+	 */
+	boolean isModified() {
+		return indexFile.lastModified() != lastModified
+				|| indexFile.length() != length;
+	}
+
+	/**
+	 * Determines the files that differ between this and a newer snapshot.
+	 *
+	 * @param newer
+	 *            snapshot of the same index
+	 * @return an event listing the files added or changed as modified, and
+	 *         files no longer in the index as deleted
+	 */
+	WorkingTreeModifiedEvent diff(IndexSnapshot newer) {
+		Set<String> modified = new HashSet<>();
+		Set<String> deleted = new HashSet<>();
+		int i = 0;
+		int j = 0;
+		while (i < paths.length || j < newer.paths.length) {
+			int cmp;
+			if (i == paths.length) {
+				cmp = 1;
+			} else if (j == newer.paths.length) {
+				cmp = -1;
+			} else {
+				cmp = compare(paths[i], stages[i], newer.paths[j],
+						newer.stages[j]);
+			}
+			if (cmp < 0) {
+				deleted.add(RawParseUtils.decode(paths[i++]));
+			} else if (cmp > 0) {
+				modified.add(RawParseUtils.decode(newer.paths[j++]));
+			} else {
+				if (hashes[i] != newer.hashes[j]) {
+					modified.add(RawParseUtils.decode(newer.paths[j]));
+				}
+				i++;
+				j++;
+			}
+		}
+		// Resolved conflicts lose their stages but keep the file
+		deleted.removeAll(modified);
+		return new WorkingTreeModifiedEvent(modified, deleted);
+	}
+
+	/**
+	 * Compares entries in the order of the index: by path, compared as
+	 * unsigned bytes, then by stage.
+	 *
+	 * @param a
+	 *            path of the first entry
+	 * @param stageA
+	 *            stage of the first entry
+	 * @param b
+	 *            path of the second entry
+	 * @param stageB
+	 *            stage of the second entry
+	 * @return a negative number, zero, or a positive number if the first
+	 *         entry sorts before, at the same position as, or after the
+	 *         second one
+	 */
+	private static int compare(byte[] a, int stageA, byte[] b, int stageB) {
+		int length = Math.min(a.length, b.length);
+		for (int k = 0; k < length; k++) {
+			int cmp = (a[k] & 0xff) - (b[k] & 0xff);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		if (a.length != b.length) {
+			return a.length - b.length;
+		}
+		return stageA - stageB;
+	}
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Constants;
+
+/**
+ * Watches the metadata of git repositories (the index, HEAD, packed-refs and
+ * the refs directory) with a {@link WatchService}, and reports repositories
+ * in which any of these changed. For linked work trees, the packed-refs and
+ * the refs directory of the common git directory are watched, too.
+ */
+class RepositoryWatcher implements AutoCloseable {
+
+	private static final String REFS = "refs"; //$NON-NLS-1$
+
+	private static final Set<String> GIT_DIR_FILES = new HashSet<>(
+			Arrays.asList(Constants.HEAD, Constants.PACKED_REFS, "index", //$NON-NLS-1$
+					REFS));
+
+	private static final String LOCK_SUFFIX = ".lock"; //$NON-NLS-1$
+
+	private static final String COMMON_DIR = "commondir"; //$NON-NLS-1$
+
+	/**
+	 * A watched directory. The common git directory of linked work trees is
+	 * shared by several repositories.
+	 */
+	private static class Watched {
+
+		final Set<File> gitDirs = ConcurrentHashMap.newKeySet();
+
+		final Path directory;
+
+		final boolean refs;
+
+		Watched(Path directory, boolean refs) {
+			this.directory = directory;
+			this.refs = refs;
+		}
+	}
+
+	private final WatchService service;
+
+	private final Consumer<File> listener;
+
+	private final Map<WatchKey, Watched> keys = new ConcurrentHashMap<>();
+
+	private RepositoryWatcher(WatchService service, Consumer<File> listener) {
+		this.service = service;
+		this.listener = listener;
+		Thread thread = new Thread(this::run, "EGit repository watcher"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Creates a watcher.
+	 *
+	 * @param listener
+	 *            to call with the git directory of a repository whose
+	 *            metadata changed; called in the watcher's thread
+	 * @return the watcher, or {@code null} if the file system doesn't
+	 *         support watching
+	 */
+	@Nullable
+	static RepositoryWatcher create(Consumer<File> listener) {
+		try {
+			return new RepositoryWatcher(
+					FileSystems.getDefault().newWatchService(), listener);
+		} catch (IOException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Starts watching a repository.
+	 *
+	 * @param gitDir
+	 *            of the repository
+	 * @return {@code true} if the repository is watched; {@code false} if it
+	 *         could not be registered completely
+	 */
+	synchronized boolean watch(File gitDir) {
+		try {
+			Path dir = gitDir.toPath();
+			registerGitDir(gitDir, dir);
+			Path commonDir = getCommonDir(dir);
+			if (commonDir != null) {
+				registerGitDir(gitDir, commonDir);
+			}
+			return true;
+		} catch (IOException | ClosedWatchServiceException e) {
+			if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.REPOSITORYCHANGESCANNER.getLocation(),
+						"Cannot watch " + gitDir + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			unwatch(gitDir);
+			return false;
+		}
+	}
+
+	/**
+	 * Stops watching a repository.
+	 *
+	 * @param gitDir
+	 *            of the repository
+	 */
+	synchronized void unwatch(File gitDir) {
+		Iterator<Map.Entry<WatchKey, Watched>> entries = keys.entrySet()
+				.iterator();
+		while (entries.hasNext()) {
+			Map.Entry<WatchKey, Watched> entry = entries.next();
+			Set<File> gitDirs = entry.getValue().gitDirs;
+			if (gitDirs.remove(gitDir) && gitDirs.isEmpty()) {
+				entry.getKey().cancel();
+				entries.remove();
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			service.close();
+		} catch (IOException e) {
+			// Ignore
+		}
+		keys.clear();
+	}
+
+	private void registerGitDir(File gitDir, Path directory)
+			throws IOException {
+		register(gitDir, directory, false);
+		Path refs = directory.resolve(REFS);
+		if (Files.isDirectory(refs)) {
+			registerTree(gitDir, refs);
+		}
+	}
+
+	private void register(File gitDir, Path directory, boolean refs)
+			throws IOException {
+		// Registering a directory again yields the same key
+		WatchKey key = directory.register(service, ENTRY_CREATE, ENTRY_DELETE,
+				ENTRY_MODIFY);
+		keys.computeIfAbsent(key, k -> new Watched(directory, refs)).gitDirs
+				.add(gitDir);
+	}
+
+	/**
+	 * Determines the common git directory of a linked work tree.
+	 *
+	 * @param gitDir
+	 *            git directory of the repository
+	 * @return the common git directory, or {@code null} if the repository
+	 *         is not a linked work tree
+	 * @throws IOException
+	 *             if the common git directory cannot be determined
+	 */
+	@Nullable
+	private static Path getCommonDir(Path gitDir) throws IOException {
+		Path file = gitDir.resolve(COMMON_DIR);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		String path = new String(Files.readAllBytes(file),
+				StandardCharsets.UTF_8).trim();
+		if (path.isEmpty()) {
+			return null;
+		}
+		Path commonDir = gitDir.resolve(path).normalize();
+		return commonDir.equals(gitDir.normalize()) ? null : commonDir;
+	}
+
+	private void registerTree(File gitDir, Path directory)
+			throws IOException {
+		register(gitDir, directory, true);
+		try (DirectoryStream<Path> children = Files
+				.newDirectoryStream(directory, Files::isDirectory)) {
+			for (Path child : children) {
+				registerTree(gitDir, child);
+			}
+		}
+	}
+
+	private synchronized void directoryCreated(Watched watched, Path child) {
+		for (File gitDir : watched.gitDirs) {
+			try {
+				registerTree(gitDir, child);
+			} catch (IOException | ClosedWatchServiceException e) {
+				// The repository is still reported as changed
+			}
+		}
+	}
+
+	private void run() {
+		while (true) {
+			WatchKey key;
+			try {
+				key = service.take();
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			Watched watched = keys.get(key);
+			if (watched == null) {
+				// Unwatched meanwhile
+				key.pollEvents();
+				key.cancel();
+				continue;
+			}
+			boolean changed = false;
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == OVERFLOW) {
+					changed = true;
+					continue;
+				}
+				String name = event.context().toString();
+				if (!watched.refs && !GIT_DIR_FILES.contains(name)
+						|| name.endsWith(LOCK_SUFFIX)) {
+					continue;
+				}
+				changed = true;
+				Path child = watched.directory.resolve(name);
+				if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+					directoryCreated(watched, child);
+				}
+			}
+			if (!key.reset()) {
+				keys.remove(key);
+			}
+			if (changed) {
+				watched.gitDirs.forEach(listener);
+			}
+		}
+	}
+}
@@ -2345,6 +2345,9 @@ public class UIText extends NLS {
 	/** */
 	public static String PushOperationUI_MultiRepositoriesDestinationString;
 
+	/** */
+	public static String PushOperationUI_PushAllJobName;
+
 	/** */
 	public static String PushOperationUI_PushJobName;
 
@@ -4962,6 +4965,9 @@ public class UIText extends NLS {
 	/** */
 	public static String DiffViewer_OpenWorkingTreeLinkLabel;
 
+	/** */
+	public static String DiffViewer_ShowFullDiffLinkLabel;
+
 	/** */
 	public static String DiffViewer_OpenBaseLinkLabel;
 
@@ -5205,6 +5211,12 @@ public class UIText extends NLS {
 	/** */
 	public static String GitPreferenceRoot_MaxPullThreadsCountTooltip;
 
+	/** */
+	public static String GitPreferenceRoot_MaxPushThreadsCount;
+
+	/** */
+	public static String GitPreferenceRoot_MaxPushThreadsCountTooltip;
+
 	/** */
 	public static String RemoteConnectionPreferencePage_HttpClientLabel;
 
@@ -5223,6 +5235,12 @@ public class UIText extends NLS {
 	/** */
 	public static String RefreshPreferencesPage_RefreshOnlyWhenActive;
 
+	/** */
+	public static String RefreshPreferencesPage_WatchWorkTrees;
+
+	/** */
+	public static String RefreshPreferencesPage_WatchWorkTreesTooltip;
+
 	/** */
 	public static String RefUpdateElement_CommitCountDecoration;
 
@@ -5562,6 +5580,9 @@ public class UIText extends NLS {
 	/** */
 	public static String CommitResultLabelProvider_SectionRepository;
 
+	/** */
+	public static String CommitResultLabelProvider_SectionThroughput;
+
 	/** */
 	public static String CommitSearchPage_Author;
 
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.egit.ui.internal.actions;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.commands.ExecutionEvent;
@@ -30,15 +32,31 @@ public class SimplePushActionHandler extends RepositoryActionHandler
 		implements IElementUpdater {
 	@Override
 	public Object execute(ExecutionEvent event) throws ExecutionException {
+		Repository[] repositories = getRepositories(event);
+		if (repositories.length > 1) {
+			List<PushOperationUI> operations = new ArrayList<>();
+			for (Repository repository : repositories) {
+				RemoteConfig config = SimpleConfigurePushDialog
+						.getConfiguredRemote(repository);
+				if (config != null) {
+					operations.add(new PushOperationUI(repository,
+							config.getName(), false));
+				}
+			}
+			if (operations.isEmpty()) {
+				showNothingToPush(event);
+			} else {
+				PushOperationUI.startAll(operations);
+			}
+			return null;
+		}
 		final Repository repository = getRepository(true, event);
 		if (repository == null)
 			return null;
 		RemoteConfig config = SimpleConfigurePushDialog
 				.getConfiguredRemote(repository);
 		if (config == null) {
-			MessageDialog.openInformation(getShell(event),
-					UIText.SimplePushActionHandler_NothingToPushDialogTitle,
-					UIText.SimplePushActionHandler_NothingToPushDialogMessage);
+			showNothingToPush(event);
 			return null;
 		}
 
@@ -47,8 +65,25 @@ public Object execute(ExecutionEvent event) throws ExecutionException {
 		return null;
 	}
 
+	private void showNothingToPush(ExecutionEvent event)
+			throws ExecutionException {
+		MessageDialog.openInformation(getShell(event),
+				UIText.SimplePushActionHandler_NothingToPushDialogTitle,
+				UIText.SimplePushActionHandler_NothingToPushDialogMessage);
+	}
+
 	@Override
 	public boolean isEnabled() {
+		Repository[] repositories = getRepositories();
+		if (repositories.length > 1) {
+			for (Repository repository : repositories) {
+				if (SimpleConfigurePushDialog
+						.getConfiguredRemoteCached(repository) != null) {
+					return true;
+				}
+			}
+			return false;
+		}
 		final Repository repository = getRepository();
 		return repository != null
 				&& SimpleConfigurePushDialog
@@ -0,0 +1,597 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.blame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.blame.BlameGenerator;
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffAlgorithm.SupportedAlgorithm;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * A cache of blame results, keyed by repository, path, start commit and
+ * whitespace mode. The cache holds blames of an estimated {@link #MAX_BYTES}
+ * in total and evicts the least recently used results first.
+ * <p>
+ * If the start commit is not cached but one of its first-parent ancestors at
+ * most {@link #MAX_DISTANCE} commits back is, the blame is computed
+ * incrementally: the commits between the two that change the file are
+ * replayed on the cached blame, diffing each against its parent as
+ * {@link BlameGenerator} would. This is only done if these commits form a
+ * single line of history and don't rename the file.
+ * </p>
+ * <p>
+ * Otherwise, the blame can be computed progressively through a
+ * {@link Computation}, which offers snapshots of the lines resolved so far.
+ * </p>
+ */
+class BlameCache {
+
+	/** Maximum estimated size in bytes of all cached results. */
+	private static final long MAX_BYTES = 32 << 20;
+
+	/**
+	 * Estimated size in bytes per line besides its text: the references to
+	 * the commit and path, the line number, and the line index of the text.
+	 */
+	private static final int LINE_BYTES = 32;
+
+	/** Maximum number of commits to look back for a cached result. */
+	private static final int MAX_DISTANCE = 20;
+
+	private static final BlameCache INSTANCE = new BlameCache();
+
+	/**
+	 * The blame of a file: for each line of the file the commit that
+	 * introduced it, the path in that commit, and the line number there.
+	 * Commits are detached from the walk that found them, so that a cached
+	 * blame doesn't keep the whole walk reachable.
+	 */
+	static final class Blame {
+
+		private final RawText contents;
+
+		private final RevCommit[] commits;
+
+		private final String[] paths;
+
+		private final int[] lines;
+
+		private Blame(RawText contents) {
+			this.contents = contents;
+			int size = contents.size();
+			commits = new RevCommit[size];
+			paths = new String[size];
+			lines = new int[size];
+		}
+
+		/**
+		 * @return the number of lines
+		 */
+		int size() {
+			return commits.length;
+		}
+
+		/**
+		 * Estimates the memory retained by this blame: the text of the file,
+		 * the per-line data, and the raw bodies of the commits, which the
+		 * blame hover shows.
+		 *
+		 * @return the estimated size in bytes
+		 */
+		long getWeight() {
+			long weight = contents.getRawContent().length
+					+ (long) LINE_BYTES * size();
+			Set<RevCommit> seen = Collections
+					.newSetFromMap(new IdentityHashMap<>());
+			for (RevCommit commit : commits) {
+				if (commit != null && seen.add(commit)) {
+					byte[] raw = commit.getRawBuffer();
+					weight += raw != null ? raw.length : 0;
+				}
+			}
+			return weight;
+		}
+
+		/**
+		 * @param line
+		 *            0-based line number
+		 * @return the commit that introduced the line, or {@code null} if
+		 *         unknown
+		 */
+		@Nullable
+		RevCommit getSourceCommit(int line) {
+			return commits[line];
+		}
+
+		/**
+		 * @param line
+		 *            0-based line number
+		 * @return the path of the file in the source commit
+		 */
+		String getSourcePath(int line) {
+			return paths[line];
+		}
+
+		/**
+		 * @param line
+		 *            0-based line number
+		 * @return the 0-based line number in the source commit
+		 */
+		int getSourceLine(int line) {
+			return lines[line];
+		}
+	}
+
+	private static final class Key {
+
+		private final File gitDir;
+
+		private final String path;
+
+		private final ObjectId commit;
+
+		private final boolean ignoreWhitespace;
+
+		Key(Repository repository, String path, ObjectId commit,
+				boolean ignoreWhitespace) {
+			this.gitDir = repository.getDirectory();
+			this.path = path;
+			this.commit = commit.copy();
+			this.ignoreWhitespace = ignoreWhitespace;
+		}
+
+		Key withCommit(Repository repository, ObjectId other) {
+			return new Key(repository, path, other, ignoreWhitespace);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return ignoreWhitespace == other.ignoreWhitespace
+					&& commit.equals(other.commit) && path.equals(other.path)
+					&& gitDir.equals(other.gitDir);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(gitDir, path, commit,
+					Boolean.valueOf(ignoreWhitespace));
+		}
+	}
+
+	private final Map<Key, Blame> cache = new LinkedHashMap<>(16, 0.75f,
+			true);
+
+	private long cachedBytes;
+
+	/**
+	 * @return the singleton instance
+	 */
+	static BlameCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * A blame being computed. Lines are resolved by
+	 * {@link #computeRange(int, int)} and {@link #computeNext()};
+	 * {@link #snapshot()} returns the lines resolved so far.
+	 */
+	final class Computation implements AutoCloseable {
+
+		private final Key key;
+
+		private final BlameGenerator generator;
+
+		private final BlameResult result;
+
+		private final RevWalk walk;
+
+		private final Map<ObjectId, RevCommit> detached = new HashMap<>();
+
+		private Computation(Key key, BlameGenerator generator,
+				BlameResult result, RevWalk walk) {
+			this.key = key;
+			this.generator = generator;
+			this.result = result;
+			this.walk = walk;
+		}
+
+		/**
+		 * @return the number of lines of the file
+		 */
+		int size() {
+			return result.getResultContents().size();
+		}
+
+		/**
+		 * Resolves at least the given lines.
+		 *
+		 * @param start
+		 *            first line, 0-based
+		 * @param end
+		 *            line after the last line
+		 * @throws IOException
+		 *             if the repository cannot be read
+		 */
+		void computeRange(int start, int end) throws IOException {
+			result.computeRange(start, end);
+		}
+
+		/**
+		 * Resolves the next region of lines.
+		 *
+		 * @return {@code false} if all lines have been resolved
+		 * @throws IOException
+		 *             if the repository cannot be read
+		 */
+		boolean computeNext() throws IOException {
+			return result.computeNext() >= 0;
+		}
+
+		/**
+		 * @return the blame of the lines resolved so far; unresolved lines
+		 *         have no source commit
+		 * @throws IOException
+		 *             if the repository cannot be read
+		 */
+		Blame snapshot() throws IOException {
+			Blame blame = new Blame(result.getResultContents());
+			for (int i = 0; i < blame.size(); i++) {
+				copyLine(result, i, blame, i, walk, detached);
+			}
+			return blame;
+		}
+
+		/**
+		 * Resolves all remaining lines and caches the blame.
+		 *
+		 * @return the complete blame
+		 * @throws IOException
+		 *             if the repository cannot be read
+		 */
+		Blame finish() throws IOException {
+			result.computeAll();
+			Blame blame = snapshot();
+			put(key, blame);
+			return blame;
+		}
+
+		@Override
+		public void close() {
+			generator.close();
+			walk.close();
+		}
+	}
+
+	/**
+	 * Gets the blame of a file if it is cached, or if it can be computed
+	 * incrementally from the cached blame of an ancestor of the start commit.
+	 *
+	 * @param repository
+	 *            containing the file
+	 * @param path
+	 *            of the file
+	 * @param startCommit
+	 *            commit to start blaming from
+	 * @param ignoreWhitespace
+	 *            whether to ignore whitespace changes
+	 * @return the blame, or {@code null} if neither the start commit nor any
+	 *         close ancestor is cached, or the file doesn't exist in the start
+	 *         commit
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 */
+	@Nullable
+	Blame lookup(Repository repository, String path, ObjectId startCommit,
+			boolean ignoreWhitespace) throws IOException {
+		Key key = new Key(repository, path, startCommit, ignoreWhitespace);
+		Blame blame = get(key);
+		if (blame != null) {
+			return blame;
+		}
+		Blame base = null;
+		RevCommit baseCommit = null;
+		try (RevWalk walk = new RevWalk(repository)) {
+			RevCommit commit = walk.parseCommit(startCommit);
+			for (int i = 0; i < MAX_DISTANCE && base == null
+					&& commit.getParentCount() > 0; i++) {
+				commit = walk.parseCommit(commit.getParent(0));
+				base = get(key.withCommit(repository, commit));
+			}
+			baseCommit = commit;
+		}
+		if (base == null) {
+			return null;
+		}
+		blame = computeIncremental(repository, key, baseCommit, base);
+		if (blame != null) {
+			put(key, blame);
+		}
+		return blame;
+	}
+
+	/**
+	 * Starts computing the blame of a file. The caller must close the
+	 * returned computation.
+	 *
+	 * @param repository
+	 *            containing the file
+	 * @param path
+	 *            of the file
+	 * @param startCommit
+	 *            commit to start blaming from
+	 * @param ignoreWhitespace
+	 *            whether to ignore whitespace changes
+	 * @return the computation, or {@code null} if the file doesn't exist in
+	 *         the start commit
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 */
+	@Nullable
+	Computation start(Repository repository, String path,
+			ObjectId startCommit, boolean ignoreWhitespace) throws IOException {
+		Key key = new Key(repository, path, startCommit, ignoreWhitespace);
+		BlameGenerator generator = createGenerator(repository, key);
+		try {
+			BlameResult result = BlameResult.create(generator);
+			if (result == null) {
+				generator.close();
+				return null;
+			}
+			return new Computation(key, generator, result,
+					new RevWalk(repository));
+		} catch (IOException | RuntimeException e) {
+			generator.close();
+			throw e;
+		}
+	}
+
+	private synchronized Blame get(Key key) {
+		return cache.get(key);
+	}
+
+	private synchronized void put(Key key, Blame blame) {
+		long weight = blame.getWeight();
+		if (weight > MAX_BYTES) {
+			return;
+		}
+		Blame previous = cache.put(key, blame);
+		if (previous != null) {
+			cachedBytes -= previous.getWeight();
+		}
+		cachedBytes += weight;
+		Iterator<Blame> eldest = cache.values().iterator();
+		while (cachedBytes > MAX_BYTES && eldest.hasNext()) {
+			cachedBytes -= eldest.next().getWeight();
+			eldest.remove();
+		}
+	}
+
+	private static RawTextComparator getComparator(Key key) {
+		return key.ignoreWhitespace ? RawTextComparator.WS_IGNORE_ALL
+				: RawTextComparator.DEFAULT;
+	}
+
+	private static BlameGenerator createGenerator(Repository repository,
+			Key key) throws IOException {
+		BlameGenerator generator = new BlameGenerator(repository, key.path);
+		generator.setFollowFileRenames(true);
+		generator.setTextComparator(getComparator(key));
+		generator.push(null, key.commit);
+		return generator;
+	}
+
+	/**
+	 * Computes the blame of a file by replaying the commits changing it since
+	 * a commit whose blame is known.
+	 *
+	 * @param repository
+	 *            containing the file
+	 * @param key
+	 *            of the blame to compute
+	 * @param baseCommit
+	 *            ancestor of the start commit with a known blame
+	 * @param base
+	 *            blame at {@code baseCommit}
+	 * @return the blame, or {@code null} if it cannot be computed this way
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 */
+	@Nullable
+	private static Blame computeIncremental(Repository repository, Key key,
+			RevCommit baseCommit, Blame base) throws IOException {
+		List<RevCommit> changes = new ArrayList<>();
+		try (RevWalk walk = new RevWalk(repository)) {
+			walk.setTreeFilter(AndTreeFilter.create(
+					PathFilter.create(key.path), TreeFilter.ANY_DIFF));
+			walk.sort(RevSort.TOPO);
+			walk.sort(RevSort.REVERSE, true);
+			walk.markStart(walk.parseCommit(key.commit));
+			walk.markUninteresting(walk.parseCommit(baseCommit));
+			for (RevCommit commit : walk) {
+				changes.add(commit);
+			}
+		}
+		if (changes.isEmpty()) {
+			// The file is the same, and so is its blame
+			return base;
+		}
+		DiffAlgorithm algorithm = DiffAlgorithm
+				.getAlgorithm(SupportedAlgorithm.HISTOGRAM);
+		RawTextComparator comparator = getComparator(key);
+		try (RevWalk walk = new RevWalk(repository)) {
+			ObjectReader reader = walk.getObjectReader();
+			ObjectId blob = getBlob(reader, key.path, baseCommit);
+			Blame blame = base;
+			for (RevCommit change : changes) {
+				// The commit's real parents, not the ones rewritten by the
+				// filtered walk
+				RevCommit commit = walk.parseCommit(change);
+				if (commit.getParentCount() != 1) {
+					// A merge or root commit changing the file
+					return null;
+				}
+				RevCommit parent = walk.parseCommit(commit.getParent(0));
+				if (blob == null || !blob
+						.equals(getBlob(reader, key.path, parent))) {
+					// Another line of history, or a rename
+					return null;
+				}
+				blob = getBlob(reader, key.path, commit);
+				if (blob == null) {
+					// Deleted
+					return null;
+				}
+				RawText text = new RawText(reader.open(blob, Constants.OBJ_BLOB)
+						.getCachedBytes(Integer.MAX_VALUE));
+				blame = apply(blame, algorithm.diff(comparator,
+						blame.contents, text), text,
+						detach(commit, walk), key.path);
+			}
+			return blame;
+		}
+	}
+
+	@Nullable
+	private static ObjectId getBlob(ObjectReader reader, String path,
+			RevCommit commit) throws IOException {
+		try (TreeWalk walk = TreeWalk.forPath(reader, path,
+				commit.getTree())) {
+			if (walk == null || walk.getFileMode(0)
+					.getObjectType() != Constants.OBJ_BLOB) {
+				return null;
+			}
+			return walk.getObjectId(0);
+		}
+	}
+
+	/**
+	 * Applies a commit to a blame: lines the commit added or changed are
+	 * blamed on it, the others keep their blame.
+	 *
+	 * @param previous
+	 *            blame before the commit
+	 * @param edits
+	 *            from the previous text to the commit's text
+	 * @param text
+	 *            of the file in the commit
+	 * @param commit
+	 *            the commit
+	 * @param path
+	 *            of the file in the commit
+	 * @return the blame of the file in the commit
+	 */
+	private static Blame apply(Blame previous, EditList edits, RawText text,
+			RevCommit commit, String path) {
+		Blame blame = new Blame(text);
+		int previousLine = 0;
+		int line = 0;
+		for (Edit edit : edits) {
+			for (; line < edit.getBeginB(); line++, previousLine++) {
+				copyLine(previous, previousLine, blame, line);
+			}
+			for (; line < edit.getEndB(); line++) {
+				blame.commits[line] = commit;
+				blame.paths[line] = path;
+				blame.lines[line] = line;
+			}
+			previousLine = edit.getEndA();
+		}
+		for (; line < blame.size(); line++, previousLine++) {
+			copyLine(previous, previousLine, blame, line);
+		}
+		return blame;
+	}
+
+	private static void copyLine(Blame from, int fromLine, Blame to,
+			int line) {
+		to.commits[line] = from.commits[fromLine];
+		to.paths[line] = from.paths[fromLine];
+		to.lines[line] = from.lines[fromLine];
+	}
+
+	private static void copyLine(BlameResult result, int resultLine,
+			Blame blame, int line, RevWalk walk,
+			Map<ObjectId, RevCommit> detached) throws IOException {
+		if (!result.hasSourceData(resultLine)) {
+			return;
+		}
+		RevCommit commit = result.getSourceCommit(resultLine);
+		if (commit != null) {
+			RevCommit copy = detached.get(commit);
+			if (copy == null) {
+				copy = detach(commit, walk);
+				detached.put(copy, copy);
+			}
+			commit = copy;
+		}
+		blame.commits[line] = commit;
+		blame.paths[line] = result.getSourcePath(resultLine);
+		blame.lines[line] = result.getSourceLine(resultLine);
+	}
+
+	/**
+	 * Re-parses a commit and its parents in a separate walk. The copy's
+	 * parents have their headers parsed, as the blame hover diffs against
+	 * them, but don't link any further into the history.
+	 *
+	 * @param commit
+	 *            to detach
+	 * @param walk
+	 *            to parse the copy in
+	 * @return the copy
+	 * @throws IOException
+	 *             if the commit or its parents cannot be read
+	 */
+	private static RevCommit detach(RevCommit commit, RevWalk walk)
+			throws IOException {
+		RevCommit copy = walk.parseCommit(commit);
+		for (RevCommit parent : copy.getParents()) {
+			walk.parseHeaders(parent);
+		}
+		return copy;
+	}
+}
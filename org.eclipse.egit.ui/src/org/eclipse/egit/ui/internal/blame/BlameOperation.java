@@ -37,6 +37,8 @@
 import org.eclipse.egit.ui.internal.revision.FileRevisionEditorInput;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextOperationTarget;
+import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.revisions.IRevisionRulerColumn;
 import org.eclipse.jface.text.revisions.IRevisionRulerColumnExtension;
 import org.eclipse.jface.text.revisions.RevisionInformation;
@@ -45,12 +47,11 @@
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
-import org.eclipse.jgit.api.BlameCommand;
-import org.eclipse.jgit.blame.BlameResult;
-import org.eclipse.jgit.diff.RawTextComparator;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.team.ui.history.IHistoryView;
 import org.eclipse.team.ui.history.RevisionAnnotationController;
@@ -171,6 +172,12 @@ else if (nonResourceFile != null)
 
 	}
 
+	/** Milliseconds between updates of progressively computed annotations. */
+	private static final long PUBLISH_INTERVAL = 500;
+
+	/** Lines assumed visible if the editor's viewer cannot be determined. */
+	private static final int VISIBLE_LINES_GUESS = 100;
+
 	private Repository repository;
 
 	private CommitFileRevision fileRevision;
@@ -238,38 +245,143 @@ public BlameOperation(CommitFileRevision revision, Shell shell,
 	@Override
 	public void execute(IProgressMonitor monitor) throws CoreException {
 		SubMonitor progress = SubMonitor.convert(monitor, 3);
-		final RevisionInformation info = new RevisionInformation();
 
-		final BlameCommand command = new BlameCommand(repository)
-				.setFollowFileRenames(true).setFilePath(path);
-		if (startCommit != null)
-			command.setStartCommit(startCommit);
-		else {
+		ObjectId start = startCommit;
+		if (start == null) {
 			try {
-				command.setStartCommit(repository.resolve(Constants.HEAD));
+				start = repository.resolve(Constants.HEAD);
 			} catch (IOException e) {
 				Activator
 						.error("Error resolving HEAD for showing annotations in repository: " + repository, e); //$NON-NLS-1$
 				return;
 			}
+			if (start == null) {
+				return;
+			}
 		}
-		if (Activator.getDefault().getPreferenceStore()
-				.getBoolean(UIPreferences.BLAME_IGNORE_WHITESPACE))
-			command.setTextComparator(RawTextComparator.WS_IGNORE_ALL);
+		boolean ignoreWhitespace = Activator.getDefault().getPreferenceStore()
+				.getBoolean(UIPreferences.BLAME_IGNORE_WHITESPACE);
 
-		BlameResult result;
+		BlameCache cache = BlameCache.getInstance();
 		try {
-			result = command.call();
-		} catch (Exception e1) {
-			Activator.error(e1.getMessage(), e1);
-			return;
+			BlameCache.Blame blame = cache.lookup(repository, path, start,
+					ignoreWhitespace);
+			if (blame != null) {
+				progress.worked(1);
+				RevisionInformation info = createRevisionInformation(blame);
+				progress.worked(1);
+				if (shell.isDisposed()) {
+					return;
+				}
+				loadStorage(progress.newChild(1));
+				shell.getDisplay().asyncExec(() -> {
+					AbstractDecoratedTextEditor editor = openEditor();
+					if (editor != null) {
+						showAnnotations(editor, info, true);
+					}
+				});
+				return;
+			}
+			try (BlameCache.Computation computation = cache.start(repository,
+					path, start, ignoreWhitespace)) {
+				if (computation != null) {
+					progress.worked(1);
+					loadStorage(progress.newChild(1));
+					computeProgressively(computation, progress.newChild(1));
+				}
+			}
+		} catch (IOException e) {
+			Activator.error(e.getMessage(), e);
+		}
+	}
+
+	private void loadStorage(IProgressMonitor monitor) throws CoreException {
+		if (fileRevision != null) {
+			storage = fileRevision.getStorage(monitor);
 		}
-		progress.worked(1);
-		if (result == null)
+	}
+
+	/**
+	 * Opens the editor and blames the lines visible in it first. Annotations
+	 * of the lines resolved so far are shown every
+	 * {@link #PUBLISH_INTERVAL} milliseconds, so the ruler fills in while the
+	 * rest of the file is still being blamed. If canceled, the annotations
+	 * shown last remain.
+	 *
+	 * @param computation
+	 *            of the blame
+	 * @param monitor
+	 *            for cancellation
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 */
+	private void computeProgressively(BlameCache.Computation computation,
+			IProgressMonitor monitor) throws IOException {
+		Display display = shell.getDisplay();
+		AbstractDecoratedTextEditor[] editor = { null };
+		int[] visible = { 0, VISIBLE_LINES_GUESS };
+		display.syncExec(() -> {
+			if (shell.isDisposed()) {
+				return;
+			}
+			editor[0] = openEditor();
+			if (editor[0] != null) {
+				getVisibleLines(editor[0], visible);
+			}
+		});
+		if (editor[0] == null) {
 			return;
+		}
+		int size = computation.size();
+		int end = Math.min(visible[1], size);
+		int begin = Math.min(visible[0], end);
+		boolean first = true;
+		if (begin < end && end - begin < size) {
+			computation.computeRange(begin, end);
+			publish(editor[0], computation.snapshot(), first);
+			first = false;
+		}
+		long next = System.currentTimeMillis() + PUBLISH_INTERVAL;
+		while (computation.computeNext()) {
+			if (monitor.isCanceled() || display.isDisposed()) {
+				return;
+			}
+			if (System.currentTimeMillis() >= next) {
+				publish(editor[0], computation.snapshot(), first);
+				first = false;
+				next = System.currentTimeMillis() + PUBLISH_INTERVAL;
+			}
+		}
+		publish(editor[0], computation.finish(), first);
+	}
+
+	private void getVisibleLines(AbstractDecoratedTextEditor editor,
+			int[] visible) {
+		ITextOperationTarget target = Adapters.adapt(editor,
+				ITextOperationTarget.class);
+		if (target instanceof ITextViewer) {
+			ITextViewer viewer = (ITextViewer) target;
+			visible[0] = Math.max(0, viewer.getTopIndex());
+			visible[1] = Math.max(visible[0], viewer.getBottomIndex() + 1);
+		} else if (lineNumberToReveal >= 0) {
+			visible[0] = Math.max(0,
+					lineNumberToReveal - VISIBLE_LINES_GUESS / 2);
+			visible[1] = visible[0] + VISIBLE_LINES_GUESS;
+		}
+	}
 
+	private void publish(AbstractDecoratedTextEditor editor,
+			BlameCache.Blame blame, boolean first) {
+		RevisionInformation info = createRevisionInformation(blame);
+		shell.getDisplay().asyncExec(() -> showAnnotations(editor, info,
+				first));
+	}
+
+	private RevisionInformation createRevisionInformation(
+			BlameCache.Blame result) {
+		RevisionInformation info = new RevisionInformation();
 		Map<RevCommit, BlameRevision> revisions = new HashMap<>();
-		int lineCount = result.getResultContents().size();
+		int lineCount = result.size();
 		BlameRevision previous = null;
 		for (int i = 0; i < lineCount; i++) {
 			RevCommit commit = result.getSourceCommit(i);
@@ -304,26 +416,10 @@ public void execute(IProgressMonitor monitor) throws CoreException {
 		}
 		if (previous != null)
 			previous.register();
-
-		progress.worked(1);
-		if (shell.isDisposed()) {
-			return;
-		}
-
-		if (fileRevision != null) {
-			storage = fileRevision.getStorage(progress.newChild(1));
-		} else {
-			progress.worked(1);
-		}
-		shell.getDisplay().asyncExec(new Runnable() {
-			@Override
-			public void run() {
-				openEditor(info);
-			}
-		});
+		return info;
 	}
 
-	private void openEditor(final RevisionInformation info) {
+	private AbstractDecoratedTextEditor openEditor() {
 		IEditorPart editorPart;
 		try {
 			if (storage instanceof IFile) {
@@ -348,12 +444,33 @@ private void openEditor(final RevisionInformation info) {
 		} catch (CoreException e) {
 			Activator.handleError("Error displaying blame annotations", e, //$NON-NLS-1$
 					false);
-			return;
+			return null;
 		}
 		if (!(editorPart instanceof AbstractDecoratedTextEditor)) {
-			return;
+			return null;
 		}
 		AbstractDecoratedTextEditor editor = (AbstractDecoratedTextEditor) editorPart;
+		if (lineNumberToReveal >= 0) {
+			IDocument document = editor.getDocumentProvider().getDocument(
+					editor.getEditorInput());
+			int offset;
+			try {
+				offset = document.getLineOffset(lineNumberToReveal);
+				editor.selectAndReveal(offset, 0);
+			} catch (BadLocationException e) {
+				Activator.logError(
+						"Error revealing line " + lineNumberToReveal, e); //$NON-NLS-1$
+			}
+		}
+		return editor;
+	}
+
+	private void showAnnotations(AbstractDecoratedTextEditor editor,
+			RevisionInformation info, boolean first) {
+		if (editor.getDocumentProvider() == null) {
+			// Closed in the meantime
+			return;
+		}
 		// IRevisionRulerColumn would also be possible but using
 		// IVerticalRulerInfo seems to work in more situations.
 		IVerticalRulerInfo rulerInfo = Adapters.adapt(editor,
@@ -367,19 +484,9 @@ private void openEditor(final RevisionInformation info) {
 		editor.showRevisionInformation(info,
 				"org.eclipse.egit.ui.internal.decorators.GitQuickDiffProvider"); //$NON-NLS-1$
 
-		if (lineNumberToReveal >= 0) {
-			IDocument document = editor.getDocumentProvider().getDocument(
-					editor.getEditorInput());
-			int offset;
-			try {
-				offset = document.getLineOffset(lineNumberToReveal);
-				editor.selectAndReveal(offset, 0);
-			} catch (BadLocationException e) {
-				Activator.logError(
-						"Error revealing line " + lineNumberToReveal, e); //$NON-NLS-1$
-			}
+		if (!first) {
+			return;
 		}
-
 		IRevisionRulerColumn revisionRuler = Adapters.adapt(editor,
 				IRevisionRulerColumn.class);
 		if (revisionRuler instanceof IRevisionRulerColumnExtension)
@@ -11,6 +11,7 @@
 package org.eclipse.egit.ui.internal.commit;
 
 import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.Assert;
@@ -61,6 +62,8 @@ public class DiffDocument extends Document {
 
 	private int[] maximumLineNumbers;
 
+	private Consumer<FileDiffRegion> fullDiffHandler;
+
 	/**
 	 * Creates a new {@link DiffDocument}.
 	 */
@@ -130,6 +133,22 @@ public void setDefault(@NonNull FileDiff fileDiff) {
 		defaultFileDiff = fileDiff;
 	}
 
+	/**
+	 * Sets the handler to call when the user asks to see the full diff of a
+	 * file whose diff was truncated.
+	 *
+	 * @param handler
+	 *            to call with the region of the truncated file diff, or
+	 *            {@code null} if full diffs cannot be shown
+	 */
+	void setFullDiffHandler(Consumer<FileDiffRegion> handler) {
+		fullDiffHandler = handler;
+	}
+
+	Consumer<FileDiffRegion> getFullDiffHandler() {
+		return fullDiffHandler;
+	}
+
 	DiffRegion[] getRegions() {
 		return regions;
 	}
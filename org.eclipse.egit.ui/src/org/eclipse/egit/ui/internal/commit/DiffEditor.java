@@ -21,9 +21,12 @@
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -32,11 +35,13 @@
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.egit.core.internal.IRepositoryCommit;
 import org.eclipse.egit.ui.Activator;
 import org.eclipse.egit.ui.JobFamilies;
@@ -123,6 +128,15 @@ public class DiffEditor extends TextEditor
 
 	private static final String QUICK_OUTLINE_COMMAND = "org.eclipse.egit.ui.commit.DiffEditorQuickOutlineCommand"; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of diff lines shown per file, unless the user asks for
+	 * the full diff of that file.
+	 */
+	private static final int MAX_FILE_DIFF_LINES = 5000;
+
+	/** Number of files a single task formats. */
+	private static final int FORMAT_CHUNK_SIZE = 8;
+
 	private DiffEditorOutlinePage outlinePage;
 
 	private Annotation[] currentFoldingAnnotations;
@@ -138,6 +152,9 @@ public class DiffEditor extends TextEditor
 
 	private boolean plainLineNumbers = false;
 
+	/** Truncated file diffs the user asked to see in full. */
+	private final Set<FileDiff> fullDiffs = new HashSet<>();
+
 	/**
 	 * Creates a new {@link DiffEditor}.
 	 */
@@ -202,6 +219,14 @@ public void dispose() {
 			overviewStore.dispose();
 			overviewStore = null;
 		}
+		IEditorInput input = getEditorInput();
+		if (input instanceof DiffEditorInput) {
+			IDocument document = ((DiffEditorInput) input).getDocument();
+			if (document instanceof DiffDocument) {
+				// The input may outlive this editor
+				((DiffDocument) document).setFullDiffHandler(null);
+			}
+		}
 		super.dispose();
 	}
 
@@ -318,7 +343,12 @@ protected void doSetInput(IEditorInput input) throws CoreException {
 		currentFileDiffRange = null;
 		if (input instanceof DiffEditorInput) {
 			DiffEditorInput diffInput = (DiffEditorInput) input;
-			if (diffInput.getDocument() != null) {
+			IDocument document = diffInput.getDocument();
+			if (document != null) {
+				if (document instanceof DiffDocument) {
+					((DiffDocument) document)
+							.setFullDiffHandler(this::showFullDiff);
+				}
 				setFolding();
 				FileDiffRegion region = getFileDiffRange(0);
 				currentFileDiffRange = region;
@@ -549,7 +579,58 @@ private void formatDiff(@NonNull DiffEditorInput input) {
 				return;
 			}
 		}
-		DiffJob job = getDiffer(commit, base);
+		fullDiffs.clear();
+		showDiff(input, getDiffer(commit, base), -1, 0);
+	}
+
+	/**
+	 * Formats the diff again, showing the full diff of the file of the given
+	 * region, which was truncated.
+	 *
+	 * @param region
+	 *            of the truncated file diff
+	 */
+	private void showFullDiff(FileDiffRegion region) {
+		IEditorInput input = getEditorInput();
+		if (!(input instanceof DiffEditorInput)) {
+			return;
+		}
+		IDocument document = getDocumentProvider().getDocument(input);
+		if (!(document instanceof DiffDocument)) {
+			return;
+		}
+		FileDiffRegion[] regions = ((DiffDocument) document).getFileRegions();
+		FileDiff[] diffs = new FileDiff[regions.length];
+		int index = -1;
+		for (int i = 0; i < regions.length; i++) {
+			diffs[i] = regions[i].getDiff();
+			if (regions[i] == region) {
+				index = i;
+			}
+		}
+		if (index < 0) {
+			return;
+		}
+		fullDiffs.add(region.getDiff());
+		showDiff((DiffEditorInput) input,
+				getFormatter(diffs, new HashSet<>(fullDiffs)), index,
+				region.getTruncatedOffset() - region.getOffset());
+	}
+
+	/**
+	 * Runs the job and sets its document on the editor.
+	 *
+	 * @param input
+	 *            of this editor
+	 * @param job
+	 *            computing the document
+	 * @param fileIndex
+	 *            index of the file diff to reveal, or -1
+	 * @param revealOffset
+	 *            offset within that file diff to reveal
+	 */
+	private void showDiff(@NonNull DiffEditorInput input, DiffJob job,
+			int fileIndex, int revealOffset) {
 		job.addJobChangeListener(new JobChangeAdapter() {
 			@Override
 			public void done(IJobChangeEvent event) {
@@ -561,9 +642,12 @@ public void done(IJobChangeEvent event) {
 					@Override
 					public IStatus runInUIThread(IProgressMonitor uiMonitor) {
 						if (UIUtils
-								.isUsable(getSourceViewer().getTextWidget())) {
-							input.setDocument(job.getDocument());
+								.isUsable(getSourceViewer().getTextWidget())
+								&& input == getEditorInput()) {
+							DiffDocument document = job.getDocument();
+							input.setDocument(document);
 							setInput(input);
+							reveal(document, fileIndex, revealOffset);
 						}
 						return Status.OK_STATUS;
 					}
@@ -573,6 +657,13 @@ public IStatus runInUIThread(IProgressMonitor uiMonitor) {
 		job.schedule();
 	}
 
+	private void reveal(DiffDocument document, int fileIndex, int offset) {
+		FileDiffRegion[] regions = document.getFileRegions();
+		if (fileIndex >= 0 && regions != null && fileIndex < regions.length) {
+			selectAndReveal(regions[fileIndex].getOffset() + offset, 0);
+		}
+	}
+
 	/**
 	 * A {@link Job} computing a diff.
 	 */
@@ -623,7 +714,8 @@ public static DiffJob getDiffer(@NonNull IRepositoryCommit tip,
 			protected IStatus run(IProgressMonitor monitor) {
 				SubMonitor progress = SubMonitor.convert(monitor, 2);
 				FileDiff diffs[] = getDiffs(progress.newChild(1));
-				setDocument(formatDiffs(diffs, progress.newChild(1)));
+				setDocument(formatDiffs(diffs, Collections.emptySet(),
+						progress.newChild(1)));
 				return Status.OK_STATUS;
 			}
 
@@ -670,27 +762,35 @@ private FileDiff[] getDiffs(IProgressMonitor monitor) {
 				return result;
 			}
 
-			private DiffDocument formatDiffs(FileDiff[] diffs,
-					IProgressMonitor monitor) {
-				SubMonitor progress = SubMonitor.convert(monitor, diffs.length);
-				DiffDocument document = new DiffDocument();
-				try (DiffRegionFormatter formatter = new DiffRegionFormatter(
-						document)) {
-					for (FileDiff diff : diffs) {
-						if (progress.isCanceled()) {
-							break;
-						}
-						progress.subTask(diff.getPath());
-						try {
-							formatter.write(diff);
-						} catch (IOException ignore) {
-							// Ignored
-						}
-						progress.worked(1);
-					}
-					document.connect(formatter);
+			@Override
+			public boolean belongsTo(Object family) {
+				return JobFamilies.DIFF == family || super.belongsTo(family);
+			}
+		};
+	}
+
+	/**
+	 * Obtains a {@link DiffJob} formatting already computed diffs again.
+	 *
+	 * @param diffs
+	 *            to format
+	 * @param fullDiffs
+	 *            diffs to show in full instead of truncating them
+	 * @return the job
+	 */
+	private static DiffJob getFormatter(FileDiff[] diffs,
+			Set<FileDiff> fullDiffs) {
+		return new DiffJob() {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				DiffDocument document = formatDiffs(diffs, fullDiffs,
+						monitor);
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
 				}
-				return document;
+				setDocument(document);
+				return Status.OK_STATUS;
 			}
 
 			@Override
@@ -700,6 +800,100 @@ public boolean belongsTo(Object family) {
 		};
 	}
 
+	private static DiffDocument formatDiffs(FileDiff[] diffs,
+			Set<FileDiff> fullDiffs, IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, 2);
+		DiffRegionFormatter[] parts = formatInParallel(diffs, fullDiffs,
+				progress.newChild(1));
+		// Set the concatenated text on the document in one go
+		StringBuilder text = new StringBuilder();
+		try (DiffRegionFormatter formatter = new DiffRegionFormatter(text,
+				-1)) {
+			for (DiffRegionFormatter part : parts) {
+				if (part != null) {
+					formatter.append(part);
+				}
+			}
+			DiffDocument document = new DiffDocument(text.toString());
+			document.connect(formatter);
+			return document;
+		} catch (IOException e) {
+			// Cannot occur when writing to a StringBuilder
+			return new DiffDocument();
+		} finally {
+			progress.worked(1);
+		}
+	}
+
+	/**
+	 * Formats each {@link FileDiff} with its own {@link DiffRegionFormatter}
+	 * writing into a buffer, in several jobs. Formatting reads the blobs from
+	 * the repository, so it doesn't run on the common fork/join pool.
+	 *
+	 * @param diffs
+	 *            to format
+	 * @param fullDiffs
+	 *            diffs to show in full instead of truncating them
+	 * @param monitor
+	 *            for cancellation
+	 * @return the formatters, in the order of the diffs; {@code null} for
+	 *         diffs that could not be formatted or if canceled
+	 */
+	private static DiffRegionFormatter[] formatInParallel(FileDiff[] diffs,
+			Set<FileDiff> fullDiffs, IProgressMonitor monitor) {
+		DiffRegionFormatter[] parts = new DiffRegionFormatter[diffs.length];
+		int chunks = (diffs.length + FORMAT_CHUNK_SIZE - 1)
+				/ FORMAT_CHUNK_SIZE;
+		if (chunks <= 1) {
+			formatDiffs(diffs, fullDiffs, parts, 0, diffs.length, monitor);
+			return parts;
+		}
+		int maxThreads = Math.min(chunks,
+				Runtime.getRuntime().availableProcessors());
+		JobGroup group = new JobGroup(UIText.DiffEditor_TaskGeneratingDiff,
+				maxThreads, chunks);
+		for (int from = 0; from < diffs.length; from += FORMAT_CHUNK_SIZE) {
+			int start = from;
+			int end = Math.min(from + FORMAT_CHUNK_SIZE, diffs.length);
+			Job job = Job.create(UIText.DiffEditor_TaskGeneratingDiff,
+					m -> {
+						formatDiffs(diffs, fullDiffs, parts, start, end, m);
+					});
+			job.setSystem(true);
+			job.setJobGroup(group);
+			job.schedule();
+		}
+		try {
+			group.join(0, monitor);
+		} catch (InterruptedException e) {
+			group.cancel();
+			Thread.currentThread().interrupt();
+		} catch (OperationCanceledException e) {
+			group.cancel();
+		}
+		return parts;
+	}
+
+	private static void formatDiffs(FileDiff[] diffs, Set<FileDiff> fullDiffs,
+			DiffRegionFormatter[] parts, int from, int to,
+			IProgressMonitor monitor) {
+		for (int i = from; i < to; i++) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			int maxLines = fullDiffs.contains(diffs[i]) ? -1
+					: MAX_FILE_DIFF_LINES;
+			try (DiffRegionFormatter formatter = new DiffRegionFormatter(
+					new StringBuilder(), maxLines)) {
+				formatter.write(diffs[i]);
+				// Each index is handled by exactly one job.
+				parts[i] = formatter;
+			} catch (IOException ignore) {
+				// Ignored
+			}
+		}
+	}
+
 	/**
 	 * A document provider that knows about {@link DiffEditorInput}. Derived
 	 * from {@link FileDocumentProvider} to get the default save implementation
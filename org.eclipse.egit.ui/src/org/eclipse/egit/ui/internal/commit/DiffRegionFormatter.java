@@ -19,6 +19,7 @@
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.egit.core.internal.CompareCoreUtils;
 import org.eclipse.egit.ui.internal.UIText;
@@ -148,6 +149,8 @@ public static class FileDiffRegion extends Region implements IAdaptable {
 
 		private final @NonNull FileDiff diff;
 
+		private final int truncatedOffset;
+
 		/**
 		 * Creates a new {@link FileDiffRegion}.
 		 *
@@ -160,8 +163,38 @@ public static class FileDiffRegion extends Region implements IAdaptable {
 		 */
 		public FileDiffRegion(@NonNull FileDiff fileDiff,
 				int start, int length) {
+			this(fileDiff, start, length, -1);
+		}
+
+		/**
+		 * Creates a new {@link FileDiffRegion} for a diff that may have been
+		 * truncated.
+		 *
+		 * @param fileDiff
+		 *            the range belongs to
+		 * @param start
+		 *            of the range
+		 * @param length
+		 *            of the range
+		 * @param truncatedOffset
+		 *            offset of the note saying that the diff was truncated,
+		 *            or -1 if it wasn't
+		 */
+		public FileDiffRegion(@NonNull FileDiff fileDiff, int start,
+				int length, int truncatedOffset) {
 			super(start, length);
 			this.diff = fileDiff;
+			this.truncatedOffset = truncatedOffset;
+		}
+
+		/**
+		 * Tells where the diff was truncated.
+		 *
+		 * @return the offset of the note saying that the diff was truncated,
+		 *         or -1 if the full diff is shown
+		 */
+		public int getTruncatedOffset() {
+			return truncatedOffset;
 		}
 
 		/**
@@ -203,32 +236,44 @@ private static class DocumentOutputStream extends OutputStream {
 
 		private String charset;
 
-		private IDocument document;
+		private final IDocument document;
+
+		private final StringBuilder buffer;
 
 		private int offset;
 
-		private StringBuilder lineBuffer = new StringBuilder();
+		/** Bytes of the current line; decoded only when the line is flushed. */
+		private final ByteArrayOutputStream lineBuffer = //
+				new ByteArrayOutputStream();
 
 		public DocumentOutputStream(IDocument document, int offset) {
 			this.document = document;
+			this.buffer = null;
 			this.offset = offset;
 		}
 
+		public DocumentOutputStream(StringBuilder buffer) {
+			this.document = null;
+			this.buffer = buffer;
+			this.offset = buffer.length();
+		}
+
 		private void write(String content) throws IOException {
-			try {
-				this.document.replace(this.offset, 0, content);
-				this.offset += content.length();
-			} catch (BadLocationException e) {
-				throw new IOException(e.getMessage());
+			if (buffer != null) {
+				buffer.append(content);
+			} else {
+				try {
+					this.document.replace(this.offset, 0, content);
+				} catch (BadLocationException e) {
+					throw new IOException(e.getMessage());
+				}
 			}
+			this.offset += content.length();
 		}
 
 		@Override
 		public void write(byte[] b, int off, int len) throws IOException {
-			if (charset == null)
-				lineBuffer.append(new String(b, off, len, "UTF-8")); //$NON-NLS-1$
-			else
-				lineBuffer.append(new String(b, off, len, charset));
+			lineBuffer.write(b, off, len);
 		}
 
 		@Override
@@ -238,7 +283,7 @@ public void write(byte[] b) throws IOException {
 
 		@Override
 		public void write(int b) throws IOException {
-			write(new byte[] { (byte) b });
+			lineBuffer.write(b);
 		}
 
 		@Override
@@ -247,9 +292,10 @@ public void flush() throws IOException {
 		}
 
 		protected void flushLine() throws IOException {
-			if (lineBuffer.length() > 0) {
-				write(lineBuffer.toString());
-				lineBuffer.setLength(0);
+			if (lineBuffer.size() > 0) {
+				write(lineBuffer.toString(
+						charset == null ? "UTF-8" : charset)); //$NON-NLS-1$
+				lineBuffer.reset();
 			}
 		}
 	}
@@ -264,6 +310,8 @@ protected void flushLine() throws IOException {
 
 	private int linesWritten;
 
+	private int truncatedOffset = -1;
+
 	private int lastNewLine;
 
 	private int[] maximumLineNumbers = new int[] { DiffRegion.NO_LINE,
@@ -297,6 +345,59 @@ public DiffRegionFormatter(IDocument document, int offset,
 		this.lastNewLine = DiffRegion.NO_LINE;
 	}
 
+	/**
+	 * Creates a formatter that appends the text to a buffer instead of
+	 * writing it to a document, which is much cheaper for large diffs. The
+	 * buffer's content can later be set on a document in one go.
+	 *
+	 * @param buffer
+	 *            to append to; region offsets are relative to the start of
+	 *            the buffer
+	 * @param maxLines
+	 *            maximum number of diff lines to write; if exceeded, the diff
+	 *            is truncated with a note. Zero or negative for no limit.
+	 */
+	public DiffRegionFormatter(StringBuilder buffer, int maxLines) {
+		super(new DocumentOutputStream(buffer));
+		this.stream = (DocumentOutputStream) getOutputStream();
+		this.maxLines = maxLines;
+		this.lastNewLine = DiffRegion.NO_LINE;
+	}
+
+	/**
+	 * Appends the text and regions produced by another formatter, which must
+	 * have been created with {@link #DiffRegionFormatter(StringBuilder, int)}
+	 * on an initially empty buffer. Formatting files with separate formatters
+	 * and appending them afterwards gives the same result as writing them all
+	 * with this formatter.
+	 *
+	 * @param part
+	 *            formatter to append the output of
+	 * @return this formatter
+	 * @throws IOException
+	 *             if the text cannot be written
+	 */
+	public DiffRegionFormatter append(DiffRegionFormatter part)
+			throws IOException {
+		Assert.isNotNull(part.stream.buffer);
+		flush();
+		int shift = stream.offset;
+		stream.write(part.stream.buffer.toString());
+		for (DiffRegion region : part.regions) {
+			addRegion(region.getType(), shift + region.getOffset(),
+					shift + region.getOffset() + region.getLength(),
+					region.getLine(DiffEntry.Side.OLD),
+					region.getLine(DiffEntry.Side.NEW));
+		}
+		for (FileDiffRegion region : part.fileRegions) {
+			int truncated = region.getTruncatedOffset();
+			fileRegions.add(new FileDiffRegion(region.getDiff(),
+					shift + region.getOffset(), region.getLength(),
+					truncated < 0 ? -1 : shift + truncated));
+		}
+		return this;
+	}
+
 	/**
 	 * Write diff
 	 *
@@ -312,7 +413,8 @@ public DiffRegionFormatter write(FileDiff diff)
 		int start = stream.offset;
 		diff.outputDiff(null, repository, this, true);
 		flush();
-		fileRegions.add(new FileDiffRegion(diff, start, stream.offset - start));
+		fileRegions.add(new FileDiffRegion(diff, start, stream.offset - start,
+				truncatedOffset < start ? -1 : truncatedOffset));
 		return this;
 	}
 
@@ -427,6 +529,7 @@ protected void writeLine(char prefix, RawText text, int cur)
 			if (linesWritten == maxLines + 1) {
 				int start = stream.offset;
 				stream.flushLine();
+				truncatedOffset = start;
 				stream.write(
 						NLS.bind(UIText.DiffStyleRangeFormatter_diffTruncated,
 								Integer.valueOf(maxLines)));
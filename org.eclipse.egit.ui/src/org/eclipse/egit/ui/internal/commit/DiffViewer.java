@@ -32,6 +32,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -518,12 +519,35 @@ public IHyperlink[] detectHyperlinks(ITextViewer textViewer,
 					break;
 				}
 			}
+			createFullDiffLink(diffDocument, region, links);
 			if (links.isEmpty()) {
 				return null;
 			}
 			return links.toArray(new IHyperlink[0]);
 		}
 
+		private void createFullDiffLink(DiffDocument document, IRegion region,
+				List<IHyperlink> links) {
+			Consumer<FileDiffRegion> handler = document.getFullDiffHandler();
+			if (handler == null) {
+				return;
+			}
+			FileDiffRegion fileRange = document
+					.findFileRegion(region.getOffset());
+			if (fileRange == null || fileRange.getTruncatedOffset() < 0) {
+				return;
+			}
+			try {
+				IRegion note = document.getLineInformationOfOffset(
+						fileRange.getTruncatedOffset());
+				if (TextUtilities.overlaps(region, note)) {
+					links.add(new FullDiffLink(note, fileRange, handler));
+				}
+			} catch (BadLocationException e) {
+				// Ignore
+			}
+		}
+
 		private String getString(IDocument document, int offset, int length) {
 			try {
 				return document.get(offset, length);
@@ -705,6 +729,42 @@ public String getTypeLabel() {
 
 	}
 
+	private static class FullDiffLink implements IHyperlink {
+
+		private final IRegion region;
+
+		private final FileDiffRegion fileRange;
+
+		private final Consumer<FileDiffRegion> handler;
+
+		public FullDiffLink(IRegion region, FileDiffRegion fileRange,
+				Consumer<FileDiffRegion> handler) {
+			this.region = region;
+			this.fileRange = fileRange;
+			this.handler = handler;
+		}
+
+		@Override
+		public IRegion getHyperlinkRegion() {
+			return region;
+		}
+
+		@Override
+		public String getTypeLabel() {
+			return null;
+		}
+
+		@Override
+		public String getHyperlinkText() {
+			return UIText.DiffViewer_ShowFullDiffLinkLabel;
+		}
+
+		@Override
+		public void open() {
+			handler.accept(fileRange);
+		}
+	}
+
 	private static class FileLink extends RevealLink {
 
 		private final File file;
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffConfig.RenameDetectionType;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+/**
+ * The renames between the quick diff baseline of a repository and its index,
+ * shared by all {@link GitDocument}s of the repository. Rename detection runs
+ * once per baseline commit and version of the index; afterwards, looking up
+ * the baseline path of a file is a map lookup.
+ */
+class BaselineRenames {
+
+	private static final Map<Repository, BaselineRenames> INSTANCES = new WeakHashMap<>();
+
+	/** Weak, since the repository is the key of {@link #INSTANCES}. */
+	private final WeakReference<Repository> repository;
+
+	private ObjectId baseline;
+
+	/** The index the renames were computed from. */
+	private DirCache index;
+
+	/** Old paths by new path. */
+	private Map<String, String> renames = Collections.emptyMap();
+
+	private BaselineRenames(Repository repository) {
+		this.repository = new WeakReference<>(repository);
+	}
+
+	/**
+	 * Retrieves the renames of a repository.
+	 *
+	 * @param repository
+	 *            to get the renames of
+	 * @return the shared instance for the repository
+	 */
+	static BaselineRenames get(Repository repository) {
+		synchronized (INSTANCES) {
+			return INSTANCES.computeIfAbsent(repository, BaselineRenames::new);
+		}
+	}
+
+	/**
+	 * Determines the path a file had in the baseline.
+	 *
+	 * @param baselineCommit
+	 *            the baseline
+	 * @param path
+	 *            repository-relative path of the file in the index
+	 * @return the path of the file in the baseline commit; {@code path} if
+	 *         the file wasn't renamed or rename detection is switched off
+	 * @throws IOException
+	 *             if the renames cannot be determined
+	 */
+	String getOldPath(RevCommit baselineCommit, String path)
+			throws IOException {
+		Repository repo = repository.get();
+		if (repo == null) {
+			return path;
+		}
+		DiffConfig diffConfig = repo.getConfig().get(DiffConfig.KEY);
+		if (diffConfig.getRenameDetectionType() == RenameDetectionType.FALSE) {
+			return path;
+		}
+		return getRenames(repo, baselineCommit).getOrDefault(path, path);
+	}
+
+	private synchronized Map<String, String> getRenames(Repository repo,
+			RevCommit baselineCommit) throws IOException {
+		DirCache current = index;
+		if (current == null || current.isOutdated()) {
+			current = repo.readDirCache();
+		} else if (baselineCommit.equals(baseline)) {
+			return renames;
+		}
+		Map<String, String> result = new HashMap<>();
+		try (ObjectReader reader = repo.newObjectReader();
+				TreeWalk walk = new TreeWalk(repo, reader)) {
+			CanonicalTreeParser baselineIterator = new CanonicalTreeParser();
+			baselineIterator.reset(reader, baselineCommit.getTree());
+			walk.addTree(baselineIterator);
+			walk.addTree(new DirCacheIterator(current));
+			RenameDetector renameDetector = new RenameDetector(repo);
+			renameDetector.addAll(DiffEntry.scan(walk, true));
+			for (DiffEntry entry : renameDetector.compute(reader, null)) {
+				ChangeType type = entry.getChangeType();
+				if (type == ChangeType.RENAME || type == ChangeType.COPY) {
+					result.putIfAbsent(entry.getNewPath(), entry.getOldPath());
+				}
+			}
+		}
+		if (GitTraceLocation.QUICKDIFF.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.QUICKDIFF.getLocation(),
+					"(BaselineRenames) computed " + result.size() //$NON-NLS-1$
+							+ " renames against " + baselineCommit.name()); //$NON-NLS-1$
+		}
+		baseline = baselineCommit.copy();
+		index = current;
+		renames = result;
+		return renames;
+	}
+}
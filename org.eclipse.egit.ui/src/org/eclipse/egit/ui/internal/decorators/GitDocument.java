@@ -11,7 +11,6 @@
 package org.eclipse.egit.ui.internal.decorators;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.WeakHashMap;
@@ -28,11 +27,6 @@
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
 import org.eclipse.jface.text.Document;
-import org.eclipse.jgit.diff.DiffConfig;
-import org.eclipse.jgit.diff.DiffConfig.RenameDetectionType;
-import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.RenameDetector;
-import org.eclipse.jgit.dircache.DirCacheIterator;
 import org.eclipse.jgit.events.ListenerHandle;
 import org.eclipse.jgit.events.RefsChangedEvent;
 import org.eclipse.jgit.events.RefsChangedListener;
@@ -40,12 +34,10 @@
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
-import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.util.LfsFactory;
 import org.eclipse.osgi.util.NLS;
@@ -158,27 +150,10 @@ void populate() throws IOException {
 		RevCommit baselineCommit;
 		String oldPath = gitPath;
 
-		try (RevWalk rw = new RevWalk(repository);
-				ObjectReader reader = repository.newObjectReader()) {
+		try (RevWalk rw = new RevWalk(repository)) {
 			baselineCommit = rw.parseCommit(commitId);
-			DiffConfig diffConfig = repository.getConfig().get(DiffConfig.KEY);
-			if (diffConfig.getRenameDetectionType() != RenameDetectionType.FALSE) {
-				TreeWalk walk = new TreeWalk(repository);
-				CanonicalTreeParser baseLineIterator = new CanonicalTreeParser();
-				baseLineIterator.reset(reader, baselineCommit.getTree());
-				walk.addTree(baseLineIterator);
-				walk.addTree(new DirCacheIterator(repository.readDirCache()));
-				List<DiffEntry> diffs = DiffEntry.scan(walk, true);
-				RenameDetector renameDetector = new RenameDetector(repository);
-				renameDetector.addAll(diffs);
-				List<DiffEntry> renames = renameDetector.compute();
-				for (DiffEntry e : renames) {
-					if (e.getNewPath().equals(gitPath)) {
-						oldPath = e.getOldPath();
-						break;
-					}
-				}
-			}
+			oldPath = BaselineRenames.get(repository)
+					.getOldPath(baselineCommit, gitPath);
 		} catch (IOException err) {
 			String msg = NLS.bind(UIText.GitDocument_errorLoadCommit,
 					new Object[] { commitId, baseline, resource, repository });
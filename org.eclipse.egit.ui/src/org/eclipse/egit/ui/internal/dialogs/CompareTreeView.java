@@ -80,10 +80,9 @@
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
 import org.eclipse.jgit.dircache.DirCacheIterator;
-import org.eclipse.jgit.errors.IncorrectObjectTypeException;
-import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
@@ -173,6 +172,9 @@ public class CompareTreeView extends ViewPart implements IMenuListener, IShowInS
 
 	private boolean showEquals = false;
 
+	/** Whether the node maps also contain files with equal content. */
+	private boolean mapsContainEquals = false;
+
 	@Override
 	public void createPartControl(Composite parent) {
 		Composite main = new Composite(parent, SWT.NONE);
@@ -225,7 +227,8 @@ public void apply(boolean value) {
 				UIText.CompareTreeView_EqualFilesTooltip) {
 			@Override
 			public void apply(boolean value) {
-				buildTrees(false);
+				// Equal files are only collected if they are to be shown
+				buildTrees(value && !mapsContainEquals);
 			}
 		};
 		showEqualsAction.setImageDescriptor(UIIcons.ELCL16_FILTER);
@@ -530,8 +533,9 @@ public void run() {
 		}
 	}
 
-	private void buildMaps(Repository repository, RevCommit baseCommit,
-			RevCommit compareCommit, IProgressMonitor monitor)
+	private void buildMaps(@NonNull Repository repository,
+			RevCommit baseCommit, RevCommit compareCommit,
+			IProgressMonitor monitor)
 			throws InterruptedException, IOException {
 		monitor.beginTask(UIText.CompareTreeView_AnalyzingRepositoryTaskText,
 				IProgressMonitor.UNKNOWN);
@@ -540,6 +544,9 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 		fileNodes.clear();
 		containerNodes.clear();
 		boolean checkIgnored = false;
+		mapsContainEquals = showEquals;
+		// The root always exists, so that "no differences" can be shown
+		getOrCreateContainerNode(Path.EMPTY);
 		try (TreeWalk tw = new TreeWalk(repository)) {
 			int baseTreeIndex;
 			if (baseCommit == null) {
@@ -547,32 +554,39 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 				baseTreeIndex = tw.addTree(new FileTreeIterator(repository));
 			} else
 				baseTreeIndex = tw.addTree(new CanonicalTreeParser(null,
-						repository.newObjectReader(), baseCommit.getTree()));
+						tw.getObjectReader(), baseCommit.getTree()));
 			int compareTreeIndex;
 			if (!useIndex)
 				compareTreeIndex = tw.addTree(new CanonicalTreeParser(null,
-						repository.newObjectReader(), compareCommit.getTree()));
+						tw.getObjectReader(), compareCommit.getTree()));
 			else
 				compareTreeIndex = tw.addTree(new DirCacheIterator(repository
 						.readDirCache()));
 
+			List<TreeFilter> filters = new ArrayList<>(3);
 			if (input instanceof IResource[]) {
 				IResource[] resources = (IResource[]) input;
 				TreeFilter pathFilter = filterPaths(Arrays.stream(resources)
 						.map(r -> repositoryMapping.getRepoRelativePath(r))
 						.filter(p -> p != null && !p.isEmpty())
 						.collect(Collectors.toList()));
+				if (pathFilter != null) {
+					filters.add(pathFilter);
+				}
 				if (checkIgnored) {
-					if (pathFilter != null) {
-						tw.setFilter(AndTreeFilter.create(pathFilter,
-								new NotIgnoredFilter(baseTreeIndex)));
-					} else {
-						tw.setFilter(new NotIgnoredFilter(baseTreeIndex));
-					}
-				} else if (pathFilter != null) {
-					tw.setFilter(pathFilter);
+					filters.add(new NotIgnoredFilter(baseTreeIndex));
 				}
 			}
+			if (!showEquals) {
+				// Skips equal files, and subtrees with equal tree ids without
+				// looking into them
+				filters.add(TreeFilter.ANY_DIFF);
+			}
+			if (filters.size() == 1) {
+				tw.setFilter(filters.get(0));
+			} else if (filters.size() > 1) {
+				tw.setFilter(AndTreeFilter.create(filters));
+			}
 
 			tw.setRecursive(true);
 			while (tw.next()) {
@@ -590,22 +604,10 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 						: compareVersionIterator.getEntryPathString();
 				IPath currentPath = new Path(repoRelativePath);
 
-				// Updating the progress bar is slow, so just sample it. To
-				// make sure slow compares are reflected in the progress
-				// monitor also update before comparing large files.
+				// Updating the progress bar is slow, so just sample it.
 				long currentTimeMilliseconds = System.currentTimeMillis();
-				long size1 = -1;
-				long size2 = -1;
-				if (compareVersionIterator != null
-						&& baseVersionIterator != null) {
-					size1 = getEntrySize(tw, compareVersionIterator);
-					size2 = getEntrySize(tw, baseVersionIterator);
-				}
-				final long REPORTSIZE = 100000;
-				if (size1 > REPORTSIZE
-						|| size2 > REPORTSIZE
-						|| currentTimeMilliseconds - previousTimeMilliseconds > 500) {
-					monitor.setTaskName(currentPath.toString());
+				if (currentTimeMilliseconds - previousTimeMilliseconds > 500) {
+					monitor.setTaskName(repoRelativePath);
 					previousTimeMilliseconds = currentTimeMilliseconds;
 				}
 
@@ -674,7 +676,7 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 
 				IPath containerPath = currentPath.removeLastSegments(1);
 				ContainerNode containerNode = getOrCreateContainerNode(
-						containerPath, type);
+						containerPath);
 
 				FileNode fileNode = new FileNode(currentPath, file, type, left,
 						right);
@@ -683,12 +685,16 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 
 				// If a file is not "equal content", the container nodes up to
 				// the root must be shown in any case, so propagate the
-				// change of the "only equal content" flag.
+				// change of the "only equal content" flag. Once a node has
+				// been switched, all its ancestors have been switched, too.
 				if (type != Type.FILE_BOTH_SIDES_SAME) {
 					IPath path = currentPath;
 					while (path.segmentCount() > 0) {
 						path = path.removeLastSegments(1);
 						ContainerNode node = containerNodes.get(path);
+						if (!node.isOnlyEqualContent()) {
+							break;
+						}
 						node.setOnlyEqualContent(false);
 					}
 				}
@@ -705,23 +711,7 @@ private TreeFilter filterPaths(Collection<String> paths) {
 		return PathFilterGroup.createFromStrings(paths);
 	}
 
-	private long getEntrySize(TreeWalk tw, AbstractTreeIterator iterator)
-			throws MissingObjectException, IncorrectObjectTypeException,
-			IOException {
-		if (iterator instanceof FileTreeIterator) {
-			return ((FileTreeIterator) iterator).getEntryContentLength();
-		}
-		try {
-			return tw.getObjectReader().getObjectSize(
-					iterator.getEntryObjectId(), Constants.OBJ_BLOB);
-		} catch (MissingObjectException e) {
-			// in case the object is not stored as a blob and not
-			// one of the known iterator types above, say zero.
-			return 0;
-		}
-	}
-
-	private ContainerNode getOrCreateContainerNode(IPath containerPath, Type fileType) {
+	private ContainerNode getOrCreateContainerNode(IPath containerPath) {
 		ContainerNode containerNode = containerNodes.get(containerPath);
 		if (containerNode != null) {
 			return containerNode;
@@ -731,12 +721,13 @@ private ContainerNode getOrCreateContainerNode(IPath containerPath, Type fileTyp
 					.getContainerForLocation(repository,
 							containerPath.toString());
 			ContainerNode node = new ContainerNode(containerPath, resource);
-			node.setOnlyEqualContent(fileType == Type.FILE_BOTH_SIDES_SAME);
+			// Cleared when a file with different content is added below
+			node.setOnlyEqualContent(true);
 			containerNodes.put(containerPath, node);
 			if (containerPath.segmentCount() > 0) {
 				IPath parentPath = containerPath.removeLastSegments(1);
-				ContainerNode parentNode = getOrCreateContainerNode(parentPath,
-						fileType);
+				ContainerNode parentNode = getOrCreateContainerNode(
+						parentPath);
 				parentNode.addChild(node);
 			}
 			return node;
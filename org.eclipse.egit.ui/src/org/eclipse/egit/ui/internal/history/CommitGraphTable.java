@@ -29,6 +29,7 @@
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.commands.IParameter;
@@ -146,9 +147,7 @@ static Font highlightFont() {
 
 	private SWTCommitList allCommits;
 
-	private SWTCommit[] allCommitsArray;
-
-	private int allCommitsLength = 0;
+	private final GraphContentProvider contentProvider;
 
 	// used for resolving PlotCommit objects by ids
 	private HashMap<String, PlotCommit> commitsMap = null;
@@ -178,6 +177,7 @@ static Font highlightFont() {
 		nFont = UIUtils.getFont(UIPreferences.THEME_CommitGraphNormalFont);
 		hFont = highlightFont();
 		tableLoader = loader;
+		contentProvider = new GraphContentProvider();
 
 		tableContainer = new Composite(parent, SWT.NONE);
 		final Table rawTable = new Table(tableContainer,
@@ -281,6 +281,31 @@ protected void mapElement(final Object element, final Widget item) {
 				}
 				((SWTCommit) element).widget = item;
 			}
+
+			@Override
+			protected void setSelectionToWidget(List list, boolean reveal) {
+				// The default implementation materializes all rows up to the
+				// selected commits; we know their indices.
+				if (list == null) {
+					super.setSelectionToWidget(list, reveal);
+					return;
+				}
+				CommitListView commits = contentProvider.getCommits();
+				int[] indices = new int[list.size()];
+				for (int i = 0; i < indices.length; i++) {
+					indices[i] = commits.indexOf(list.get(i));
+					if (indices[i] < 0) {
+						super.setSelectionToWidget(list, reveal);
+						return;
+					}
+				}
+				Table t = getTable();
+				t.deselectAll();
+				t.select(indices);
+				if (reveal && indices.length > 0) {
+					t.showSelection();
+				}
+			}
 		};
 
 		GraphLabelProvider graphLabelProvider = new GraphLabelProvider(
@@ -292,7 +317,7 @@ public void labelProviderChanged(LabelProviderChangedEvent event) {
 			}
 		});
 		table.setLabelProvider(graphLabelProvider);
-		table.setContentProvider(new GraphContentProvider());
+		table.setContentProvider(contentProvider);
 		renderer = new SWTPlotRenderer(rawTable, resources);
 
 		clipboard = new Clipboard(rawTable.getDisplay());
@@ -300,7 +325,6 @@ public void labelProviderChanged(LabelProviderChangedEvent event) {
 			@Override
 			public void widgetDisposed(final DisposeEvent e) {
 				clipboard.dispose();
-				allCommitsArray = null;
 			}
 		});
 
@@ -452,35 +476,41 @@ private void doCopy() {
 	}
 
 	void setInput(final RevFlag hFlag, final SWTCommitList list,
-			final SWTCommit[] asArray, HistoryPageInput input, boolean keepPosition) {
+			final CommitListView commits, HistoryPageInput input,
+			boolean keepPosition) {
 		Table t = table.getTable();
-		String topCommitName = null;
-		if (keepPosition) {
-			int i = t.getTopIndex();
-			if (i >= 0 && i < t.getItemCount()
-					&& i < allCommitsLength
-					&& allCommitsArray != null) {
-				// We have a virtual table, so item.getData() may return null...
-				topCommitName = allCommitsArray[i].getId().name();
-			}
-		}
+		CommitListView newCommits = commits == null ? CommitListView.EMPTY
+				: commits;
+		CommitListView oldCommits = contentProvider.getCommits();
 		setHistoryPageInput(input);
 		final SWTCommitList oldList = allCommits;
 		highlight = hFlag;
 		allCommits = list;
-		int newAllCommitsLength = asArray == null ? 0 : asArray.length;
-		int topIndex = -1;
-		if (newAllCommitsLength > 0) {
-			if (oldList != list || allCommitsLength < newAllCommitsLength) {
-				topIndex = initCommitsMap(asArray, topCommitName);
-			} else {
-				topIndex = findCommit(asArray, topCommitName);
+		if (oldList == list && oldCommits.size() > 0
+				&& newCommits.size() >= oldCommits.size()) {
+			// More commits of the same list: only the new ones need to be
+			// handled. Existing rows keep their positions, but lanes passing
+			// through them may have changed.
+			addToCommitsMap(newCommits, oldCommits.size());
+			contentProvider.append(newCommits);
+			t.redraw();
+			if (commitToShow != null) {
+				selectCommit(commitToShow);
+			}
+			return;
+		}
+		String topCommitName = null;
+		if (keepPosition) {
+			int i = t.getTopIndex();
+			if (i >= 0 && i < t.getItemCount() && i < oldCommits.size()) {
+				// We have a virtual table, so item.getData() may return null...
+				topCommitName = oldCommits.get(i).getId().name();
 			}
 		}
-		allCommitsArray = asArray;
-		allCommitsLength = newAllCommitsLength;
-		table.setInput(asArray);
-		if (newAllCommitsLength > 0) {
+		commitsMap = new HashMap<>();
+		int topIndex = addToCommitsMap(newCommits, 0, topCommitName);
+		table.setInput(newCommits);
+		if (newCommits.size() > 0) {
 			if (commitToShow != null) {
 				selectCommit(commitToShow);
 			}
@@ -498,35 +528,26 @@ void setHistoryPageInput(HistoryPageInput input) {
 		this.input = input;
 	}
 
-	private int initCommitsMap(SWTCommit[] asArray, String topName) {
+	private void addToCommitsMap(CommitListView commits, int from) {
+		addToCommitsMap(commits, from, null);
+	}
+
+	private int addToCommitsMap(CommitListView commits, int from,
+			String topName) {
 		int topIndex = -1;
-		commitsMap = new HashMap<>();
-		for (SWTCommit commit : asArray) {
+		for (int i = from; i < commits.size(); i++) {
+			SWTCommit commit = commits.get(i);
 			if (commit != null) {
 				String name = commit.getId().name();
 				commitsMap.put(name, commit);
 				if (name.equals(topName)) {
-					topIndex = commitsMap.size() - 1;
+					topIndex = i;
 				}
 			}
 		}
 		return topIndex;
 	}
 
-	private int findCommit(SWTCommit[] asArray, String topName) {
-		int index = 0;
-		for (SWTCommit commit : asArray) {
-			if (commit != null) {
-				String name = commit.getId().name();
-				if (name.equals(topName)) {
-					return index;
-				}
-			}
-			index++;
-		}
-		return -1;
-	}
-
 	private void createColumns(Table rawTable) {
 		final TableColumn commitId = new TableColumn(rawTable, SWT.NONE);
 		commitId.setResizable(true);
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.history;
+
+import java.util.Arrays;
+
+/**
+ * An immutable view of the first {@link #size()} commits of an append-only
+ * list of {@link SWTCommit}s.
+ * <p>
+ * Commits are stored in fixed-size segments that are never moved once
+ * allocated. Appending commits through a {@link Builder} and taking a new
+ * view thus costs time proportional to the number of appended commits only;
+ * views taken earlier remain valid and unchanged. A builder must be used by
+ * a single thread; views may be handed to other threads once they have been
+ * published safely, for instance through {@code Display.asyncExec()}.
+ * </p>
+ */
+class CommitListView {
+
+	/** The empty view. */
+	static final CommitListView EMPTY = new CommitListView(
+			new SWTCommit[0][], 0);
+
+	private static final int SEGMENT_SHIFT = 10;
+
+	private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+	private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+	private final SWTCommit[][] segments;
+
+	private final int size;
+
+	private CommitListView(SWTCommit[][] segments, int size) {
+		this.segments = segments;
+		this.size = size;
+	}
+
+	/**
+	 * @return the number of commits in this view
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param index
+	 *            of the commit, in the range [0, {@link #size()})
+	 * @return the commit at the given index
+	 */
+	SWTCommit get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					index + " not in [0, " + size + ')'); //$NON-NLS-1$
+		}
+		return segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+	}
+
+	/**
+	 * Determines the index of a commit in constant time.
+	 *
+	 * @param element
+	 *            to find
+	 * @return the index of the commit in this view, or -1 if it is not
+	 *         contained
+	 */
+	int indexOf(Object element) {
+		if (!(element instanceof SWTCommit)) {
+			return -1;
+		}
+		int index = ((SWTCommit) element).listIndex;
+		if (index >= 0 && index < size && get(index) == element) {
+			return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Tells whether this view contains all commits of another view, at the
+	 * same positions.
+	 *
+	 * @param prefix
+	 *            view to check
+	 * @return {@code true} if {@code prefix} is a view of the same list that
+	 *         is not longer than this one
+	 */
+	boolean startsWith(CommitListView prefix) {
+		int length = prefix.size();
+		return length == 0 || length <= size
+				&& get(length - 1) == prefix.get(length - 1);
+	}
+
+	/**
+	 * Appends commits to a list and creates views of it.
+	 */
+	static class Builder {
+
+		private SWTCommit[][] segments = new SWTCommit[4][];
+
+		private int size;
+
+		/**
+		 * @return the number of commits appended so far
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Appends a commit. A commit can be contained in only one list.
+		 *
+		 * @param commit
+		 *            to append
+		 */
+		void add(SWTCommit commit) {
+			int segment = size >>> SEGMENT_SHIFT;
+			if (segment == segments.length) {
+				// Views keep referencing the old, shorter array.
+				segments = Arrays.copyOf(segments, 2 * segments.length);
+			}
+			if (segments[segment] == null) {
+				segments[segment] = new SWTCommit[SEGMENT_SIZE];
+			}
+			segments[segment][size & SEGMENT_MASK] = commit;
+			commit.listIndex = size;
+			size++;
+		}
+
+		/**
+		 * @return a view of the commits appended so far
+		 */
+		CommitListView build() {
+			return size == 0 ? EMPTY : new CommitListView(segments, size);
+		}
+	}
+}
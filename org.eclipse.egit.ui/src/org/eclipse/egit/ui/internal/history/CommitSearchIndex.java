@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.history;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.egit.core.internal.commitindex.CommitIndex;
+import org.eclipse.egit.core.internal.commitindex.CommitIndexCache;
+import org.eclipse.egit.ui.Activator;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * A search index over the commits of a {@link CommitListView} and of all
+ * views extending it, used by the {@link FindToolbarJob}.
+ * <p>
+ * The searchable texts of a commit are decoded, and lower-cased, only once,
+ * when the commit is first searched. They are taken from the repository's
+ * {@link CommitIndex} if it contains the commit; otherwise the commit's body
+ * is parsed. Matching is split across the common
+ * fork-join pool. The index remembers the result of the last search; if the
+ * next search pattern contains the previous one, only the previous matches
+ * and commits added since then are examined.
+ * </p>
+ * <p>
+ * Searches must not run concurrently; the {@link FindToolbarJob}s are
+ * serialized by a scheduling rule.
+ * </p>
+ */
+class CommitSearchIndex {
+
+	/** Number of commits a single fork-join task examines. */
+	private static final int CHUNK_SIZE = 1024;
+
+	private static final int ID = 0;
+
+	private static final int MESSAGE = 1;
+
+	private static final int AUTHOR_NAME = 2;
+
+	private static final int AUTHOR_EMAIL = 3;
+
+	private static final int COMMITTER_NAME = 4;
+
+	private static final int COMMITTER_EMAIL = 5;
+
+	private static final int FIELD_COUNT = 6;
+
+	/** Sentinel for commits whose body could not be parsed. */
+	private static final Entry UNREADABLE = new Entry(new String[0]);
+
+	/**
+	 * What to search for.
+	 */
+	static class Query {
+
+		final String pattern;
+
+		final boolean ignoreCase;
+
+		final boolean commitId;
+
+		final boolean comments;
+
+		final boolean author;
+
+		final boolean committer;
+
+		final boolean reference;
+
+		/**
+		 * @param pattern
+		 *            to find
+		 * @param ignoreCase
+		 *            whether to search case-insensitively
+		 * @param commitId
+		 *            whether to search commit ids
+		 * @param comments
+		 *            whether to search commit messages
+		 * @param author
+		 *            whether to search author names and e-mail addresses
+		 * @param committer
+		 *            whether to search committer names and e-mail addresses
+		 * @param reference
+		 *            whether to search the names of refs
+		 */
+		Query(String pattern, boolean ignoreCase, boolean commitId,
+				boolean comments, boolean author, boolean committer,
+				boolean reference) {
+			this.pattern = ignoreCase ? pattern.toLowerCase(Locale.ROOT)
+					: pattern;
+			this.ignoreCase = ignoreCase;
+			this.commitId = commitId;
+			this.comments = comments;
+			this.author = author;
+			this.committer = committer;
+			this.reference = reference;
+		}
+
+		/**
+		 * Tells whether every commit matching this query also matches the
+		 * {@code previous} one.
+		 *
+		 * @param previous
+		 *            query to compare to
+		 * @return {@code true} if this query only narrows {@code previous}
+		 */
+		boolean refines(Query previous) {
+			return ignoreCase == previous.ignoreCase
+					&& commitId == previous.commitId
+					&& comments == previous.comments
+					&& author == previous.author
+					&& committer == previous.committer
+					&& reference == previous.reference
+					&& pattern.contains(previous.pattern);
+		}
+
+		boolean matches(SWTCommit commit, Entry entry) {
+			String[] fields = ignoreCase ? entry.lowerFields : entry.fields;
+			if (commitId && fields[ID].contains(pattern.trim())) {
+				return true;
+			}
+			if (comments && fields[MESSAGE].contains(pattern)) {
+				return true;
+			}
+			if (author && (fields[AUTHOR_NAME].contains(pattern)
+					|| fields[AUTHOR_EMAIL].contains(pattern))) {
+				return true;
+			}
+			if (committer && (fields[COMMITTER_NAME].contains(pattern)
+					|| fields[COMMITTER_EMAIL].contains(pattern))) {
+				return true;
+			}
+			if (reference) {
+				for (int i = 0; i < commit.getRefCount(); i++) {
+					String name = Repository
+							.shortenRefName(commit.getRef(i).getName());
+					if (ignoreCase) {
+						name = name.toLowerCase(Locale.ROOT);
+					}
+					if (name.contains(pattern)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class Entry {
+
+		final String[] fields;
+
+		final String[] lowerFields;
+
+		Entry(String[] fields) {
+			this.fields = fields;
+			lowerFields = new String[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				lowerFields[i] = fields[i].toLowerCase(Locale.ROOT);
+			}
+		}
+	}
+
+	private Entry[] entries = new Entry[0];
+
+	private CommitIndex commitIndex;
+
+	private Query lastQuery;
+
+	private int[] lastMatches;
+
+	private int lastSize;
+
+	/**
+	 * Finds the commits matching a query.
+	 *
+	 * @param commits
+	 *            to search; must be the view this index was created for or a
+	 *            view extending it
+	 * @param query
+	 *            to run
+	 * @param monitor
+	 *            for cancellation
+	 * @return the indices of the matching commits in ascending order, or
+	 *         {@code null} if canceled
+	 */
+	@Nullable
+	int[] find(CommitListView commits, Query query, IProgressMonitor monitor) {
+		int size = commits.size();
+		if (entries.length < size) {
+			entries = Arrays.copyOf(entries,
+					Math.max(size, 2 * entries.length));
+		}
+		if (commitIndex == null && size > 0) {
+			Repository repository = commits.get(0).getRepository();
+			if (repository != null) {
+				commitIndex = CommitIndexCache.getInstance()
+						.getIndex(repository);
+			}
+		}
+		int[] candidates;
+		if (lastQuery != null && lastSize <= size && query.refines(lastQuery)) {
+			candidates = Arrays.copyOf(lastMatches,
+					lastMatches.length + size - lastSize);
+			for (int i = lastSize, j = lastMatches.length; i < size; i++) {
+				candidates[j++] = i;
+			}
+		} else {
+			candidates = new int[size];
+			for (int i = 0; i < size; i++) {
+				candidates[i] = i;
+			}
+		}
+		int[] matches = ForkJoinPool.commonPool().invoke(new Search(commits,
+				query, candidates, 0, candidates.length, monitor));
+		if (monitor.isCanceled()) {
+			return null;
+		}
+		lastQuery = query;
+		lastMatches = matches;
+		lastSize = size;
+		return matches;
+	}
+
+	private Entry getEntry(SWTCommit commit, int index) {
+		Entry entry = entries[index];
+		if (entry == null) {
+			CommitIndex.Entry indexed = commitIndex != null
+					? commitIndex.lookup(commit)
+					: null;
+			entry = indexed != null ? createEntry(indexed) : createEntry(commit);
+			// Each index is handled by exactly one task.
+			entries[index] = entry;
+		}
+		return entry;
+	}
+
+	private static Entry createEntry(CommitIndex.Entry commit) {
+		String[] fields = new String[FIELD_COUNT];
+		fields[ID] = commit.name();
+		fields[MESSAGE] = nonNull(commit.getMessage());
+		fields[AUTHOR_NAME] = nonNull(commit.getAuthorName());
+		fields[AUTHOR_EMAIL] = nonNull(commit.getAuthorEmail());
+		fields[COMMITTER_NAME] = nonNull(commit.getCommitterName());
+		fields[COMMITTER_EMAIL] = nonNull(commit.getCommitterEmail());
+		return new Entry(fields);
+	}
+
+	private static Entry createEntry(SWTCommit commit) {
+		try {
+			commit.parseBody();
+			PersonIdent author = commit.getAuthorIdent();
+			PersonIdent committer = commit.getCommitterIdent();
+			String[] fields = new String[FIELD_COUNT];
+			fields[ID] = commit.getId().name();
+			fields[MESSAGE] = commit.getFullMessage();
+			fields[AUTHOR_NAME] = author.getName();
+			fields[AUTHOR_EMAIL] = author.getEmailAddress();
+			fields[COMMITTER_NAME] = committer.getName();
+			fields[COMMITTER_EMAIL] = committer.getEmailAddress();
+			return new Entry(fields);
+		} catch (IOException e) {
+			Activator.logError("Error parsing body", e); //$NON-NLS-1$
+			return UNREADABLE;
+		}
+	}
+
+	private static String nonNull(String value) {
+		return value != null ? value : ""; //$NON-NLS-1$
+	}
+
+	private class Search extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final CommitListView commits;
+
+		private final Query query;
+
+		private final int[] candidates;
+
+		private final int from;
+
+		private final int to;
+
+		private final IProgressMonitor monitor;
+
+		Search(CommitListView commits, Query query, int[] candidates,
+				int from, int to, IProgressMonitor monitor) {
+			this.commits = commits;
+			this.query = query;
+			this.candidates = candidates;
+			this.from = from;
+			this.to = to;
+			this.monitor = monitor;
+		}
+
+		@Override
+		protected int[] compute() {
+			if (to - from > CHUNK_SIZE) {
+				int middle = (from + to) >>> 1;
+				Search upper = new Search(commits, query, candidates, middle,
+						to, monitor);
+				upper.fork();
+				int[] lower = new Search(commits, query, candidates, from,
+						middle, monitor).compute();
+				int[] higher = upper.join();
+				int[] result = Arrays.copyOf(lower,
+						lower.length + higher.length);
+				System.arraycopy(higher, 0, result, lower.length,
+						higher.length);
+				return result;
+			}
+			if (monitor.isCanceled()) {
+				return new int[0];
+			}
+			int[] result = new int[to - from];
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				int index = candidates[i];
+				SWTCommit commit = commits.get(index);
+				Entry entry = getEntry(commit, index);
+				if (entry != UNREADABLE && query.matches(commit, entry)) {
+					result[count++] = index;
+				}
+			}
+			return Arrays.copyOf(result, count);
+		}
+	}
+}
@@ -264,8 +264,12 @@ private void updateUi() {
 				Integer.valueOf(allCommits.size()),
 				GitLabels.getPlainShortLabel(repository)));
 		setMessage(UIText.CommitSelectionDialog_DialogMessage);
-		SWTCommit[] allCommitsArray = allCommits.toArray(new SWTCommit[0]);
-		table.setInput(highlightFlag, allCommits, allCommitsArray, null, true);
+		CommitListView.Builder builder = new CommitListView.Builder();
+		for (int i = 0; i < allCommits.size(); i++) {
+			builder.add((SWTCommit) allCommits.get(i));
+		}
+		CommitListView commits = builder.build();
+		table.setInput(highlightFlag, allCommits, commits, null, true);
 		searchBar.setInput(new ICommitsProvider() {
 
 			@Override
@@ -274,8 +278,8 @@ public Object getSearchContext() {
 			}
 
 			@Override
-			public SWTCommit[] getCommits() {
-				return allCommitsArray;
+			public CommitListView getCommits() {
+				return commits;
 			}
 
 			@Override
@@ -145,6 +145,28 @@ public static FileDiff[] compute(Repository repository, TreeWalk walk,
 			@Nullable IProgressMonitor monitor, TreeFilter... markTreeFilters)
 			throws MissingObjectException, IncorrectObjectTypeException,
 			CorruptObjectException, IOException {
+		FileDiffCache cache = FileDiffCache.getInstance();
+		FileDiffCache.Key key = FileDiffCache.createKey(repository, walk,
+				commit, parents, markTreeFilters);
+		if (key != null) {
+			FileDiff[] cached = cache.get(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		FileDiff[] result = computeDiffs(repository, walk, commit, parents,
+				monitor, markTreeFilters);
+		// Results of a canceled computation may be incomplete
+		if (key != null && (monitor == null || !monitor.isCanceled())) {
+			cache.put(key, result);
+		}
+		return result;
+	}
+
+	private static FileDiff[] computeDiffs(Repository repository,
+			TreeWalk walk, RevCommit commit, RevCommit[] parents,
+			@Nullable IProgressMonitor monitor, TreeFilter... markTreeFilters)
+			throws IOException {
 
 		final ArrayList<FileDiff> r = new ArrayList<>();
 
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.history;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * A cache for the results of {@link FileDiff#compute}, so that going back and
+ * forth in the history, or opening a commit already shown, doesn't run the
+ * tree walk and rename detection again. Results are held through soft
+ * references, and the cache holds at most {@value #MAX_DIFFS} file diffs in
+ * total, evicting the least recently used results first.
+ */
+class FileDiffCache {
+
+	private static final int MAX_DIFFS = 100_000;
+
+	private static final FileDiffCache INSTANCE = new FileDiffCache();
+
+	private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f,
+			true);
+
+	private int size;
+
+	private long hits;
+
+	private long misses;
+
+	private FileDiffCache() {
+		// Singleton
+	}
+
+	/**
+	 * @return the shared instance
+	 */
+	static FileDiffCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Creates a key for a {@link FileDiff#compute} call.
+	 *
+	 * @param repository
+	 *            the diffs are computed in
+	 * @param walk
+	 *            used to compute the diffs; its filter is part of the key
+	 * @param commit
+	 *            to compute the diffs of
+	 * @param parents
+	 *            to compare the commit against
+	 * @param markTreeFilters
+	 *            used to mark the diffs
+	 * @return the key, or {@code null} if results for the repository cannot
+	 *         be cached
+	 */
+	@Nullable
+	static Key createKey(Repository repository, TreeWalk walk,
+			RevCommit commit, RevCommit[] parents,
+			TreeFilter[] markTreeFilters) {
+		File gitDir = repository.getDirectory();
+		if (gitDir == null) {
+			return null;
+		}
+		return new Key(gitDir, commit, parents, walk, markTreeFilters);
+	}
+
+	/**
+	 * Looks up cached diffs.
+	 *
+	 * @param key
+	 *            to look up
+	 * @return a copy of the cached diffs, or {@code null} if none are cached
+	 */
+	synchronized FileDiff[] get(Key key) {
+		Entry entry = entries.get(key);
+		FileDiff[] diffs = entry != null ? entry.diffs.get() : null;
+		if (diffs == null) {
+			if (entry != null) {
+				entries.remove(key);
+				size -= entry.size;
+			}
+			misses++;
+		} else {
+			hits++;
+		}
+		if (GitTraceLocation.HISTORYVIEW.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.HISTORYVIEW.getLocation(),
+					"FileDiff cache " + (diffs != null ? "hit" : "miss") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+							+ " for " + key.commit.name() + " (hits: " + hits //$NON-NLS-1$ //$NON-NLS-2$
+							+ ", misses: " + misses + ')'); //$NON-NLS-1$
+		}
+		return diffs != null ? diffs.clone() : null;
+	}
+
+	/**
+	 * Caches diffs.
+	 *
+	 * @param key
+	 *            to cache the diffs under
+	 * @param diffs
+	 *            to cache; the array is copied
+	 */
+	synchronized void put(Key key, FileDiff[] diffs) {
+		if (diffs.length > MAX_DIFFS) {
+			return;
+		}
+		Entry previous = entries.put(key, new Entry(diffs.clone()));
+		if (previous != null) {
+			size -= previous.size;
+		}
+		size += diffs.length;
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (size > MAX_DIFFS && eldest.hasNext()) {
+			size -= eldest.next().size;
+			eldest.remove();
+		}
+	}
+
+	private static class Entry {
+
+		final SoftReference<FileDiff[]> diffs;
+
+		final int size;
+
+		Entry(FileDiff[] diffs) {
+			this.diffs = new SoftReference<>(diffs);
+			this.size = diffs.length;
+		}
+	}
+
+	/**
+	 * Identifies a {@link FileDiff#compute} call. Tree filters don't
+	 * implement equality; they are compared through their string
+	 * representation, which JGit's filters base on their parameters.
+	 */
+	static class Key {
+
+		private final File gitDir;
+
+		private final ObjectId commit;
+
+		private final ObjectId[] parents;
+
+		private final boolean recursive;
+
+		private final String walkFilter;
+
+		private final String markTreeFilters;
+
+		private final int hash;
+
+		Key(File gitDir, RevCommit commit, RevCommit[] parents, TreeWalk walk,
+				TreeFilter[] markTreeFilters) {
+			this.gitDir = gitDir;
+			this.commit = commit.copy();
+			this.parents = new ObjectId[parents.length];
+			for (int i = 0; i < parents.length; i++) {
+				this.parents[i] = parents[i].copy();
+			}
+			this.recursive = walk.isRecursive();
+			this.walkFilter = String.valueOf(walk.getFilter());
+			this.markTreeFilters = Arrays.toString(markTreeFilters);
+			int h = gitDir.hashCode();
+			h = 31 * h + this.commit.hashCode();
+			h = 31 * h + Arrays.hashCode(this.parents);
+			h = 31 * h + walkFilter.hashCode();
+			hash = 31 * h + this.markTreeFilters.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && recursive == other.recursive
+					&& commit.equals(other.commit)
+					&& Arrays.equals(parents, other.parents)
+					&& gitDir.equals(other.gitDir)
+					&& walkFilter.equals(other.walkFilter)
+					&& markTreeFilters.equals(other.markTreeFilters);
+		}
+	}
+}
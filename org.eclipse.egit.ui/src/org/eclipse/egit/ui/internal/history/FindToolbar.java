@@ -122,7 +122,9 @@ public interface StatusListener {
 
 	private Table historyTable;
 
-	private SWTCommit[] fileRevisions;
+	private CommitListView fileRevisions;
+
+	private CommitSearchIndex searchIndex;
 
 	private Text patternField;
 
@@ -645,6 +647,7 @@ private FindToolbarJob createFinder() {
 				findResults);
 		job.pattern = currentPattern;
 		job.fileRevisions = fileRevisions;
+		job.searchIndex = searchIndex;
 		job.ignoreCase = caseItem.getSelection();
 		if (allItem.getSelection()) {
 			job.findInCommitId = true;
@@ -694,19 +697,22 @@ public void run() {
 	 *
 	 * @param hFlag
 	 * @param historyTable
-	 * @param commitArray
+	 * @param commits
 	 */
 	void setInput(final RevFlag hFlag, final Table historyTable,
-			final SWTCommit[] commitArray) {
-		// This may cause a FindBugs warning, but copying the array is probably
-		// not a good idea.
+			final CommitListView commits) {
 		if (job != null) {
 			job.cancel();
 		}
 		// Reset last used pattern -- we must not prevent a re-search when the
 		// input changed.
 		this.lastSearchPattern = null;
-		this.fileRevisions = commitArray;
+		if (searchIndex == null || fileRevisions == null
+				|| commits == null || !commits.startsWith(fileRevisions)) {
+			// Not just more commits of the same list
+			searchIndex = new CommitSearchIndex();
+		}
+		this.fileRevisions = commits;
 		this.historyTable = historyTable;
 		findResults.setHighlightFlag(hFlag);
 	}
@@ -790,7 +796,7 @@ private void notifyListeners(int index) {
 			event.type = SWT.Selection;
 			event.index = index;
 			event.widget = this;
-			event.data = fileRevisions[index];
+			event.data = fileRevisions.get(index);
 			for (Listener toNotify : eventList) {
 				toNotify.handleEvent(event);
 			}
@@ -13,17 +13,12 @@
  *******************************************************************************/
 package org.eclipse.egit.ui.internal.history;
 
-import java.io.IOException;
-
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.egit.ui.Activator;
-import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.lib.Repository;
 
 /**
  * This class executes the search function for the find toolbar. To avoid
@@ -52,7 +47,9 @@ public boolean isConflicting(ISchedulingRule rule) {
 
 	String pattern;
 
-	SWTCommit[] fileRevisions;
+	CommitListView fileRevisions;
+
+	CommitSearchIndex searchIndex;
 
 	boolean ignoreCase;
 
@@ -82,32 +79,23 @@ public FindToolbarJob(String name, FindResults findResults) {
 		setRule(SINGLE_JOB_RULE);
 	}
 
-	private boolean find(String needle, String text) {
-		if (text == null) {
-			return false;
-		}
-		if (ignoreCase) {
-			return text.toLowerCase().contains(needle);
-		}
-		return text.contains(needle);
-	}
-
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
 		findResults.clear();
 
 		if (pattern == null || pattern.isEmpty() || fileRevisions == null
-				|| fileRevisions.length == 0) {
+				|| fileRevisions.size() == 0) {
 			return Status.OK_STATUS;
 		}
-		String findPattern = pattern;
-		if (ignoreCase) {
-			findPattern = pattern.toLowerCase();
+		CommitSearchIndex.Query query = new CommitSearchIndex.Query(pattern,
+				ignoreCase, findInCommitId, findInComments, findInAuthor,
+				findInCommitter, findInReference);
+		SubMonitor progress = SubMonitor.convert(monitor, 1);
+		int[] matches = searchIndex.find(fileRevisions, query, progress);
+		if (matches == null) {
+			return Status.CANCEL_STATUS;
 		}
-
-		int totalRevisions = fileRevisions.length;
-		SubMonitor progress = SubMonitor.convert(monitor, totalRevisions);
-		for (int i = 0; i < totalRevisions; i++) {
+		for (int index : matches) {
 			if (progress.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
@@ -115,74 +103,9 @@ protected IStatus run(IProgressMonitor monitor) {
 				findResults.setOverflow();
 				break;
 			}
-
-			// Finds for the pattern in the revision history.
-			SWTCommit revision = fileRevisions[i];
-			try {
-				revision.parseBody();
-			} catch (IOException e) {
-				Activator.logError("Error parsing body", e); //$NON-NLS-1$
-				continue;
-			}
-
-			if (findInCommitId
-					&& find(findPattern.trim(), revision.getId().name())) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-			if (findInComments
-					&& find(findPattern, revision.getFullMessage())) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-
-			if (findInAuthor && (find(findPattern,
-					revision.getAuthorIdent().getName())
-					|| find(findPattern,
-							revision.getAuthorIdent().getEmailAddress()))) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-
-			if (findInCommitter && (find(findPattern,
-					revision.getCommitterIdent().getName())
-					|| find(findPattern,
-							revision.getCommitterIdent().getEmailAddress()))) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-
-			if (findInReference) {
-				for (int j = 0; j < revision.getRefCount(); j++) {
-					if (progress.isCanceled()) {
-						return Status.CANCEL_STATUS;
-					}
-					Ref ref = revision.getRef(j);
-					String refName = ref.getName();
-					refName = Repository.shortenRefName(refName);
-					if (find(findPattern, refName)) {
-						if (progress.isCanceled()) {
-							return Status.CANCEL_STATUS;
-						}
-						findResults.add(i, revision);
-						break;
-					}
-				}
-			}
-			progress.worked(1);
+			findResults.add(index, fileRevisions.get(index));
 		}
+		progress.worked(1);
 		return progress.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
 	}
 
@@ -40,6 +40,9 @@ class GenerateHistoryJob extends Job {
 
 	private final SWTCommitList loadedCommits;
 
+	/** The part of {@link #loadedCommits} already handed to the page. */
+	private final CommitListView.Builder published;
+
 	private int itemToLoad = 1;
 
 	private RevCommit commitToLoad;
@@ -56,6 +59,8 @@ class GenerateHistoryJob extends Job {
 
 	private int forcedRedrawsAfterListIsCompleted = 0;
 
+	private long startTime;
+
 	GenerateHistoryJob(final GitHistoryPage ghp, @NonNull RevWalk walk,
 			ResourceManager resources) {
 		super(NLS.bind(UIText.HistoryPage_refreshJob,
@@ -66,6 +71,7 @@ class GenerateHistoryJob extends Job {
 		highlightFlag = walk.newFlag("highlight"); //$NON-NLS-1$
 		loadedCommits = new SWTCommitList(resources);
 		loadedCommits.source(walk);
+		published = new CommitListView.Builder();
 		trace = GitTraceLocation.HISTORYVIEW.isActive();
 	}
 
@@ -80,6 +86,9 @@ protected IStatus run(final IProgressMonitor monitor) {
 			if (trace)
 				GitTraceLocation.getTrace().traceEntry(
 						GitTraceLocation.HISTORYVIEW.getLocation());
+			if (lastUpdateCnt == 0) {
+				startTime = System.currentTimeMillis();
+			}
 			final boolean loadIncrementally = !Activator.getDefault()
 					.getPreferenceStore()
 					.getBoolean(UIPreferences.RESOURCEHISTORY_SHOW_FINDTOOLBAR);
@@ -161,9 +170,19 @@ private void updateUI(boolean incomplete) {
 			}
 			if (forcedRedrawsAfterListIsCompleted == 1)
 				forcedRedrawsAfterListIsCompleted++;
-			final SWTCommit[] asArray = new SWTCommit[loadedCommits.size()];
-			loadedCommits.toArray(asArray);
-			page.showCommitList(this, loadedCommits, asArray, commitToShow, incomplete, highlightFlag);
+			// Only the commits loaded since the last update are added; the
+			// view shares everything else with the previous one.
+			for (int i = published.size(); i < loadedCommits.size(); i++) {
+				published.add((SWTCommit) loadedCommits.get(i));
+			}
+			page.showCommitList(this, loadedCommits, published.build(),
+					commitToShow, incomplete, highlightFlag);
+			if (trace && lastUpdateCnt == 0)
+				GitTraceLocation.getTrace().trace(
+						GitTraceLocation.HISTORYVIEW.getLocation(),
+						"First " + loadedCommits.size() + " commits loaded in " //$NON-NLS-1$ //$NON-NLS-2$
+								+ (System.currentTimeMillis() - startTime)
+								+ " ms"); //$NON-NLS-1$
 			commitToShow = null;
 			lastUpdateCnt = loadedCommits.size();
 		} finally {
@@ -1802,7 +1802,7 @@ private void clearHistoryPage() {
 	private void clearViewers() {
 		TableViewer viewer = graph.getTableView();
 		viewer.setSelection(StructuredSelection.EMPTY);
-		viewer.setInput(new SWTCommit[0]);
+		viewer.setInput(CommitListView.EMPTY);
 	}
 
 	@Override
@@ -2365,11 +2365,12 @@ public void run() {
 
 	@SuppressWarnings("boxing")
 	void showCommitList(final Job j, final SWTCommitList list,
-			final SWTCommit[] asArray, final RevCommit toSelect, final boolean incomplete, final RevFlag highlightFlag) {
+			final CommitListView commits, final RevCommit toSelect,
+			final boolean incomplete, final RevFlag highlightFlag) {
 		if (trace)
 			GitTraceLocation.getTrace().traceEntry(
 					GitTraceLocation.HISTORYVIEW.getLocation(),
-					new Object[] { asArray.length });
+					new Object[] { commits.size() });
 		if (job != j || graph.getControl().isDisposed())
 			return;
 
@@ -2377,7 +2378,7 @@ void showCommitList(final Job j, final SWTCommitList list,
 			@Override
 			public void run() {
 				if (!graph.getControl().isDisposed() && job == j) {
-					graph.setInput(highlightFlag, list, asArray, input, true);
+					graph.setInput(highlightFlag, list, commits, input, true);
 					if (toSelect != null)
 						graph.selectCommit(toSelect);
 					if (getFollowRenames())
@@ -2395,8 +2396,8 @@ public Object getSearchContext() {
 						}
 
 						@Override
-						public SWTCommit[] getCommits() {
-							return asArray;
+						public CommitListView getCommits() {
+							return commits;
 						}
 
 						@Override
@@ -18,6 +18,7 @@
 import org.eclipse.egit.ui.Activator;
 import org.eclipse.egit.ui.UIPreferences;
 import org.eclipse.egit.ui.internal.UIText;
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
@@ -69,6 +70,7 @@ protected void reset(int retainFlags) {
 	 *             on errors
 	 */
 	private void initialize() throws IOException {
+		long start = System.currentTimeMillis();
 		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
 		RefDatabase db = getRepository().getRefDatabase();
 		try {
@@ -94,6 +96,12 @@ private void initialize() throws IOException {
 					e);
 		}
 		initialized = true;
+		if (GitTraceLocation.HISTORYVIEW.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.HISTORYVIEW.getLocation(),
+					"Start points set in " //$NON-NLS-1$
+							+ (System.currentTimeMillis() - start) + " ms"); //$NON-NLS-1$
+		}
 	}
 
 	private void markStartAllRefs(RefDatabase db, String prefix)
@@ -135,7 +143,23 @@ private void markStart(ObjectId id)
 
 	private void markStartRef(Ref ref)
 			throws IOException, IncorrectObjectTypeException {
-		markStart(ref.getLeaf().getObjectId());
+		markStart(getTarget(ref));
+	}
+
+	/**
+	 * Determines the object a ref finally points to. Refs read from a
+	 * packed-refs file written by git gc carry the peeled id of annotated
+	 * tags, which saves us from loading the tag objects.
+	 *
+	 * @param ref
+	 *            to resolve
+	 * @return the peeled id of the ref, or its id if it isn't peeled; may be
+	 *         {@code null} for an unborn ref
+	 */
+	private static ObjectId getTarget(Ref ref) {
+		Ref leaf = ref.getLeaf();
+		ObjectId peeled = leaf.getPeeledObjectId();
+		return peeled != null ? peeled : leaf.getObjectId();
 	}
 
 	private void markUninteresting(RefDatabase db, String prefix)
@@ -10,21 +10,57 @@
  *******************************************************************************/
 package org.eclipse.egit.ui.internal.history;
 
-import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 
-class GraphContentProvider implements IStructuredContentProvider {
-	private SWTCommit[] list;
+/**
+ * Supplies the rows of the virtual commit table from a
+ * {@link CommitListView}. Rows are materialized only when they become
+ * visible, so growing the list doesn't touch the commits already shown.
+ */
+class GraphContentProvider implements ILazyContentProvider {
+
+	private TableViewer viewer;
+
+	private CommitListView commits = CommitListView.EMPTY;
 
 	@Override
 	public void inputChanged(final Viewer newViewer, final Object oldInput,
 			final Object newInput) {
-		list = (SWTCommit[]) newInput;
+		viewer = (TableViewer) newViewer;
+		commits = newInput instanceof CommitListView
+				? (CommitListView) newInput
+				: CommitListView.EMPTY;
+		if (viewer != null && !viewer.getControl().isDisposed()) {
+			viewer.setItemCount(commits.size());
+		}
+	}
+
+	/**
+	 * Replaces the current commits by a longer view of the same list without
+	 * resetting the table. Rows already shown keep their position.
+	 *
+	 * @param grown
+	 *            view of the list, at least as long as the current one
+	 */
+	void append(CommitListView grown) {
+		commits = grown;
+		viewer.setItemCount(grown.size());
+	}
+
+	/**
+	 * @return the commits currently shown
+	 */
+	CommitListView getCommits() {
+		return commits;
 	}
 
 	@Override
-	public Object[] getElements(final Object inputElement) {
-		return list;
+	public void updateElement(int index) {
+		if (index < commits.size()) {
+			viewer.replace(commits.get(index), index);
+		}
 	}
 
 	@Override
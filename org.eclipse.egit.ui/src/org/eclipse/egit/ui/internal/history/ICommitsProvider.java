@@ -31,9 +31,9 @@ interface ICommitsProvider {
 	/**
 	 * Returns a list of commits to be searched.
 	 *
-	 * @return array of commits
+	 * @return view of the commits
 	 */
-	SWTCommit[] getCommits();
+	CommitListView getCommits();
 
 	/**
 	 * Returns the RevFlag to be used as highlight marker for matching commits.
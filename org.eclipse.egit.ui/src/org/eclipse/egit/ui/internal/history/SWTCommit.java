@@ -30,6 +30,9 @@ class SWTCommit extends PlotCommit<SWTCommitList.SWTLane>
 		implements IAdaptable, IRepositoryCommit {
 	Widget widget;
 
+	/** Position in the {@link CommitListView} this commit was added to. */
+	int listIndex = -1;
+
 	private SWTWalk walk;
 
 	SWTCommit(final AnyObjectId id, SWTWalk walk) {
@@ -40,6 +43,7 @@ class SWTCommit extends PlotCommit<SWTCommitList.SWTLane>
 	@Override
 	public void reset() {
 		widget = null;
+		listIndex = -1;
 		walk = null;
 		super.reset();
 	}
@@ -210,6 +210,21 @@ public void setPreferenceStore(IPreferenceStore store) {
 				UIText.GitPreferenceRoot_MaxPullThreadsCountTooltip);
 		addField(pullEditor);
 
+		IntegerFieldEditor pushEditor = new IntegerFieldEditor(
+				GitCorePreferences.core_maxPushThreadsCount,
+				UIText.GitPreferenceRoot_MaxPushThreadsCount,
+				remoteConnectionsGroup) {
+
+			@Override
+			public void setPreferenceStore(IPreferenceStore store) {
+				super.setPreferenceStore(
+						store == null ? null : getSecondaryPreferenceStore());
+			}
+		};
+		pushEditor.getLabelControl(remoteConnectionsGroup).setToolTipText(
+				UIText.GitPreferenceRoot_MaxPushThreadsCountTooltip);
+		addField(pushEditor);
+
 		IntegerFieldEditor timeoutEditor = new IntegerFieldEditor(
 				GitCorePreferences.core_remoteConnectionTimeout,
 				UIText.RemoteConnectionPreferencePage_TimeoutLabel,
@@ -259,6 +274,26 @@ public int getNumberOfControls() {
 				return 2;
 			}
 		});
+		BooleanFieldEditor watchWorkTrees = new BooleanFieldEditor(
+				GitCorePreferences.core_watchWorkTrees,
+				UIText.RefreshPreferencesPage_WatchWorkTrees,
+				repoChangeScannerGroup) {
+
+			@Override
+			public int getNumberOfControls() {
+				return 2;
+			}
+
+			@Override
+			public void setPreferenceStore(IPreferenceStore store) {
+				super.setPreferenceStore(
+						store == null ? null : getSecondaryPreferenceStore());
+			}
+		};
+		watchWorkTrees.getDescriptionControl(repoChangeScannerGroup)
+				.setToolTipText(
+						UIText.RefreshPreferencesPage_WatchWorkTreesTooltip);
+		addField(watchWorkTrees);
 		updateMargins(repoChangeScannerGroup);
 
 		Group mergeGroup = new Group(main, SWT.SHADOW_ETCHED_IN);
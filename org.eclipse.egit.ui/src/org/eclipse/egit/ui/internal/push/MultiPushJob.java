@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.push;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.egit.core.op.PushOperation;
+import org.eclipse.egit.core.op.PushOperationResult;
+import org.eclipse.egit.ui.Activator;
+import org.eclipse.egit.ui.JobFamilies;
+import org.eclipse.egit.ui.UIPreferences;
+import org.eclipse.egit.ui.internal.UIText;
+import org.eclipse.egit.ui.internal.jobs.RepositoryJob;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Background job pushing several repositories in parallel via
+ * {@link PushOperation#runAll}. The results are reported per repository as
+ * the individual {@link PushJob}s would.
+ */
+public class MultiPushJob extends RepositoryJob {
+
+	private final List<PushJob> jobs;
+
+	private final List<IAction> actions = new ArrayList<>();
+
+	/**
+	 * Creates a new {@link MultiPushJob}.
+	 *
+	 * @param name
+	 *            of the job
+	 * @param jobs
+	 *            describing the pushes; they are not scheduled themselves
+	 */
+	public MultiPushJob(String name, List<PushJob> jobs) {
+		super(name, UIPreferences.SHOW_PUSH_POPUP_SUCCESS);
+		this.jobs = jobs;
+	}
+
+	@Override
+	protected IStatus performJob(IProgressMonitor monitor) {
+		List<PushOperation> operations = new ArrayList<>(jobs.size());
+		for (PushJob job : jobs) {
+			operations.add(job.getOperation());
+		}
+		PushOperation.runAll(operations, monitor);
+
+		List<String> errors = new ArrayList<>();
+		for (PushJob job : jobs) {
+			PushOperationResult result = job.getOperation()
+					.getOperationResult();
+			if (!result.isSuccessfulConnectionForAnyURI()) {
+				errors.add(result.getErrorStringForAllURis());
+			}
+			IAction action = job.done();
+			if (action != null) {
+				actions.add(action);
+			}
+		}
+		if (errors.size() == jobs.size()) {
+			return new Status(IStatus.ERROR, Activator.PLUGIN_ID,
+					NLS.bind(UIText.PushJob_cantConnectToAny,
+							String.join("\n", errors))); //$NON-NLS-1$
+		}
+		return Status.OK_STATUS;
+	}
+
+	@Override
+	protected IAction getAction() {
+		if (actions.isEmpty()) {
+			return null;
+		}
+		if (actions.size() == 1) {
+			return actions.get(0);
+		}
+		return new Action(UIText.ShowPushResultAction_name) {
+
+			@Override
+			public void run() {
+				for (IAction action : actions) {
+					action.run();
+				}
+			}
+		};
+	}
+
+	@Override
+	protected IStatus getDeferredStatus() {
+		for (PushJob job : jobs) {
+			IStatus status = job.getDeferredStatus();
+			if (!status.isOK()) {
+				return status;
+			}
+		}
+		return super.getDeferredStatus();
+	}
+
+	@Override
+	public boolean belongsTo(Object family) {
+		if (JobFamilies.PUSH.equals(family)) {
+			return true;
+		}
+		return super.belongsTo(family);
+	}
+}
@@ -99,6 +99,21 @@ protected IStatus performJob(final IProgressMonitor monitor) {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Picks up the result of the operation after it has been run by someone
+	 * else, for instance by {@link PushOperation#runAll}.
+	 *
+	 * @return the action to show the result, or {@code null} if none
+	 */
+	IAction done() {
+		operationResult = operation.getOperationResult();
+		return getAction();
+	}
+
+	PushOperation getOperation() {
+		return operation;
+	}
+
 	@Override
 	protected IAction getAction() {
 		Repository repo = localDb;
@@ -223,27 +223,66 @@ private void createPushOperation() throws CoreException {
 	 * Starts the operation asynchronously.
 	 */
 	public void start() {
+		Job job = createPushJob(new EGitCredentialsProvider());
+		if (job != null) {
+			job.setUser(true);
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Starts several operations, typically for different repositories,
+	 * asynchronously in one job that runs them in parallel. Operations
+	 * without their own credentials provider share one, so that credentials
+	 * are asked for only once.
+	 *
+	 * @param operations
+	 *            to start
+	 */
+	public static void startAll(Collection<PushOperationUI> operations) {
+		if (operations.size() == 1) {
+			operations.iterator().next().start();
+			return;
+		}
+		CredentialsProvider credentials = new EGitCredentialsProvider();
+		List<PushJob> jobs = new ArrayList<>(operations.size());
+		for (PushOperationUI operation : operations) {
+			PushJob job = operation.createPushJob(credentials);
+			if (job != null) {
+				jobs.add(job);
+			}
+		}
+		if (jobs.isEmpty()) {
+			return;
+		}
+		Job job = new MultiPushJob(
+				NLS.bind(UIText.PushOperationUI_PushAllJobName,
+						Integer.valueOf(jobs.size())),
+				jobs);
+		job.setUser(true);
+		job.schedule();
+	}
+
+	private PushJob createPushJob(CredentialsProvider defaultCredentials) {
 		final Repository repo = repository;
 		if (repo == null) {
-			return;
+			return null;
 		}
 		try {
 			createPushOperation();
 		} catch (CoreException e) {
 			Activator.showErrorStatus(e.getLocalizedMessage(), e.getStatus());
-			return;
+			return null;
 		}
 		if (credentialsProvider != null) {
 			op.setCredentialsProvider(credentialsProvider);
 		} else {
-			op.setCredentialsProvider(new EGitCredentialsProvider());
+			op.setCredentialsProvider(defaultCredentials);
 		}
-		Job job = new PushJob(
+		return new PushJob(
 				NLS.bind(UIText.PushOperationUI_PushJobName, destinationString),
 				repo, op, expectedResult, destinationString,
 				showConfigureButton, pushMode);
-		job.setUser(true);
-		job.schedule();
 	}
 
 	/**
@@ -11,6 +11,7 @@
 package org.eclipse.egit.ui.internal.repository.tree.command;
 
 import java.io.File;
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.List;
 
@@ -26,7 +27,15 @@
 import org.eclipse.egit.ui.Activator;
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.repository.tree.RepositoryNode;
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.ui.handlers.HandlerUtil;
 import org.eclipse.ui.progress.IWorkbenchSiteProgressService;
 import org.eclipse.ui.services.IServiceLocator;
@@ -42,6 +51,9 @@ public class GarbageCollectCommand extends
 	 */
 	public static final String ID = "org.eclipse.egit.ui.team.GarbageCollect"; //$NON-NLS-1$
 
+	/** Number of commits walked to measure the history start-up time. */
+	private static final int TIMED_COMMITS = 1000;
+
 	/**
 	 * Execute garbage collection
 	 */
@@ -76,8 +88,19 @@ protected IStatus run(IProgressMonitor monitor) {
 					this.setName(name);
 					final GarbageCollectOperation op = new GarbageCollectOperation(
 							repo);
+					boolean trace = GitTraceLocation.HISTORYVIEW.isActive();
 					try {
+						long before = trace ? timeHistoryWalk(repo) : 0;
 						op.execute(progress.newChild(1));
+						if (trace) {
+							long after = timeHistoryWalk(repo);
+							GitTraceLocation.getTrace().trace(
+									GitTraceLocation.HISTORYVIEW.getLocation(),
+									"History walk of " + repo //$NON-NLS-1$
+											+ ": " + before //$NON-NLS-1$
+											+ " ms before gc, " + after //$NON-NLS-1$
+											+ " ms after gc"); //$NON-NLS-1$
+						}
 					} catch (CoreException e) {
 						Activator.logError(MessageFormat.format(
 								UIText.GarbageCollectCommand_failed, repo), e);
@@ -100,6 +123,48 @@ protected IStatus run(IProgressMonitor monitor) {
 		return null;
 	}
 
+	/**
+	 * Measures the time the history view needs to set its start points and
+	 * to load its first commits. Collecting garbage packs the refs together
+	 * with the peeled ids of annotated tags, and packs loose objects, both of
+	 * which make this faster.
+	 *
+	 * @param repository
+	 *            to walk the history of
+	 * @return the time taken in milliseconds, or -1 if the walk failed
+	 */
+	private static long timeHistoryWalk(Repository repository) {
+		long start = System.currentTimeMillis();
+		try (RevWalk walk = new RevWalk(repository)) {
+			walk.setRetainBody(false);
+			walk.sort(RevSort.COMMIT_TIME_DESC, true);
+			for (Ref ref : repository.getRefDatabase().getRefs()) {
+				Ref leaf = ref.getLeaf();
+				ObjectId id = leaf.getPeeledObjectId();
+				if (id == null) {
+					id = leaf.getObjectId();
+				}
+				if (id == null) {
+					continue;
+				}
+				try {
+					RevObject target = walk.peel(walk.parseAny(id));
+					if (target instanceof RevCommit) {
+						walk.markStart((RevCommit) target);
+					}
+				} catch (MissingObjectException e) {
+					// Ignore broken refs, as the history view does.
+				}
+			}
+			for (int i = 0; i < TIMED_COMMITS && walk.next() != null; i++) {
+				// Just walk
+			}
+		} catch (IOException e) {
+			return -1;
+		}
+		return System.currentTimeMillis() - start;
+	}
+
 	private String getRepositoryName(Repository repository) {
 		File directory;
 		if (!repository.isBare())
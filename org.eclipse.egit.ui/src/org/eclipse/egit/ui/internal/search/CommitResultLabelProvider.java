@@ -20,6 +20,7 @@
 import org.eclipse.egit.ui.internal.PreferenceBasedDateFormatter;
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.commit.RepositoryCommit;
+import org.eclipse.egit.ui.internal.search.CommitSearchResult.RepositoryStatistics;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.LabelProviderChangedEvent;
@@ -99,6 +100,17 @@ public StyledString getStyledText(Object element) {
 			styled.append(MessageFormat.format(" ({0})", //$NON-NLS-1$
 					Integer.valueOf(repository.getMatchCount())),
 					StyledString.COUNTER_STYLER);
+			RepositoryStatistics statistics = repository.getStatistics();
+			if (statistics != null) {
+				long millis = Math.max(1, statistics.getMillis());
+				styled.append(MessageFormat.format(
+						UIText.CommitResultLabelProvider_SectionThroughput,
+						Integer.valueOf(statistics.getCommits()),
+						Double.valueOf(millis / 1000.0),
+						Long.valueOf(statistics.getCommits() * 1000L
+								/ millis)),
+						StyledString.DECORATIONS_STYLER);
+			}
 		}
 		return styled;
 	}
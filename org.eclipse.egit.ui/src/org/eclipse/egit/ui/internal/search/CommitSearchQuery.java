@@ -15,6 +15,7 @@
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -23,30 +24,85 @@
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.egit.core.RepositoryCache;
+import org.eclipse.egit.core.internal.commitindex.CommitIndex;
+import org.eclipse.egit.core.internal.commitindex.CommitIndexCache;
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.commit.RepositoryCommit;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 
 /**
- * Commit search query class that runs a {@link RevWalk} for all
+ * Commit search query class that searches the commits of all
  * {@link Repository} objects included in the {@link CommitSearchSettings} and
- * matches all {@link RevCommit} objects against the search settings.
+ * matches them against the search settings.
+ * Repositories are searched in parallel, and matches are added to the
+ * {@link CommitSearchResult} as soon as they are found.
  */
 public class CommitSearchQuery implements ISearchQuery {
 
+	/**
+	 * JobGroup for the searches in the individual repositories.
+	 */
+	private static class SearchJobGroup extends JobGroup {
+
+		SearchJobGroup(String name, int maxThreads, int initialJobCount) {
+			super(name, maxThreads, initialJobCount);
+		}
+
+		/**
+		 * Always continue searching the other repositories
+		 */
+		@Override
+		protected boolean shouldCancel(IStatus lastCompletedJobResult,
+				int numberOfFailedJobs, int numberOfCancelledJobs) {
+			return false;
+		}
+	}
+
+	private final class SearchJob extends Job {
+
+		private final Repository repository;
+
+		private final Pattern pattern;
+
+		SearchJob(Repository repository, Pattern pattern) {
+			super(MessageFormat.format(
+					UIText.CommitSearchQuery_TaskSearchCommits,
+					repository.getDirectory().getParentFile().getName()));
+			this.repository = repository;
+			this.pattern = pattern;
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			long start = System.currentTimeMillis();
+			try {
+				int commits = walkRepository(repository, pattern, monitor);
+				result.setStatistics(repository, commits,
+						System.currentTimeMillis() - start);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (IOException e) {
+				org.eclipse.egit.ui.Activator.handleError(
+						"Error searching commits", e, true); //$NON-NLS-1$
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	private abstract class SearchMatcher {
 
-		abstract boolean matches(Pattern pattern, RevCommit commit);
+		abstract boolean matches(Pattern pattern, CommitIndex.Entry commit);
 
 		protected boolean matches(Pattern pattern, String input) {
 			return input != null && input.length() > 0
@@ -58,41 +114,33 @@ protected boolean matches(Pattern pattern, String input) {
 	private class AuthorMatcher extends SearchMatcher {
 
 		@Override
-		public boolean matches(Pattern pattern, RevCommit commit) {
-			PersonIdent author = commit.getAuthorIdent();
-			if (author != null)
-				return matches(pattern, author.getName())
-						|| matches(pattern, author.getEmailAddress());
-			else
-				return false;
+		public boolean matches(Pattern pattern, CommitIndex.Entry commit) {
+			return matches(pattern, commit.getAuthorName())
+					|| matches(pattern, commit.getAuthorEmail());
 		}
 	}
 
 	private class CommitterMatcher extends SearchMatcher {
 
 		@Override
-		public boolean matches(Pattern pattern, RevCommit commit) {
-			PersonIdent committer = commit.getCommitterIdent();
-			if (committer != null)
-				return matches(pattern, committer.getName())
-						|| matches(pattern, committer.getEmailAddress());
-			else
-				return false;
+		public boolean matches(Pattern pattern, CommitIndex.Entry commit) {
+			return matches(pattern, commit.getCommitterName())
+					|| matches(pattern, commit.getCommitterEmail());
 		}
 	}
 
 	private class MessageMatcher extends SearchMatcher {
 
 		@Override
-		public boolean matches(Pattern pattern, RevCommit commit) {
-			return matches(pattern, commit.getFullMessage());
+		public boolean matches(Pattern pattern, CommitIndex.Entry commit) {
+			return matches(pattern, commit.getMessage());
 		}
 	}
 
 	private class CommitNameMatcher extends SearchMatcher {
 
 		@Override
-		public boolean matches(Pattern pattern, RevCommit commit) {
+		public boolean matches(Pattern pattern, CommitIndex.Entry commit) {
 			return matches(pattern, commit.name());
 		}
 
@@ -101,17 +149,16 @@ public boolean matches(Pattern pattern, RevCommit commit) {
 	private class TreeMatcher extends SearchMatcher {
 
 		@Override
-		public boolean matches(Pattern pattern, RevCommit commit) {
-			RevTree tree = commit.getTree();
-			return tree != null ? matches(pattern, tree.name()) : false;
+		public boolean matches(Pattern pattern, CommitIndex.Entry commit) {
+			return matches(pattern, commit.getTree().name());
 		}
 	}
 
 	private class ParentMatcher extends SearchMatcher {
 
 		@Override
-		public boolean matches(Pattern pattern, RevCommit commit) {
-			for (RevCommit parent : commit.getParents())
+		public boolean matches(Pattern pattern, CommitIndex.Entry commit) {
+			for (ObjectId parent : commit.getParents())
 				if (matches(pattern, parent.name()))
 					return true;
 			return false;
@@ -175,62 +222,124 @@ public IStatus run(IProgressMonitor monitor)
 		Pattern pattern = PatternUtils.createPattern(
 				this.settings.getTextPattern(),
 				this.settings.isCaseSensitive(), this.settings.isRegExSearch());
-		List<String> paths = settings.getRepositories();
+		List<Repository> repositories = new ArrayList<>();
 		try {
-			for (String path : paths) {
-				if (monitor.isCanceled())
-					throw new OperationCanceledException();
-
+			for (String path : settings.getRepositories()) {
 				Repository repo = getRepository(path);
-				if (repo == null)
-					continue;
-
-				monitor.setTaskName(MessageFormat.format(
-						UIText.CommitSearchQuery_TaskSearchCommits, repo
-								.getDirectory().getParentFile().getName()));
-				walkRepository(repo, pattern, monitor);
+				if (repo != null)
+					repositories.add(repo);
 			}
 		} catch (IOException e) {
 			org.eclipse.egit.ui.Activator.handleError(
 					"Error searching commits", e, true); //$NON-NLS-1$
+			return Status.OK_STATUS;
+		}
+		if (repositories.isEmpty())
+			return Status.OK_STATUS;
+
+		int maxThreads = Math.min(repositories.size(),
+				Runtime.getRuntime().availableProcessors());
+		JobGroup group = new SearchJobGroup(UIText.CommitSearchQuery_Label,
+				maxThreads, repositories.size());
+		for (Repository repo : repositories) {
+			Job job = new SearchJob(repo, pattern);
+			job.setJobGroup(group);
+			job.schedule();
+		}
+		try {
+			group.join(0, monitor);
+		} catch (InterruptedException e) {
+			group.cancel();
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (OperationCanceledException e) {
+			group.cancel();
+			throw e;
 		}
 		return Status.OK_STATUS;
 	}
 
-	private void walkRepository(Repository repository, Pattern pattern,
+	/**
+	 * Searches a repository and adds matching commits to the result. The
+	 * commits are searched in the repository's {@link CommitIndex}, which is
+	 * brought up to date first; only matching commits are read from the
+	 * object database. If the index cannot be used, the commits are walked.
+	 *
+	 * @param repository
+	 *            to search
+	 * @param pattern
+	 *            to match the commits against
+	 * @param monitor
+	 *            for progress reporting and cancellation
+	 * @return the number of commits examined
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 */
+	private int walkRepository(Repository repository, Pattern pattern,
 			IProgressMonitor monitor) throws IOException {
+		int[] count = { 0 };
 		try (RevWalk walk = new RevWalk(repository)) {
-			walk.setRetainBody(true);
-			List<RevCommit> commits = new LinkedList<>();
-			if (this.settings.isAllBranches()) {
-				for (Ref ref : repository.getRefDatabase()
-						.getRefsByPrefix(Constants.R_HEADS))
-					if (!ref.isSymbolic())
-						commits.add(walk.parseCommit(ref.getObjectId()));
-				for (Ref ref : repository.getRefDatabase()
-						.getRefsByPrefix(Constants.R_REMOTES))
-					if (!ref.isSymbolic())
-						commits.add(walk.parseCommit(ref.getObjectId()));
-			} else {
-				ObjectId headCommit = repository.resolve(Constants.HEAD);
-				if (headCommit != null)
-					commits.add(walk.parseCommit(headCommit));
+			List<ObjectId> starts = getStartCommits(repository);
+			if (starts.isEmpty())
+				return 0;
+			CommitIndex index = CommitIndexCache.getInstance()
+					.getIndex(repository);
+			boolean indexed;
+			try {
+				index.update(repository, monitor);
+				indexed = index.forEachReachable(starts, entry -> {
+					count[0]++;
+					if (matches(pattern, entry))
+						result.addResult(new RepositoryCommit(repository,
+								walk.parseCommit(entry)));
+				}, monitor);
+			} catch (IOException e) {
+				org.eclipse.egit.ui.Activator.logWarning(
+						"Cannot search commit index", e); //$NON-NLS-1$
+				indexed = false;
 			}
+			if (indexed)
+				return count[0];
 
-			if (!commits.isEmpty()) {
-				walk.markStart(commits);
-				for (RevCommit commit : walk) {
-					if (monitor.isCanceled())
-						throw new OperationCanceledException();
-					for (SearchMatcher matcher : this.matchers)
-						if (matcher.matches(pattern, commit)) {
-							result.addResult(new RepositoryCommit(repository,
-									commit));
-							break;
-						}
-				}
+			walk.setRetainBody(true);
+			for (ObjectId start : starts)
+				walk.markStart(walk.parseCommit(start));
+			for (RevCommit commit : walk) {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				count[0]++;
+				if (matches(pattern, CommitIndex.Entry.of(commit)))
+					result.addResult(new RepositoryCommit(repository, commit));
 			}
 		}
+		return count[0];
+	}
+
+	private List<ObjectId> getStartCommits(Repository repository)
+			throws IOException {
+		List<ObjectId> commits = new ArrayList<>();
+		if (this.settings.isAllBranches()) {
+			for (Ref ref : repository.getRefDatabase()
+					.getRefsByPrefix(Constants.R_HEADS))
+				if (!ref.isSymbolic())
+					commits.add(ref.getObjectId());
+			for (Ref ref : repository.getRefDatabase()
+					.getRefsByPrefix(Constants.R_REMOTES))
+				if (!ref.isSymbolic())
+					commits.add(ref.getObjectId());
+		} else {
+			ObjectId headCommit = repository.resolve(Constants.HEAD);
+			if (headCommit != null)
+				commits.add(headCommit);
+		}
+		return commits;
+	}
+
+	private boolean matches(Pattern pattern, CommitIndex.Entry commit) {
+		for (SearchMatcher matcher : this.matchers)
+			if (matcher.matches(pattern, commit))
+				return true;
+		return false;
 	}
 
 	/**
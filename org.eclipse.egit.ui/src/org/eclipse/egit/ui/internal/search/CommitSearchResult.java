@@ -13,14 +13,20 @@
 package org.eclipse.egit.ui.internal.search;
 
 import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.commit.RepositoryCommit;
 import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.search.ui.ISearchQuery;
+import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
 import org.eclipse.search.ui.text.IEditorMatchAdapter;
 import org.eclipse.search.ui.text.IFileMatchAdapter;
+import org.eclipse.search.ui.text.Match;
+import org.eclipse.search.ui.text.MatchEvent;
 import org.eclipse.ui.model.IWorkbenchAdapter;
 
 /**
@@ -29,8 +35,55 @@
 public class CommitSearchResult extends AbstractTextSearchResult implements
 		IWorkbenchAdapter {
 
+	/**
+	 * Throughput of the search in one repository.
+	 */
+	public static class RepositoryStatistics {
+
+		private final int commits;
+
+		private final long millis;
+
+		RepositoryStatistics(int commits, long millis) {
+			this.commits = commits;
+			this.millis = millis;
+		}
+
+		/**
+		 * @return the number of commits searched
+		 */
+		public int getCommits() {
+			return commits;
+		}
+
+		/**
+		 * @return the time the search took, in milliseconds
+		 */
+		public long getMillis() {
+			return millis;
+		}
+	}
+
+	/**
+	 * Tells listeners that the statistics changed; it is a {@link MatchEvent}
+	 * without matches so that search result pages refresh their labels.
+	 */
+	private static class StatisticsEvent extends MatchEvent {
+
+		private static final long serialVersionUID = 1L;
+
+		StatisticsEvent(ISearchResult result) {
+			super(result);
+			setKind(ADDED);
+			setMatches(new Match[0]);
+		}
+	}
+
 	private ISearchQuery query;
 
+	private final Map<Repository, RepositoryStatistics> statistics =
+			new ConcurrentHashMap<>();
+
 	/**
 	 * Create commit search result
 	 *
@@ -52,6 +105,40 @@ public CommitSearchResult addResult(RepositoryCommit commit) {
 		return this;
 	}
 
+	/**
+	 * Records how long searching a repository took.
+	 *
+	 * @param repository
+	 *            that was searched
+	 * @param commits
+	 *            number of commits searched
+	 * @param millis
+	 *            time taken
+	 */
+	public void setStatistics(Repository repository, int commits,
+			long millis) {
+		statistics.put(repository, new RepositoryStatistics(commits, millis));
+		fireChange(new StatisticsEvent(this));
+	}
+
+	/**
+	 * Get the statistics of a repository.
+	 *
+	 * @param repository
+	 *            to get the statistics of
+	 * @return the statistics, or {@code null} if the search in the
+	 *         repository hasn't completed
+	 */
+	public RepositoryStatistics getStatistics(Repository repository) {
+		return statistics.get(repository);
+	}
+
+	@Override
+	public void removeAll() {
+		statistics.clear();
+		super.removeAll();
+	}
+
 	/**
 	 * @see org.eclipse.search.ui.ISearchResult#getLabel()
 	 */
@@ -78,11 +78,14 @@ private void configureViewer(StructuredViewer viewer) {
 			@Override
 			public Object[] getElements(Object element) {
 				if (getLayout() == FLAG_LAYOUT_TREE) {
+					CommitSearchResult result = (CommitSearchResult) getInput();
 					Map<Repository, RepositoryMatch> repos = new HashMap<>();
-					for (Object inputElement : getInput().getElements()) {
+					for (Object inputElement : result.getElements()) {
 						RepositoryCommit commit = (RepositoryCommit) inputElement;
 						repos.computeIfAbsent(commit.getRepository(),
-								RepositoryMatch::new).addCommit(commit);
+								repo -> new RepositoryMatch(repo).setStatistics(
+										result.getStatistics(repo)))
+								.addCommit(commit);
 					}
 					return repos.values().toArray();
 				}
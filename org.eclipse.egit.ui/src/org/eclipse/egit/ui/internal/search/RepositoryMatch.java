@@ -19,6 +19,7 @@
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.egit.ui.internal.UIIcons;
 import org.eclipse.egit.ui.internal.commit.RepositoryCommit;
+import org.eclipse.egit.ui.internal.search.CommitSearchResult.RepositoryStatistics;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.ui.model.IWorkbenchAdapter;
@@ -33,6 +34,8 @@ public class RepositoryMatch extends PlatformObject implements
 
 	private Repository repository;
 
+	private RepositoryStatistics statistics;
+
 	/**
 	 * Create repository match
 	 *
@@ -80,6 +83,27 @@ public RepositoryMatch addCommit(RepositoryCommit commit) {
 		return this;
 	}
 
+	/**
+	 * Set the search statistics
+	 *
+	 * @param statistics
+	 *            of the search in the repository, may be {@code null}
+	 * @return this match
+	 */
+	public RepositoryMatch setStatistics(RepositoryStatistics statistics) {
+		this.statistics = statistics;
+		return this;
+	}
+
+	/**
+	 * Get the search statistics
+	 *
+	 * @return the statistics, or {@code null} if not known
+	 */
+	public RepositoryStatistics getStatistics() {
+		return statistics;
+	}
+
 	/**
 	 * Get match count
 	 *
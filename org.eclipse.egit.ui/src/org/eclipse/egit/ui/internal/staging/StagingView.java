@@ -118,6 +118,7 @@
 import org.eclipse.egit.ui.internal.repository.tree.RepositoryTreeNode;
 import org.eclipse.egit.ui.internal.selection.MultiViewerSelectionProvider;
 import org.eclipse.egit.ui.internal.selection.RepositorySelectionProvider;
+import org.eclipse.egit.ui.internal.staging.StagingViewContentProvider.Delta;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.ActionContributionItem;
 import org.eclipse.jface.action.ControlContribution;
@@ -279,6 +280,9 @@ public class StagingView extends ViewPart
 
 	private static final String STAGING_SASH_FORM_WEIGHT = "STAGING_SASH_FORM_WEIGHT"; //$NON-NLS-1$
 
+	/** Key of the {@link ElementMap} of a staging viewer. */
+	private static final String ELEMENT_MAP = "elementMap"; //$NON-NLS-1$
+
 	private FormToolkit toolkit;
 
 	private Form form;
@@ -306,7 +310,7 @@ public class StagingView extends ViewPart
 	private Text filterText;
 
 	/** Remember compiled pattern of the current filter string for performance. */
-	private Pattern filterPattern;
+	private volatile Pattern filterPattern;
 
 	private SpellcheckableMessageArea commitMessageText;
 
@@ -638,15 +642,29 @@ static class StagingViewSearchThread extends Thread {
 
 		private int currentThreadIx;
 
+		private final Pattern pattern;
+
+		private final StagingViewContentProvider[] contentProviders;
+
 		public StagingViewSearchThread(StagingView stagingView) {
 			super("staging_view_filter_thread" + ++globalThreadIndex); //$NON-NLS-1$
 			this.stagingView = stagingView;
 			currentThreadIx = globalThreadIndex;
+			pattern = stagingView.getFilterPattern();
+			contentProviders = new StagingViewContentProvider[] {
+					stagingView.getContentProvider(stagingView.unstagedViewer),
+					stagingView.getContentProvider(stagingView.stagedViewer) };
 		}
 
 		@Override
 		public void run() {
 			synchronized (lock) {
+				if (currentThreadIx < globalThreadIndex)
+					return;
+				// Match the entries here, not in the UI thread
+				for (StagingViewContentProvider provider : contentProviders) {
+					provider.computeFilter(pattern);
+				}
 				if (currentThreadIx < globalThreadIndex)
 					return;
 				stagingView.refreshViewersPreservingExpandedElements();
@@ -2179,9 +2197,7 @@ private StagingViewContentProvider createStagingContentProvider(
 				this, unstaged) {
 
 			@Override
-			public void inputChanged(Viewer viewer, Object oldInput,
-					Object newInput) {
-				super.inputChanged(viewer, oldInput, newInput);
+			protected void contentChanged() {
 				if (unstaged) {
 					stageAllAction.setEnabled(getCount() > 0);
 					unstagedToolBarManager.update(true);
@@ -2438,20 +2454,43 @@ public boolean visit(TreeItem treeItem) {
 				// viewer before the input is changed.
 				StagingViewContentProvider contentProvider = getContentProvider(
 						stagingViewer);
-				ViewerComparator comparator = stagingViewer.getComparator();
-				Map<String, Object> oldPaths = buildElementMap(stagingViewer,
-						contentProvider, comparator);
+				Map<String, Object> oldPaths = getElementMap(stagingViewer,
+						contentProvider);
 
-				// Update the input.
-				stagingViewer.setInput(newInput);
+				Delta delta = contentProvider.update(newInput);
+				if (delta == null) {
+					// The content was replaced entirely
+					stagingViewer.setInput(newInput);
+				} else {
+					// Keep the input and apply only the differences
+					oldInput.indexDiff = newInput.indexDiff;
+					oldInput.changedResources = newInput.changedResources;
+					if (delta.isEmpty()) {
+						return;
+					}
+					if (presentation == Presentation.LIST) {
+						stagingViewer.remove(delta.removed.toArray());
+						stagingViewer.add(oldInput, delta.added.toArray());
+					} else {
+						Collection<StagingFolderEntry> targets = contentProvider
+								.getRefreshTargets(delta);
+						if (targets == null) {
+							stagingViewer.refresh();
+						} else {
+							for (StagingFolderEntry target : targets) {
+								stagingViewer.refresh(target);
+							}
+						}
+					}
+				}
 				// Restore the previous expansion state, if there is one.
-				if (previous != null) {
+				if (previous != null && presentation != Presentation.LIST) {
 					expandPreviousExpandedAndPaths(previous, stagingViewer,
 							additionalPaths);
 				}
 
-				Map<String, Object> newPaths = buildElementMap(stagingViewer,
-						contentProvider, comparator);
+				Map<String, Object> newPaths = getElementMap(stagingViewer,
+						contentProvider);
 				if (newPaths.isEmpty()) {
 					preserveTop = false;
 				} else {
@@ -2517,6 +2556,36 @@ public boolean visit(TreeItem treeItem) {
 		}
 	}
 
+	/**
+	 * Retrieves the paths of the elements visible in a staging viewer, reusing
+	 * the map built for the previous update if neither the content, nor the
+	 * presentation, the filter or the sort order changed since.
+	 *
+	 * @param stagingViewer
+	 *            to get the elements of
+	 * @param contentProvider
+	 *            of the viewer
+	 * @return map from paths to elements, in the order they are shown
+	 */
+	private Map<String, Object> getElementMap(TreeViewer stagingViewer,
+			StagingViewContentProvider contentProvider) {
+		StagingEntryComparator comparator = (StagingEntryComparator) stagingViewer
+				.getComparator();
+		ElementMap map = (ElementMap) stagingViewer.getData(ELEMENT_MAP);
+		StagingEntry[] content = contentProvider.getStagingEntries();
+		Pattern pattern = getFilterPattern();
+		if (map != null && map.content == content
+				&& map.presentation == presentation && map.pattern == pattern
+				&& map.alphabeticSort == comparator.isAlphabeticSort()) {
+			return map.paths;
+		}
+		map = new ElementMap(content, presentation, pattern,
+				comparator.isAlphabeticSort(), buildElementMap(stagingViewer,
+						contentProvider, comparator));
+		stagingViewer.setData(ELEMENT_MAP, map);
+		return map.paths;
+	}
+
 	private static Map<String, Object> buildElementMap(TreeViewer stagingViewer,
 			StagingViewContentProvider contentProvider,
 			ViewerComparator comparator) {
@@ -2588,6 +2657,33 @@ private enum StagingViewerUpdate {
 		ADDED, REMOVED, UNCHANGED
 	}
 
+	/**
+	 * The paths of the elements visible in a staging viewer, and what they
+	 * were computed from.
+	 */
+	private static class ElementMap {
+
+		final StagingEntry[] content;
+
+		final Presentation presentation;
+
+		final Pattern pattern;
+
+		final boolean alphabeticSort;
+
+		final Map<String, Object> paths;
+
+		ElementMap(StagingEntry[] content, Presentation presentation,
+				Pattern pattern, boolean alphabeticSort,
+				Map<String, Object> paths) {
+			this.content = content;
+			this.presentation = presentation;
+			this.pattern = pattern;
+			this.alphabeticSort = alphabeticSort;
+			this.paths = paths;
+		}
+	}
+
 	/**
 	 * Updates the selection depending on the type of change in the staging
 	 * viewer's state. If something has been removed, it returns
@@ -3968,7 +4064,7 @@ public void reload(final Repository repository) {
 				updateTitle(false);
 			}
 			final StagingViewUpdate update = new StagingViewUpdate(repository,
-					indexDiff, null);
+					indexDiff, getChangedPaths(repository, indexDiff));
 			Object[] unstagedExpanded = unstagedViewer
 					.getVisibleExpandedElements();
 			Object[] stagedExpanded = stagedViewer.getVisibleExpandedElements();
@@ -4155,6 +4251,24 @@ private IndexDiffData doReload(@NonNull	final Repository repository) {
 		return cacheEntry.getIndexDiff();
 	}
 
+	private static Collection<String> getChangedPaths(Repository repository,
+			IndexDiffData indexDiff) {
+		if (indexDiff == null) {
+			return null;
+		}
+		Set<String> paths = new HashSet<>();
+		for (IResource resource : indexDiff.getChangedResources()) {
+			RepositoryMapping mapping = RepositoryMapping.getMapping(resource);
+			if (mapping != null && mapping.getRepository() == repository) {
+				String path = mapping.getRepoRelativePath(resource);
+				if (path != null) {
+					paths.add(path);
+				}
+			}
+		}
+		return paths;
+	}
+
 	private void expandPreviousExpandedAndPaths(Object[] previous,
 			TreeViewer viewer, Set<IPath> additionalPaths) {
 
@@ -28,10 +28,10 @@
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
@@ -41,9 +41,11 @@
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
+import org.eclipse.egit.ui.internal.staging.StagingEntry.State;
 import org.eclipse.egit.ui.internal.staging.StagingView.Presentation;
 import org.eclipse.egit.ui.internal.staging.StagingView.StagingViewUpdate;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jgit.lib.IndexDiff.StageState;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.ui.model.WorkbenchContentProvider;
 
@@ -51,8 +53,17 @@
  * ContentProvider for staged and unstaged tree nodes
  */
 public class StagingViewContentProvider extends WorkbenchContentProvider {
-	/** All files for the section (staged or unstaged). */
-	private StagingEntry[] content = new StagingEntry[0];
+	/**
+	 * All files for the section (staged or unstaged). Never sorted in place,
+	 * since the filter is computed in a background thread.
+	 */
+	private volatile StagingEntry[] content = new StagingEntry[0];
+
+	/** Result of the filter computed in the background, if any. */
+	private volatile FilterResult filterResult;
+
+	/** The entries of {@link #content} by path. */
+	private Map<String, StagingEntry> entries = new HashMap<>();
 
 	/** Root nodes for the "Tree" presentation. */
 	private Object[] treeRoots;
@@ -60,6 +71,18 @@ public class StagingViewContentProvider extends WorkbenchContentProvider {
 	/** Root nodes for the "Compact Tree" presentation. */
 	private Object[] compactTreeRoots;
 
+	/**
+	 * Root nodes for the "Tree" presentation before the last incremental
+	 * update; their unchanged folders are reused.
+	 */
+	private Object[] previousTreeRoots;
+
+	/**
+	 * Root nodes for the "Compact Tree" presentation before the last
+	 * incremental update; their unchanged folders are reused.
+	 */
+	private Object[] previousCompactTreeRoots;
+
 	private StagingView stagingView;
 	private boolean unstagedSection;
 
@@ -160,21 +183,36 @@ Object[] getTreePresentationRoots() {
 	}
 
 	private Object[] getCompactTreeRoots() {
-		if (compactTreeRoots == null)
-			compactTreeRoots = calculateTreePresentationRoots(true);
+		if (compactTreeRoots == null) {
+			compactTreeRoots = calculateTreePresentationRoots(true,
+					previousCompactTreeRoots);
+			previousCompactTreeRoots = null;
+		}
 		return compactTreeRoots;
 	}
 
 	private Object[] getTreeRoots() {
-		if (treeRoots == null)
-			treeRoots = calculateTreePresentationRoots(false);
+		if (treeRoots == null) {
+			treeRoots = calculateTreePresentationRoots(false,
+					previousTreeRoots);
+			previousTreeRoots = null;
+		}
 		return treeRoots;
 	}
 
-	private Object[] calculateTreePresentationRoots(boolean compact) {
+	private Object[] calculateTreePresentationRoots(boolean compact,
+			Object[] previousRoots) {
 		if (content == null || content.length == 0)
 			return new Object[0];
 
+		// Folders whose path and label didn't change are reused, so that the
+		// viewer only needs to refresh the folders below which the tree
+		// changed.
+		Map<IPath, StagingFolderEntry> reusable = new HashMap<>();
+		if (previousRoots != null) {
+			collectFolders(previousRoots, reusable);
+		}
+
 		List<Object> roots = new ArrayList<>();
 		Map<IPath, List<Object>> childrenForPath = new HashMap<>();
 
@@ -223,14 +261,15 @@ private Object[] calculateTreePresentationRoots(boolean compact) {
 				parent = parent.removeLastSegments(1);
 			if (parent.segmentCount() == 0) {
 				// Parent is root
-				StagingFolderEntry folderEntry = new StagingFolderEntry(
+				StagingFolderEntry folderEntry = getFolderEntry(reusable,
 						workingDirectory, folderPath, folderPath.toString());
+				folderEntry.setParent(null);
 				folderEntries.add(folderEntry);
 				roots.add(folderEntry);
 			} else {
 				// Parent is existing node
 				String label = folderPath.makeRelativeTo(parent).toString();
-				StagingFolderEntry folderEntry = new StagingFolderEntry(
+				StagingFolderEntry folderEntry = getFolderEntry(reusable,
 						workingDirectory, folderPath, label);
 				folderEntries.add(folderEntry);
 				addChild(childrenForPath, parent, folderEntry);
@@ -255,6 +294,119 @@ else if (child instanceof StagingFolderEntry)
 		return roots.toArray();
 	}
 
+	private static StagingFolderEntry getFolderEntry(
+			Map<IPath, StagingFolderEntry> reusable, IPath workingDirectory,
+			IPath path, String label) {
+		StagingFolderEntry folderEntry = reusable.get(path);
+		if (folderEntry != null && folderEntry.getLabel().equals(label)) {
+			return folderEntry;
+		}
+		return new StagingFolderEntry(workingDirectory, path, label);
+	}
+
+	private static void collectFolders(Object[] elements,
+			Map<IPath, StagingFolderEntry> folders) {
+		for (Object element : elements) {
+			if (element instanceof StagingFolderEntry) {
+				StagingFolderEntry folder = (StagingFolderEntry) element;
+				folders.put(folder.getPath(), folder);
+				collectFolders(folder.getChildren(), folders);
+			}
+		}
+	}
+
+	private static Map<IPath, StagingFolderEntry> getFolders(Object[] roots) {
+		if (roots == null) {
+			return null;
+		}
+		Map<IPath, StagingFolderEntry> folders = new HashMap<>();
+		collectFolders(roots, folders);
+		return folders;
+	}
+
+	/**
+	 * Determines the folders of the current tree presentation below which
+	 * an incremental update changed the tree. Refreshing these folders in
+	 * the viewer is enough to show the update.
+	 *
+	 * @param delta
+	 *            returned by {@link #update(StagingViewUpdate)}
+	 * @return the folders to refresh, none of which is an ancestor of
+	 *         another, or {@code null} if the roots of the tree changed
+	 */
+	Collection<StagingFolderEntry> getRefreshTargets(Delta delta) {
+		Map<IPath, StagingFolderEntry> oldFolders = stagingView
+				.getPresentation() == Presentation.COMPACT_TREE
+						? delta.compactTreeFolders
+						: delta.treeFolders;
+		if (oldFolders == null) {
+			return null;
+		}
+		Map<IPath, StagingFolderEntry> newFolders = new HashMap<>();
+		collectFolders(getTreePresentationRoots(), newFolders);
+		Set<StagingFolderEntry> targets = new HashSet<>();
+		for (StagingEntry entry : delta.added) {
+			if (!addRefreshTarget(entry, newFolders, oldFolders, targets)) {
+				return null;
+			}
+		}
+		for (StagingEntry entry : delta.removed) {
+			if (!addRefreshTarget(entry, oldFolders, newFolders, targets)) {
+				return null;
+			}
+		}
+		List<StagingFolderEntry> result = new ArrayList<>();
+		for (StagingFolderEntry target : targets) {
+			StagingFolderEntry parent = target.getParent();
+			while (parent != null && !targets.contains(parent)) {
+				parent = parent.getParent();
+			}
+			if (parent == null) {
+				result.add(target);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the deepest folder above an added or removed entry whose own
+	 * ancestors are all unchanged.
+	 *
+	 * @param entry
+	 *            added or removed
+	 * @param folders
+	 *            of the tree containing the entry, by path
+	 * @param otherFolders
+	 *            of the other tree, by path
+	 * @param targets
+	 *            to add the folder to
+	 * @return {@code false} if there is no such folder since the entry's top
+	 *         level folder changed, or the entry is at the top level itself
+	 */
+	private static boolean addRefreshTarget(StagingEntry entry,
+			Map<IPath, StagingFolderEntry> folders,
+			Map<IPath, StagingFolderEntry> otherFolders,
+			Set<StagingFolderEntry> targets) {
+		IPath parentPath = entry.getParentPath();
+		StagingFolderEntry target = null;
+		for (int i = 1; i <= parentPath.segmentCount(); i++) {
+			IPath path = parentPath.uptoSegment(i);
+			StagingFolderEntry folder = folders.get(path);
+			if (folder == null) {
+				continue; // Folded into a node of the compact tree
+			}
+			if (folder != otherFolders.get(path)) {
+				break;
+			}
+			target = folder;
+		}
+		if (target == null) {
+			return false;
+		}
+		targets.add(target);
+		return true;
+	}
+
 	private static void addChild(Map<IPath, List<Object>> childrenForPath,
 			IPath path, Object child) {
 		List<Object> children = childrenForPath.computeIfAbsent(path,
@@ -264,8 +416,11 @@ private static void addChild(Map<IPath, List<Object>> childrenForPath,
 
 	int getShownCount() {
 		Pattern filterPattern = getFilterPattern();
+		FilterResult result = getFilterResult(filterPattern);
 		if (filterPattern == null) {
 			return getCount();
+		} else if (result != null) {
+			return result.matching.size();
 		} else {
 			int shownCount = 0;
 			for (StagingEntry entry : content) {
@@ -300,7 +455,12 @@ private boolean matches(StagingEntry entry, Pattern pattern) {
 	}
 
 	boolean isInFilter(StagingEntry stagingEntry) {
-		return matches(stagingEntry, getFilterPattern());
+		Pattern pattern = getFilterPattern();
+		FilterResult result = getFilterResult(pattern);
+		if (result != null) {
+			return result.matching.contains(stagingEntry);
+		}
+		return matches(stagingEntry, pattern);
 	}
 
 	private Pattern getFilterPattern() {
@@ -312,9 +472,60 @@ boolean hasVisibleChildren(StagingFolderEntry folder) {
 		if (pattern == null) {
 			return true;
 		}
+		FilterResult result = getFilterResult(pattern);
+		if (result != null) {
+			return result.folders.contains(folder.getPath().toString());
+		}
 		return hasVisibleDescendants(folder, pattern);
 	}
 
+	/**
+	 * Determines which entries and folders match a filter pattern. Intended
+	 * to be called off the UI thread; the viewer's filter then only looks up
+	 * the result instead of matching every entry and searching every folder
+	 * while the viewer is refreshed.
+	 *
+	 * @param pattern
+	 *            to match; {@code null} for no filter
+	 */
+	void computeFilter(Pattern pattern) {
+		if (pattern == null) {
+			filterResult = null;
+			return;
+		}
+		StagingEntry[] snapshot = content;
+		Set<StagingEntry> matching = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+		Set<String> folders = new HashSet<>();
+		for (StagingEntry entry : snapshot) {
+			if (!matches(entry, pattern)) {
+				continue;
+			}
+			matching.add(entry);
+			String path = entry.getPath();
+			int slash = path.lastIndexOf('/');
+			while (slash > 0 && folders.add(path.substring(0, slash))) {
+				slash = path.lastIndexOf('/', slash - 1);
+			}
+		}
+		filterResult = new FilterResult(pattern, snapshot, matching, folders);
+	}
+
+	/**
+	 * @param pattern
+	 *            the filter result must be for
+	 * @return the computed filter result if it is for the given pattern and
+	 *         the current content, otherwise {@code null}
+	 */
+	private FilterResult getFilterResult(Pattern pattern) {
+		FilterResult result = filterResult;
+		if (result != null && result.pattern == pattern
+				&& result.content == content) {
+			return result;
+		}
+		return null;
+	}
+
 	private boolean hasVisibleDescendants(StagingFolderEntry folder,
 			Pattern pattern) {
 		for (Object child : folder.getChildren()) {
@@ -339,88 +550,212 @@ public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 		if (!(newInput instanceof StagingViewUpdate))
 			return;
 
-		StagingViewUpdate update = (StagingViewUpdate) newInput;
+		update((StagingViewUpdate) newInput);
+	}
 
+	/**
+	 * Updates the content for a new {@link IndexDiffData}. If the repository
+	 * didn't change, entries whose path and state are unchanged are kept, so
+	 * that only the differences to the previous content need to be shown.
+	 * Entries for the {@link StagingViewUpdate#changedResources} are always
+	 * replaced, since the workspace file they cached may have changed.
+	 *
+	 * @param update
+	 *            describing the new content
+	 * @return the entries added and removed, or {@code null} if the content
+	 *         was replaced entirely
+	 */
+	Delta update(StagingViewUpdate update) {
 		if (update.repository == null || update.indexDiff == null) {
 			content = new StagingEntry[0];
+			entries = new HashMap<>();
 			treeRoots = new Object[0];
 			compactTreeRoots = new Object[0];
+			previousTreeRoots = null;
+			previousCompactTreeRoots = null;
 			rootDetermined = false;
 			rootContainer = null;
-			return;
+			contentChanged();
+			return null;
 		}
 
-		if (update.repository != repository) {
+		boolean incremental = update.repository == repository;
+		if (!incremental) {
+			entries = new HashMap<>();
 			treeRoots = null;
 			compactTreeRoots = null;
+			previousTreeRoots = null;
+			previousCompactTreeRoots = null;
 			rootDetermined = false;
 			rootContainer = null;
 		}
 
 		repository = update.repository;
 
-		Set<StagingEntry> nodes = new TreeSet<>(
-				(a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getPath(),
-						b.getPath()));
-
-		if (update.changedResources != null
-				&& !update.changedResources.isEmpty()) {
-			nodes.addAll(Arrays.asList(content));
-			for (String res : update.changedResources)
-				for (StagingEntry entry : content)
-					if (entry.getPath().equals(res))
-						nodes.remove(entry);
-		}
-
+		Map<String, StagingEntry> next = new HashMap<>(
+				Math.max(16, entries.size() * 4 / 3));
 		final IndexDiffData indexDiff = update.indexDiff;
 		if (unstagedSection) {
 			for (String file : indexDiff.getMissing())
 				if (indexDiff.getChanged().contains(file))
-					nodes.add(new StagingEntry(repository, MISSING_AND_CHANGED,
-							file, s -> null));
+					addEntry(next, indexDiff, MISSING_AND_CHANGED, file, null);
 				else
-					nodes.add(new StagingEntry(repository, MISSING, file,
-							s -> null));
+					addEntry(next, indexDiff, MISSING, file, null);
 			for (String file : indexDiff.getModified())
 				if (indexDiff.getChanged().contains(file))
-					nodes.add(new StagingEntry(repository, MODIFIED_AND_CHANGED,
-							file, this::getFile));
+					addEntry(next, indexDiff, MODIFIED_AND_CHANGED, file, null);
 				else if (indexDiff.getAdded().contains(file))
-					nodes.add(new StagingEntry(repository, MODIFIED_AND_ADDED,
-							file, this::getFile));
+					addEntry(next, indexDiff, MODIFIED_AND_ADDED, file, null);
 				else
-					nodes.add(new StagingEntry(repository, MODIFIED, file,
-							this::getFile));
+					addEntry(next, indexDiff, MODIFIED, file, null);
 			for (String file : indexDiff.getUntracked())
-				nodes.add(new StagingEntry(repository, UNTRACKED, file,
-						this::getFile));
-			for (String file : indexDiff.getConflicting()) {
-				StagingEntry newEntry = new StagingEntry(repository,
-						CONFLICTING, file, this::getFile);
-				newEntry.setConflictType(
+				addEntry(next, indexDiff, UNTRACKED, file, null);
+			for (String file : indexDiff.getConflicting())
+				addEntry(next, indexDiff, CONFLICTING, file,
 						indexDiff.getConflictStates().get(file));
-				nodes.add(newEntry);
-			}
 		} else {
 			for (String file : indexDiff.getAdded())
-				nodes.add(new StagingEntry(repository, ADDED, file,
-						this::getFile));
+				addEntry(next, indexDiff, ADDED, file, null);
 			for (String file : indexDiff.getChanged())
-				nodes.add(new StagingEntry(repository, CHANGED, file,
-						this::getFile));
+				addEntry(next, indexDiff, CHANGED, file, null);
 			for (String file : indexDiff.getRemoved())
-				nodes.add(new StagingEntry(repository, REMOVED, file,
-						this::getFile));
+				addEntry(next, indexDiff, REMOVED, file, null);
 		}
 
-		setSymlinkFileMode(indexDiff, nodes);
-		setSubmoduleFileMode(indexDiff, nodes);
-
-		content = nodes.toArray(new StagingEntry[0]);
-		Arrays.sort(content, comparator);
+		if (incremental && update.changedResources != null) {
+			for (String path : update.changedResources) {
+				StagingEntry entry = next.get(path);
+				if (entry != null && entry == entries.get(path)) {
+					next.put(path, newEntry(entry.getState(), path,
+							entry.getConflictType(), entry.isSymlink(),
+							entry.isSubmodule()));
+				}
+			}
+		}
 
+		List<StagingEntry> added = new ArrayList<>();
+		for (StagingEntry entry : next.values()) {
+			if (entries.get(entry.getPath()) != entry) {
+				added.add(entry);
+			}
+		}
+		List<StagingEntry> removed = new ArrayList<>();
+		for (StagingEntry entry : entries.values()) {
+			if (next.get(entry.getPath()) != entry) {
+				removed.add(entry);
+			}
+		}
+		entries = next;
+
+		if (!incremental) {
+			StagingEntry[] sorted = next.values()
+					.toArray(new StagingEntry[0]);
+			Arrays.sort(sorted, comparator);
+			content = sorted;
+			contentChanged();
+			return null;
+		}
+		if (added.isEmpty() && removed.isEmpty()) {
+			contentChanged();
+			return new Delta(added, removed, null, null);
+		}
+		content = merge(content, next, added);
+		if (treeRoots != null) {
+			previousTreeRoots = treeRoots;
+		}
+		if (compactTreeRoots != null) {
+			previousCompactTreeRoots = compactTreeRoots;
+		}
 		treeRoots = null;
 		compactTreeRoots = null;
+		contentChanged();
+		// Collected now since reused folders get new children later
+		return new Delta(added, removed, getFolders(previousTreeRoots),
+				getFolders(previousCompactTreeRoots));
+	}
+
+	/**
+	 * Called after the content has been updated.
+	 */
+	protected void contentChanged() {
+		// Nothing by default
+	}
+
+	/**
+	 * Puts a new entry for a path into the map, or the current one if it
+	 * still has the same state. Does nothing if there already is an entry for
+	 * the path.
+	 *
+	 * @param next
+	 *            map from paths to the entries of the new content
+	 * @param indexDiff
+	 *            the new content is computed from
+	 * @param state
+	 *            of the entry
+	 * @param path
+	 *            of the entry
+	 * @param conflictType
+	 *            of the entry, {@code null} if not conflicting
+	 */
+	private void addEntry(Map<String, StagingEntry> next,
+			IndexDiffData indexDiff, State state, String path,
+			StageState conflictType) {
+		if (next.containsKey(path)) {
+			return;
+		}
+		boolean symlink = indexDiff.getSymlinks().contains(path);
+		boolean submodule = indexDiff.getSubmodules().contains(path);
+		StagingEntry entry = entries.get(path);
+		if (entry == null || entry.getState() != state
+				|| entry.getConflictType() != conflictType
+				|| entry.isSymlink() != symlink
+				|| entry.isSubmodule() != submodule) {
+			entry = newEntry(state, path, conflictType, symlink, submodule);
+		}
+		next.put(path, entry);
+	}
+
+	private StagingEntry newEntry(State state, String path,
+			StageState conflictType, boolean symlink, boolean submodule) {
+		StagingEntry entry = new StagingEntry(repository, state, path,
+				state == MISSING || state == MISSING_AND_CHANGED ? s -> null
+						: this::getFile);
+		entry.setConflictType(conflictType);
+		entry.setSymlink(symlink);
+		entry.setSubmodule(submodule);
+		return entry;
+	}
+
+	/**
+	 * Merges the sorted entries still present with the added ones.
+	 *
+	 * @param sorted
+	 *            previous entries, sorted
+	 * @param current
+	 *            map from paths to the entries of the new content
+	 * @param added
+	 *            entries not in {@code sorted}
+	 * @return all entries of {@code current}, sorted
+	 */
+	private StagingEntry[] merge(StagingEntry[] sorted,
+			Map<String, StagingEntry> current, List<StagingEntry> added) {
+		added.sort(comparator);
+		StagingEntry[] result = new StagingEntry[current.size()];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (j < added.size() || i < sorted.length) {
+			if (i < sorted.length
+					&& current.get(sorted[i].getPath()) != sorted[i]) {
+				i++; // removed
+			} else if (j == added.size() || i < sorted.length
+					&& comparator.compare(sorted[i], added.get(j)) <= 0) {
+				result[k++] = sorted[i++];
+			} else {
+				result[k++] = added.get(j++);
+			}
+		}
+		return result;
 	}
 
 	@Override
@@ -448,7 +783,9 @@ public int getCount() {
 	void setFileNameMode(boolean enable) {
 		comparator.fileNameMode = enable;
 		if (content != null) {
-			Arrays.sort(content, comparator);
+			StagingEntry[] sorted = content.clone();
+			Arrays.sort(sorted, comparator);
+			content = sorted;
 		}
 	}
 
@@ -494,43 +831,58 @@ public int compare(Object o1, Object o2) {
 	}
 
 	/**
-	 * Set the symlink file mode of the given StagingEntries.
-	 *
-	 * @param indexDiff
-	 *            the index diff
-	 * @param entries
-	 *            the given StagingEntries
+	 * The entries added and removed by an incremental update. An entry whose
+	 * state changed appears in both lists.
 	 */
-	private void setSymlinkFileMode(IndexDiffData indexDiff,
-			Collection<StagingEntry> entries) {
-		final Set<String> symlinks = indexDiff.getSymlinks();
-		if (symlinks.isEmpty()) {
-			return;
+	static class Delta {
+
+		final List<StagingEntry> added;
+
+		final List<StagingEntry> removed;
+
+		/**
+		 * Folders of the "Tree" presentation before the update by path, or
+		 * {@code null} if unknown.
+		 */
+		final Map<IPath, StagingFolderEntry> treeFolders;
+
+		/**
+		 * Folders of the "Compact Tree" presentation before the update by
+		 * path, or {@code null} if unknown.
+		 */
+		final Map<IPath, StagingFolderEntry> compactTreeFolders;
+
+		Delta(List<StagingEntry> added, List<StagingEntry> removed,
+				Map<IPath, StagingFolderEntry> treeFolders,
+				Map<IPath, StagingFolderEntry> compactTreeFolders) {
+			this.added = added;
+			this.removed = removed;
+			this.treeFolders = treeFolders;
+			this.compactTreeFolders = compactTreeFolders;
 		}
-		for (StagingEntry stagingEntry : entries) {
-			if (symlinks.contains(stagingEntry.getPath()))
-				stagingEntry.setSymlink(true);
+
+		boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty();
 		}
 	}
 
-	/**
-	 * Set the submodule file mode (equivalent to FileMode.GITLINK) of the given
-	 * StagingEntries.
-	 *
-	 * @param indexDiff
-	 *            the index diff
-	 * @param entries
-	 *            the given StagingEntries
-	 */
-	private void setSubmoduleFileMode(IndexDiffData indexDiff,
-			Collection<StagingEntry> entries) {
-		final Set<String> submodules = indexDiff.getSubmodules();
-		if (submodules.isEmpty()) {
-			return;
-		}
-		for (StagingEntry stagingEntry : entries) {
-			if (submodules.contains(stagingEntry.getPath()))
-				stagingEntry.setSubmodule(true);
+	private static class FilterResult {
+
+		final Pattern pattern;
+
+		final StagingEntry[] content;
+
+		final Set<StagingEntry> matching;
+
+		/** Paths of the folders containing matching entries. */
+		final Set<String> folders;
+
+		FilterResult(Pattern pattern, StagingEntry[] content,
+				Set<StagingEntry> matching, Set<String> folders) {
+			this.pattern = pattern;
+			this.content = content;
+			this.matching = matching;
+			this.folders = folders;
 		}
 	}
 }